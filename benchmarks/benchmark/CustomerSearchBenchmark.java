@@ -0,0 +1,82 @@
+package benchmark;
+
+import entity.Customer;
+import index.CustomerSearchIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for top-k customer search over a synthetic customer base.
+ * Run with a large heap (for example {@code -Xmx8g}) at the default 5M customers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class CustomerSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"aarav", "vivaan", "aditya", "vihaan", "arjun", "sai", "reyansh",
+            "ananya", "diya", "isha", "kavya", "meera", "priya", "riya", "sara", "tara"};
+    private static final String[] LAST_NAMES = {"sharma", "verma", "gupta", "singh", "kumar", "patel", "reddy",
+            "iyer", "nair", "das", "bose", "mehta", "joshi", "khan", "rao", "shah"};
+
+    @Param({"5000000"})
+    public int customers;
+
+    private CustomerSearchIndex index;
+    private String[] queries;
+    private int next;
+
+    /**
+     * Builds the index and a pool of realistic queries (surname, email and phone prefixes).
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new CustomerSearchIndex();
+        for (int id = 1; id <= customers; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + random.nextInt(1000);
+            index.add(new Customer(id, first, last, first + "." + last + id + "@mail.com",
+                    String.valueOf(9_000_000_000L + id)));
+        }
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            int id = 1 + random.nextInt(customers);
+            switch (i % 3) {
+                case 0:
+                    queries[i] = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + random.nextInt(100);
+                    break;
+                case 1:
+                    queries[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + ".";
+                    break;
+                default:
+                    queries[i] = String.valueOf(9_000_000_000L + id).substring(0, 8);
+            }
+        }
+    }
+
+    /**
+     * Measures a top-10 search.
+     *
+     * @return The matches, returned so JMH does not eliminate the call.
+     */
+    @Benchmark
+    public List<Customer> searchTop10() {
+        return index.search(queries[next++ & (queries.length - 1)], 10);
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Dates;
+
+/**
+ * JMH benchmark for the lease path's date handling: parsing booking dates and turning a lease period into a
+ * day count. The legacy variants reproduce the old code, which built a {@code SimpleDateFormat} per request
+ * and converted {@link Date} to {@link LocalDate} through the system time zone; the others use
+ * {@link Dates#parse(CharSequence)} and epoch-day arithmetic. Run with {@code -prof gc} to compare
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1)
+public class DateBenchmark {
+
+    @Param({"4096"})
+    public int size;
+
+    private String[] texts;
+    private Date[] legacyStarts;
+    private Date[] legacyEnds;
+    private LocalDate[] starts;
+    private LocalDate[] ends;
+
+    /**
+     * Builds booking dates spread over two years.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        ZoneId zone = ZoneId.systemDefault();
+        texts = new String[size];
+        legacyStarts = new Date[size];
+        legacyEnds = new Date[size];
+        starts = new LocalDate[size];
+        ends = new LocalDate[size];
+        for (int i = 0; i < size; i++) {
+            LocalDate start = first.plusDays(random.nextInt(730));
+            LocalDate end = start.plusDays(1 + random.nextInt(60));
+            texts[i] = start.toString();
+            starts[i] = start;
+            ends[i] = end;
+            legacyStarts[i] = Date.from(start.atStartOfDay(zone).toInstant());
+            legacyEnds[i] = Date.from(end.atStartOfDay(zone).toInstant());
+        }
+    }
+
+    /**
+     * Parses every date with a new {@code SimpleDateFormat}, as the console and API used to.
+     *
+     * @return A value derived from the parsed dates.
+     * @throws ParseException Never for the generated input.
+     */
+    @Benchmark
+    public long parseLegacy() throws ParseException {
+        long sum = 0;
+        for (String text : texts) {
+            sum += new SimpleDateFormat("yyyy-MM-dd").parse(text).getTime();
+        }
+        return sum;
+    }
+
+    /**
+     * Parses every date with {@link Dates#parse(CharSequence)}.
+     *
+     * @return A value derived from the parsed dates.
+     */
+    @Benchmark
+    public long parseDates() {
+        long sum = 0;
+        for (String text : texts) {
+            sum += Dates.parse(text).toEpochDay();
+        }
+        return sum;
+    }
+
+    /**
+     * Counts lease days by converting {@link Date} to {@link LocalDate} through the time zone.
+     *
+     * @return The total number of days.
+     */
+    @Benchmark
+    public long daysLegacy() {
+        ZoneId zone = ZoneId.systemDefault();
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            LocalDate start = Instant.ofEpochMilli(legacyStarts[i].getTime()).atZone(zone).toLocalDate();
+            LocalDate end = Instant.ofEpochMilli(legacyEnds[i].getTime()).atZone(zone).toLocalDate();
+            sum += Math.max(1, end.toEpochDay() - start.toEpochDay());
+        }
+        return sum;
+    }
+
+    /**
+     * Counts lease days by subtracting epoch days.
+     *
+     * @return The total number of days.
+     */
+    @Benchmark
+    public long daysEpoch() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += Math.max(1, ends[i].toEpochDay() - starts[i].toEpochDay());
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,120 @@
+package benchmark;
+
+import entity.Lease;
+import entity.Payment;
+import export.ByteSink;
+import export.EntityCsvWriter;
+import export.EntityJsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for exporting leases and payments, comparing the entities' {@code toString()} output
+ * through a buffered writer with the {@link EntityJsonWriter} and {@link EntityCsvWriter} serializers.
+ * Output goes to a discarding stream so only serialization is measured; run with {@code -prof gc} to
+ * compare allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1)
+public class ExportBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Lease[] leases;
+    private Payment[] payments;
+
+    /**
+     * Builds leases and payments spread over two years.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        leases = new Lease[rows];
+        payments = new Payment[rows];
+        for (int i = 0; i < rows; i++) {
+            LocalDate start = first.plusDays(random.nextInt(730));
+            LocalDate end = start.plusDays(1 + random.nextInt(30));
+            leases[i] = new Lease(i + 1, 1 + random.nextInt(10_000), 1 + random.nextInt(100_000),
+                    start, end, "Daily");
+            payments[i] = new Payment(i + 1, i + 1, end, 50 + random.nextInt(500_000) / 100.0);
+        }
+    }
+
+    /**
+     * Measures the existing {@code toString()} output, one entity per line.
+     *
+     * @throws IOException Never; the stream discards its input.
+     */
+    @Benchmark
+    public void toStringLines() throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(),
+                StandardCharsets.UTF_8), 64 * 1024)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(leases[i].toString());
+                writer.write('\n');
+                writer.write(payments[i].toString());
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Measures JSON Lines output through {@link EntityJsonWriter}.
+     *
+     * @return The number of bytes produced.
+     * @throws IOException Never; the stream discards its input.
+     */
+    @Benchmark
+    public long jsonLines() throws IOException {
+        try (ByteSink sink = new ByteSink(OutputStream.nullOutputStream())) {
+            EntityJsonWriter writer = new EntityJsonWriter(sink);
+            for (int i = 0; i < rows; i++) {
+                writer.write(leases[i]);
+                writer.write(payments[i]);
+            }
+            return sink.getBytesWritten();
+        }
+    }
+
+    /**
+     * Measures CSV output through {@link EntityCsvWriter}.
+     *
+     * @return The number of bytes produced.
+     * @throws IOException Never; the stream discards its input.
+     */
+    @Benchmark
+    public long csvRows() throws IOException {
+        try (ByteSink sink = new ByteSink(OutputStream.nullOutputStream())) {
+            EntityCsvWriter writer = new EntityCsvWriter(sink);
+            for (int i = 0; i < rows; i++) {
+                writer.write(leases[i]);
+                writer.write(payments[i]);
+            }
+            return sink.getBytesWritten();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.LeaseCreatedEvent;
+import exception.CarNotFoundException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pricing.PricingEngine;
+import pricing.Quote;
+
+/**
+ * JMH benchmark for quote throughput against a synthetic fleet with a share of it on lease.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class PricingBenchmark {
+
+    @Param({"10000"})
+    public int cars;
+
+    private PricingEngine engine;
+    private int[] carIDs;
+    private LocalDate[] startDates;
+    private LocalDate[] endDates;
+
+    /**
+     * Loads the fleet and active leases into the engine and builds a pool of requests
+     * for leases of one day to two months.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        engine = new PricingEngine();
+        LocalDate today = LocalDate.now();
+        for (int id = 1; id <= cars; id++) {
+            engine.onEvent(new CarAddedEvent(new Car(id, "Make", "Model", 2020, 800 + random.nextInt(4000),
+                    "available", 5, 1500)));
+            if (random.nextInt(10) < 8) {
+                engine.onEvent(new LeaseCreatedEvent(new Lease(id, id, 1, today,
+                        today.plusDays(1 + random.nextInt(30)), "Daily")));
+            }
+        }
+        carIDs = new int[1024];
+        startDates = new LocalDate[carIDs.length];
+        endDates = new LocalDate[carIDs.length];
+        for (int i = 0; i < carIDs.length; i++) {
+            LocalDate start = today.plusDays(random.nextInt(365));
+            carIDs[i] = 1 + random.nextInt(cars);
+            startDates[i] = start;
+            endDates[i] = start.plusDays(1 + random.nextInt(60));
+        }
+    }
+
+    /**
+     * Measures a single quote.
+     *
+     * @param cursor The per-thread request cursor.
+     * @return The quote, returned so JMH does not eliminate the call.
+     * @throws CarNotFoundException Never; every requested car is in the fleet.
+     */
+    @Benchmark
+    @Threads(4)
+    public Quote quote(Cursor cursor) throws CarNotFoundException {
+        int i = cursor.next++ & (carIDs.length - 1);
+        return engine.quote(carIDs[i], startDates[i], endDates[i]);
+    }
+
+    /**
+     * Per-thread position in the request pool.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import entity.Lease;
+import entity.Payment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import report.ChunkSource;
+import report.MonthEndReport;
+import report.ReportGenerator;
+import util.Dates;
+
+/**
+ * JMH benchmark for full-history report generation at different pool sizes.
+ * Pages are generated on the fly, so the benchmark measures aggregation rather than database I/O
+ * and needs no more memory than the pages in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+public class ReportBenchmark {
+
+    // 2023-11-14
+    private static final int BASE_DAY = 19_675;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private ReportGenerator generator;
+
+    /**
+     * Creates the pool and a generator over synthetic lease and payment tables of {@code rows} rows each.
+     */
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        ChunkSource<Lease> leases = (afterID, limit) -> {
+            List<Lease> page = new ArrayList<>(limit);
+            for (int id = afterID + 1; id <= Math.min(rows, afterID + limit); id++) {
+                int start = BASE_DAY + id % 365;
+                page.add(new Lease(id, 1 + id % 5_000, 1 + id % 200_000, Dates.ofEpochDay(start),
+                        Dates.ofEpochDay(start + 1 + id % 30), "Daily"));
+            }
+            return page;
+        };
+        ChunkSource<Payment> payments = (afterID, limit) -> {
+            List<Payment> page = new ArrayList<>(limit);
+            for (int id = afterID + 1; id <= Math.min(rows, afterID + limit); id++) {
+                page.add(new Payment(id, id, Dates.ofEpochDay(BASE_DAY + id % 365), 500 + id % 1000));
+            }
+            return page;
+        };
+        generator = new ReportGenerator(leases, payments, ReportGenerator.DEFAULT_CHUNK_SIZE, pool);
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Measures one report over the whole history.
+     *
+     * @return The report, returned so JMH does not eliminate the call.
+     * @throws Exception If generation fails.
+     */
+    @Benchmark
+    public MonthEndReport generate() throws Exception {
+        return generator.generate(null, null, 10);
+    }
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reservation.Hold;
+import reservation.ReservationHolds;
+
+/**
+ * JMH benchmark for {@link ReservationHolds} under contention.
+ * <p>
+ * {@link #reserveAndRelease()} runs 64 threads that each hold a random week on one of {@code cars} cars and
+ * release it again; with a single car every thread fights over the same compare-and-set. {@link #stampede()}
+ * starts {@code contenders} threads at once, all trying to hold the same car for the same week, and checks
+ * that exactly one of them wins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1)
+public class ReservationBenchmark {
+
+    @Param({"1", "16", "1024"})
+    public int cars;
+
+    @Param({"2000"})
+    public int contenders;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 12, 1);
+
+    private ReservationHolds holds;
+
+    /**
+     * Creates the holds with a TTL long enough that nothing expires during a run.
+     */
+    @Setup
+    public void setUp() {
+        holds = new ReservationHolds(60_000);
+    }
+
+    /**
+     * Holds a random week on a random car and releases it if the hold was granted.
+     *
+     * @return True if the hold was granted.
+     */
+    @Benchmark
+    @Threads(64)
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = FIRST_DAY.plusDays(random.nextInt(60));
+        Hold hold = holds.reserve(1 + random.nextInt(cars), random.nextInt(100_000), start, start.plusDays(6));
+        if (hold == null) {
+            return false;
+        }
+        return holds.release(hold.getHoldID());
+    }
+
+    /**
+     * Releases {@code contenders} threads at once against the same car and week.
+     *
+     * @return The number of winners, which must be 1.
+     * @throws InterruptedException If interrupted while waiting for the contenders.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public int stampede() throws InterruptedException {
+        int carID = cars + 1 + ThreadLocalRandom.current().nextInt(1_000_000);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(contenders);
+        AtomicInteger winners = new AtomicInteger();
+        for (int i = 0; i < contenders; i++) {
+            int customerID = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                    if (holds.reserve(carID, customerID, FIRST_DAY, FIRST_DAY.plusDays(6)) != null) {
+                        winners.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        go.countDown();
+        done.await();
+        if (winners.get() != 1) {
+            throw new IllegalStateException(winners.get() + " contenders won the same car");
+        }
+        return winners.get();
+    }
+}
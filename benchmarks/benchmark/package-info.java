@@ -0,0 +1,8 @@
+/**
+ * JMH benchmarks for the hot paths of the rental desk.
+ * <p>
+ * They live outside {@code src} because JMH is not on the project classpath. To run one, compile this
+ * directory against the compiled project, the JMH core jar and its annotation processor, then start
+ * {@code org.openjdk.jmh.Main} with the benchmark's class name.
+ */
+package benchmark;
@@ -0,0 +1,108 @@
+package api;
+
+import controller.CarRentalController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for the HTTP API: a number of local clients send GET requests back to back for a fixed time,
+ * then throughput and latency percentiles are printed next to the server's own metrics.
+ * <p>
+ * Usage: {@code ApiLoadTest [baseUrl] [clients] [seconds] [path...]}. Without a base URL (or with "-")
+ * an embedded server is started on a free port against the default controller. The default paths are
+ * {@code /cars}, {@code /customers/search?q=a} and {@code /revenue}.
+ */
+public class ApiLoadTest {
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The command-line arguments, as described in the class comment.
+     * @throws Exception If the server cannot be started or a client thread is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "-";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String[] paths = args.length > 3
+                ? Arrays.copyOfRange(args, 3, args.length)
+                : new String[] {"/cars", "/customers/search?q=a", "/revenue"};
+
+        RentalApiServer server = null;
+        if (baseUrl.equals("-")) {
+            server = new RentalApiServer(new CarRentalController(), 0);
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+        }
+        System.out.println(run(baseUrl, clients, seconds, paths));
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Runs the load against a server and summarizes the results.
+     *
+     * @param baseUrl The server's base URL.
+     * @param clients The number of concurrent clients.
+     * @param seconds The test duration.
+     * @param paths   The paths requested in turn by every client.
+     * @return The summary.
+     * @throws InterruptedException If interrupted while waiting for the clients.
+     */
+    public static String run(String baseUrl, int clients, int seconds, String[] paths) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest[] requests = new HttpRequest[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(baseUrl + paths[i])).GET().build();
+        }
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            Thread client = new Thread(() -> {
+                try {
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        long start = System.nanoTime();
+                        boolean error;
+                        try {
+                            HttpResponse<Void> response = http.send(requests[i % requests.length],
+                                    HttpResponse.BodyHandlers.discarding());
+                            error = response.statusCode() >= 400;
+                        } catch (Exception e) {
+                            error = true;
+                        }
+                        latencies.record(System.nanoTime() - start, error);
+                        if (error) {
+                            failures.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+
+        return String.format("%d clients, %d s: %d requests (%.0f req/s), %d failed, "
+                        + "mean %.0f us, p50 %d us, p99 %d us, p99.9 %d us",
+                clients, seconds, latencies.getCount(), (double) latencies.getCount() / seconds, failures.sum(),
+                latencies.getMeanMicros(), latencies.getPercentileMicros(50), latencies.getPercentileMicros(99),
+                latencies.getPercentileMicros(99.9));
+    }
+}
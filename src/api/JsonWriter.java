@@ -0,0 +1,228 @@
+package api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * A minimal streaming JSON writer. Values are written straight to the underlying writer as they are
+ * produced, so a list of any length is serialized without building it in memory first.
+ * <p>
+ * Commas and nesting are tracked with a small stack; callers only describe the structure:
+ * <pre>
+ * json.beginObject().name("id").value(7).name("tags").beginArray().value("a").endArray().endObject();
+ * </pre>
+ */
+public class JsonWriter implements Closeable {
+
+    private final Writer out;
+    // One entry per open object or array: whether the next element is the first one
+    private boolean[] first = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Constructs a new JsonWriter writing to the specified writer.
+     *
+     * @param out The destination. Buffer it; the writer issues many small writes.
+     */
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens an object.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        push();
+        return this;
+    }
+
+    /**
+     * Closes the current object.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter endObject() throws IOException {
+        depth--;
+        out.write('}');
+        return this;
+    }
+
+    /**
+     * Opens an array.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        push();
+        return this;
+    }
+
+    /**
+     * Closes the current array.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter endArray() throws IOException {
+        depth--;
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name The member name.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            out.write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an integer value.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a decimal value; NaN and infinities are written as null.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter value(double value) throws IOException {
+        beforeValue();
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     *
+     * @throws IOException If flushing fails.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void push() {
+        if (depth == first.length) {
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        first[depth++] = true;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separate();
+    }
+
+    private void separate() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        if (first[depth - 1]) {
+            first[depth - 1] = false;
+        } else {
+            out.write(',');
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(value, start, i - start);
+            out.write(escape);
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,761 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import cache.RequestMemo;
+import controller.CarRentalController;
+import controller.RequestScheduler;
+import controller.RequestScheduler.Priority;
+import entity.Car;
+import entity.CarSummary;
+import entity.Customer;
+import entity.CustomerSummary;
+import entity.Lease;
+import entity.LeaseSummary;
+import entity.LedgerEntry;
+import entity.Payment;
+import exception.CarAlreadyExistsException;
+import exception.CarNotFoundException;
+import exception.CustomerAlreadyExistsException;
+import exception.CustomerNotFoundException;
+import log.Level;
+import log.Logger;
+import pricing.Quote;
+import reservation.Hold;
+import util.Dates;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Embedded HTTP/JSON API over {@link CarRentalController}, built on the JDK's {@link HttpServer}.
+ * <p>
+ * Requests run on a fixed pool of platform threads, twice the scheduler's concurrency limit, so every
+ * admitted call has a thread and as many again can wait for admission. List endpoints stream their JSON with a
+ * {@link JsonWriter} over a chunked response, so large lists are never built as one string. Every request
+ * is timed into a per-route {@link LatencyHistogram}, published at {@code GET /metrics}.
+ * <p>
+ * Every route except {@code /metrics} is admitted through a {@link RequestScheduler}: bookings first, then
+ * payments, lookups and full-table reports, with operators identified by the {@code X-Operator} header or
+ * else the client address. Requests the scheduler turns away get a 503 with a {@code Retry-After} header.
+ * <p>
+ * {@code GET /cars}, {@code GET /customers} and {@code GET /leases} accept {@code view=summary} to return only
+ * the fields a list screen shows, read through the repository's projection queries. {@code GET /cars/counts}
+ * returns the fleet counts by status, or by make for one {@code status}, from live counters.
+ * <p>
+ * Adding or removing a car or customer answers 409 for a duplicate and 404 for a missing entity. A request
+ * failing on the database answers 503 with a {@code Retry-After} header.
+ * <p>
+ * Parameters are read from the query string and, for POST requests, from a form-encoded body.
+ * Dates use the {@code yyyy-MM-dd} format.
+ */
+public class RentalApiServer {
+
+    private static final Logger LOG = Logger.getLogger(RentalApiServer.class);
+
+    private final CarRentalController controller;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, LatencyHistogram> metrics = new ConcurrentHashMap<>();
+    private final RequestScheduler scheduler;
+
+    /**
+     * Constructs a new RentalApiServer bound to the specified port. The server is not started.
+     *
+     * @param controller The controller serving the requests.
+     * @param port       The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public RentalApiServer(CarRentalController controller, int port) throws IOException {
+        this(controller, port, new RequestScheduler(64, 2000));
+    }
+
+    /**
+     * Constructs a new RentalApiServer bound to the specified port, admitting requests through the given
+     * scheduler. The server is not started.
+     *
+     * @param controller The controller serving the requests.
+     * @param port       The port to listen on, or 0 for any free port.
+     * @param scheduler  The scheduler admitting requests by priority.
+     * @throws IOException If the port cannot be bound.
+     */
+    public RentalApiServer(CarRentalController controller, int port, RequestScheduler scheduler) throws IOException {
+        this.controller = controller;
+        this.scheduler = scheduler;
+        // Chunked responses end with a separate small write; without TCP_NODELAY it waits on a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = newRequestExecutor(scheduler);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to the given delay for running requests to finish.
+     *
+     * @param delaySeconds The maximum time to wait.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Retrieves the latency histograms, keyed by route (for example {@code "GET /cars/{id}"}).
+     *
+     * @return The histograms.
+     */
+    public Map<String, LatencyHistogram> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retrieves the scheduler admitting requests.
+     *
+     * @return The scheduler.
+     */
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Starts the API on the port given as the first argument, 8080 by default.
+     *
+     * @param args The command-line arguments.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        CarRentalController controller = new CarRentalController();
+        controller.warmUp();
+        String invalidationFile = System.getProperty("carrental.cache.invalidationFile");
+        if (invalidationFile != null) {
+            controller.joinCacheInvalidation(Paths.get(invalidationFile), 200);
+        }
+        String journalDirectory = System.getProperty("carrental.journal.dir");
+        if (journalDirectory != null) {
+            controller.openJournaledState(Paths.get(journalDirectory), 10_000);
+        }
+        controller.startSoftDeletePurger(LocalTime.of(1, 0), LocalTime.of(5, 0));
+        RentalApiServer server = new RentalApiServer(controller, port);
+        server.start();
+        System.out.println("Car rental API listening on port " + server.getPort());
+    }
+
+    // The project targets Java 17, so no virtual threads. A request holds its thread while it waits for
+    // admission, so the pool covers every admitted call and as many waiting ones; the rest queue here.
+    private static ExecutorService newRequestExecutor(RequestScheduler scheduler) {
+        return Executors.newFixedThreadPool(2 * scheduler.getMaxConcurrent());
+    }
+
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        String route = exchange.getRequestMethod() + " (unmatched)";
+        try {
+            String[] path = segments(exchange.getRequestURI().getRawPath());
+            Map<String, String> params = params(exchange);
+            String method = exchange.getRequestMethod();
+            Priority priority = priorityOf(method, path);
+            if (priority == null) {
+                route = dispatch(exchange, method, path, params);
+            } else {
+                route = scheduler.call(operatorOf(exchange), priority, () -> dispatch(exchange, method, path, params));
+            }
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, e.getMessage());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            sendError(exchange, 400, "Invalid parameter: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (CarAlreadyExistsException | CustomerAlreadyExistsException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (CarNotFoundException | CustomerNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (Exception e) {
+            LOG.at(Level.ERROR).op(route).latency(System.nanoTime() - start).error(e).log("Request failed");
+            if (causedBy(e, SQLException.class)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Database unavailable");
+            } else {
+                sendError(exchange, 500, "Internal error");
+            }
+        } finally {
+            exchange.close();
+            int status = exchange.getResponseCode();
+            metrics.computeIfAbsent(route, k -> new LatencyHistogram())
+                    .record(System.nanoTime() - start, status >= 500);
+        }
+    }
+
+    // Counter work first; whole-table listings last. Null leaves a route unscheduled.
+    private static Priority priorityOf(String method, String[] path) {
+        String resource = path.length == 0 ? "" : path[0];
+        switch (resource) {
+            case "metrics":
+                return null;
+            case "payments":
+                return Priority.PAYMENT;
+            case "quotes":
+                return Priority.BOOKING;
+            case "revenue":
+                return Priority.REPORT;
+            case "leases":
+            case "customers":
+                if (path.length == 1 && method.equals("GET")) {
+                    return Priority.REPORT;
+                }
+                break;
+            default:
+                break;
+        }
+        return method.equals("GET") ? Priority.LOOKUP : Priority.BOOKING;
+    }
+
+    private static String operatorOf(HttpExchange exchange) {
+        String operator = exchange.getRequestHeaders().getFirst("X-Operator");
+        return operator != null ? operator : exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    // One memo per request, so a car or customer looked up twice while handling it is read once
+    private String dispatch(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws Exception {
+        RequestMemo.Scope memo = RequestMemo.open();
+        try {
+            return dispatchResource(exchange, method, path, params);
+        } finally {
+            memo.close();
+        }
+    }
+
+    private String dispatchResource(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws Exception {
+        String resource = path.length == 0 ? "" : path[0];
+        switch (resource) {
+            case "cars":
+                return cars(exchange, method, path, params);
+            case "customers":
+                return customers(exchange, method, path, params);
+            case "leases":
+                return leases(exchange, method, path, params);
+            case "quotes":
+                return quotes(exchange, method, params);
+            case "holds":
+                return holds(exchange, method, path, params);
+            case "payments":
+                return payments(exchange, method, params);
+            case "revenue":
+                requireMethod(method, "GET");
+                sendJson(exchange, 200, json -> json.beginObject()
+                        .name("totalRevenue").value(controller.calculateTotalRevenue()).endObject());
+                return "GET /revenue";
+            case "metrics":
+                requireMethod(method, "GET");
+                sendJson(exchange, 200, this::writeMetrics);
+                return "GET /metrics";
+            default:
+                sendError(exchange, 404, "No such resource: /" + resource);
+                return method + " (unmatched)";
+        }
+    }
+
+    private String cars(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws Exception {
+        if (path.length == 1 && method.equals("GET")) {
+            if (isSummaryView(params)) {
+                sendList(exchange, controller.listAvailableCarSummaries(), RentalApiServer::writeCarSummary);
+            } else {
+                sendList(exchange, controller.listAvailableCars(), RentalApiServer::writeCar);
+            }
+            return "GET /cars";
+        }
+        if (path.length == 1 && method.equals("POST")) {
+            Car car = new Car(0, required(params, "make"), required(params, "model"),
+                    Integer.parseInt(required(params, "year")), Double.parseDouble(required(params, "dailyRate")),
+                    params.getOrDefault("status", "available"), Integer.parseInt(required(params, "passengerCapacity")),
+                    Integer.parseInt(required(params, "engineCapacity")));
+            controller.getRepository().addCar(car);
+            sendJson(exchange, 201, json -> writeCar(json, car));
+            return "POST /cars";
+        }
+        if (path.length == 2 && path[1].equals("counts") && method.equals("GET")) {
+            String status = params.get("status");
+            Map<String, Long> counts = status == null ? controller.countCarsByStatus() : controller.countCarsByMake(status);
+            if (counts == null) {
+                sendError(exchange, 500, "Could not count cars");
+            } else {
+                sendJson(exchange, 200, json -> writeCounts(json, counts));
+            }
+            return "GET /cars/counts";
+        }
+        if (path.length == 2 && path[1].equals("rented") && method.equals("GET")) {
+            sendList(exchange, controller.listRentedCars(), RentalApiServer::writeCar);
+            return "GET /cars/rented";
+        }
+        if (path.length == 2 && method.equals("GET")) {
+            Car car = controller.findCarById(Integer.parseInt(path[1]));
+            sendEntity(exchange, car, "Car not found: " + path[1], json -> writeCar(json, car));
+            return "GET /cars/{id}";
+        }
+        if (path.length == 2 && method.equals("DELETE")) {
+            controller.getRepository().removeCar(Integer.parseInt(path[1]));
+            sendStatus(exchange, 204);
+            return "DELETE /cars/{id}";
+        }
+        sendError(exchange, 404, "No such route: " + method + " " + exchange.getRequestURI().getPath());
+        return method + " /cars (unmatched)";
+    }
+
+    private String customers(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws Exception {
+        if (path.length == 1 && method.equals("GET")) {
+            if (isSummaryView(params)) {
+                sendList(exchange, controller.listCustomerSummaries(), RentalApiServer::writeCustomerSummary);
+            } else {
+                sendList(exchange, controller.listCustomers(), RentalApiServer::writeCustomer);
+            }
+            return "GET /customers";
+        }
+        if (path.length == 1 && method.equals("POST")) {
+            Customer customer = new Customer(Integer.parseInt(required(params, "customerID")),
+                    required(params, "firstName"), required(params, "lastName"), required(params, "email"),
+                    required(params, "phoneNumber"));
+            controller.getRepository().addCustomer(customer);
+            sendJson(exchange, 201, json -> writeCustomer(json, customer));
+            return "POST /customers";
+        }
+        if (path.length == 2 && path[1].equals("search") && method.equals("GET")) {
+            int limit = Integer.parseInt(params.getOrDefault("limit", "10"));
+            sendList(exchange, controller.searchCustomers(required(params, "q"), limit), RentalApiServer::writeCustomer);
+            return "GET /customers/search";
+        }
+        if (path.length == 2 && method.equals("GET")) {
+            Customer customer = controller.findCustomerById(Integer.parseInt(path[1]));
+            sendEntity(exchange, customer, "Customer not found: " + path[1], json -> writeCustomer(json, customer));
+            return "GET /customers/{id}";
+        }
+        if (path.length == 2 && method.equals("DELETE")) {
+            controller.getRepository().removeCustomer(Integer.parseInt(path[1]));
+            sendStatus(exchange, 204);
+            return "DELETE /customers/{id}";
+        }
+        if (path.length == 3 && path[2].equals("payments") && method.equals("GET")) {
+            sendList(exchange, controller.retrievePaymentHistory(Integer.parseInt(path[1])), RentalApiServer::writePayment);
+            return "GET /customers/{id}/payments";
+        }
+        if (path.length == 3 && path[2].equals("ledger") && method.equals("GET")) {
+            sendList(exchange, controller.retrieveLedger(Integer.parseInt(path[1])), RentalApiServer::writeLedgerEntry);
+            return "GET /customers/{id}/ledger";
+        }
+        if (path.length == 3 && path[2].equals("balance") && method.equals("GET")) {
+            int customerID = Integer.parseInt(path[1]);
+            double balance = controller.retrieveBalance(customerID);
+            sendJson(exchange, 200, json -> json.beginObject()
+                    .name("customerID").value(customerID)
+                    .name("balance").value(balance).endObject());
+            return "GET /customers/{id}/balance";
+        }
+        sendError(exchange, 404, "No such route: " + method + " " + exchange.getRequestURI().getPath());
+        return method + " /customers (unmatched)";
+    }
+
+    private String leases(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws Exception {
+        if (path.length == 1 && method.equals("GET")) {
+            if (isSummaryView(params)) {
+                sendList(exchange, controller.listLeaseSummaries(), RentalApiServer::writeLeaseSummary);
+            } else {
+                sendList(exchange, controller.listLeaseHistory(), RentalApiServer::writeLease);
+            }
+            return "GET /leases";
+        }
+        if (path.length == 1 && method.equals("POST")) {
+            Lease lease = controller.createLease(Integer.parseInt(required(params, "customerID")),
+                    Integer.parseInt(required(params, "carID")), date(required(params, "startDate")),
+                    date(required(params, "endDate")));
+            if (lease == null) {
+                sendError(exchange, 422, "Lease could not be created");
+            } else {
+                sendJson(exchange, 201, json -> writeLease(json, lease));
+            }
+            return "POST /leases";
+        }
+        if (path.length == 2 && path[1].equals("active") && method.equals("GET")) {
+            sendList(exchange, controller.listActiveLeases(), RentalApiServer::writeLease);
+            return "GET /leases/active";
+        }
+        if (path.length == 2 && method.equals("GET")) {
+            Lease lease = controller.findLeaseById(Integer.parseInt(path[1]));
+            sendEntity(exchange, lease, "Lease not found: " + path[1], json -> writeLease(json, lease));
+            return "GET /leases/{id}";
+        }
+        if (path.length == 3 && path[2].equals("return") && method.equals("POST")) {
+            Lease lease = controller.returnCar(Integer.parseInt(path[1]));
+            sendEntity(exchange, lease, "Lease not found: " + path[1], json -> writeLease(json, lease));
+            return "POST /leases/{id}/return";
+        }
+        sendError(exchange, 404, "No such route: " + method + " " + exchange.getRequestURI().getPath());
+        return method + " /leases (unmatched)";
+    }
+
+    private String holds(HttpExchange exchange, String method, String[] path, Map<String, String> params)
+            throws IOException {
+        if (path.length == 1 && method.equals("POST")) {
+            Hold hold = controller.reserveCar(Integer.parseInt(required(params, "customerID")),
+                    Integer.parseInt(required(params, "carID")), date(required(params, "startDate")),
+                    date(required(params, "endDate")));
+            if (hold == null) {
+                sendError(exchange, 409, "Car is not available for the period");
+            } else {
+                long ttlMillis = controller.getReservationHolds().getTtlMillis();
+                sendJson(exchange, 201, json -> writeHold(json, hold, ttlMillis));
+            }
+            return "POST /holds";
+        }
+        if (path.length == 3 && path[2].equals("confirm") && method.equals("POST")) {
+            Lease lease = controller.confirmReservation(Long.parseLong(path[1]));
+            if (lease == null) {
+                sendError(exchange, 410, "Hold expired or lease could not be created: " + path[1]);
+            } else {
+                sendJson(exchange, 201, json -> writeLease(json, lease));
+            }
+            return "POST /holds/{id}/confirm";
+        }
+        if (path.length == 2 && method.equals("DELETE")) {
+            if (controller.cancelReservation(Long.parseLong(path[1]))) {
+                sendStatus(exchange, 204);
+            } else {
+                sendError(exchange, 404, "Hold not found: " + path[1]);
+            }
+            return "DELETE /holds/{id}";
+        }
+        sendError(exchange, 404, "No such route: " + method + " " + exchange.getRequestURI().getPath());
+        return method + " /holds (unmatched)";
+    }
+
+    private String quotes(HttpExchange exchange, String method, Map<String, String> params) throws IOException {
+        requireMethod(method, "GET");
+        Quote quote = controller.getQuote(Integer.parseInt(required(params, "carID")),
+                date(required(params, "startDate")), date(required(params, "endDate")));
+        sendEntity(exchange, quote, "Car not found: " + params.get("carID"), json -> writeQuote(json, quote));
+        return "GET /quotes";
+    }
+
+    private String payments(HttpExchange exchange, String method, Map<String, String> params) throws Exception {
+        requireMethod(method, "POST");
+        int leaseID = Integer.parseInt(required(params, "leaseID"));
+        double amount = Double.parseDouble(required(params, "amount"));
+        Lease lease = controller.findLeaseById(leaseID);
+        if (lease == null) {
+            sendError(exchange, 404, "Lease not found: " + leaseID);
+        } else {
+            controller.recordPayment(lease, amount);
+            sendJson(exchange, 201, json -> json.beginObject()
+                    .name("leaseID").value(leaseID).name("amount").value(amount).endObject());
+        }
+        return "POST /payments";
+    }
+
+    private void writeMetrics(JsonWriter json) throws IOException {
+        json.beginObject();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(metrics).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            json.name(entry.getKey()).beginObject()
+                    .name("count").value(histogram.getCount())
+                    .name("errors").value(histogram.getErrors())
+                    .name("meanMicros").value(histogram.getMeanMicros())
+                    .name("p50Micros").value(histogram.getPercentileMicros(50))
+                    .name("p99Micros").value(histogram.getPercentileMicros(99))
+                    .name("p999Micros").value(histogram.getPercentileMicros(99.9))
+                    .endObject();
+        }
+        json.name("scheduler").beginObject();
+        for (Priority priority : Priority.values()) {
+            RequestScheduler.ClassStats stats = scheduler.getStats(priority);
+            json.name(priority.name()).beginObject()
+                    .name("queueDepth").value(stats.getQueueDepth())
+                    .name("admitted").value(stats.getAdmitted())
+                    .name("rejected").value(stats.getRejected())
+                    .name("meanWaitMicros").value(stats.getMeanWaitMicros())
+                    .name("maxWaitMicros").value(stats.getMaxWaitMicros())
+                    .endObject();
+        }
+        json.endObject();
+        json.endObject();
+    }
+
+    static void writeCar(JsonWriter json, Car car) throws IOException {
+        json.beginObject()
+                .name("vehicleID").value(car.getVehicleID())
+                .name("make").value(car.getMake())
+                .name("model").value(car.getModel())
+                .name("year").value(car.getYear())
+                .name("dailyRate").value(car.getDailyRate())
+                .name("status").value(car.getStatus())
+                .name("passengerCapacity").value(car.getPassengerCapacity())
+                .name("engineCapacity").value(car.getEngineCapacity())
+                .endObject();
+    }
+
+    static void writeCustomer(JsonWriter json, Customer customer) throws IOException {
+        json.beginObject()
+                .name("customerID").value(customer.getCustomerID())
+                .name("firstName").value(customer.getFirstName())
+                .name("lastName").value(customer.getLastName())
+                .name("email").value(customer.getEmail())
+                .name("phoneNumber").value(customer.getPhoneNumber())
+                .endObject();
+    }
+
+    static void writeLease(JsonWriter json, Lease lease) throws IOException {
+        json.beginObject()
+                .name("leaseID").value(lease.getLeaseID())
+                .name("vehicleID").value(lease.getVehicleID())
+                .name("customerID").value(lease.getCustomerID())
+                .name("startDate").value(format(lease.getStartDate()))
+                .name("endDate").value(format(lease.getEndDate()))
+                .name("type").value(lease.getType())
+                .endObject();
+    }
+
+    static void writeHold(JsonWriter json, Hold hold, long ttlMillis) throws IOException {
+        json.beginObject()
+                .name("holdID").value(hold.getHoldID())
+                .name("vehicleID").value(hold.getCarID())
+                .name("customerID").value(hold.getCustomerID())
+                .name("startDate").value(format(hold.getStartDate()))
+                .name("endDate").value(format(hold.getEndDate()))
+                .name("ttlMillis").value(ttlMillis)
+                .endObject();
+    }
+
+    static void writePayment(JsonWriter json, Payment payment) throws IOException {
+        json.beginObject()
+                .name("paymentID").value(payment.getPaymentID())
+                .name("leaseID").value(payment.getLeaseID())
+                .name("paymentDate").value(format(payment.getPaymentDate()))
+                .name("amount").value(payment.getAmount())
+                .endObject();
+    }
+
+    static void writeCarSummary(JsonWriter json, CarSummary car) throws IOException {
+        json.beginObject()
+                .name("vehicleID").value(car.getVehicleID())
+                .name("make").value(car.getMake())
+                .name("model").value(car.getModel())
+                .name("dailyRate").value(car.getDailyRate())
+                .endObject();
+    }
+
+    static void writeCustomerSummary(JsonWriter json, CustomerSummary customer) throws IOException {
+        json.beginObject()
+                .name("customerID").value(customer.getCustomerID())
+                .name("firstName").value(customer.getFirstName())
+                .name("lastName").value(customer.getLastName())
+                .endObject();
+    }
+
+    static void writeLeaseSummary(JsonWriter json, LeaseSummary lease) throws IOException {
+        json.beginObject()
+                .name("leaseID").value(lease.getLeaseID())
+                .name("vehicleID").value(lease.getVehicleID())
+                .name("customerID").value(lease.getCustomerID())
+                .name("startDate").value(format(lease.getStartDate()))
+                .name("endDate").value(format(lease.getEndDate()))
+                .endObject();
+    }
+
+    static void writeLedgerEntry(JsonWriter json, LedgerEntry entry) throws IOException {
+        json.beginObject()
+                .name("entryID").value(entry.getEntryID())
+                .name("leaseID").value(entry.getLeaseID())
+                .name("entryDate").value(format(entry.getEntryDate()))
+                .name("kind").value(entry.getKind())
+                .name("amount").value(entry.getAmount())
+                .name("balance").value(entry.getBalance())
+                .endObject();
+    }
+
+    static void writeCounts(JsonWriter json, Map<String, Long> counts) throws IOException {
+        json.beginObject();
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            json.name(count.getKey()).value(count.getValue());
+        }
+        json.endObject();
+    }
+
+    static void writeQuote(JsonWriter json, Quote quote) throws IOException {
+        json.beginObject()
+                .name("carID").value(quote.getCarID())
+                .name("startDate").value(format(quote.getStartDate()))
+                .name("endDate").value(format(quote.getEndDate()))
+                .name("days").value(quote.getDays())
+                .name("leaseType").value(quote.getLeaseType().getLabel())
+                .name("dailyRate").value(quote.getDailyRate())
+                .name("seasonalMultiplier").value(quote.getSeasonalMultiplier())
+                .name("surgeMultiplier").value(quote.getSurgeMultiplier())
+                .name("totalPrice").value(quote.getTotalPrice())
+                .endObject();
+    }
+
+    private static <T> void sendList(HttpExchange exchange, List<T> items, JsonBodyItem<T> writer) throws IOException {
+        if (items == null) {
+            sendError(exchange, 500, "Could not load the list");
+            return;
+        }
+        sendJson(exchange, 200, json -> {
+            json.beginArray();
+            for (T item : items) {
+                writer.write(json, item);
+            }
+            json.endArray();
+        });
+    }
+
+    private static void sendEntity(HttpExchange exchange, Object entity, String notFound, JsonBody body)
+            throws IOException {
+        if (entity == null) {
+            sendError(exchange, 404, notFound);
+        } else {
+            sendJson(exchange, 200, body);
+        }
+    }
+
+    // A zero length selects chunked transfer, so the body is streamed as it is written
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        JsonWriter json = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192));
+        body.write(json);
+        json.close();
+    }
+
+    private static void sendStatus(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            sendJson(exchange, status, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException e) {
+            // Headers were already sent or the client went away; nothing more can be reported
+        }
+    }
+
+    // The repository wraps database failures in unchecked exceptions
+    private static boolean causedBy(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new IllegalArgumentException("Method " + method + " not allowed, use " + expected);
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static LocalDate date(String value) {
+        return Dates.parse(value);
+    }
+
+    private static boolean isSummaryView(Map<String, String> params) {
+        return "summary".equals(params.get("view"));
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream body = exchange.getRequestBody()) {
+                parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes a response body.
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Writes one element of a list response.
+     */
+    @FunctionalInterface
+    private interface JsonBodyItem<T> {
+        void write(JsonWriter json, T item) throws IOException;
+    }
+}
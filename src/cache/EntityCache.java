@@ -0,0 +1,161 @@
+package cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe in-memory cache of entities keyed by their ID.
+ * Entries never expire on their own; the owner is responsible for invalidating them on writes.
+ * <p>
+ * Every invalidation advances a generation counter. A loader that reads the generation before going to
+ * the database and caches its result with {@link #putIfCurrent(Object, Object, long)} cannot put back a
+ * row that was invalidated while it was being read.
+ *
+ * @param <K> The key type.
+ * @param <V> The entity type.
+ */
+public class EntityCache<K, V> {
+
+    private final String name;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new, empty EntityCache.
+     *
+     * @param name A short name for the cache, used in statistics output.
+     */
+    public EntityCache(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the name of the cache.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up an entity and records a hit or miss.
+     *
+     * @param key The entity ID.
+     * @return The cached entity, or null if it is not cached.
+     */
+    public V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches an entity, replacing any previous entry for the key.
+     *
+     * @param key   The entity ID.
+     * @param value The entity to cache.
+     */
+    public void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Caches an entity loaded from the database, unless the cache was invalidated since the load started.
+     *
+     * @param key        The entity ID.
+     * @param value      The entity to cache.
+     * @param generation The {@link #getGeneration() generation} read before the entity was loaded.
+     * @return True if the entity stayed cached.
+     */
+    public boolean putIfCurrent(K key, V value, long generation) {
+        if (this.generation.get() != generation) {
+            return false;
+        }
+        entries.put(key, value);
+        // An invalidation between the check and the put may have missed the new entry, so drop it again
+        if (this.generation.get() != generation) {
+            entries.remove(key, value);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the invalidation generation, which changes whenever an entity is invalidated.
+     *
+     * @return The generation.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Removes an entity from the cache.
+     *
+     * @param key The entity ID.
+     */
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entities from the cache.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Retrieves all cached entities.
+     *
+     * @return A live view of the cached entities.
+     */
+    public Collection<V> values() {
+        return entries.values();
+    }
+
+    /**
+     * Retrieves the number of cached entities.
+     *
+     * @return The cache size.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the number of lookups that found a cached entity.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups that did not find a cached entity.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{" + "name='" + name + '\'' + ", size=" + size()
+                + ", hits=" + getHits() + ", misses=" + getMisses() + '}';
+    }
+}
@@ -0,0 +1,241 @@
+package cache;
+
+import log.Level;
+import log.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcasts cache invalidations between application nodes on one host through a shared file, so each
+ * node can keep its own {@link EntityCache}s of cars and customers without serving rows another node has
+ * changed.
+ * <p>
+ * A node that writes an entity appends one line naming its node ID, the cache region and the entity ID
+ * (or {@code *} for the whole region). Every node polls the file from where it last stopped and evicts
+ * what the other nodes announced; its own lines are skipped. Each line is appended with a single write to
+ * a file opened for appending, so lines from different processes do not interleave. A node only sees
+ * lines written after it joined, and other nodes may serve a changed entity for up to one poll interval.
+ * The file only grows; an operator may truncate it, after which every node starts again from the top.
+ */
+public class InvalidationChannel implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(InvalidationChannel.class);
+    private static final String ALL = "*";
+
+    private final String nodeID = UUID.randomUUID().toString();
+    private final FileChannel out;
+    private final FileChannel in;
+    private final Map<String, EntityCache<Integer, ?>> caches = new ConcurrentHashMap<>();
+    private final Thread poller;
+    private final long pollMillis;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    // Guarded by in; offset of the first byte not consumed yet
+    private long position;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new InvalidationChannel on the given file, creating it if necessary, and starts polling it.
+     *
+     * @param file       The file shared by all nodes.
+     * @param pollMillis How often to check the file for invalidations from other nodes.
+     * @throws IOException If the file cannot be opened.
+     */
+    public InvalidationChannel(Path file, long pollMillis) throws IOException {
+        this.out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.in = FileChannel.open(file, StandardOpenOption.READ);
+        this.position = in.size();
+        this.pollMillis = pollMillis;
+        this.poller = new Thread(this::pollLoop, "cache-invalidation");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    /**
+     * Registers a cache to be invalidated when other nodes announce changes in its region. The cache's
+     * name is its region, so all nodes must name their caches alike.
+     *
+     * @param cache The local cache.
+     */
+    public void register(EntityCache<Integer, ?> cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Announces to the other nodes that an entity changed. A failed write is logged rather than thrown,
+     * because the change itself is already committed.
+     *
+     * @param region The region of the entity.
+     * @param key    The entity ID.
+     */
+    public void publish(String region, int key) {
+        append(region, Integer.toString(key));
+    }
+
+    /**
+     * Announces to the other nodes that every entity of a region changed, for example after a bulk load.
+     *
+     * @param region The region.
+     */
+    public void publishAll(String region) {
+        append(region, ALL);
+    }
+
+    /**
+     * Applies every invalidation other nodes appended since the last poll. Runs on the polling thread;
+     * callers may also invoke it to catch up immediately.
+     *
+     * @return The number of invalidations applied.
+     * @throws IOException If the file cannot be read.
+     */
+    public int poll() throws IOException {
+        int applied = 0;
+        synchronized (in) {
+            if (in.size() < position) {
+                // Truncated by an operator; re-applying old lines only evicts more than needed
+                position = 0;
+            }
+            while (true) {
+                buffer.clear();
+                int read = in.read(buffer, position);
+                if (read <= 0) {
+                    return applied;
+                }
+                int end = lastNewline(buffer.array(), read);
+                if (end < 0) {
+                    if (read == buffer.capacity()) {
+                        throw new IOException("Invalidation line longer than " + read + " bytes at offset " + position);
+                    }
+                    // Only a partial line so far; its writer has not finished
+                    return applied;
+                }
+                String lines = new String(buffer.array(), 0, end + 1, StandardCharsets.UTF_8);
+                for (String line : lines.split("\n")) {
+                    if (apply(line)) {
+                        applied++;
+                    }
+                }
+                position += end + 1;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the ID this node stamps on its invalidations.
+     *
+     * @return The node ID.
+     */
+    public String getNodeID() {
+        return nodeID;
+    }
+
+    /**
+     * Retrieves the number of invalidations this node has announced.
+     *
+     * @return The sent count.
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * Retrieves the number of invalidations from other nodes this node has applied.
+     *
+     * @return The received count.
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * Stops polling and closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        poller.interrupt();
+        synchronized (in) {
+            in.close();
+        }
+        out.close();
+    }
+
+    private void append(String region, String key) {
+        byte[] line = (nodeID + '\t' + region + '\t' + key + '\n').getBytes(StandardCharsets.UTF_8);
+        try {
+            // One write per line keeps the append atomic with respect to other writers
+            out.write(ByteBuffer.wrap(line));
+            sent.increment();
+        } catch (IOException e) {
+            LOG.at(Level.ERROR).op("publishInvalidation").with("region", region).with("key", key).error(e)
+                    .log("Other nodes may serve a stale entry");
+        }
+    }
+
+    private boolean apply(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 3 || fields[0].equals(nodeID)) {
+            return false;
+        }
+        EntityCache<Integer, ?> cache = caches.get(fields[1]);
+        if (cache == null) {
+            return false;
+        }
+        if (fields[2].equals(ALL)) {
+            cache.clear();
+        } else {
+            try {
+                cache.invalidate(Integer.parseInt(fields[2]));
+            } catch (NumberFormatException e) {
+                LOG.at(Level.WARN).op("applyInvalidation").with("line", line).log("Skipped malformed invalidation");
+                return false;
+            }
+        }
+        received.increment();
+        return true;
+    }
+
+    private static int lastNewline(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                poll();
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+                LOG.at(Level.WARN).op("pollInvalidations").error(e).log("Could not read invalidations");
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request-scoped memo that sits in front of the shared {@link EntityCache}s. While a scope is open on a
+ * thread, the first lookup of an entity is remembered and every later lookup of it within the same request
+ * returns the same instance without going back to the shared cache or the database, so a request sees one
+ * consistent copy of each entity even if another node invalidates it half-way through.
+ * <p>
+ * Scopes are bound to the thread that opened them and nest: an inner {@link #open()} joins the outer scope,
+ * and the memo is discarded when the outermost scope closes. Outside a scope every lookup goes straight to
+ * its loader. Writes made during a request must {@link #forget(String, Object) forget} the entities they
+ * change.
+ */
+public final class RequestMemo {
+
+    private static final ThreadLocal<RequestMemo> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Map<Object, Object>> regions = new HashMap<>();
+    private int depth;
+
+    private RequestMemo() {
+    }
+
+    /**
+     * Loads an entity on a memo miss.
+     *
+     * @param <V> The entity type.
+     * @param <E> The exception the loader may throw.
+     */
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        /**
+         * Loads the entity.
+         *
+         * @return The entity, or null if there is none.
+         * @throws E If the entity cannot be loaded.
+         */
+        V load() throws E;
+    }
+
+    /**
+     * Opens a scope on the calling thread, or joins the scope that is already open. Open it before one
+     * request or menu action and close it in a finally block after it.
+     *
+     * @return The scope, which must be closed on the same thread.
+     */
+    public static Scope open() {
+        RequestMemo memo = CURRENT.get();
+        if (memo == null) {
+            memo = new RequestMemo();
+            CURRENT.set(memo);
+        }
+        memo.depth++;
+        return new Scope(memo);
+    }
+
+    /**
+     * Checks whether a scope is open on the calling thread.
+     *
+     * @return True if lookups are being memoized.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Looks up an entity in the current scope, loading and remembering it on a miss. Null results and
+     * failures are not remembered.
+     *
+     * @param region The kind of entity, for example "car".
+     * @param key    The entity ID.
+     * @param loader The lookup to run on a miss, normally the shared cache and then the database.
+     * @param <V>    The entity type.
+     * @param <E>    The exception the loader may throw.
+     * @return The entity.
+     * @throws E If the loader fails.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V, E extends Exception> V get(String region, Object key, Loader<V, E> loader) throws E {
+        RequestMemo memo = CURRENT.get();
+        if (memo == null) {
+            return loader.load();
+        }
+        Map<Object, Object> entries = memo.regions.computeIfAbsent(region, r -> new HashMap<>());
+        V value = (V) entries.get(key);
+        if (value == null) {
+            value = loader.load();
+            if (value != null) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops an entity from the current scope, so the next lookup in the request loads it again.
+     * Does nothing outside a scope.
+     *
+     * @param region The kind of entity.
+     * @param key    The entity ID.
+     */
+    public static void forget(String region, Object key) {
+        RequestMemo memo = CURRENT.get();
+        if (memo != null) {
+            Map<Object, Object> entries = memo.regions.get(region);
+            if (entries != null) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drops every entity of a kind from the current scope. Does nothing outside a scope.
+     *
+     * @param region The kind of entity.
+     */
+    public static void forgetAll(String region) {
+        RequestMemo memo = CURRENT.get();
+        if (memo != null) {
+            memo.regions.remove(region);
+        }
+    }
+
+    /**
+     * An open scope. Closing the outermost scope discards the memo.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final RequestMemo memo;
+        private boolean closed;
+
+        private Scope(RequestMemo memo) {
+            this.memo = memo;
+        }
+
+        /**
+         * Leaves the scope.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (--memo.depth == 0) {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -1,24 +1,70 @@
 // Import statements for required classes
 package controller;
 
+import cache.InvalidationChannel;
+import dao.CarQuery;
 import dao.ICarLeaseRepository;
 import dao.ICarLeaseRepositoryImpl;
+import dao.KeyedTotals;
+import dao.RepositoryWarmup;
+import dao.SoftDeletePurger;
+import dao.WarmupReport;
 import entity.Car;
+import entity.CarSummary;
 import entity.Customer;
+import entity.CustomerSummary;
 import entity.Lease;
+import entity.LeaseSummary;
+import entity.LedgerEntry;
 import entity.Payment;
+import event.EventBus;
+import exception.CarAlreadyExistsException;
 import exception.CarNotFoundException;
+import exception.CustomerAlreadyExistsException;
 import exception.CustomerNotFoundException;
+import exception.LeaseConflictException;
 import exception.LeaseNotFoundException;
+import exception.OptimisticLockException;
+import export.ByteSink;
+import export.EntityCsvWriter;
+import export.EntityJsonWriter;
+import export.EntityWriter;
+import journal.JournaledState;
+import log.Level;
+import log.Logger;
+import pricing.LeaseType;
+import pricing.PricingEngine;
+import pricing.Quote;
+import report.MonthEndReport;
+import report.ReportGenerator;
+import reservation.Hold;
+import reservation.ReservationHolds;
+import snapshot.DatasetSnapshot;
+import snapshot.SnapshotSummary;
+import util.RetryHelper;
+import utilization.UtilizationEngine;
 
-import java.util.Date;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class for managing car rental operations.
  */
 public class CarRentalController {
+    private static final Logger LOG = Logger.getLogger(CarRentalController.class);
+    private static final int ARCHIVE_BATCH_SIZE = 500;
+    private static final long HOLD_TTL_MILLIS = 120_000;
+
     private ICarLeaseRepository carLeaseRepository;
+    private PricingEngine pricingEngine;
+    private UtilizationEngine utilizationEngine;
+    private JournaledState journaledState;
+    private final ReservationHolds holds = new ReservationHolds(HOLD_TTL_MILLIS);
 
     /**
      * Constructor to initialize the car lease repository.
@@ -27,6 +73,126 @@ public class CarRentalController {
         this.carLeaseRepository = new ICarLeaseRepositoryImpl();
     }
 
+    /**
+     * Constructor to use the specified car lease repository.
+     *
+     * @param carLeaseRepository The repository to operate on.
+     */
+    public CarRentalController(ICarLeaseRepository carLeaseRepository) {
+        this.carLeaseRepository = carLeaseRepository;
+    }
+
+    /**
+     * Retrieves the repository behind the controller, for callers that must tell its failures apart
+     * rather than have them logged, such as the HTTP API mapping them to status codes.
+     *
+     * @return The repository.
+     */
+    public ICarLeaseRepository getRepository() {
+        return carLeaseRepository;
+    }
+
+    /**
+     * Runs the startup warmup for the repository: validates the connection, prepares all
+     * statements and preloads hot data into the caches.
+     *
+     * @return The warmup report, or null if the repository does not support warmup.
+     */
+    public WarmupReport warmUp() {
+        if (carLeaseRepository instanceof ICarLeaseRepositoryImpl) {
+            return new RepositoryWarmup((ICarLeaseRepositoryImpl) carLeaseRepository).run();
+        }
+        return null;
+    }
+
+    /**
+     * Shares the repository's entity caches with the other application nodes that use the same
+     * invalidation file, so a car or customer changed on one node is evicted from the others.
+     *
+     * @param invalidationFile The file shared by all nodes.
+     * @param pollMillis       How often to check for invalidations from other nodes.
+     * @return The channel, or null if the repository does not cache entities or the file cannot be opened.
+     */
+    public InvalidationChannel joinCacheInvalidation(Path invalidationFile, long pollMillis) {
+        if (!(carLeaseRepository instanceof ICarLeaseRepositoryImpl)) {
+            return null;
+        }
+        try {
+            InvalidationChannel channel = new InvalidationChannel(invalidationFile, pollMillis);
+            ((ICarLeaseRepositoryImpl) carLeaseRepository).setInvalidationChannel(channel);
+            LOG.at(Level.INFO).op("joinCacheInvalidation").with("node", channel.getNodeID()).log("Sharing entity caches");
+            return channel;
+        } catch (Exception e) {
+            handleException("joinCacheInvalidation", e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the journaled in-memory state in the given directory and keeps it current with repository
+     * changes. A warm restart recovers it from the snapshot and journal tail; only the very first start
+     * loads it from the database.
+     *
+     * @param directory     The directory holding the journal and snapshot files.
+     * @param snapshotEvery The number of journaled events between snapshots.
+     * @return The state, or null if the repository publishes no events or the journal cannot be opened.
+     */
+    public synchronized JournaledState openJournaledState(Path directory, int snapshotEvery) {
+        if (journaledState != null) {
+            return journaledState;
+        }
+        if (!(carLeaseRepository instanceof ICarLeaseRepositoryImpl)) {
+            return null;
+        }
+        try {
+            JournaledState state = JournaledState.open(directory, snapshotEvery);
+            EventBus eventBus = ((ICarLeaseRepositoryImpl) carLeaseRepository).getEventBus();
+            if (state.isFresh()) {
+                try {
+                    state.seedFrom(carLeaseRepository, eventBus);
+                } catch (Exception e) {
+                    state.close();
+                    throw e;
+                }
+            } else {
+                eventBus.subscribe("journal", state);
+            }
+            LOG.at(Level.INFO).op("openJournaledState").with("recovered", state.getRecoveredEvents())
+                    .with("recoveryMillis", state.getRecoveryMillis()).log("Journaled state ready");
+            journaledState = state;
+            return state;
+        } catch (Exception e) {
+            handleException("openJournaledState", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the journaled in-memory state opened at startup.
+     *
+     * @return The state, or null if none was opened.
+     */
+    public synchronized JournaledState getJournaledState() {
+        return journaledState;
+    }
+
+    /**
+     * Starts purging soft-deleted cars and customers during a daily off-peak window.
+     *
+     * @param windowStart The time of day the window opens.
+     * @param windowEnd   The time of day it closes; earlier than the start for a window across midnight.
+     * @return The running purger, or null if the repository deletes rows immediately.
+     */
+    public SoftDeletePurger startSoftDeletePurger(LocalTime windowStart, LocalTime windowEnd) {
+        if (!(carLeaseRepository instanceof ICarLeaseRepositoryImpl)) {
+            return null;
+        }
+        SoftDeletePurger purger = new SoftDeletePurger((ICarLeaseRepositoryImpl) carLeaseRepository, windowStart, windowEnd);
+        purger.start();
+        LOG.at(Level.INFO).op("startSoftDeletePurger").with("window", windowStart + "-" + windowEnd).log("Purging removed rows off-peak");
+        return purger;
+    }
+
     /**
      * Adds a new car to the system.
      *
@@ -35,9 +201,9 @@ public class CarRentalController {
     public void addCar(Car car) {
         try {
             carLeaseRepository.addCar(car);
-            System.out.println("Car added successfully.");
+            LOG.at(Level.INFO).op("addCar").with("vehicleID", car.getVehicleID()).log("Car added");
         } catch (Exception e) {
-            handleException(e);
+            handleException("addCar", e);
         }
     }
 
@@ -51,9 +217,9 @@ public class CarRentalController {
     public void removeCar(int carID) {
         try {
             carLeaseRepository.removeCar(carID);
-            System.out.println("Car removed successfully.");
+            LOG.at(Level.INFO).op("removeCar").with("vehicleID", carID).log("Car removed");
         } catch (Exception e) {
-            handleException(e);
+            handleException("removeCar", "vehicleID", carID, e);
         }
     }
 
@@ -66,7 +232,37 @@ public class CarRentalController {
         try {
             return carLeaseRepository.listAvailableCars();
         } catch (Exception e) {
-            handleException(e);
+            handleException("listAvailableCars", e);
+            return null;
+        }
+    }
+
+    /**
+     * Lists the ID, make, model and daily rate of all available cars, for list screens.
+     *
+     * @return List of available car summaries.
+     */
+    public List<CarSummary> listAvailableCarSummaries() {
+        try {
+            return carLeaseRepository.listAvailableCarSummaries();
+        } catch (Exception e) {
+            handleException("listAvailableCarSummaries", e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Finds cars matching a multi-attribute filter.
+     *
+     * @param query The filter to apply.
+     * @return List of matching cars ordered by daily rate.
+     */
+    public List<Car> findCars(CarQuery query) {
+        try {
+            return carLeaseRepository.findCars(query);
+        } catch (Exception e) {
+            handleException("findCars", e);
             return null;
         }
     }
@@ -80,9 +276,9 @@ public class CarRentalController {
     public void addCustomer(Customer customer) {
         try {
             carLeaseRepository.addCustomer(customer);
-            System.out.println("Customer added successfully.");
+            LOG.at(Level.INFO).op("addCustomer").with("customerID", customer.getCustomerID()).log("Customer added");
         } catch (Exception e) {
-            handleException(e);
+            handleException("addCustomer", e);
         }
     }
 
@@ -95,7 +291,7 @@ public class CarRentalController {
         try {
             carLeaseRepository.removeCustomer(customerID);
         } catch (Exception e) {
-            handleException(e);
+            handleException("removeCustomer", "customerID", customerID, e);
         }
     }
 
@@ -108,7 +304,37 @@ public class CarRentalController {
         try {
             return carLeaseRepository.listCustomers();
         } catch (Exception e) {
-            handleException(e);
+            handleException("listCustomers", e);
+            return null;
+        }
+    }
+
+    /**
+     * Lists the ID and name of all customers, for list screens.
+     *
+     * @return List of customer summaries.
+     */
+    public List<CustomerSummary> listCustomerSummaries() {
+        try {
+            return carLeaseRepository.listCustomerSummaries();
+        } catch (Exception e) {
+            handleException("listCustomerSummaries", e);
+            return null;
+        }
+    }
+
+    /**
+     * Searches customers by name, email or phone number.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of customers to return.
+     * @return List of matching customers.
+     */
+    public List<Customer> searchCustomers(String query, int limit) {
+        try {
+            return carLeaseRepository.searchCustomers(query, limit);
+        } catch (Exception e) {
+            handleException("searchCustomers", e);
             return null;
         }
     }
@@ -129,30 +355,288 @@ public class CarRentalController {
             if(lease==null) {
             	throw new CarNotFoundException("lease with this lease id not found");
             }
+            return lease;
             
         } catch (CarNotFoundException e) {
-            handleException(e);
+            handleException("findLeaseById", "leaseID", leaseID, e);
         }
 		return null;
     }
     /**
-     * Creates a new lease in the system.
+     * Creates a new lease in the system, unless someone holds the car for an overlapping period. The
+     * repository rejects the lease if the car is already leased for part of the period.
      *
      * @param customerID The ID of the customer leasing the car.
      * @param carID      The ID of the leased car.
      * @param startDate  The start date of the lease.
      * @param endDate    The end date of the lease.
-     * @return The created lease.
+     * @return The created lease, or null if the car is held or leased or the lease could not be created.
      */
-    public Lease createLease(int customerID, int carID, Date startDate, Date endDate) {
+    public Lease createLease(int customerID, int carID, LocalDate startDate, LocalDate endDate) {
+        if (holds.isHeld(carID, startDate, endDate)) {
+            LOG.at(Level.WARN).op("createLease").with("customerID", customerID).with("vehicleID", carID).log("Car is held for the period");
+            return null;
+        }
+        return insertLease(customerID, carID, startDate, endDate);
+    }
+
+    /**
+     * Creates a lease without consulting the holds.
+     *
+     * @param customerID The ID of the customer leasing the car.
+     * @param carID      The ID of the leased car.
+     * @param startDate  The start date of the lease.
+     * @param endDate    The end date of the lease.
+     * @return The created lease, or null if it could not be created.
+     */
+    private Lease insertLease(int customerID, int carID, LocalDate startDate, LocalDate endDate) {
         try {
             return carLeaseRepository.createLease(customerID, carID, startDate, endDate);
         } catch (Exception e) {
-            handleException(e);
+            handleException("createLease", "customerID", customerID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Holds a car for a customer while they complete a booking. The hold succeeds only if no other hold
+     * and no existing lease on the car overlaps the period, and lapses unless it is confirmed in time.
+     *
+     * @param customerID The ID of the customer.
+     * @param carID      The ID of the car.
+     * @param startDate  The start date of the lease.
+     * @param endDate    The end date of the lease.
+     * @return The hold, or null if the car is not available for the period.
+     */
+    public Hold reserveCar(int customerID, int carID, LocalDate startDate, LocalDate endDate) {
+        Hold hold = null;
+        try {
+            hold = holds.reserve(carID, customerID, startDate, endDate);
+            if (hold == null) {
+                LOG.at(Level.INFO).op("reserveCar").with("customerID", customerID).with("vehicleID", carID).log("Car is held for the period");
+                return null;
+            }
+            // Only the single winning contender gets this far, so the database sees one query per hold
+            List<Lease> overlapping = carLeaseRepository.listLeases(carID, startDate, endDate);
+            if (!overlapping.isEmpty()) {
+                holds.release(hold.getHoldID());
+                LOG.at(Level.INFO).op("reserveCar").with("customerID", customerID).with("vehicleID", carID).with("leaseID", overlapping.get(0).getLeaseID()).log("Car is leased for the period");
+                return null;
+            }
+            return hold;
+        } catch (Exception e) {
+            if (hold != null) {
+                holds.release(hold.getHoldID());
+            }
+            handleException("reserveCar", "vehicleID", carID, e);
             return null;
         }
     }
 
+    /**
+     * Turns a hold into a lease. The hold stays in place while the lease is written, so nobody can take
+     * the period in between, and is removed afterwards.
+     *
+     * @param holdID The ID of the hold.
+     * @return The created lease, or null if the hold has expired, is unknown or the lease could not be created.
+     */
+    public Lease confirmReservation(long holdID) {
+        Hold hold = holds.confirm(holdID);
+        if (hold == null) {
+            LOG.at(Level.WARN).op("confirmReservation").with("holdID", holdID).log("Hold expired or unknown");
+            return null;
+        }
+        try {
+            return insertLease(hold.getCustomerID(), hold.getCarID(), hold.getStartDate(), hold.getEndDate());
+        } finally {
+            holds.complete(hold);
+        }
+    }
+
+    /**
+     * Releases a hold that has not been confirmed.
+     *
+     * @param holdID The ID of the hold.
+     * @return True if the hold was released.
+     */
+    public boolean cancelReservation(long holdID) {
+        return holds.release(holdID);
+    }
+
+    /**
+     * Retrieves the reservation holds guarding lease creation.
+     *
+     * @return The holds.
+     */
+    public ReservationHolds getReservationHolds() {
+        return holds;
+    }
+
+    /**
+     * Quotes the price of leasing a car between two dates.
+     *
+     * @param carID     The ID of the car to quote.
+     * @param startDate The start date of the lease.
+     * @param endDate   The end date of the lease.
+     * @return The quote.
+     */
+    public Quote getQuote(int carID, LocalDate startDate, LocalDate endDate) {
+        try {
+            return getPricingEngine().quote(carID, startDate, endDate);
+        } catch (Exception e) {
+            handleException("getQuote", "vehicleID", carID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the pricing engine, loading its rate tables and subscribing it to repository
+     * changes on first use.
+     *
+     * @return The pricing engine.
+     * @throws Exception If the rate tables cannot be loaded.
+     */
+    public synchronized PricingEngine getPricingEngine() throws Exception {
+        if (pricingEngine == null) {
+            PricingEngine engine = new PricingEngine();
+            // Subscribe before loading so no change made during the load is missed; a full reload
+            // also catches the engine up if it ever falls a ring behind and is skipped
+            if (carLeaseRepository instanceof ICarLeaseRepositoryImpl) {
+                ((ICarLeaseRepositoryImpl) carLeaseRepository).getEventBus().subscribe("pricing", engine,
+                        () -> engine.refresh(carLeaseRepository));
+            }
+            engine.refresh(carLeaseRepository);
+            pricingEngine = engine;
+        }
+        return pricingEngine;
+    }
+
+    /**
+     * Retrieves the utilization engine, loading the fleet and lease history and subscribing it to
+     * repository changes on first use. Later calls pick up leases missed since the last call.
+     *
+     * @return The utilization engine.
+     */
+    public synchronized UtilizationEngine getUtilizationEngine() {
+        if (utilizationEngine == null) {
+            utilizationEngine = new UtilizationEngine();
+            if (carLeaseRepository instanceof ICarLeaseRepositoryImpl) {
+                ((ICarLeaseRepositoryImpl) carLeaseRepository).getEventBus().subscribe("utilization", utilizationEngine);
+            }
+        }
+        utilizationEngine.refresh(carLeaseRepository);
+        return utilizationEngine;
+    }
+
+    /**
+     * Exports fleet utilization for a date range. Files ending in ".json" receive the full JSON report;
+     * any other file receives the daily occupancy as CSV.
+     *
+     * @param file The file to write.
+     * @param from The first day of the range.
+     * @param to   The last day of the range.
+     */
+    public void exportUtilization(Path file, LocalDate from, LocalDate to) {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            if (file.getFileName().toString().endsWith(".json")) {
+                getUtilizationEngine().writeJson(writer, from, to);
+            } else {
+                getUtilizationEngine().writeDailyCsv(writer, from, to);
+            }
+            LOG.at(Level.INFO).op("exportUtilization").with("file", file.toString()).log("Utilization exported");
+        } catch (Exception e) {
+            handleException("exportUtilization", e);
+        }
+    }
+
+    /**
+     * Exports all cars, customers, leases and payments into a directory, one file per entity type
+     * (cars, customers, leases, payments). Leases and payments are read page by page.
+     *
+     * @param directory The directory to write to.
+     * @param json      True for JSON Lines files, false for CSV files with a header row.
+     */
+    public void exportData(Path directory, boolean json) {
+        String extension = json ? ".jsonl" : ".csv";
+        int pageSize = ReportGenerator.DEFAULT_CHUNK_SIZE;
+        try {
+            Files.createDirectories(directory);
+            try (ByteSink sink = new ByteSink(Files.newOutputStream(directory.resolve("cars" + extension)))) {
+                EntityWriter writer = json ? new EntityJsonWriter(sink) : new EntityCsvWriter(sink);
+                writer.writeCarHeader();
+                for (Car car : carLeaseRepository.listAvailableCars()) {
+                    writer.write(car);
+                }
+                for (Car car : carLeaseRepository.listRentedCars()) {
+                    writer.write(car);
+                }
+            }
+            try (ByteSink sink = new ByteSink(Files.newOutputStream(directory.resolve("customers" + extension)))) {
+                EntityWriter writer = json ? new EntityJsonWriter(sink) : new EntityCsvWriter(sink);
+                writer.writeCustomerHeader();
+                for (Customer customer : carLeaseRepository.listCustomers()) {
+                    writer.write(customer);
+                }
+            }
+            try (ByteSink sink = new ByteSink(Files.newOutputStream(directory.resolve("leases" + extension)))) {
+                EntityWriter writer = json ? new EntityJsonWriter(sink) : new EntityCsvWriter(sink);
+                writer.writeLeaseHeader();
+                List<Lease> page = carLeaseRepository.listLeasesAfter(0, pageSize);
+                while (!page.isEmpty()) {
+                    for (Lease lease : page) {
+                        writer.write(lease);
+                    }
+                    page = carLeaseRepository.listLeasesAfter(page.get(page.size() - 1).getLeaseID(), pageSize);
+                }
+            }
+            try (ByteSink sink = new ByteSink(Files.newOutputStream(directory.resolve("payments" + extension)))) {
+                EntityWriter writer = json ? new EntityJsonWriter(sink) : new EntityCsvWriter(sink);
+                writer.writePaymentHeader();
+                List<Payment> page = carLeaseRepository.listPaymentsAfter(0, pageSize);
+                while (!page.isEmpty()) {
+                    for (Payment payment : page) {
+                        writer.write(payment);
+                    }
+                    page = carLeaseRepository.listPaymentsAfter(page.get(page.size() - 1).getPaymentID(), pageSize);
+                }
+            }
+            LOG.at(Level.INFO).op("exportData").with("directory", directory.toString()).log("Data exported");
+        } catch (Exception e) {
+            handleException("exportData", e);
+        }
+    }
+
+    /**
+     * Writes the whole dataset to a binary snapshot file that {@link #importSnapshot(Path)} can load
+     * into another database.
+     *
+     * @param file The snapshot file to create or replace.
+     */
+    public void exportSnapshot(Path file) {
+        try {
+            SnapshotSummary summary = DatasetSnapshot.export(carLeaseRepository, file);
+            LOG.at(Level.INFO).op("exportSnapshot").with("file", file.toString())
+                    .with("summary", summary.toString()).log("Snapshot written");
+        } catch (Exception e) {
+            handleException("exportSnapshot", e);
+        }
+    }
+
+    /**
+     * Bulk-loads a snapshot file written by {@link #exportSnapshot(Path)} into the (empty) database.
+     *
+     * @param file The snapshot file.
+     */
+    public void importSnapshot(Path file) {
+        try {
+            SnapshotSummary summary = DatasetSnapshot.load(file, carLeaseRepository);
+            LOG.at(Level.INFO).op("importSnapshot").with("file", file.toString())
+                    .with("summary", summary.toString()).log("Snapshot loaded");
+        } catch (Exception e) {
+            handleException("importSnapshot", e);
+        }
+    }
+
     /**
      * Handles the return of a leased car.
      *
@@ -168,9 +652,10 @@ public class CarRentalController {
             if(lease==null) {
             	throw new LeaseNotFoundException("customer with this customerId not found");
             }
+            return lease;
             
         } catch (LeaseNotFoundException e) {
-            handleException(e);
+            handleException("returnCar", "leaseID", leaseID, e);
         }
 		return null;
     }
@@ -188,9 +673,10 @@ public class CarRentalController {
             if(cust==null) {
             	throw new CustomerNotFoundException("customer with this customerId not found");
             }
+            return cust;
             
         } catch (CustomerNotFoundException e) {
-            handleException(e);
+            handleException("findCustomerById", "customerID", customerId, e);
         }
 		return null;
     }
@@ -205,6 +691,35 @@ public class CarRentalController {
         return rentedCars;
     }
 
+    /**
+     * Counts the cars in each status without fetching them, for dashboards.
+     *
+     * @return The number of cars keyed by status, or null if they could not be counted.
+     */
+    public Map<String, Long> countCarsByStatus() {
+        try {
+            return carLeaseRepository.countCarsByStatus();
+        } catch (Exception e) {
+            handleException("countCarsByStatus", e);
+            return null;
+        }
+    }
+
+    /**
+     * Counts the cars of each make that have a status.
+     *
+     * @param status The status.
+     * @return The number of cars keyed by make, or null if they could not be counted.
+     */
+    public Map<String, Long> countCarsByMake(String status) {
+        try {
+            return carLeaseRepository.countCarsByMake(status);
+        } catch (Exception e) {
+            handleException("countCarsByMake", e);
+            return null;
+        }
+    }
+
     /**
      * Finds a car by its ID.
      *
@@ -219,13 +734,80 @@ public class CarRentalController {
             if(car==null) {
             	throw new CarNotFoundException("car with this car id not found");
             }
+            return car;
             
         } catch (CarNotFoundException e) {
-            handleException(e);
+            handleException("findCarById", "vehicleID", carID, e);
         }
 		return null;
     }
 
+    /**
+     * Changes a car's daily rate. The car is re-read and the update retried if another clerk changed
+     * the car at the same time, so neither change is lost.
+     *
+     * @param carID     The ID of the car.
+     * @param dailyRate The new daily rate.
+     * @return The updated car, or null if the update failed.
+     */
+    public Car updateCarRate(int carID, double dailyRate) {
+        try {
+            return RetryHelper.retryOnConflict(() -> {
+                Car car = new Car(carLeaseRepository.findCarById(carID));
+                car.setDailyRate(dailyRate);
+                carLeaseRepository.updateCar(car);
+                return car;
+            });
+        } catch (Exception e) {
+            handleException("updateCarRate", "vehicleID", carID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Changes a car's status, retrying on concurrent changes like {@link #updateCarRate(int, double)}.
+     *
+     * @param carID  The ID of the car.
+     * @param status The new status (for example "available").
+     * @return The updated car, or null if the update failed.
+     */
+    public Car updateCarStatus(int carID, String status) {
+        try {
+            return RetryHelper.retryOnConflict(() -> {
+                Car car = new Car(carLeaseRepository.findCarById(carID));
+                car.setStatus(status);
+                carLeaseRepository.updateCar(car);
+                return car;
+            });
+        } catch (Exception e) {
+            handleException("updateCarStatus", "vehicleID", carID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Moves a lease's end date, for example to extend it, and updates its lease type to match the new
+     * period. Retries on concurrent changes like {@link #updateCarRate(int, double)}.
+     *
+     * @param leaseID The ID of the lease.
+     * @param endDate The new end date.
+     * @return The updated lease, or null if the update failed.
+     */
+    public Lease changeLeaseEndDate(int leaseID, LocalDate endDate) {
+        try {
+            return RetryHelper.retryOnConflict(() -> {
+                Lease lease = new Lease(carLeaseRepository.findLeaseById(leaseID));
+                lease.setEndDate(endDate);
+                lease.setType(LeaseType.forPeriod(lease.getStartDate(), endDate).getLabel());
+                carLeaseRepository.updateLease(lease);
+                return lease;
+            });
+        } catch (Exception e) {
+            handleException("changeLeaseEndDate", "leaseID", leaseID, e);
+            return null;
+        }
+    }
+
     /**
      * Lists all active leases in the system.
      *
@@ -235,11 +817,43 @@ public class CarRentalController {
         try {
             return carLeaseRepository.listActiveLeases();
         } catch (Exception e) {
-            handleException(e);
+            handleException("listActiveLeases", e);
             return null;
         }
     }
 
+    /**
+     * Lists the leases overlapping a date range, including archived ones when the range reaches back that far.
+     *
+     * @param from The first day of the range.
+     * @param to   The last day of the range.
+     * @return List of overlapping leases.
+     */
+    public List<Lease> listLeases(LocalDate from, LocalDate to) {
+        try {
+            return carLeaseRepository.listLeases(from, to);
+        } catch (Exception e) {
+            handleException("listLeases", e);
+            return null;
+        }
+    }
+
+    /**
+     * Moves leases that ended more than the retention period ago and are fully paid, with their payments,
+     * to the archive tier.
+     *
+     * @param retentionDays The number of days completed leases stay in the hot tables.
+     * @return The number of leases archived, or -1 if archiving failed.
+     */
+    public int archiveCompletedLeases(int retentionDays) {
+        try {
+            return carLeaseRepository.archiveLeases(LocalDate.now().minusDays(retentionDays), ARCHIVE_BATCH_SIZE);
+        } catch (Exception e) {
+            handleException("archiveCompletedLeases", e);
+            return -1;
+        }
+    }
+
     /**
      * Records a payment for a lease.
      *
@@ -249,9 +863,9 @@ public class CarRentalController {
     public void recordPayment(Lease lease, double amount) {
         try {
             carLeaseRepository.recordPayment(lease, amount);
-            System.out.println("Payment recorded successfully.");
+            LOG.at(Level.INFO).op("recordPayment").with("leaseID", lease.getLeaseID()).log("Payment recorded");
         } catch (Exception e) {
-            handleException(e);
+            handleException("recordPayment", "leaseID", lease.getLeaseID(), e);
         }
     }
 
@@ -265,7 +879,37 @@ public class CarRentalController {
         try {
             return carLeaseRepository.retrievePaymentHistory(customerID);
         } catch (Exception e) {
-            handleException(e);
+            handleException("retrievePaymentHistory", "customerID", customerID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the balance a customer owes on their leases.
+     *
+     * @param customerID The ID of the customer.
+     * @return The balance owed; negative if the customer has paid in advance.
+     */
+    public double retrieveBalance(int customerID) {
+        try {
+            return carLeaseRepository.retrieveBalance(customerID);
+        } catch (Exception e) {
+            handleException("retrieveBalance", "customerID", customerID, e);
+            return 0.0;
+        }
+    }
+
+    /**
+     * Retrieves a customer's ledger of charges, adjustments and payments with running balances.
+     *
+     * @param customerID The ID of the customer.
+     * @return List of ledger entries in posting order.
+     */
+    public List<LedgerEntry> retrieveLedger(int customerID) {
+        try {
+            return carLeaseRepository.retrieveLedger(customerID);
+        } catch (Exception e) {
+            handleException("retrieveLedger", "customerID", customerID, e);
             return null;
         }
     }
@@ -279,11 +923,86 @@ public class CarRentalController {
         try {
             return carLeaseRepository.calculateTotalRevenue();
         } catch (Exception e) {
-            handleException(e);
+            handleException("calculateTotalRevenue", e);
             return 0.0;
         }
     }
 
+    /**
+     * Calculates the revenue of every customer in the database.
+     *
+     * @return Total payments keyed by customer ID.
+     */
+    public KeyedTotals calculateRevenueByCustomer() {
+        try {
+            return carLeaseRepository.calculateRevenueByCustomer();
+        } catch (Exception e) {
+            handleException("calculateRevenueByCustomer", e);
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the revenue of every car in the database.
+     *
+     * @return Total payments keyed by vehicle ID.
+     */
+    public KeyedTotals calculateRevenueByCar() {
+        try {
+            return carLeaseRepository.calculateRevenueByCar();
+        } catch (Exception e) {
+            handleException("calculateRevenueByCar", e);
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the revenue of every month in the database.
+     *
+     * @return Total payments keyed by month as {@code year * 100 + month}.
+     */
+    public KeyedTotals calculateRevenueByMonth() {
+        try {
+            return carLeaseRepository.calculateRevenueByMonth();
+        } catch (Exception e) {
+            handleException("calculateRevenueByMonth", e);
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the balance still owed on every lease with an unpaid balance.
+     *
+     * @return Outstanding balances keyed by lease ID.
+     */
+    public KeyedTotals calculateOutstandingByLease() {
+        try {
+            return carLeaseRepository.calculateOutstandingByLease();
+        } catch (Exception e) {
+            handleException("calculateOutstandingByLease", e);
+            return null;
+        }
+    }
+
+    /**
+     * Generates the month-end report for a month: revenue by car, top customers and average lease length.
+     *
+     * @param year         The year.
+     * @param month        The month, 1 to 12.
+     * @param topCustomers The number of top customers to include.
+     * @return The report.
+     */
+    public MonthEndReport generateMonthEndReport(int year, int month, int topCustomers) {
+        try {
+            LocalDate from = LocalDate.of(year, month, 1);
+            return ReportGenerator.forRepository(carLeaseRepository)
+                    .generate(from, from.plusMonths(1).minusDays(1), topCustomers);
+        } catch (Exception e) {
+            handleException("generateMonthEndReport", e);
+            return null;
+        }
+    }
+
     /**
      * Lists the entire lease history in the system.
      *
@@ -291,19 +1010,55 @@ public class CarRentalController {
      */
     public List<Lease> listLeaseHistory() {
         try {
-            return ((ICarLeaseRepositoryImpl) carLeaseRepository).listLeaseHistory();
+            return carLeaseRepository.listLeaseHistory();
+        } catch (Exception e) {
+            handleException("listLeaseHistory", e);
+            return null;
+        }
+    }
+
+    /**
+     * Lists the ID, car, customer and dates of every lease in the history, for list screens.
+     *
+     * @return List of lease summaries.
+     */
+    public List<LeaseSummary> listLeaseSummaries() {
+        try {
+            return carLeaseRepository.listLeaseSummaries();
         } catch (Exception e) {
-            handleException(e);
+            handleException("listLeaseSummaries", e);
             return null;
         }
     }
 
     /**
-     * Handles exceptions by logging or performing any necessary handling.
+     * Handles exceptions by logging them asynchronously. Expected failures such as unknown IDs, duplicates
+     * and version conflicts are logged as warnings without a stack trace; anything else is an error.
+     *
+     * @param operation The operation that failed.
+     * @param e         The exception that occurred.
+     */
+    private void handleException(String operation, Exception e) {
+        LOG.at(levelFor(e)).op(operation).error(e).log("Request failed");
+    }
+
+    /**
+     * Handles exceptions for an operation on a single entity by logging them asynchronously with its ID.
      *
-     * @param e The exception that occurred.
+     * @param operation The operation that failed.
+     * @param key       The name of the ID field.
+     * @param id        The ID of the entity involved.
+     * @param e         The exception that occurred.
      */
-    private void handleException(Exception e) {
-        System.out.println("Error occured: " + e);
+    private void handleException(String operation, String key, long id, Exception e) {
+        LOG.at(levelFor(e)).op(operation).with(key, id).error(e).log("Request failed");
+    }
+
+    private static Level levelFor(Exception e) {
+        return e instanceof CarNotFoundException || e instanceof CustomerNotFoundException
+                || e instanceof LeaseNotFoundException || e instanceof CarAlreadyExistsException
+                || e instanceof CustomerAlreadyExistsException || e instanceof OptimisticLockException
+                || e instanceof LeaseConflictException
+                || e instanceof IllegalArgumentException ? Level.WARN : Level.ERROR;
     }
 }
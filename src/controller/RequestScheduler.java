@@ -0,0 +1,387 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits calls to the {@link CarRentalController} by priority class, so a burst of report exports cannot
+ * starve bookings at the counter.
+ * <p>
+ * At most {@code maxConcurrent} calls run at a time. When a slot is free the scheduler admits a waiting call
+ * from the highest-priority class that has both a waiting call and a token in its bucket. The bucket caps
+ * each class's rate, so the higher classes cannot starve the lower ones either. Within a class the
+ * operators take turns, one call each, so one operator queueing many requests does not delay the others.
+ * <p>
+ * Calls run on the caller's own thread once admitted; the scheduler only decides when. A call is rejected
+ * with a {@link RejectedExecutionException} when its class's queue is full or it waits longer than
+ * {@code maxWaitMillis}.
+ */
+public class RequestScheduler {
+
+    /**
+     * The priority classes, highest first.
+     */
+    public enum Priority {
+        BOOKING,
+        PAYMENT,
+        LOOKUP,
+        REPORT
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Map<Priority, ClassQueue> queues = new EnumMap<>(Priority.class);
+    // Guarded by lock
+    private int running;
+
+    /**
+     * Constructs a new RequestScheduler with the default per-class limits: bookings and lookups at 200 calls
+     * per second, payments at 100 and reports at 2, each queueing at most 256 calls (16 for reports).
+     *
+     * @param maxConcurrent The maximum number of calls running at a time.
+     * @param maxWaitMillis The maximum time a call waits to be admitted.
+     */
+    public RequestScheduler(int maxConcurrent, long maxWaitMillis) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        queues.put(Priority.BOOKING, new ClassQueue(200, 50, 256));
+        queues.put(Priority.PAYMENT, new ClassQueue(100, 25, 256));
+        queues.put(Priority.LOOKUP, new ClassQueue(200, 50, 256));
+        queues.put(Priority.REPORT, new ClassQueue(2, 2, 16));
+    }
+
+    /**
+     * Sets the rate limit and queue bound of a class.
+     *
+     * @param priority  The class.
+     * @param perSecond The sustained rate, in calls per second.
+     * @param burst     The number of calls that may be admitted back to back after an idle period.
+     * @param maxQueued The maximum number of waiting calls.
+     */
+    public void setLimit(Priority priority, double perSecond, int burst, int maxQueued) {
+        if (perSecond <= 0 || burst <= 0 || maxQueued <= 0) {
+            throw new IllegalArgumentException("Invalid limit for " + priority);
+        }
+        lock.lock();
+        try {
+            queues.get(priority).configure(perSecond, burst, maxQueued);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a call once it is admitted.
+     *
+     * @param operator The operator or client the call comes from, used for fair queuing.
+     * @param priority The call's class.
+     * @param call     The call.
+     * @param <T>      The result type.
+     * @return The call's result.
+     * @throws RejectedExecutionException If the class's queue is full or the call was not admitted in time.
+     * @throws InterruptedException       If the thread is interrupted while waiting.
+     * @throws Exception                  If the call fails.
+     */
+    public <T> T call(String operator, Priority priority, Callable<T> call) throws Exception {
+        admit(operator, priority);
+        try {
+            return call.call();
+        } finally {
+            lock.lock();
+            try {
+                running--;
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the statistics of a class.
+     *
+     * @param priority The class.
+     * @return A snapshot of the class's queue depth, admissions, rejections and wait times.
+     */
+    public ClassStats getStats(Priority priority) {
+        lock.lock();
+        try {
+            ClassQueue queue = queues.get(priority);
+            return new ClassStats(queue.depth, queue.admitted, queue.rejected, queue.totalWaitNanos, queue.maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of calls currently running.
+     *
+     * @return The running call count.
+     */
+    public int getRunningCount() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the maximum number of calls running at a time.
+     *
+     * @return The concurrency limit.
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void admit(String operator, Priority priority) throws InterruptedException {
+        long enqueued = System.nanoTime();
+        long deadline = enqueued + maxWaitNanos;
+        lock.lock();
+        try {
+            ClassQueue queue = queues.get(priority);
+            if (queue.depth >= queue.maxQueued) {
+                queue.rejected++;
+                throw new RejectedExecutionException("Too many queued " + priority + " requests");
+            }
+            Ticket ticket = new Ticket(operator, enqueued, lock.newCondition());
+            queue.offer(ticket);
+            dispatch();
+            while (!ticket.admitted) {
+                long now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    queue.remove(ticket);
+                    queue.rejected++;
+                    throw new RejectedExecutionException("Timed out waiting to run " + priority + " request");
+                }
+                long wait = deadline - now;
+                long untilToken = queue.bucket.nanosUntilToken(now);
+                // A slot freed while the bucket is empty dispatches nobody, and nothing signals when the
+                // bucket refills, so an empty bucket always bounds the wait. With a token in hand, only a
+                // busy slot holds this call back, and freeing it signals.
+                if (untilToken > 0 || running < maxConcurrent) {
+                    wait = Math.min(wait, untilToken);
+                }
+                try {
+                    ticket.ready.awaitNanos(wait);
+                } catch (InterruptedException e) {
+                    if (ticket.admitted) {
+                        running--;
+                        dispatch();
+                    } else {
+                        queue.remove(ticket);
+                    }
+                    throw e;
+                }
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Admits waiting calls while slots are free; called with the lock held
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (running < maxConcurrent) {
+            Ticket next = null;
+            for (ClassQueue queue : queues.values()) {
+                if (queue.depth > 0 && queue.bucket.tryTake(now)) {
+                    next = queue.poll();
+                    long waited = now - next.enqueued;
+                    queue.admitted++;
+                    queue.totalWaitNanos += waited;
+                    queue.maxWaitNanos = Math.max(queue.maxWaitNanos, waited);
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            running++;
+            next.admitted = true;
+            next.ready.signal();
+        }
+    }
+
+    /**
+     * A snapshot of one class's scheduling statistics.
+     */
+    public static final class ClassStats {
+
+        private final int queueDepth;
+        private final long admitted;
+        private final long rejected;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        ClassStats(int queueDepth, long admitted, long rejected, long totalWaitNanos, long maxWaitNanos) {
+            this.queueDepth = queueDepth;
+            this.admitted = admitted;
+            this.rejected = rejected;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        /**
+         * Retrieves the number of calls waiting to be admitted.
+         *
+         * @return The queue depth.
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Retrieves the number of calls admitted so far.
+         *
+         * @return The admitted call count.
+         */
+        public long getAdmitted() {
+            return admitted;
+        }
+
+        /**
+         * Retrieves the number of calls rejected so far, because the queue was full or the wait timed out.
+         *
+         * @return The rejected call count.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Retrieves the mean time admitted calls waited.
+         *
+         * @return The mean wait in microseconds.
+         */
+        public double getMeanWaitMicros() {
+            return admitted == 0 ? 0 : totalWaitNanos / 1000.0 / admitted;
+        }
+
+        /**
+         * Retrieves the longest time an admitted call waited.
+         *
+         * @return The maximum wait in microseconds.
+         */
+        public long getMaxWaitMicros() {
+            return maxWaitNanos / 1000;
+        }
+    }
+
+    private static final class Ticket {
+        private final String operator;
+        private final long enqueued;
+        private final Condition ready;
+        private boolean admitted;
+
+        Ticket(String operator, long enqueued, Condition ready) {
+            this.operator = operator;
+            this.enqueued = enqueued;
+            this.ready = ready;
+        }
+    }
+
+    // One priority class: a token bucket and a round-robin over the operators with waiting calls
+    private static final class ClassQueue {
+        private final TokenBucket bucket = new TokenBucket();
+        private final Map<String, ArrayDeque<Ticket>> byOperator = new HashMap<>();
+        private final ArrayDeque<String> turns = new ArrayDeque<>();
+        private int maxQueued;
+        private int depth;
+        private long admitted;
+        private long rejected;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        ClassQueue(double perSecond, int burst, int maxQueued) {
+            configure(perSecond, burst, maxQueued);
+        }
+
+        void configure(double perSecond, int burst, int maxQueued) {
+            bucket.configure(perSecond, burst);
+            this.maxQueued = maxQueued;
+        }
+
+        void offer(Ticket ticket) {
+            ArrayDeque<Ticket> waiting = byOperator.get(ticket.operator);
+            if (waiting == null) {
+                waiting = new ArrayDeque<>();
+                byOperator.put(ticket.operator, waiting);
+                turns.addLast(ticket.operator);
+            }
+            waiting.addLast(ticket);
+            depth++;
+        }
+
+        Ticket poll() {
+            String operator = turns.pollFirst();
+            ArrayDeque<Ticket> waiting = byOperator.get(operator);
+            Ticket ticket = waiting.pollFirst();
+            if (waiting.isEmpty()) {
+                byOperator.remove(operator);
+            } else {
+                turns.addLast(operator);
+            }
+            depth--;
+            return ticket;
+        }
+
+        void remove(Ticket ticket) {
+            ArrayDeque<Ticket> waiting = byOperator.get(ticket.operator);
+            if (waiting != null && waiting.remove(ticket)) {
+                depth--;
+                if (waiting.isEmpty()) {
+                    byOperator.remove(ticket.operator);
+                    turns.remove(ticket.operator);
+                }
+            }
+        }
+    }
+
+    // Classic token bucket, refilled lazily from the elapsed time; guarded by the scheduler lock
+    private static final class TokenBucket {
+        private double nanosPerToken;
+        private double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        void configure(double perSecond, int burst) {
+            nanosPerToken = TimeUnit.SECONDS.toNanos(1) / perSecond;
+            capacity = burst;
+            tokens = burst;
+        }
+
+        boolean tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+
+        long nanosUntilToken(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : Math.max(1, (long) ((1 - tokens) * nanosPerToken));
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+        }
+    }
+}
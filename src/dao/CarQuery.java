@@ -0,0 +1,260 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The {@code CarQuery} class describes a multi-attribute filter over the fleet, used by
+ * {@link ICarLeaseRepository#findCars(CarQuery)}.
+ * <p>
+ * Values given for the same attribute are combined with OR (for example several makes), different
+ * attributes are combined with AND, and whole queries can be combined with {@link #or(CarQuery)}.
+ * Results are ordered by daily rate, cheapest first unless {@link #sortByDailyRateDescending()} is set.
+ * All setters return the query itself so filters can be chained.
+ */
+public class CarQuery {
+
+    private final Set<String> makes = new LinkedHashSet<>();
+    private final Set<String> statuses = new LinkedHashSet<>();
+    private Integer minPassengerCapacity;
+    private Integer maxPassengerCapacity;
+    private Integer minEngineCapacity;
+    private Integer maxEngineCapacity;
+    private Integer minYear;
+    private Integer maxYear;
+    private Double minDailyRate;
+    private Double maxDailyRate;
+    private boolean descending;
+    private int limit = Integer.MAX_VALUE;
+    private final List<CarQuery> alternatives = new ArrayList<>();
+
+    /**
+     * Restricts results to the given makes (case-insensitive).
+     *
+     * @param makes The accepted makes.
+     * @return This query.
+     */
+    public CarQuery makes(String... makes) {
+        for (String make : makes) {
+            this.makes.add(make.toLowerCase(Locale.ROOT));
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to the given statuses (for example "available").
+     *
+     * @param statuses The accepted statuses.
+     * @return This query.
+     */
+    public CarQuery statuses(String... statuses) {
+        Collections.addAll(this.statuses, statuses);
+        return this;
+    }
+
+    /**
+     * Restricts results to cars seating between the given bounds, inclusive.
+     *
+     * @param min The minimum passenger capacity, or null for no lower bound.
+     * @param max The maximum passenger capacity, or null for no upper bound.
+     * @return This query.
+     */
+    public CarQuery passengerCapacityBetween(Integer min, Integer max) {
+        this.minPassengerCapacity = min;
+        this.maxPassengerCapacity = max;
+        return this;
+    }
+
+    /**
+     * Restricts results to cars with an engine capacity between the given bounds, inclusive.
+     *
+     * @param min The minimum engine capacity, or null for no lower bound.
+     * @param max The maximum engine capacity, or null for no upper bound.
+     * @return This query.
+     */
+    public CarQuery engineCapacityBetween(Integer min, Integer max) {
+        this.minEngineCapacity = min;
+        this.maxEngineCapacity = max;
+        return this;
+    }
+
+    /**
+     * Restricts results to cars manufactured between the given years, inclusive.
+     *
+     * @param min The earliest year, or null for no lower bound.
+     * @param max The latest year, or null for no upper bound.
+     * @return This query.
+     */
+    public CarQuery yearBetween(Integer min, Integer max) {
+        this.minYear = min;
+        this.maxYear = max;
+        return this;
+    }
+
+    /**
+     * Restricts results to cars with a daily rate between the given bounds, inclusive.
+     *
+     * @param min The minimum daily rate, or null for no lower bound.
+     * @param max The maximum daily rate, or null for no upper bound.
+     * @return This query.
+     */
+    public CarQuery dailyRateBetween(Double min, Double max) {
+        this.minDailyRate = min;
+        this.maxDailyRate = max;
+        return this;
+    }
+
+    /**
+     * Orders results by daily rate, most expensive first.
+     *
+     * @return This query.
+     */
+    public CarQuery sortByDailyRateDescending() {
+        this.descending = true;
+        return this;
+    }
+
+    /**
+     * Limits the number of results.
+     *
+     * @param limit The maximum number of cars to return.
+     * @return This query.
+     */
+    public CarQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Adds an alternative filter: a car matches if it matches this query's filters or the other query's.
+     * Ordering and limit are taken from this query.
+     *
+     * @param other The alternative query.
+     * @return This query.
+     */
+    public CarQuery or(CarQuery other) {
+        alternatives.add(other);
+        return this;
+    }
+
+    /**
+     * Retrieves the accepted makes, lower-cased.
+     *
+     * @return The makes, or an empty set for any make.
+     */
+    public Set<String> getMakes() {
+        return makes;
+    }
+
+    /**
+     * Retrieves the accepted statuses.
+     *
+     * @return The statuses, or an empty set for any status.
+     */
+    public Set<String> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Retrieves the minimum passenger capacity.
+     *
+     * @return The lower bound, or null.
+     */
+    public Integer getMinPassengerCapacity() {
+        return minPassengerCapacity;
+    }
+
+    /**
+     * Retrieves the maximum passenger capacity.
+     *
+     * @return The upper bound, or null.
+     */
+    public Integer getMaxPassengerCapacity() {
+        return maxPassengerCapacity;
+    }
+
+    /**
+     * Retrieves the minimum engine capacity.
+     *
+     * @return The lower bound, or null.
+     */
+    public Integer getMinEngineCapacity() {
+        return minEngineCapacity;
+    }
+
+    /**
+     * Retrieves the maximum engine capacity.
+     *
+     * @return The upper bound, or null.
+     */
+    public Integer getMaxEngineCapacity() {
+        return maxEngineCapacity;
+    }
+
+    /**
+     * Retrieves the earliest manufacturing year.
+     *
+     * @return The lower bound, or null.
+     */
+    public Integer getMinYear() {
+        return minYear;
+    }
+
+    /**
+     * Retrieves the latest manufacturing year.
+     *
+     * @return The upper bound, or null.
+     */
+    public Integer getMaxYear() {
+        return maxYear;
+    }
+
+    /**
+     * Retrieves the minimum daily rate.
+     *
+     * @return The lower bound, or null.
+     */
+    public Double getMinDailyRate() {
+        return minDailyRate;
+    }
+
+    /**
+     * Retrieves the maximum daily rate.
+     *
+     * @return The upper bound, or null.
+     */
+    public Double getMaxDailyRate() {
+        return maxDailyRate;
+    }
+
+    /**
+     * Retrieves whether results are ordered most expensive first.
+     *
+     * @return True for descending daily rate order.
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Retrieves the maximum number of results.
+     *
+     * @return The limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Retrieves the alternative queries combined with OR.
+     *
+     * @return The alternative queries.
+     */
+    public List<CarQuery> getAlternatives() {
+        return alternatives;
+    }
+}
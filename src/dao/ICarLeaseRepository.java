@@ -1,17 +1,24 @@
 package dao;
 
 import entity.Car;
+import entity.CarSummary;
 import entity.Customer;
+import entity.CustomerSummary;
 import entity.Lease;
+import entity.LeaseSummary;
+import entity.LedgerEntry;
 import entity.Payment;
 import exception.CarAlreadyExistsException;
 import exception.CarNotFoundException;
 import exception.CustomerAlreadyExistsException;
 import exception.CustomerNotFoundException;
+import exception.LeaseConflictException;
 import exception.LeaseNotFoundException;
+import exception.OptimisticLockException;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code ICarLeaseRepository} interface defines methods for managing cars, customers, leases,
@@ -31,8 +38,9 @@ public interface ICarLeaseRepository {
      * Removes a car from the repository based on its ID.
      *
      * @param carID The ID of the car to be removed.
+     * @throws CarNotFoundException If the specified car ID is not found in the repository.
      */
-    void removeCar(int carID);
+    void removeCar(int carID) throws CarNotFoundException;
 
     /**
      * Retrieves a list of available cars in the repository.
@@ -41,6 +49,14 @@ public interface ICarLeaseRepository {
      */
     List<Car> listAvailableCars();
 
+    /**
+     * Retrieves the ID, make, model and daily rate of every available car, for list screens.
+     * Full cars are loaded on demand with {@link #findCarById(int)}.
+     *
+     * @return List of available car summaries.
+     */
+    List<CarSummary> listAvailableCarSummaries();
+
     /**
      * Retrieves a list of rented cars in the repository.
      *
@@ -48,6 +64,22 @@ public interface ICarLeaseRepository {
      */
     List<Car> listRentedCars();
 
+    /**
+     * Counts the cars in each status, for example available, notAvailable or maintenance, without
+     * fetching the cars.
+     *
+     * @return The number of cars keyed by status; statuses without cars are left out.
+     */
+    Map<String, Long> countCarsByStatus();
+
+    /**
+     * Counts the cars of each make that have a status.
+     *
+     * @param status The status.
+     * @return The number of cars keyed by make; makes without cars in the status are left out.
+     */
+    Map<String, Long> countCarsByMake(String status);
+
     /**
      * Finds and returns a car based on its ID.
      *
@@ -57,6 +89,24 @@ public interface ICarLeaseRepository {
      */
     Car findCarById(int carID) throws CarNotFoundException;
 
+    /**
+     * Finds cars matching a multi-attribute filter, ordered by daily rate.
+     *
+     * @param query The filter to apply.
+     * @return List of matching cars.
+     */
+    List<Car> findCars(CarQuery query);
+
+    /**
+     * Updates a car's details, provided nobody else has updated it since it was read.
+     * On success the car's version is advanced to the stored version.
+     *
+     * @param car The car with its new details and the version it was read at.
+     * @throws CarNotFoundException    If the car no longer exists.
+     * @throws OptimisticLockException If the car was updated by someone else in the meantime.
+     */
+    void updateCar(Car car) throws CarNotFoundException, OptimisticLockException;
+
     /**
      * Adds a new customer to the repository.
      *
@@ -80,6 +130,14 @@ public interface ICarLeaseRepository {
      */
     List<Customer> listCustomers();
 
+    /**
+     * Retrieves the ID and name of every customer, for list screens.
+     * Full customers are loaded on demand with {@link #findCustomerById(int)}.
+     *
+     * @return List of customer summaries.
+     */
+    List<CustomerSummary> listCustomerSummaries();
+
     /**
      * Finds and returns a customer based on their ID.
      *
@@ -89,6 +147,16 @@ public interface ICarLeaseRepository {
      */
     Customer findCustomerById(int customerID) throws CustomerNotFoundException;
 
+    /**
+     * Searches customers by name, email or phone number.
+     *
+     * @param query The search text; every word must match the start of a first name, last name,
+     *              email or phone number, or the end of a phone number.
+     * @param limit The maximum number of customers to return.
+     * @return List of matching customers, exact matches first.
+     */
+    List<Customer> searchCustomers(String query, int limit);
+
     /**
      * Creates a new lease for a specified customer and car with given start and end dates.
      *
@@ -97,11 +165,12 @@ public interface ICarLeaseRepository {
      * @param startDate  The start date of the lease.
      * @param endDate    The end date of the lease.
      * @return The created lease.
+     * @throws LeaseConflictException If the car is already leased for part of the period.
      */
-    public Lease createLease(int customerID, int carID, Date startDate, Date endDate) throws LeaseNotFoundException, CarNotFoundException, CustomerNotFoundException ;
+    public Lease createLease(int customerID, int carID, LocalDate startDate, LocalDate endDate) throws LeaseNotFoundException, CarNotFoundException, CustomerNotFoundException, LeaseConflictException ;
 
     /**
-     * Marks a lease as returned based on its ID.
+     * Marks a lease as returned based on its ID. Returning a lease that is already returned changes nothing.
      *
      * @param leaseID The ID of the lease to be marked as returned.
      * @return The returned lease.
@@ -110,7 +179,8 @@ public interface ICarLeaseRepository {
     public Lease returnCar(int leaseID) throws LeaseNotFoundException;
 
     /**
-     * Retrieves a list of all active leases in the repository.
+     * Retrieves a list of all active leases in the repository: every lease that ends today or later.
+     * This includes leases booked to start in the future, not only the cars out on the road today.
      *
      * @return List of active leases.
      */
@@ -123,6 +193,67 @@ public interface ICarLeaseRepository {
      */
     List<Lease> listLeaseHistory() throws CarNotFoundException, CustomerNotFoundException;
 
+    /**
+     * Retrieves the ID, car, customer and dates of every lease, archived ones included, for list screens.
+     * Full leases are loaded on demand with {@link #findLeaseById(int)}.
+     *
+     * @return List of lease summaries.
+     */
+    List<LeaseSummary> listLeaseSummaries();
+
+    /**
+     * Retrieves the leases with an ID greater than the given one, ordered by ID.
+     * Lease IDs only grow, so this picks up new leases without rescanning the whole table.
+     *
+     * @param leaseID The highest lease ID already seen.
+     * @return List of newer leases.
+     */
+    List<Lease> listLeasesAfter(int leaseID);
+
+    /**
+     * Retrieves one page of leases with an ID greater than the given one, ordered by ID.
+     * Callers page through the table by passing the last ID of the previous page.
+     *
+     * @param leaseID The last lease ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of leases to return.
+     * @return List of at most {@code limit} leases.
+     */
+    List<Lease> listLeasesAfter(int leaseID, int limit);
+
+    /**
+     * Retrieves the leases overlapping a date range, that is those starting on or before {@code to}
+     * and ending on or after {@code from}, ordered by ID. Archived leases are read only when the
+     * range reaches back into the archive.
+     *
+     * @param from The first day of the range.
+     * @param to   The last day of the range.
+     * @return List of overlapping leases.
+     */
+    List<Lease> listLeases(LocalDate from, LocalDate to);
+
+    /**
+     * Retrieves the leases of one car overlapping a date range, ordered by ID. Archived leases are read
+     * only when the range reaches back into the archive.
+     *
+     * @param vehicleID The ID of the car.
+     * @param from      The first day of the range.
+     * @param to        The last day of the range.
+     * @return List of the car's overlapping leases.
+     */
+    List<Lease> listLeases(int vehicleID, LocalDate from, LocalDate to);
+
+    /**
+     * Moves completed leases to the archive tier together with their payments, in batches of at most
+     * {@code batchSize} leases per transaction. A lease is completed once it has ended before the cutoff
+     * and its payments cover its charge. Archived leases remain visible to every read, but can no longer
+     * be updated or returned.
+     *
+     * @param endedBefore The cutoff; only leases ending before this day are archived.
+     * @param batchSize   The maximum number of leases moved per transaction.
+     * @return The number of leases archived.
+     */
+    int archiveLeases(LocalDate endedBefore, int batchSize);
+
     /**
      * Finds and returns a lease based on its ID.
      *
@@ -132,6 +263,16 @@ public interface ICarLeaseRepository {
      */
     Lease findLeaseById(int leaseID)  throws LeaseNotFoundException;
 
+    /**
+     * Updates a lease's car, customer, dates and type, provided nobody else has updated it since it was read.
+     * On success the lease's version is advanced to the stored version.
+     *
+     * @param lease The lease with its new details and the version it was read at.
+     * @throws LeaseNotFoundException  If the lease no longer exists.
+     * @throws OptimisticLockException If the lease was updated by someone else in the meantime.
+     */
+    void updateLease(Lease lease) throws LeaseNotFoundException, OptimisticLockException;
+
     /**
      * Records a payment for a specified lease with the given amount.
      *
@@ -148,10 +289,95 @@ public interface ICarLeaseRepository {
      */
     List<Payment> retrievePaymentHistory(int customerID);
 
+    /**
+     * Retrieves the balance a customer owes: the charges for their leases less their payments.
+     * The balance is kept up to date as leases and payments are recorded, so this is a single-row lookup.
+     *
+     * @param customerID The ID of the customer.
+     * @return The balance owed; negative if the customer has paid in advance, 0 if they have no entries.
+     */
+    double retrieveBalance(int customerID);
+
+    /**
+     * Retrieves a customer's ledger: lease charges, adjustments and payments in the order they were posted,
+     * each with the customer's running balance after it.
+     *
+     * @param customerID The ID of the customer.
+     * @return List of ledger entries.
+     */
+    List<LedgerEntry> retrieveLedger(int customerID);
+
+    /**
+     * Rebuilds every customer's ledger and balance from the stored leases and payments, for example after a
+     * bulk load or when the ledger tables are first created.
+     *
+     * @return The number of ledger entries written.
+     */
+    int rebuildLedger();
+
+    /**
+     * Retrieves one page of payments with an ID greater than the given one, ordered by ID.
+     * Callers page through the table by passing the last ID of the previous page.
+     *
+     * @param paymentID The last payment ID of the previous page, or 0 for the first page.
+     * @param limit     The maximum number of payments to return.
+     * @return List of at most {@code limit} payments.
+     */
+    List<Payment> listPaymentsAfter(int paymentID, int limit);
+
     /**
      * Calculates the total revenue generated from all payments.
      *
      * @return The total revenue.
      */
     double calculateTotalRevenue();
+
+    /**
+     * Calculates the total paid by one customer, aggregated in the database.
+     *
+     * @param customerID The ID of the customer.
+     * @return The customer's total payments.
+     */
+    double calculateRevenueForCustomer(int customerID);
+
+    /**
+     * Calculates the revenue of every customer, aggregated in the database.
+     *
+     * @return Total payments keyed by customer ID.
+     */
+    KeyedTotals calculateRevenueByCustomer();
+
+    /**
+     * Calculates the revenue of every car, aggregated in the database.
+     *
+     * @return Total payments keyed by vehicle ID.
+     */
+    KeyedTotals calculateRevenueByCar();
+
+    /**
+     * Calculates the revenue of every month, aggregated in the database.
+     *
+     * @return Total payments keyed by month as {@code year * 100 + month}.
+     */
+    KeyedTotals calculateRevenueByMonth();
+
+    /**
+     * Calculates the balance still owed on every lease: the car's daily rate times the days leased,
+     * less the payments received. Only leases with a positive balance are returned.
+     *
+     * @return Outstanding balances keyed by lease ID.
+     */
+    KeyedTotals calculateOutstandingByLease();
+
+    /**
+     * Inserts rows with their existing IDs in bulk, for example from a dataset snapshot.
+     * Cars and customers are inserted before leases, and leases before payments. No change events
+     * are published for bulk-loaded rows; the customer ledger is rebuilt from them instead.
+     *
+     * @param cars      The cars to insert.
+     * @param customers The customers to insert.
+     * @param leases    The leases to insert.
+     * @param payments  The payments to insert.
+     */
+    void bulkLoad(List<Car> cars, List<Customer> customers, List<Lease> leases, List<Payment> payments);
 }
@@ -1,28 +1,582 @@
 package dao;
 
+import cache.EntityCache;
+import cache.InvalidationChannel;
+import cache.RequestMemo;
+
 import entity.*;
 
+import event.*;
+
 import exception.*;
 
+import index.CarFilterIndex;
+import index.CarStatusCounts;
+import index.CustomerSearchIndex;
+
+import log.Level;
+import log.Logger;
+
+import pricing.LeaseType;
+
+import resilience.DatabaseGuard;
+import resilience.DatabaseGuard.CallKind;
+
 import util.DBConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the ICarLeaseRepository interface for managing car leasing operations.
+ * Every successful write is published to an {@link EventBus} once the statement has been
+ * committed (the connection runs in auto-commit mode), so consumers can follow changes
+ * without polling the database.
+ * <p>
+ * Every statement runs through a {@link DatabaseGuard}: it carries a query timeout, holds a permit of its
+ * call kind's bulkhead while it runs and is rejected immediately while the database circuit is open. When
+ * the database is unavailable, car listings and customer lookups are served from the in-memory indexes
+ * if those have been loaded.
+ * <p>
+ * Lease charges and payments are posted to a per-customer ledger in the same transaction as the lease or
+ * payment itself, and each customer's balance is kept in its own row, so {@link #retrieveBalance(int)}
+ * does not have to join and sum payments.
+ * <p>
+ * Cars, customers and leases are looked up in two tiers: a {@link RequestMemo} scoped to the current request,
+ * then this repository's shared {@link EntityCache}s. When several application nodes share the database,
+ * an {@link InvalidationChannel} tells the other nodes which of their cached entities this node changed.
+ * <p>
+ * Fleet counts by status and make are kept in {@link CarStatusCounts}, updated by every car write and
+ * reconciled against the database every few minutes.
  */
 
 public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
-    private Connection connection;
+
+    private static final Logger LOG = Logger.getLogger(ICarLeaseRepositoryImpl.class);
+
+    // SQL used by this repository; listed together so startup warmup can prepare all of it
+    private static final String INSERT_CAR_SQL =
+            "INSERT INTO vehicle (make, model, year, dailyRate, status, passengerCapacity, engineCapacity) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Soft delete: removal only stamps the row, and every read of live cars or customers skips stamped rows.
+    // Needs "ALTER TABLE Vehicle ADD COLUMN deletedAt DATETIME NULL, ADD INDEX (deletedAt)" and the same on
+    // Customer. Stamped rows are deleted later, off-peak, by purgeDeletedCars and purgeDeletedCustomers.
+    private static final String SOFT_DELETE_CAR_SQL =
+            "UPDATE Vehicle SET deletedAt = CURRENT_TIMESTAMP, version = version + 1 WHERE vehicleID = ? AND deletedAt IS NULL";
+    private static final String SELECT_AVAILABLE_CARS_SQL =
+            "SELECT * FROM Vehicle WHERE status = 'available' AND deletedAt IS NULL";
+    private static final String SELECT_RENTED_CARS_SQL =
+            "SELECT * FROM Vehicle WHERE status = 'notAvailable' AND deletedAt IS NULL";
+    // Projections for list screens: only the columns a list shows, mapped by position
+    private static final String SELECT_AVAILABLE_CAR_SUMMARIES_SQL =
+            "SELECT vehicleID, make, model, dailyRate FROM Vehicle WHERE status = 'available' AND deletedAt IS NULL";
+    private static final String SELECT_CUSTOMER_SUMMARIES_SQL =
+            "SELECT customerID, firstName, lastName FROM Customer WHERE deletedAt IS NULL";
+    private static final String SELECT_LEASE_SUMMARIES_SQL =
+            "SELECT leaseID, vehicleID, customerID, startDate, endDate FROM Lease";
+    private static final String SELECT_TIERED_LEASE_SUMMARIES_SQL =
+            "SELECT leaseID, vehicleID, customerID, startDate, endDate FROM Lease "
+                    + "UNION ALL SELECT leaseID, vehicleID, customerID, startDate, endDate FROM LeaseArchive";
+    private static final String SELECT_CAR_BY_ID_SQL =
+            "SELECT * FROM Vehicle WHERE vehicleID = ? AND deletedAt IS NULL";
+    private static final String SELECT_CARS_SQL =
+            "SELECT * FROM Vehicle WHERE deletedAt IS NULL";
+    // Only read to reconcile the live status counts
+    private static final String SELECT_STATUS_COUNTS_SQL =
+            "SELECT status, make, COUNT(*) FROM Vehicle WHERE deletedAt IS NULL GROUP BY status, make";
+    // Optimistic updates; need "ALTER TABLE Vehicle ADD COLUMN version INT NOT NULL DEFAULT 0" and the same on Lease
+    private static final String UPDATE_CAR_SQL =
+            "UPDATE Vehicle SET make = ?, model = ?, year = ?, dailyRate = ?, status = ?, passengerCapacity = ?, "
+                    + "engineCapacity = ?, version = version + 1 WHERE vehicleID = ? AND version = ? AND deletedAt IS NULL";
+    private static final String SELECT_CAR_VERSION_SQL =
+            "SELECT version FROM Vehicle WHERE vehicleID = ? AND deletedAt IS NULL";
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customer (customerID, firstName, lastName, email, phoneNumber) VALUES (?, ?, ?, ?, ?)";
+    private static final String SOFT_DELETE_CUSTOMER_SQL =
+            "UPDATE Customer SET deletedAt = CURRENT_TIMESTAMP WHERE customerID = ? AND deletedAt IS NULL";
+    private static final String SELECT_CUSTOMERS_SQL =
+            "SELECT * FROM Customer WHERE deletedAt IS NULL";
+    private static final String SELECT_CUSTOMER_BY_ID_SQL =
+            "SELECT * FROM Customer WHERE customerID = ? AND deletedAt IS NULL";
+    // A lease keeps the daily rate it was booked at, so later rate changes never reprice it. Needs
+    // "ALTER TABLE Lease ADD COLUMN dailyRate DECIMAL(10, 2) NULL" and the same on LeaseArchive, then
+    // BACKFILL_LEASE_RATES_SQL once for the existing leases.
+    private static final String INSERT_LEASE_SQL =
+            "INSERT INTO lease (leaseID, vehicleID, customerID, startDate, endDate, type, dailyRate) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String BACKFILL_LEASE_RATES_SQL =
+            "UPDATE Lease l JOIN Vehicle v ON v.vehicleID = l.vehicleID SET l.dailyRate = v.dailyRate WHERE l.dailyRate IS NULL";
+    // Locking the car's row first makes concurrent bookings of one car take turns, even while it has no
+    // leases for the overlap query to lock; archived leases all ended in the past and are not checked
+    private static final String LOCK_CAR_SQL =
+            "SELECT vehicleID FROM Vehicle WHERE vehicleID = ? FOR UPDATE";
+    private static final String SELECT_OVERLAPPING_LEASE_SQL =
+            "SELECT leaseID FROM Lease WHERE vehicleID = ? AND startDate <= ? AND endDate >= ? LIMIT 1 FOR UPDATE";
+    private static final String SELECT_MAX_LEASE_ID_SQL =
+            "SELECT MAX(leaseID) FROM lease";
+    private static final String SELECT_LEASE_BY_ID_SQL =
+            "SELECT * FROM Lease WHERE leaseID = ?";
+    private static final String SELECT_ACTIVE_LEASES_SQL =
+            "SELECT * FROM Lease WHERE endDate >= CURRENT_DATE";
+    private static final String SELECT_LEASES_SQL =
+            "SELECT * FROM Lease";
+    private static final String UPDATE_LEASE_SQL =
+            "UPDATE Lease SET vehicleID = ?, customerID = ?, startDate = ?, endDate = ?, type = ?, dailyRate = ?, "
+                    + "version = version + 1 WHERE leaseID = ? AND version = ?";
+    // A return is stamped on the lease once, so retries and repeated clicks neither write nor publish it
+    // again. Needs "ALTER TABLE Lease ADD COLUMN returnedAt DATE NULL" and the same on LeaseArchive,
+    // which copies every column of Lease. The version is left alone so a return never fails an edit.
+    private static final String RETURN_LEASE_SQL =
+            "UPDATE Lease SET returnedAt = CURRENT_DATE WHERE leaseID = ? AND returnedAt IS NULL";
+    private static final String SELECT_LEASE_RATE_SQL =
+            "SELECT vehicleID, dailyRate FROM Lease WHERE leaseID = ?";
+    private static final String SELECT_LEASE_VERSION_SQL =
+            "SELECT version FROM Lease WHERE leaseID = ?";
+    private static final String SELECT_LEASES_AFTER_SQL =
+            "SELECT * FROM Lease WHERE leaseID > ? ORDER BY leaseID";
+    private static final String SELECT_LEASES_PAGE_SQL =
+            "SELECT * FROM Lease WHERE leaseID > ? ORDER BY leaseID LIMIT ?";
+    private static final String INSERT_PAYMENT_SQL =
+            "INSERT INTO Payment (leaseID, paymentDate, amount) VALUES (?, CURRENT_DATE, ?)";
+    private static final String SELECT_PAYMENTS_PAGE_SQL =
+            "SELECT * FROM Payment WHERE paymentID > ? ORDER BY paymentID LIMIT ?";
+    private static final String SELECT_PAYMENTS_BY_CUSTOMER_SQL =
+            "SELECT * FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID WHERE l.customerID = ?";
+    private static final String SELECT_TOTAL_REVENUE_SQL =
+            "SELECT SUM(amount) AS total FROM Payment";
+    // Grouped aggregates; served by indexes on Lease(customerID), Lease(vehicleID) and Payment(leaseID, amount)
+    private static final String SELECT_REVENUE_FOR_CUSTOMER_SQL =
+            "SELECT COALESCE(SUM(p.amount), 0) FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID WHERE l.customerID = ?";
+    private static final String SELECT_REVENUE_BY_CUSTOMER_SQL =
+            "SELECT l.customerID, SUM(p.amount) FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID "
+                    + "GROUP BY l.customerID ORDER BY l.customerID";
+    private static final String SELECT_REVENUE_BY_CAR_SQL =
+            "SELECT l.vehicleID, SUM(p.amount) FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID "
+                    + "GROUP BY l.vehicleID ORDER BY l.vehicleID";
+    // Served by an index on Payment(paymentDate, amount)
+    private static final String SELECT_REVENUE_BY_MONTH_SQL =
+            "SELECT YEAR(paymentDate) * 100 + MONTH(paymentDate) AS month, SUM(amount) FROM Payment "
+                    + "GROUP BY month ORDER BY month";
+    // Hot tier only: archived leases are fully paid
+    private static final String SELECT_OUTSTANDING_BY_LEASE_SQL =
+            "SELECT l.leaseID, l.dailyRate * GREATEST(DATEDIFF(l.endDate, l.startDate), 1) - COALESCE(SUM(p.amount), 0) AS outstanding "
+                    + "FROM Lease l LEFT JOIN Payment p ON p.leaseID = l.leaseID "
+                    + "GROUP BY l.leaseID, l.dailyRate, l.startDate, l.endDate HAVING outstanding > 0 ORDER BY l.leaseID";
+    // Customer ledger; needs "CREATE TABLE CustomerLedger (entryID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    // customerID INT NOT NULL, leaseID INT NOT NULL, entryDate DATE NOT NULL, kind VARCHAR(16) NOT NULL,
+    // amount DECIMAL(12, 2) NOT NULL, balance DECIMAL(12, 2) NOT NULL, INDEX (customerID, entryID), INDEX (leaseID))"
+    // and "CREATE TABLE CustomerBalance (customerID INT PRIMARY KEY, balance DECIMAL(12, 2) NOT NULL)".
+    // Posting bumps the balance row first, which locks it until commit, then reads the new balance back
+    // onto the entry. Every transaction runs on its own connection, so the lock holds off concurrent
+    // postings for the same customer and they get consecutive running balances.
+    private static final String UPSERT_BALANCE_SQL =
+            "INSERT INTO CustomerBalance (customerID, balance) VALUES (?, ?) ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance)";
+    private static final String SELECT_BALANCE_SQL =
+            "SELECT balance FROM CustomerBalance WHERE customerID = ?";
+    private static final String INSERT_LEDGER_ENTRY_SQL =
+            "INSERT INTO CustomerLedger (customerID, leaseID, entryDate, kind, amount, balance) VALUES (?, ?, CURRENT_DATE, ?, ?, ?)";
+    private static final String SELECT_LEDGER_BY_CUSTOMER_SQL =
+            "SELECT * FROM CustomerLedger WHERE customerID = ? ORDER BY entryID";
+    // What each customer is currently charged for a lease, so an update only posts the difference
+    private static final String SELECT_LEASE_CHARGES_SQL =
+            "SELECT customerID, SUM(amount) FROM CustomerLedger WHERE leaseID = ? AND kind <> 'payment' "
+                    + "GROUP BY customerID ORDER BY customerID";
+    // Rebuild replays leases and payments in date order with a windowed running sum per customer.
+    // The booking date is not stored, so rebuilt charges are dated at the start of their lease.
+    private static final String DELETE_LEDGER_SQL =
+            "DELETE FROM CustomerLedger";
+    private static final String DELETE_BALANCES_SQL =
+            "DELETE FROM CustomerBalance";
+    private static final String REBUILD_LEDGER_SQL =
+            "INSERT INTO CustomerLedger (customerID, leaseID, entryDate, kind, amount, balance) "
+                    + "SELECT customerID, leaseID, entryDate, kind, amount, SUM(amount) OVER (PARTITION BY customerID "
+                    + "ORDER BY entryDate, seq, sourceID ROWS UNBOUNDED PRECEDING) FROM ("
+                    + "SELECT l.customerID, l.leaseID, l.startDate AS entryDate, 'charge' AS kind, "
+                    + "l.dailyRate * GREATEST(DATEDIFF(l.endDate, l.startDate), 1) AS amount, 0 AS seq, l.leaseID AS sourceID "
+                    + "FROM Lease l "
+                    + "UNION ALL SELECT l.customerID, l.leaseID, p.paymentDate, 'payment', -p.amount, 1, p.paymentID "
+                    + "FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID"
+                    + ") e ORDER BY entryDate, seq, sourceID";
+    private static final String REBUILD_TIERED_LEDGER_SQL =
+            "INSERT INTO CustomerLedger (customerID, leaseID, entryDate, kind, amount, balance) "
+                    + "SELECT customerID, leaseID, entryDate, kind, amount, SUM(amount) OVER (PARTITION BY customerID "
+                    + "ORDER BY entryDate, seq, sourceID ROWS UNBOUNDED PRECEDING) FROM ("
+                    + "SELECT l.customerID, l.leaseID, l.startDate AS entryDate, 'charge' AS kind, "
+                    + "l.dailyRate * GREATEST(DATEDIFF(l.endDate, l.startDate), 1) AS amount, 0 AS seq, l.leaseID AS sourceID "
+                    + "FROM Lease l "
+                    + "UNION ALL SELECT l.customerID, l.leaseID, l.startDate, 'charge', "
+                    + "l.dailyRate * GREATEST(DATEDIFF(l.endDate, l.startDate), 1), 0, l.leaseID "
+                    + "FROM LeaseArchive l "
+                    + "UNION ALL SELECT l.customerID, l.leaseID, p.paymentDate, 'payment', -p.amount, 1, p.paymentID "
+                    + "FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID "
+                    + "UNION ALL SELECT l.customerID, l.leaseID, p.paymentDate, 'payment', -p.amount, 1, p.paymentID "
+                    + "FROM PaymentArchive p JOIN LeaseArchive l ON p.leaseID = l.leaseID"
+                    + ") e ORDER BY entryDate, seq, sourceID";
+    private static final String REBUILD_BALANCES_SQL =
+            "INSERT INTO CustomerBalance (customerID, balance) SELECT customerID, SUM(amount) FROM CustomerLedger GROUP BY customerID";
+    // Bulk load keeps the IDs of the source rows
+    private static final String BULK_INSERT_CAR_SQL =
+            "INSERT INTO vehicle (vehicleID, make, model, year, dailyRate, status, passengerCapacity, engineCapacity) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String BULK_INSERT_PAYMENT_SQL =
+            "INSERT INTO Payment (paymentID, leaseID, paymentDate, amount) VALUES (?, ?, ?, ?)";
+    private static final int BULK_BATCH_SIZE = 1000;
+
+    // Archive tier: completed leases and their payments move to tables created with
+    // "CREATE TABLE LeaseArchive LIKE Lease" and "CREATE TABLE PaymentArchive LIKE Payment".
+    // Reads switch to the tiered variants only once the archive holds rows; none of this is warmed up,
+    // since a database without archive tables is still valid.
+    private static final String SELECT_ARCHIVE_HORIZON_SQL =
+            "SELECT MAX(endDate) FROM LeaseArchive";
+    private static final String SELECT_ARCHIVABLE_LEASES_SQL =
+            "SELECT l.leaseID FROM Lease l LEFT JOIN Payment p ON p.leaseID = l.leaseID "
+                    + "WHERE l.endDate < ? GROUP BY l.leaseID, l.dailyRate, l.startDate, l.endDate "
+                    + "HAVING l.dailyRate * GREATEST(DATEDIFF(l.endDate, l.startDate), 1) - COALESCE(SUM(p.amount), 0) <= 0 "
+                    + "ORDER BY l.leaseID LIMIT ?";
+    // Run in this order for each lease of a batch, inside one transaction
+    private static final List<String> ARCHIVE_MOVE_SQL = List.of(
+            "INSERT INTO LeaseArchive SELECT * FROM Lease WHERE leaseID = ?",
+            "INSERT INTO PaymentArchive SELECT * FROM Payment WHERE leaseID = ?",
+            "DELETE FROM Payment WHERE leaseID = ?",
+            "DELETE FROM Lease WHERE leaseID = ?");
+    // Purge of soft-deleted rows; rows a lease still refers to, hot or archived, are kept so a purge never
+    // cascades into or is blocked by lease rows and the tiered ledger rebuild still finds every car.
+    // The hot-only forms are used while the archive tables do not exist. Not warmed up, since it only runs off-peak.
+    private static final String SELECT_PURGEABLE_CARS_SQL =
+            "SELECT v.vehicleID FROM Vehicle v WHERE v.deletedAt < ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease l WHERE l.vehicleID = v.vehicleID) ORDER BY v.deletedAt LIMIT ?";
+    private static final String PURGE_CAR_SQL =
+            "DELETE FROM Vehicle WHERE vehicleID = ? AND deletedAt IS NOT NULL "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease WHERE vehicleID = ?)";
+    private static final String SELECT_TIERED_PURGEABLE_CARS_SQL =
+            "SELECT v.vehicleID FROM Vehicle v WHERE v.deletedAt < ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease l WHERE l.vehicleID = v.vehicleID) "
+                    + "AND NOT EXISTS (SELECT 1 FROM LeaseArchive a WHERE a.vehicleID = v.vehicleID) ORDER BY v.deletedAt LIMIT ?";
+    private static final String PURGE_TIERED_CAR_SQL =
+            "DELETE FROM Vehicle WHERE vehicleID = ? AND deletedAt IS NOT NULL "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease WHERE vehicleID = ?) "
+                    + "AND NOT EXISTS (SELECT 1 FROM LeaseArchive WHERE vehicleID = ?)";
+    private static final String SELECT_PURGEABLE_CUSTOMERS_SQL =
+            "SELECT c.customerID FROM Customer c WHERE c.deletedAt < ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease l WHERE l.customerID = c.customerID) ORDER BY c.deletedAt LIMIT ?";
+    private static final String PURGE_CUSTOMER_SQL =
+            "DELETE FROM Customer WHERE customerID = ? AND deletedAt IS NOT NULL "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease WHERE customerID = ?)";
+    private static final String SELECT_TIERED_PURGEABLE_CUSTOMERS_SQL =
+            "SELECT c.customerID FROM Customer c WHERE c.deletedAt < ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease l WHERE l.customerID = c.customerID) "
+                    + "AND NOT EXISTS (SELECT 1 FROM LeaseArchive a WHERE a.customerID = c.customerID) ORDER BY c.deletedAt LIMIT ?";
+    private static final String PURGE_TIERED_CUSTOMER_SQL =
+            "DELETE FROM Customer WHERE customerID = ? AND deletedAt IS NOT NULL "
+                    + "AND NOT EXISTS (SELECT 1 FROM Lease WHERE customerID = ?) "
+                    + "AND NOT EXISTS (SELECT 1 FROM LeaseArchive WHERE customerID = ?)";
+    private static final String SELECT_ARCHIVED_LEASE_BY_ID_SQL =
+            "SELECT * FROM LeaseArchive WHERE leaseID = ?";
+    private static final String SELECT_LEASES_IN_RANGE_SQL =
+            "SELECT * FROM Lease WHERE startDate <= ? AND endDate >= ? ORDER BY leaseID";
+    private static final String SELECT_TIERED_LEASES_IN_RANGE_SQL =
+            "SELECT * FROM Lease WHERE startDate <= ? AND endDate >= ? "
+                    + "UNION ALL SELECT * FROM LeaseArchive WHERE startDate <= ? AND endDate >= ? ORDER BY leaseID";
+    // The vehicleID foreign key index narrows this to the car's own leases
+    private static final String SELECT_CAR_LEASES_IN_RANGE_SQL =
+            "SELECT * FROM Lease WHERE vehicleID = ? AND startDate <= ? AND endDate >= ? ORDER BY leaseID";
+    private static final String SELECT_TIERED_CAR_LEASES_IN_RANGE_SQL =
+            "SELECT * FROM Lease WHERE vehicleID = ? AND startDate <= ? AND endDate >= ? "
+                    + "UNION ALL SELECT * FROM LeaseArchive WHERE vehicleID = ? AND startDate <= ? AND endDate >= ? "
+                    + "ORDER BY leaseID";
+    private static final String SELECT_TIERED_MAX_LEASE_ID_SQL =
+            "SELECT GREATEST(COALESCE((SELECT MAX(leaseID) FROM Lease), 0), COALESCE((SELECT MAX(leaseID) FROM LeaseArchive), 0))";
+    private static final String SELECT_TIERED_LEASES_SQL =
+            "SELECT * FROM Lease UNION ALL SELECT * FROM LeaseArchive";
+    private static final String SELECT_TIERED_LEASES_AFTER_SQL =
+            "SELECT * FROM Lease WHERE leaseID > ? UNION ALL SELECT * FROM LeaseArchive WHERE leaseID > ? ORDER BY leaseID";
+    private static final String SELECT_TIERED_LEASES_PAGE_SQL =
+            "(SELECT * FROM Lease WHERE leaseID > ? ORDER BY leaseID LIMIT ?) "
+                    + "UNION ALL (SELECT * FROM LeaseArchive WHERE leaseID > ? ORDER BY leaseID LIMIT ?) ORDER BY leaseID LIMIT ?";
+    private static final String SELECT_TIERED_PAYMENTS_PAGE_SQL =
+            "(SELECT * FROM Payment WHERE paymentID > ? ORDER BY paymentID LIMIT ?) "
+                    + "UNION ALL (SELECT * FROM PaymentArchive WHERE paymentID > ? ORDER BY paymentID LIMIT ?) ORDER BY paymentID LIMIT ?";
+    private static final String SELECT_TIERED_PAYMENTS_BY_CUSTOMER_SQL =
+            "SELECT p.* FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID WHERE l.customerID = ? "
+                    + "UNION ALL SELECT p.* FROM PaymentArchive p JOIN LeaseArchive l ON p.leaseID = l.leaseID WHERE l.customerID = ?";
+    private static final String SELECT_TIERED_TOTAL_REVENUE_SQL =
+            "SELECT (SELECT COALESCE(SUM(amount), 0) FROM Payment) + (SELECT COALESCE(SUM(amount), 0) FROM PaymentArchive) AS total";
+    private static final String SELECT_TIERED_REVENUE_FOR_CUSTOMER_SQL =
+            "SELECT (SELECT COALESCE(SUM(p.amount), 0) FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID WHERE l.customerID = ?) "
+                    + "+ (SELECT COALESCE(SUM(p.amount), 0) FROM PaymentArchive p JOIN LeaseArchive l ON p.leaseID = l.leaseID WHERE l.customerID = ?)";
+    // Each tier is grouped on its own indexes and the partial totals are added up
+    private static final String SELECT_TIERED_REVENUE_BY_CUSTOMER_SQL =
+            "SELECT customerID, SUM(total) FROM ("
+                    + "SELECT l.customerID, SUM(p.amount) AS total FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID GROUP BY l.customerID "
+                    + "UNION ALL SELECT l.customerID, SUM(p.amount) FROM PaymentArchive p JOIN LeaseArchive l ON p.leaseID = l.leaseID GROUP BY l.customerID"
+                    + ") t GROUP BY customerID ORDER BY customerID";
+    private static final String SELECT_TIERED_REVENUE_BY_CAR_SQL =
+            "SELECT vehicleID, SUM(total) FROM ("
+                    + "SELECT l.vehicleID, SUM(p.amount) AS total FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID GROUP BY l.vehicleID "
+                    + "UNION ALL SELECT l.vehicleID, SUM(p.amount) FROM PaymentArchive p JOIN LeaseArchive l ON p.leaseID = l.leaseID GROUP BY l.vehicleID"
+                    + ") t GROUP BY vehicleID ORDER BY vehicleID";
+    private static final String SELECT_TIERED_REVENUE_BY_MONTH_SQL =
+            "SELECT month, SUM(total) FROM ("
+                    + "SELECT YEAR(paymentDate) * 100 + MONTH(paymentDate) AS month, SUM(amount) AS total FROM Payment GROUP BY month "
+                    + "UNION ALL SELECT YEAR(paymentDate) * 100 + MONTH(paymentDate), SUM(amount) FROM PaymentArchive GROUP BY 1"
+                    + ") t GROUP BY month ORDER BY month";
+    // Each bulk batch of 1000 rows may take longer than a reporting query
+    private static final int BULK_TIMEOUT_SECONDS = 120;
+    private static final long STATUS_RECONCILE_MILLIS = 5 * 60_000;
+
+    private static final List<String> ALL_SQL = List.of(
+            INSERT_CAR_SQL,
+            SOFT_DELETE_CAR_SQL,
+            SELECT_AVAILABLE_CARS_SQL,
+            SELECT_RENTED_CARS_SQL,
+            SELECT_AVAILABLE_CAR_SUMMARIES_SQL,
+            SELECT_CUSTOMER_SUMMARIES_SQL,
+            SELECT_LEASE_SUMMARIES_SQL,
+            SELECT_CAR_BY_ID_SQL,
+            SELECT_CARS_SQL,
+            UPDATE_CAR_SQL,
+            SELECT_CAR_VERSION_SQL,
+            SELECT_STATUS_COUNTS_SQL,
+            INSERT_CUSTOMER_SQL,
+            SOFT_DELETE_CUSTOMER_SQL,
+            SELECT_CUSTOMERS_SQL,
+            SELECT_CUSTOMER_BY_ID_SQL,
+            INSERT_LEASE_SQL,
+            LOCK_CAR_SQL,
+            SELECT_OVERLAPPING_LEASE_SQL,
+            SELECT_MAX_LEASE_ID_SQL,
+            SELECT_LEASE_BY_ID_SQL,
+            SELECT_ACTIVE_LEASES_SQL,
+            SELECT_LEASES_SQL,
+            UPDATE_LEASE_SQL,
+            RETURN_LEASE_SQL,
+            SELECT_LEASE_RATE_SQL,
+            SELECT_LEASE_VERSION_SQL,
+            SELECT_LEASES_AFTER_SQL,
+            SELECT_LEASES_PAGE_SQL,
+            SELECT_CAR_LEASES_IN_RANGE_SQL,
+            INSERT_PAYMENT_SQL,
+            SELECT_PAYMENTS_PAGE_SQL,
+            SELECT_PAYMENTS_BY_CUSTOMER_SQL,
+            SELECT_TOTAL_REVENUE_SQL,
+            SELECT_REVENUE_FOR_CUSTOMER_SQL,
+            SELECT_REVENUE_BY_CUSTOMER_SQL,
+            SELECT_REVENUE_BY_CAR_SQL,
+            SELECT_REVENUE_BY_MONTH_SQL,
+            SELECT_OUTSTANDING_BY_LEASE_SQL,
+            UPSERT_BALANCE_SQL,
+            SELECT_BALANCE_SQL,
+            INSERT_LEDGER_ENTRY_SQL,
+            SELECT_LEDGER_BY_CUSTOMER_SQL,
+            SELECT_LEASE_CHARGES_SQL,
+            BULK_INSERT_CAR_SQL,
+            BULK_INSERT_PAYMENT_SQL);
+
+    private final EventBus eventBus;
+    private final DatabaseGuard guard;
+    private final EntityCache<Integer, Car> carCache = new EntityCache<>("car");
+    private final EntityCache<Integer, Lease> leaseCache = new EntityCache<>("lease");
+    private final EntityCache<Integer, Customer> customerCache = new EntityCache<>("customer");
+    // Null while this node does not share its caches with other nodes
+    private volatile InvalidationChannel invalidationChannel;
+    private final CarFilterIndex carIndex = new CarFilterIndex();
+    // Guarded by carIndex; the index is loaded from the database on the first filter query
+    private boolean carIndexLoaded;
+    private final CarStatusCounts statusCounts = new CarStatusCounts();
+    private final CustomerSearchIndex customerIndex = new CustomerSearchIndex();
+    // Guarded by customerIndex; the index is loaded from the database on the first search
+    private boolean customerIndexLoaded;
+    private final Object archiveLock = new Object();
+    // Guarded by archiveLock; the latest end date in the archive, or null while it is empty or missing
+    private LocalDate archiveHorizon;
+    private boolean archiveHorizonLoaded;
+    private boolean archiveTablesFound;
 
     /**
      * Constructs a new ICarLeaseRepositoryImpl and initializes the database connection.
+     * Change events are published to the shared {@link EventBus#getDefault() default bus}.
      */
     public ICarLeaseRepositoryImpl() {
-        this.connection = DBConnection.getConnection();
+        this(EventBus.getDefault());
+    }
+
+    /**
+     * Constructs a new ICarLeaseRepositoryImpl publishing change events to the given bus.
+     *
+     * @param eventBus The event bus that receives committed changes.
+     */
+    public ICarLeaseRepositoryImpl(EventBus eventBus) {
+        this(eventBus, new DatabaseGuard());
+    }
+
+    /**
+     * Constructs a new ICarLeaseRepositoryImpl publishing change events to the given bus and running its
+     * statements through the given guard.
+     *
+     * @param eventBus The event bus that receives committed changes.
+     * @param guard    The guard applying timeouts, bulkheads and the circuit breaker.
+     */
+    public ICarLeaseRepositoryImpl(EventBus eventBus, DatabaseGuard guard) {
+        // Fails at startup when the database cannot be reached; later calls reconnect through connection()
+        DBConnection.getConnection();
+        this.eventBus = eventBus;
+        this.guard = guard;
+        guard.setOutageListener(DBConnection::dropIfInvalid);
+    }
+
+    /**
+     * Retrieves the event bus this repository publishes change events to.
+     *
+     * @return The event bus.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Retrieves the guard every statement of this repository runs through.
+     *
+     * @return The database guard.
+     */
+    public DatabaseGuard getDatabaseGuard() {
+        return guard;
+    }
+
+    /**
+     * Retrieves the shared connection. When an outage has dropped it, the new connection is opened through
+     * the guard: while the breaker is open callers fail fast instead of each waiting out the connect
+     * timeout, and the first call after the open period becomes the breaker's probe.
+     *
+     * @return The shared connection.
+     * @throws SQLException If the breaker rejects the call or the connection cannot be opened.
+     */
+    private Connection connection() throws SQLException {
+        Connection open = DBConnection.getOpenConnection();
+        if (open != null) {
+            return open;
+        }
+        return guard.execute(CallKind.BOOKING, DBConnection::connect);
+    }
+
+    /**
+     * Retrieves the cache consulted by {@link #findCarById(int)}.
+     *
+     * @return The car cache.
+     */
+    public EntityCache<Integer, Car> getCarCache() {
+        return carCache;
+    }
+
+    /**
+     * Retrieves the cache consulted by {@link #findLeaseById(int)}.
+     *
+     * @return The lease cache.
+     */
+    public EntityCache<Integer, Lease> getLeaseCache() {
+        return leaseCache;
+    }
+
+    /**
+     * Retrieves the cache consulted by {@link #findCustomerById(int)}.
+     *
+     * @return The customer cache.
+     */
+    public EntityCache<Integer, Customer> getCustomerCache() {
+        return customerCache;
+    }
+
+    /**
+     * Shares this repository's caches with other application nodes: the caches are evicted when other nodes
+     * announce changes on the channel, and this repository announces its own changes on it.
+     *
+     * @param channel The channel shared by all nodes.
+     */
+    public void setInvalidationChannel(InvalidationChannel channel) {
+        channel.register(carCache);
+        channel.register(customerCache);
+        channel.register(leaseCache);
+        this.invalidationChannel = channel;
+    }
+
+    /**
+     * Retrieves the channel this repository shares its caches through.
+     *
+     * @return The channel, or null if the caches are local to this node.
+     */
+    public InvalidationChannel getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    // Evicts a changed entity from the request memo and tells the other nodes to evict it too
+    private void invalidateElsewhere(EntityCache<Integer, ?> cache, int key) {
+        RequestMemo.forget(cache.getName(), key);
+        InvalidationChannel channel = invalidationChannel;
+        if (channel != null) {
+            channel.publish(cache.getName(), key);
+        }
+    }
+
+    private void invalidateAllElsewhere(EntityCache<Integer, ?> cache) {
+        RequestMemo.forgetAll(cache.getName());
+        InvalidationChannel channel = invalidationChannel;
+        if (channel != null) {
+            channel.publishAll(cache.getName());
+        }
+    }
+
+    // Warmup support
+
+    /**
+     * Prepares every statement this repository uses, so the driver's statement cache is populated
+     * before the first request arrives. Each statement is prepared on its own, so one that refers to a
+     * table that has not been created yet is logged and counted without stopping the others.
+     *
+     * @param report The report receiving the prepared and failed statement counts.
+     */
+    void prepareAllStatements(WarmupReport report) {
+        int prepared = 0;
+        int failed = 0;
+        for (String sql : ALL_SQL) {
+            try {
+                // Closing returns the server-side statement to the driver cache
+                connection().prepareStatement(sql).close();
+                prepared++;
+            } catch (SQLException e) {
+                LOG.at(Level.WARN).op("prepareAllStatements").with("sql", sql).error(e).log("Statement could not be prepared");
+                failed++;
+            }
+        }
+        report.setPreparedStatements(prepared);
+        report.setFailedStatements(failed);
+    }
+
+    /**
+     * Loads all available cars into the car cache.
+     *
+     * @return The number of cars cached.
+     */
+    int preloadAvailableCars() {
+        List<Car> cars = listAvailableCars();
+        for (Car car : cars) {
+            carCache.put(car.getVehicleID(), car);
+        }
+        return cars.size();
+    }
+
+    /**
+     * Loads all active leases into the lease cache.
+     *
+     * @return The number of leases cached.
+     */
+    int preloadActiveLeases() {
+        List<Lease> leases = listActiveLeases();
+        for (Lease lease : leases) {
+            leaseCache.put(lease.getLeaseID(), lease);
+        }
+        return leases.size();
     }
 
     // Car Management
@@ -35,14 +589,24 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
      */
     @Override
     public void addCar(Car car) throws CarAlreadyExistsException {
+        statusCounts.beginChange();
+        try {
+            insertCar(car);
+            statusCounts.added(car);
+        } finally {
+            statusCounts.endChange();
+        }
+    }
+
+    private void insertCar(Car car) throws CarAlreadyExistsException {
         Connection connection = null;
         PreparedStatement preparedStatement = null;
 
         try {
-            connection = DBConnection.getConnection();
+            connection = connection();
 
-            String insertQuery = "INSERT INTO vehicle (make, model, year, dailyRate, status, passengerCapacity, engineCapacity) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            preparedStatement = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS);
+            preparedStatement = connection.prepareStatement(INSERT_CAR_SQL, Statement.RETURN_GENERATED_KEYS);
+            preparedStatement.setQueryTimeout(guard.getQueryTimeout(CallKind.BOOKING));
 
             // Set values for the parameters in the INSERT statement
             preparedStatement.setString(1, car.getMake());
@@ -53,7 +617,7 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
             preparedStatement.setInt(6, car.getPassengerCapacity());
             preparedStatement.setInt(7, car.getEngineCapacity());
 
-            int affectedRows = preparedStatement.executeUpdate();
+            int affectedRows = guard.execute(CallKind.BOOKING, preparedStatement::executeUpdate);
 
             if (affectedRows == 0) {
                 throw new SQLException("Creating car failed, no rows affected.");
@@ -66,27 +630,72 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
                     throw new SQLException("Creating car failed, no ID obtained.");
                 }
             }
+            carCache.put(car.getVehicleID(), car);
+            synchronized (carIndex) {
+                carIndex.add(car);
+            }
+            eventBus.publish(new CarAddedEvent(car));
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new CarAlreadyExistsException("Car with ID " + car.getVehicleID() + " already exists.");
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.at(Level.ERROR).op("addCar").with("vehicleID", car.getVehicleID()).error(e).log("Error adding car");
             throw new RuntimeException("Error adding car", e);
         } 
     }
     /**
-     * Removes a car from the database based on its vehicle ID.
+     * Removes a car by marking the row deleted, in one indexed update. The row itself is deleted later by
+     * {@link #purgeDeletedCars(LocalDateTime, int)}.
      *
      * @param vehicleID The ID of the car to be removed.
+     * @throws CarNotFoundException If the car does not exist or has already been removed.
      */
     @Override
-    public void removeCar(int vehicleID) {
-        String sql = "DELETE FROM Vehicle WHERE vehicleID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    public void removeCar(int vehicleID) throws CarNotFoundException {
+        statusCounts.beginChange();
+        try (PreparedStatement statement = guard.prepare(connection(), SOFT_DELETE_CAR_SQL, CallKind.BOOKING)) {
             statement.setInt(1, vehicleID);
 
-            statement.executeUpdate();
+            Car removed = statusCounts.isLoaded() ? currentCar(vehicleID, null) : null;
+            // Only a committed removal may drop the car, or a failed one would hide a live car until restart
+            if (guard.execute(CallKind.BOOKING, statement::executeUpdate) == 0) {
+                throw new CarNotFoundException("Car with ID " + vehicleID + " not found.");
+            }
+            carCache.invalidate(vehicleID);
+            synchronized (carIndex) {
+                carIndex.remove(vehicleID);
+            }
+            if (removed != null) {
+                statusCounts.removed(removed);
+            }
+            invalidateElsewhere(carCache, vehicleID);
+            eventBus.publish(new CarRemovedEvent(vehicleID));
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.at(Level.ERROR).op("removeCar").with("vehicleID", vehicleID).error(e).log("Error removing car");
+            throw new RuntimeException("Error removing car", e);
+        } finally {
+            statusCounts.endChange();
+        }
+    }
+
+    /**
+     * Reads a car as it is stored, from the cache when the cached copy is the stored version.
+     *
+     * @param vehicleID The ID of the car.
+     * @param changed   A car about to be written, whose version is the one wanted, or null for the latest.
+     * @return The stored car, or null if there is none.
+     * @throws SQLException If the car cannot be read.
+     */
+    private Car currentCar(int vehicleID, Car changed) throws SQLException {
+        Car cached = carCache.get(vehicleID);
+        // The caller may have changed the cached instance itself, in which case it no longer shows the row
+        if (cached != null && cached != changed && (changed == null || cached.getVersion() == changed.getVersion())) {
+            return cached;
+        }
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_CAR_BY_ID_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, vehicleID);
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                return resultSet.next() ? mapResultSetToCar(resultSet) : null;
+            }
         }
     }
 
@@ -99,17 +708,52 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public List<Car> listAvailableCars() {
         List<Car> availableCars = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Vehicle WHERE status = 'available'");
-             ResultSet resultSet = statement.executeQuery()) {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_AVAILABLE_CARS_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
             while (resultSet.next()) {
                 availableCars.add(mapResultSetToCar(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            List<Car> indexed = carsFromIndex("available");
+            if (indexed != null) {
+                LOG.at(Level.WARN).op("listAvailableCars").with("cars", indexed.size()).error(e).log("Served from car index");
+                return indexed;
+            }
+            LOG.error("listAvailableCars", "Error listing available cars", e);
         }
         return availableCars;
     }
 
+    /**
+     * Retrieves summaries of the available cars, reading only the four columns they hold.
+     * When the database is unavailable the summaries are taken from the car index, if it has been loaded.
+     *
+     * @return A list of available car summaries.
+     */
+    @Override
+    public List<CarSummary> listAvailableCarSummaries() {
+        List<CarSummary> summaries = new ArrayList<>();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_AVAILABLE_CAR_SUMMARIES_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+            while (resultSet.next()) {
+                summaries.add(new CarSummary(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getDouble(4)));
+            }
+        } catch (SQLException e) {
+            List<Car> indexed = carsFromIndex("available");
+            if (indexed != null) {
+                LOG.at(Level.WARN).op("listAvailableCarSummaries").with("cars", indexed.size()).error(e).log("Served from car index");
+                summaries.clear();
+                for (Car car : indexed) {
+                    summaries.add(new CarSummary(car));
+                }
+                return summaries;
+            }
+            LOG.error("listAvailableCarSummaries", "Error listing available car summaries", e);
+        }
+        return summaries;
+    }
+
     /**
      * Retrieves a list of rented cars from the database.
      *
@@ -118,17 +762,94 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public List<Car> listRentedCars() {
         List<Car> rentedCars = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Vehicle WHERE status = 'notAvailable'");
-             ResultSet resultSet = statement.executeQuery()) {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_RENTED_CARS_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
             while (resultSet.next()) {
                 rentedCars.add(mapResultSetToCar(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            List<Car> indexed = carsFromIndex("notAvailable");
+            if (indexed != null) {
+                LOG.at(Level.WARN).op("listRentedCars").with("cars", indexed.size()).error(e).log("Served from car index");
+                return indexed;
+            }
+            LOG.error("listRentedCars", "Error listing rented cars", e);
         }
         return rentedCars;
     }
 
+    /**
+     * Counts the cars in each status from the live counts. The first call loads the counts with one
+     * grouped query and starts reconciling them in the background.
+     *
+     * @return The number of cars keyed by status.
+     */
+    @Override
+    public Map<String, Long> countCarsByStatus() {
+        ensureStatusCountsLoaded();
+        return statusCounts.countByStatus();
+    }
+
+    /**
+     * Counts the cars of each make that have a status, from the live counts.
+     *
+     * @param status The status.
+     * @return The number of cars keyed by make.
+     */
+    @Override
+    public Map<String, Long> countCarsByMake(String status) {
+        ensureStatusCountsLoaded();
+        return statusCounts.countByMake(status);
+    }
+
+    /**
+     * Replaces the live status counts with counts read from the database. Car writes wait while this runs.
+     *
+     * @return The number of cars the live counts were off by.
+     */
+    public long reconcileStatusCounts() {
+        try {
+            return statusCounts.reconcile(this::queryStatusCounts);
+        } catch (Exception e) {
+            LOG.error("reconcileStatusCounts", "Error counting cars by status", e);
+            throw new RuntimeException("Error counting cars by status", e);
+        }
+    }
+
+    private void ensureStatusCountsLoaded() {
+        if (!statusCounts.isLoaded()) {
+            reconcileStatusCounts();
+            statusCounts.startReconciling(this::queryStatusCounts, STATUS_RECONCILE_MILLIS);
+        }
+    }
+
+    private Map<String, Map<String, Long>> queryStatusCounts() throws SQLException {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_STATUS_COUNTS_SQL, CallKind.REPORTING);
+             ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+            while (resultSet.next()) {
+                counts.computeIfAbsent(resultSet.getString(1), status -> new HashMap<>())
+                        .put(resultSet.getString(2), resultSet.getLong(3));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Lists the cars with a status from the car filter index, as a fallback when the database is unavailable.
+     *
+     * @param status The car status.
+     * @return The matching cars, or null if the index has not been loaded.
+     */
+    private List<Car> carsFromIndex(String status) {
+        synchronized (carIndex) {
+            if (!carIndexLoaded) {
+                return null;
+            }
+        }
+        return carIndex.find(new CarQuery().statuses(status));
+    }
+
     /**
      * Finds and retrieves a car based on its vehicle ID.
      *
@@ -139,21 +860,122 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     
     @Override
     public Car findCarById(int vehicleID) throws CarNotFoundException {
-        String sql = "SELECT * FROM Vehicle WHERE vehicleID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        return RequestMemo.get(carCache.getName(), vehicleID, () -> loadCar(vehicleID));
+    }
+
+    private Car loadCar(int vehicleID) throws CarNotFoundException {
+        Car cached = carCache.get(vehicleID);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = carCache.getGeneration();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_CAR_BY_ID_SQL, CallKind.BOOKING)) {
             statement.setInt(1, vehicleID);
-            ResultSet resultSet = statement.executeQuery();
+            ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery);
             if (resultSet.next()) {
-                return mapResultSetToCar(resultSet);
+                Car car = mapResultSetToCar(resultSet);
+                carCache.putIfCurrent(vehicleID, car, generation);
+                return car;
             } else {
                 throw new CarNotFoundException("Car with ID " + vehicleID + " not found.");
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.at(Level.ERROR).op("findCarById").with("vehicleID", vehicleID).error(e).log("Error finding car");
             throw new RuntimeException("An error occurred while finding the car.");
         }
     }
 
+    /**
+     * Finds cars matching the query using in-memory bitmap indexes. The indexes are built from the
+     * database on the first query and kept in sync by {@link #addCar(Car)} and {@link #removeCar(int)}.
+     *
+     * @param query The filter to apply.
+     * @return A list of matching cars ordered by daily rate.
+     */
+    @Override
+    public List<Car> findCars(CarQuery query) {
+        synchronized (carIndex) {
+            if (!carIndexLoaded) {
+                try (PreparedStatement statement = guard.prepare(connection(), SELECT_CARS_SQL, CallKind.BOOKING);
+                     ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                    while (resultSet.next()) {
+                        carIndex.add(mapResultSetToCar(resultSet));
+                    }
+                    carIndexLoaded = true;
+                } catch (SQLException e) {
+                    LOG.error("findCars", "Error loading cars for filtering", e);
+                    throw new RuntimeException("Error loading cars for filtering", e);
+                }
+            }
+        }
+        return carIndex.find(query);
+    }
+
+    /**
+     * Updates a car in the database if its version still matches, without taking row locks.
+     * A rejected update evicts the car from the cache so the caller's next read sees the current row.
+     *
+     * @param car The car with its new details and the version it was read at.
+     * @throws CarNotFoundException    If the car no longer exists.
+     * @throws OptimisticLockException If the car was updated by someone else in the meantime.
+     */
+    @Override
+    public void updateCar(Car car) throws CarNotFoundException, OptimisticLockException {
+        statusCounts.beginChange();
+        try {
+            Car before;
+            try {
+                before = statusCounts.isLoaded() ? currentCar(car.getVehicleID(), car) : null;
+            } catch (SQLException e) {
+                LOG.at(Level.ERROR).op("updateCar").with("vehicleID", car.getVehicleID()).error(e).log("Error reading car");
+                throw new RuntimeException("Error updating car", e);
+            }
+            writeCar(car);
+            if (before != null) {
+                statusCounts.changed(before, car);
+            }
+        } finally {
+            statusCounts.endChange();
+        }
+    }
+
+    private void writeCar(Car car) throws CarNotFoundException, OptimisticLockException {
+        try (PreparedStatement statement = guard.prepare(connection(), UPDATE_CAR_SQL, CallKind.BOOKING)) {
+            statement.setString(1, car.getMake());
+            statement.setString(2, car.getModel());
+            statement.setInt(3, car.getYear());
+            statement.setDouble(4, car.getDailyRate());
+            statement.setString(5, car.getStatus());
+            statement.setInt(6, car.getPassengerCapacity());
+            statement.setInt(7, car.getEngineCapacity());
+            statement.setInt(8, car.getVehicleID());
+            statement.setInt(9, car.getVersion());
+
+            if (guard.execute(CallKind.BOOKING, statement::executeUpdate) == 0) {
+                carCache.invalidate(car.getVehicleID());
+                RequestMemo.forget(carCache.getName(), car.getVehicleID());
+                int current = currentVersion(SELECT_CAR_VERSION_SQL, car.getVehicleID());
+                if (current < 0) {
+                    throw new CarNotFoundException("Car not found with ID: " + car.getVehicleID());
+                }
+                throw new OptimisticLockException("Car " + car.getVehicleID() + " was updated concurrently: read version "
+                        + car.getVersion() + ", current version " + current);
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("updateCar").with("vehicleID", car.getVehicleID()).error(e).log("Error updating car");
+            throw new RuntimeException("Error updating car", e);
+        }
+        car.setVersion(car.getVersion() + 1);
+        carCache.put(car.getVehicleID(), car);
+        invalidateElsewhere(carCache, car.getVehicleID());
+        synchronized (carIndex) {
+            if (carIndexLoaded) {
+                carIndex.add(car);
+            }
+        }
+        eventBus.publish(new CarUpdatedEvent(car));
+    }
+
     // Customer Management
 
     /**
@@ -169,10 +991,9 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
         PreparedStatement preparedStatement = null;
 
         try {
-            connection = DBConnection.getConnection();
+            connection = connection();
 
-            String insertQuery = "INSERT INTO customer (customerID, firstName, lastName, email, phoneNumber) VALUES (?, ?, ?, ?, ?)";
-            preparedStatement = connection.prepareStatement(insertQuery);
+            preparedStatement = guard.prepare(connection, INSERT_CUSTOMER_SQL, CallKind.BOOKING);
 
             preparedStatement.setInt(1, customer.getCustomerID());
             preparedStatement.setString(2, customer.getFirstName());
@@ -180,17 +1001,23 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
             preparedStatement.setString(4, customer.getEmail());
             preparedStatement.setString(5, customer.getPhoneNumber());
 
-            preparedStatement.executeUpdate();
+            guard.execute(CallKind.BOOKING, preparedStatement::executeUpdate);
+            customerCache.put(customer.getCustomerID(), customer);
+            synchronized (customerIndex) {
+                customerIndex.add(customer);
+            }
+            eventBus.publish(new CustomerAddedEvent(customer));
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new CustomerAlreadyExistsException("Customer with ID " + customer.getCustomerID() + " already exists.");
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.at(Level.ERROR).op("addCustomer").with("customerID", customer.getCustomerID()).error(e).log("Error adding customer");
             throw new RuntimeException("Error adding customer", e);
         }
     }
 
     /**
-     * Removes a customer from the database based on their customer ID.
+     * Removes a customer by marking the row deleted, in one indexed update. The row itself is deleted
+     * later by {@link #purgeDeletedCustomers(LocalDateTime, int)}; until then its ID cannot be reused.
      *
      * @param customerID The ID of the customer to be removed.
      * @throws CustomerNotFoundException If the specified customer is not found.
@@ -198,28 +1025,22 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     
     @Override
     public void removeCustomer(int customerID) throws CustomerNotFoundException {
-        String checkCustomerSql = "SELECT * FROM Customer WHERE customerID = ?";
-        String deleteCustomerSql = "DELETE FROM Customer WHERE customerID = ?";
-
-        try (PreparedStatement checkStatement = connection.prepareStatement(checkCustomerSql)) {
-            checkStatement.setInt(1, customerID);
-            ResultSet resultSet = checkStatement.executeQuery();
-
-            if (resultSet.next()) {
-                // Customer exists, proceed with deletion
-                try (PreparedStatement deleteStatement = connection.prepareStatement(deleteCustomerSql)) {
-                    deleteStatement.setInt(1, customerID);
-                    deleteStatement.executeUpdate();
-                    System.out.println("Customer removed successfully.");
-                } catch (SQLException e) {
-                    System.err.println("Error removing customer: " + e.getMessage());
-                }
-            } else {
-                // Customer does not exist
+        long start = System.nanoTime();
+        try (PreparedStatement statement = guard.prepare(connection(), SOFT_DELETE_CUSTOMER_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, customerID);
+            if (guard.execute(CallKind.BOOKING, statement::executeUpdate) == 0) {
                 throw new CustomerNotFoundException("Customer with ID " + customerID + " not found.");
             }
+            customerCache.invalidate(customerID);
+            invalidateElsewhere(customerCache, customerID);
+            synchronized (customerIndex) {
+                customerIndex.remove(customerID);
+            }
+            eventBus.publish(new CustomerRemovedEvent(customerID));
+            LOG.at(Level.INFO).op("removeCustomer").with("customerID", customerID).latency(System.nanoTime() - start).log("Customer removed");
         } catch (SQLException e) {
-            System.err.println("Error checking customer existence: " + e.getMessage());
+            LOG.at(Level.ERROR).op("removeCustomer").with("customerID", customerID).latency(System.nanoTime() - start).error(e).log("Error removing customer");
+            throw new RuntimeException("Error removing customer", e);
         }
     }
 
@@ -233,17 +1054,36 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public List<Customer> listCustomers() {
         List<Customer> customers = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Customer");
-             ResultSet resultSet = statement.executeQuery()) {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_CUSTOMERS_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
             while (resultSet.next()) {
                 customers.add(mapResultSetToCustomer(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.error("listCustomers", "Error listing customers", e);
         }
         return customers;
     }
 
+    /**
+     * Retrieves summaries of all customers, reading only their IDs and names.
+     *
+     * @return A list of customer summaries.
+     */
+    @Override
+    public List<CustomerSummary> listCustomerSummaries() {
+        List<CustomerSummary> summaries = new ArrayList<>();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_CUSTOMER_SUMMARIES_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+            while (resultSet.next()) {
+                summaries.add(new CustomerSummary(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3)));
+            }
+        } catch (SQLException e) {
+            LOG.error("listCustomerSummaries", "Error listing customer summaries", e);
+        }
+        return summaries;
+    }
+
     /**
      * Finds and retrieves a customer based on their customer ID.
      *
@@ -253,60 +1093,144 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
      */
     @Override
     public Customer findCustomerById(int customerID) throws CustomerNotFoundException {
-        String sql = "SELECT * FROM Customer WHERE customerID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        return RequestMemo.get(customerCache.getName(), customerID, () -> loadCustomer(customerID));
+    }
+
+    private Customer loadCustomer(int customerID) throws CustomerNotFoundException {
+        Customer cached = customerCache.get(customerID);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = customerCache.getGeneration();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_CUSTOMER_BY_ID_SQL, CallKind.BOOKING)) {
             statement.setInt(1, customerID);
-            ResultSet resultSet = statement.executeQuery();
+            ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery);
             if (resultSet.next()) {
-                return mapResultSetToCustomer(resultSet);
+                Customer customer = mapResultSetToCustomer(resultSet);
+                customerCache.putIfCurrent(customerID, customer, generation);
+                return customer;
             } else {
                 throw new CustomerNotFoundException("Customer with ID " + customerID + " not found.");
             }
         } catch (SQLException e) {
+            Customer indexed;
+            synchronized (customerIndex) {
+                indexed = customerIndexLoaded ? customerIndex.get(customerID) : null;
+            }
+            if (indexed != null) {
+                LOG.at(Level.WARN).op("findCustomerById").with("customerID", customerID).error(e).log("Served from customer index");
+                return indexed;
+            }
             // Handle SQLException
-            System.err.println("Error retrieving customer information: " + e.getMessage());
+            LOG.at(Level.ERROR).op("findCustomerById").with("customerID", customerID).error(e).log("Error retrieving customer");
             throw new CustomerNotFoundException("Customer with ID " + customerID + " not found.");
         }
     }
 
 
+    /**
+     * Searches customers using the in-memory customer index. The index is built from the database
+     * on the first search and kept in sync by {@link #addCustomer(Customer)} and {@link #removeCustomer(int)}.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of customers to return.
+     * @return A list of matching customers, exact matches first.
+     */
+    @Override
+    public List<Customer> searchCustomers(String query, int limit) {
+        synchronized (customerIndex) {
+            if (!customerIndexLoaded) {
+                for (Customer customer : listCustomers()) {
+                    customerIndex.add(customer);
+                }
+                customerIndexLoaded = true;
+            }
+        }
+        return customerIndex.search(query, limit);
+    }
+
     // Lease Management
 
     /**
-     * Creates a new lease in the database.
+     * Creates a new lease in the database and charges it to the customer's ledger in the same transaction.
+     * The transaction locks the car and checks its leases for the period first, so two bookings of the same
+     * car can never both be written.
      *
      * @param customerID The ID of the customer leasing the car.
      * @param carID      The ID of the leased car.
      * @param startDate  The start date of the lease.
      * @param endDate    The end date of the lease.
      * @return The created Lease entity.
+     * @throws CarNotFoundException   If the car does not exist.
+     * @throws LeaseConflictException If the car is already leased for part of the period.
      */
     @Override
-    public Lease createLease(int customerID, int carID, Date startDate, Date endDate) {
-        Connection connection = null;
-        PreparedStatement preparedStatement = null;
+    public Lease createLease(int customerID, int carID, LocalDate startDate, LocalDate endDate)
+            throws CarNotFoundException, LeaseConflictException {
+        long start = System.nanoTime();
+        double dailyRate = findCarById(carID).getDailyRate();
+        double charge = chargeFor(dailyRate, startDate, endDate);
 
+        Lease lease;
         try {
-            connection = DBConnection.getConnection();
-
-            String insertQuery = "INSERT INTO lease (leaseID, vehicleID, customerID, startDate, endDate, type) VALUES (?, ?, ?, ?, ?, ?)";
-            preparedStatement = connection.prepareStatement(insertQuery);
-
-            preparedStatement.setInt(1, getNextLeaseID()); 
-            preparedStatement.setInt(2, carID);
-            preparedStatement.setInt(3, customerID);
-            preparedStatement.setDate(4, new java.sql.Date(startDate.getTime()));
-            preparedStatement.setDate(5, new java.sql.Date(endDate.getTime()));
-            preparedStatement.setString(6, "Daily");
-
-            preparedStatement.executeUpdate();
+            lease = inTransaction(tx -> {
+                if (hasOverlappingLease(tx, carID, startDate, endDate)) {
+                    return null;
+                }
+                int leaseID = getNextLeaseID();
+                String type = LeaseType.forPeriod(startDate, endDate).getLabel();
+                try (PreparedStatement preparedStatement = guard.prepare(tx, INSERT_LEASE_SQL, CallKind.BOOKING)) {
+                    preparedStatement.setInt(1, leaseID);
+                    preparedStatement.setInt(2, carID);
+                    preparedStatement.setInt(3, customerID);
+                    preparedStatement.setObject(4, startDate);
+                    preparedStatement.setObject(5, endDate);
+                    preparedStatement.setString(6, type);
+                    preparedStatement.setDouble(7, dailyRate);
 
-            return new Lease(getNextLeaseID(), carID, customerID, startDate, endDate, "Daily"); // Replace with your logic
+                    guard.execute(CallKind.BOOKING, preparedStatement::executeUpdate);
+                }
+                postLedgerEntry(tx, customerID, leaseID, LedgerEntry.CHARGE, charge, CallKind.BOOKING);
+                return new Lease(leaseID, carID, customerID, startDate, endDate, type);
+            });
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.at(Level.ERROR).op("createLease").with("customerID", customerID).with("vehicleID", carID).latency(System.nanoTime() - start).error(e).log("Error creating lease");
             // Handle the exception
             throw new RuntimeException("Error creating lease", e);
-        } 
+        }
+        if (lease == null) {
+            throw new LeaseConflictException("Car " + carID + " is already leased between " + startDate + " and " + endDate);
+        }
+        leaseCache.put(lease.getLeaseID(), lease);
+        eventBus.publish(new LeaseCreatedEvent(lease));
+        return lease;
+    }
+
+    /**
+     * Locks a car's row and checks whether any of its leases overlaps a period. The locks are held until
+     * the transaction ends.
+     *
+     * @param tx        The transaction connection.
+     * @param carID     The ID of the car.
+     * @param startDate The first day of the period.
+     * @param endDate   The last day of the period.
+     * @return True if a lease of the car overlaps the period.
+     * @throws SQLException If a query fails.
+     */
+    private boolean hasOverlappingLease(Connection tx, int carID, LocalDate startDate, LocalDate endDate) throws SQLException {
+        try (PreparedStatement lock = guard.prepare(tx, LOCK_CAR_SQL, CallKind.BOOKING)) {
+            lock.setInt(1, carID);
+            // Only the lock is wanted; the car's existence was checked before the transaction
+            guard.execute(CallKind.BOOKING, lock::executeQuery).close();
+        }
+        try (PreparedStatement statement = guard.prepare(tx, SELECT_OVERLAPPING_LEASE_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, carID);
+            statement.setObject(2, endDate);
+            statement.setObject(3, startDate);
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                return resultSet.next();
+            }
+        }
     }
 
     /**
@@ -324,11 +1248,12 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
         ResultSet resultSet = null;
 
         try {
-            connection = DBConnection.getConnection();
+            connection = connection();
 
-            String query = "SELECT MAX(leaseID) FROM lease";
-            preparedStatement = connection.prepareStatement(query);
-            resultSet = preparedStatement.executeQuery();
+            // Archived leases keep their IDs, so the archive counts towards the highest ID in use
+            String sql = archiveHorizon() != null ? SELECT_TIERED_MAX_LEASE_ID_SQL : SELECT_MAX_LEASE_ID_SQL;
+            preparedStatement = guard.prepare(connection, sql, CallKind.BOOKING);
+            resultSet = guard.execute(CallKind.BOOKING, preparedStatement::executeQuery);
 
             if (resultSet.next()) {
                 return resultSet.getInt(1) + 1;
@@ -336,7 +1261,7 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
                 return 1;
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.error("getNextLeaseID", "Error getting next leaseID", e);
             // Handle the exception
             throw new RuntimeException("Error getting next leaseID", e);
         } 
@@ -344,7 +1269,8 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
 
 
     /**
-     * Returns a leased car based on the lease ID.
+     * Returns a leased car based on the lease ID. The return is recorded on the lease, and the return event
+     * is published only by the call that recorded it; returning a lease again just reads it.
      *
      * @param leaseID The ID of the lease to be returned.
      * @return The returned Lease entity.
@@ -352,68 +1278,187 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
      */
     @Override
     public Lease returnCar(int leaseID) throws LeaseNotFoundException {
-        Connection connection = null;
-        PreparedStatement preparedStatement = null;
-        ResultSet resultSet = null;
+        try (PreparedStatement update = guard.prepare(connection(), RETURN_LEASE_SQL, CallKind.BOOKING);
+             PreparedStatement select = guard.prepare(connection(), SELECT_LEASE_BY_ID_SQL, CallKind.BOOKING)) {
+            update.setInt(1, leaseID);
+            boolean recorded = guard.execute(CallKind.BOOKING, update::executeUpdate) > 0;
 
-        try {
-            connection = DBConnection.getConnection();
-
-            String query = "SELECT * FROM lease WHERE leaseID = ?";
-            preparedStatement = connection.prepareStatement(query);
-            preparedStatement.setInt(1, leaseID);
-            resultSet = preparedStatement.executeQuery();
-
-            if (resultSet.next()) {
-                Lease returnedLease = mapResultSetToLease(resultSet);
-                return returnedLease;
-            } else {
-                throw new LeaseNotFoundException("Lease not found with ID: " + leaseID);
+            select.setInt(1, leaseID);
+            Lease returnedLease;
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, select::executeQuery)) {
+                if (!resultSet.next()) {
+                    throw new LeaseNotFoundException("Lease not found with ID: " + leaseID);
+                }
+                returnedLease = mapResultSetToLease(resultSet);
             }
+            // The shared connection auto-commits, so the return is committed by now
+            if (recorded) {
+                eventBus.publish(new CarReturnedEvent(returnedLease));
+            }
+            return returnedLease;
         } catch (SQLException e) {
             // Handle SQLException
-            e.printStackTrace();
+            LOG.at(Level.ERROR).op("returnCar").with("leaseID", leaseID).error(e).log("Error retrieving lease information");
             throw new RuntimeException("Error retrieving lease information", e);
         } 
     }
     
     /**
-     * Retrieves a list of active leases from the database.
+     * Retrieves a list of active leases from the database, i.e. those ending today or later, including
+     * leases that have not started yet.
      *
      * @return A list of active leases.
      */
     @Override
     public List<Lease> listActiveLeases() {
         List<Lease> activeLeases = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Lease WHERE endDate >= CURRENT_DATE");
-             ResultSet resultSet = statement.executeQuery()) {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_ACTIVE_LEASES_SQL, CallKind.BOOKING);
+             ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
             while (resultSet.next()) {
                 activeLeases.add(mapResultSetToLease(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.error("listActiveLeases", "Error listing active leases", e);
         }
         return activeLeases;
     }
+    /**
+     * Updates a lease in the database if its version still matches, without taking row locks.
+     * A rejected update evicts the lease from the cache so the caller's next read sees the current row.
+     * An accepted update posts ledger adjustments for any change to the lease's charge in the same transaction.
+     * The charge is repriced at the booked rate unless the lease moves to another car.
+     *
+     * @param lease The lease with its new details and the version it was read at.
+     * @throws LeaseNotFoundException  If the lease no longer exists.
+     * @throws OptimisticLockException If the lease was updated by someone else in the meantime.
+     */
     @Override
-    public Lease findLeaseById(int leaseID) throws LeaseNotFoundException {
-        String sql = "SELECT * FROM Lease WHERE leaseID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, leaseID);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToLease(resultSet);
-                } else {
-                    throw new LeaseNotFoundException("Lease not found with ID: " + leaseID);
+    public void updateLease(Lease lease) throws LeaseNotFoundException, OptimisticLockException {
+        try {
+            double dailyRate = rateFor(lease);
+            double charge = chargeFor(dailyRate, lease.getStartDate(), lease.getEndDate());
+            boolean updated = inTransaction(tx -> {
+                try (PreparedStatement statement = guard.prepare(tx, UPDATE_LEASE_SQL, CallKind.BOOKING)) {
+                    statement.setInt(1, lease.getVehicleID());
+                    statement.setInt(2, lease.getCustomerID());
+                    statement.setObject(3, lease.getStartDate());
+                    statement.setObject(4, lease.getEndDate());
+                    statement.setString(5, lease.getType());
+                    statement.setDouble(6, dailyRate);
+                    statement.setInt(7, lease.getLeaseID());
+                    statement.setInt(8, lease.getVersion());
+
+                    if (guard.execute(CallKind.BOOKING, statement::executeUpdate) == 0) {
+                        return false;
+                    }
+                }
+                adjustLeaseCharges(tx, lease, charge);
+                return true;
+            });
+
+            if (!updated) {
+                leaseCache.invalidate(lease.getLeaseID());
+                int current = currentVersion(SELECT_LEASE_VERSION_SQL, lease.getLeaseID());
+                if (current < 0) {
+                    throw new LeaseNotFoundException("Lease not found with ID: " + lease.getLeaseID());
+                }
+                throw new OptimisticLockException("Lease " + lease.getLeaseID() + " was updated concurrently: read version "
+                        + lease.getVersion() + ", current version " + current);
+            }
+        } catch (SQLException | CarNotFoundException e) {
+            LOG.at(Level.ERROR).op("updateLease").with("leaseID", lease.getLeaseID()).error(e).log("Error updating lease");
+            throw new RuntimeException("Error updating lease", e);
+        }
+        lease.setVersion(lease.getVersion() + 1);
+        leaseCache.put(lease.getLeaseID(), lease);
+        invalidateElsewhere(leaseCache, lease.getLeaseID());
+        eventBus.publish(new LeaseUpdatedEvent(lease));
+    }
+
+    /**
+     * Retrieves the daily rate an updated lease is charged at: the rate it was booked at while it stays on
+     * the same car, even one removed since, or else the current rate of the car it moves to.
+     *
+     * @param lease The updated lease.
+     * @return The daily rate.
+     * @throws SQLException           If the lease cannot be read.
+     * @throws LeaseNotFoundException If the lease does not exist.
+     * @throws CarNotFoundException   If the lease moves to a car that does not exist.
+     */
+    private double rateFor(Lease lease) throws SQLException, LeaseNotFoundException, CarNotFoundException {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_LEASE_RATE_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, lease.getLeaseID());
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                if (!resultSet.next()) {
+                    throw new LeaseNotFoundException("Lease not found with ID: " + lease.getLeaseID());
+                }
+                double dailyRate = resultSet.getDouble(2);
+                if (resultSet.getInt(1) == lease.getVehicleID() && !resultSet.wasNull()) {
+                    return dailyRate;
                 }
             }
+        }
+        return findCarById(lease.getVehicleID()).getDailyRate();
+    }
+
+    /**
+     * Reads the current version of a row, to tell a missing row from a concurrent update.
+     *
+     * @param sql The version query for the table.
+     * @param id  The ID of the row.
+     * @return The version, or -1 if the row does not exist.
+     * @throws SQLException If the query fails.
+     */
+    private int currentVersion(String sql, int id) throws SQLException {
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.BOOKING)) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                return resultSet.next() ? resultSet.getInt(1) : -1;
+            }
+        }
+    }
+
+    @Override
+    public Lease findLeaseById(int leaseID) throws LeaseNotFoundException {
+        Lease cached = leaseCache.get(leaseID);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = leaseCache.getGeneration();
+        try {
+            Lease lease = queryLease(SELECT_LEASE_BY_ID_SQL, leaseID);
+            if (lease == null && archiveHorizon() != null) {
+                lease = queryLease(SELECT_ARCHIVED_LEASE_BY_ID_SQL, leaseID);
+            }
+            if (lease == null) {
+                throw new LeaseNotFoundException("Lease not found with ID: " + leaseID);
+            }
+            leaseCache.putIfCurrent(leaseID, lease, generation);
+            return lease;
         } catch (SQLException e) {
             // Handle SQLException
-            System.err.println("Error retrieving lease information: " + e.getMessage());
+            LOG.at(Level.ERROR).op("findLeaseById").with("leaseID", leaseID).error(e).log("Error retrieving lease information");
             throw new RuntimeException("Error retrieving lease information", e);
         }
     }
 
+    /**
+     * Reads one lease by ID.
+     *
+     * @param sql     The lookup query for the tier.
+     * @param leaseID The ID of the lease.
+     * @return The lease, or null if the tier does not hold it.
+     * @throws SQLException If the query fails.
+     */
+    private Lease queryLease(String sql, int leaseID) throws SQLException {
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.BOOKING)) {
+            statement.setInt(1, leaseID);
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                return resultSet.next() ? mapResultSetToLease(resultSet) : null;
+            }
+        }
+    }
+
     
     /**
      * Retrieves a list of all leases from the database.
@@ -424,21 +1469,380 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public List<Lease> listLeaseHistory() {
         List<Lease> leaseHistory = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Lease");
-             ResultSet resultSet = statement.executeQuery()) {
+        String sql = archiveHorizon() != null ? SELECT_TIERED_LEASES_SQL : SELECT_LEASES_SQL;
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.REPORTING);
+             ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
             while (resultSet.next()) {
                 leaseHistory.add(mapResultSetToLease(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.error("listLeaseHistory", "Error listing leases", e);
         }
         return leaseHistory;
     }
 
+    /**
+     * Retrieves summaries of all leases, reading only their IDs and dates and leaving out the type and version.
+     *
+     * @return A list of lease summaries.
+     */
+    @Override
+    public List<LeaseSummary> listLeaseSummaries() {
+        List<LeaseSummary> summaries = new ArrayList<>();
+        String sql = archiveHorizon() != null ? SELECT_TIERED_LEASE_SUMMARIES_SQL : SELECT_LEASE_SUMMARIES_SQL;
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.REPORTING);
+             ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+            while (resultSet.next()) {
+                summaries.add(new LeaseSummary(resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3),
+                        resultSet.getObject(4, LocalDate.class), resultSet.getObject(5, LocalDate.class)));
+            }
+        } catch (SQLException e) {
+            LOG.error("listLeaseSummaries", "Error listing lease summaries", e);
+        }
+        return summaries;
+    }
+
+    /**
+     * Retrieves the leases with an ID greater than the given one, ordered by ID.
+     *
+     * @param leaseID The highest lease ID already seen.
+     * @return A list of newer leases.
+     */
+    
+    @Override
+    public List<Lease> listLeasesAfter(int leaseID) {
+        List<Lease> leases = new ArrayList<>();
+        boolean tiered = archiveHorizon() != null;
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_LEASES_AFTER_SQL : SELECT_LEASES_AFTER_SQL, CallKind.REPORTING)) {
+            statement.setInt(1, leaseID);
+            if (tiered) {
+                statement.setInt(2, leaseID);
+            }
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    leases.add(mapResultSetToLease(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("listLeasesAfter").with("afterLeaseID", leaseID).error(e).log("Error listing leases");
+        }
+        return leases;
+    }
+
+    /**
+     * Retrieves one page of leases with an ID greater than the given one, ordered by ID.
+     * Paging on the primary key keeps every page an index range scan, however deep into the table.
+     *
+     * @param leaseID The last lease ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of leases to return.
+     * @return A list of at most {@code limit} leases.
+     */
+    
+    @Override
+    public List<Lease> listLeasesAfter(int leaseID, int limit) {
+        List<Lease> leases = new ArrayList<>(limit);
+        boolean tiered = archiveHorizon() != null;
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_LEASES_PAGE_SQL : SELECT_LEASES_PAGE_SQL, CallKind.REPORTING)) {
+            bindPage(statement, tiered, leaseID, limit);
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    leases.add(mapResultSetToLease(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("listLeasesAfter").with("afterLeaseID", leaseID).with("limit", limit).error(e).log("Error listing leases");
+        }
+        return leases;
+    }
+
+    /**
+     * Retrieves the leases overlapping a date range. The archive is read only when the range starts on or
+     * before the latest end date it holds, so queries over recent periods scan the hot table alone.
+     *
+     * @param from The first day of the range.
+     * @param to   The last day of the range.
+     * @return A list of overlapping leases ordered by ID.
+     */
+    @Override
+    public List<Lease> listLeases(LocalDate from, LocalDate to) {
+        List<Lease> leases = new ArrayList<>();
+        LocalDate horizon = archiveHorizon();
+        boolean tiered = horizon != null && !from.isAfter(horizon);
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_LEASES_IN_RANGE_SQL : SELECT_LEASES_IN_RANGE_SQL, CallKind.REPORTING)) {
+            statement.setObject(1, to);
+            statement.setObject(2, from);
+            if (tiered) {
+                statement.setObject(3, to);
+                statement.setObject(4, from);
+            }
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    leases.add(mapResultSetToLease(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("listLeases").with("from", from.toString()).with("to", to.toString()).error(e).log("Error listing leases");
+        }
+        return leases;
+    }
+
+    /**
+     * Retrieves the leases of one car overlapping a date range. Like {@link #listLeases(LocalDate, LocalDate)},
+     * the archive is read only when the range reaches back into it.
+     *
+     * @param vehicleID The ID of the car.
+     * @param from      The first day of the range.
+     * @param to        The last day of the range.
+     * @return A list of the car's overlapping leases ordered by ID.
+     */
+    @Override
+    public List<Lease> listLeases(int vehicleID, LocalDate from, LocalDate to) {
+        List<Lease> leases = new ArrayList<>();
+        LocalDate horizon = archiveHorizon();
+        boolean tiered = horizon != null && !from.isAfter(horizon);
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_CAR_LEASES_IN_RANGE_SQL : SELECT_CAR_LEASES_IN_RANGE_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, vehicleID);
+            statement.setObject(2, to);
+            statement.setObject(3, from);
+            if (tiered) {
+                statement.setInt(4, vehicleID);
+                statement.setObject(5, to);
+                statement.setObject(6, from);
+            }
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    leases.add(mapResultSetToLease(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("listLeases").with("vehicleID", vehicleID).with("from", from.toString()).with("to", to.toString()).error(e).log("Error listing car leases");
+        }
+        return leases;
+    }
+
+    /**
+     * Binds the parameters of a hot or tiered page query.
+     *
+     * @param statement The page query.
+     * @param tiered    True if the query also reads the archive.
+     * @param afterID   The last ID of the previous page.
+     * @param limit     The page size.
+     * @throws SQLException If a parameter cannot be bound.
+     */
+    private static void bindPage(PreparedStatement statement, boolean tiered, int afterID, int limit) throws SQLException {
+        statement.setInt(1, afterID);
+        statement.setInt(2, limit);
+        if (tiered) {
+            statement.setInt(3, afterID);
+            statement.setInt(4, limit);
+            statement.setInt(5, limit);
+        }
+    }
+
+    // Archive Tier
+
+    /**
+     * Moves completed leases and their payments to the archive tables, one transaction per batch. Leases
+     * move before their payments are deleted, so a failed batch is rolled back as a whole and leaves both
+     * tiers as they were. No change events are published, since the rows remain readable.
+     *
+     * @param endedBefore The cutoff; only leases ending before this day are archived.
+     * @param batchSize   The maximum number of leases moved per transaction.
+     * @return The number of leases archived.
+     * @throws IllegalArgumentException If the cutoff lies in the future.
+     * @throws RuntimeException         If a batch fails; batches committed before it stay archived.
+     */
+    @Override
+    public int archiveLeases(LocalDate endedBefore, int batchSize) {
+        if (endedBefore.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot archive leases that have not ended: " + endedBefore);
+        }
+        long start = System.nanoTime();
+        int archived = 0;
+        try {
+            List<Integer> batch;
+            do {
+                batch = archivableLeaseIDs(endedBefore, batchSize);
+                if (!batch.isEmpty()) {
+                    moveToArchive(batch);
+                    archived += batch.size();
+                }
+            } while (batch.size() == batchSize);
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("archiveLeases").with("endedBefore", endedBefore.toString()).with("archived", archived).latency(System.nanoTime() - start).error(e).log("Error archiving leases");
+            throw new RuntimeException("Error archiving leases", e);
+        } finally {
+            if (archived > 0) {
+                synchronized (archiveLock) {
+                    archiveHorizonLoaded = false;
+                }
+            }
+        }
+        LOG.at(Level.INFO).op("archiveLeases").with("endedBefore", endedBefore.toString()).with("archived", archived).latency(System.nanoTime() - start).log("Leases archived");
+        return archived;
+    }
+
+    /**
+     * Selects the next batch of completed leases.
+     *
+     * @param endedBefore The cutoff.
+     * @param batchSize   The maximum number of leases.
+     * @return The lease IDs, in ascending order.
+     * @throws SQLException If the query fails.
+     */
+    private List<Integer> archivableLeaseIDs(LocalDate endedBefore, int batchSize) throws SQLException {
+        List<Integer> leaseIDs = new ArrayList<>(batchSize);
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_ARCHIVABLE_LEASES_SQL, CallKind.REPORTING)) {
+            statement.setObject(1, endedBefore);
+            statement.setInt(2, batchSize);
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    leaseIDs.add(resultSet.getInt(1));
+                }
+            }
+        }
+        return leaseIDs;
+    }
+
+    /**
+     * Copies a batch of leases and their payments to the archive and deletes them from the hot tables
+     * in one transaction.
+     *
+     * @param leaseIDs The leases to move.
+     * @throws SQLException If the batch fails; it is rolled back.
+     */
+    private void moveToArchive(List<Integer> leaseIDs) throws SQLException {
+        inTransaction(tx -> {
+            for (String sql : ARCHIVE_MOVE_SQL) {
+                try (PreparedStatement statement = guard.prepare(tx, sql, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < leaseIDs.size(); i++) {
+                        statement.setInt(1, leaseIDs.get(i));
+                        addToBatch(statement, i, leaseIDs.size());
+                    }
+                }
+            }
+            return null;
+        });
+        for (int leaseID : leaseIDs) {
+            leaseCache.invalidate(leaseID);
+        }
+    }
+
+    // Soft-Delete Purge
+
+    /**
+     * Deletes one batch of cars that were removed before the cutoff and that no lease refers to, hot
+     * or archived, in one transaction.
+     *
+     * @param deletedBefore The cutoff; only cars removed before it are deleted.
+     * @param batchSize     The maximum number of cars deleted.
+     * @return The number of cars deleted; fewer than the batch size once no more are due.
+     * @throws RuntimeException If the batch fails; it is rolled back.
+     */
+    public int purgeDeletedCars(LocalDateTime deletedBefore, int batchSize) {
+        boolean tiered = hasArchiveTables();
+        return purgeDeleted("purgeDeletedCars", tiered ? SELECT_TIERED_PURGEABLE_CARS_SQL : SELECT_PURGEABLE_CARS_SQL,
+                tiered ? PURGE_TIERED_CAR_SQL : PURGE_CAR_SQL, tiered ? 3 : 2, deletedBefore, batchSize);
+    }
+
+    /**
+     * Deletes one batch of customers that were removed before the cutoff and that no lease refers to,
+     * hot or archived, in one transaction. Their ledger rows are kept.
+     *
+     * @param deletedBefore The cutoff; only customers removed before it are deleted.
+     * @param batchSize     The maximum number of customers deleted.
+     * @return The number of customers deleted; fewer than the batch size once no more are due.
+     * @throws RuntimeException If the batch fails; it is rolled back.
+     */
+    public int purgeDeletedCustomers(LocalDateTime deletedBefore, int batchSize) {
+        boolean tiered = hasArchiveTables();
+        return purgeDeleted("purgeDeletedCustomers", tiered ? SELECT_TIERED_PURGEABLE_CUSTOMERS_SQL : SELECT_PURGEABLE_CUSTOMERS_SQL,
+                tiered ? PURGE_TIERED_CUSTOMER_SQL : PURGE_CUSTOMER_SQL, tiered ? 3 : 2, deletedBefore, batchSize);
+    }
+
+    private int purgeDeleted(String op, String selectSql, String deleteSql, int idParameters, LocalDateTime deletedBefore, int batchSize) {
+        long start = System.nanoTime();
+        try {
+            List<Integer> ids = new ArrayList<>(batchSize);
+            try (PreparedStatement statement = guard.prepare(connection(), selectSql, CallKind.REPORTING)) {
+                statement.setObject(1, deletedBefore);
+                statement.setInt(2, batchSize);
+                try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                    while (resultSet.next()) {
+                        ids.add(resultSet.getInt(1));
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            inTransaction(tx -> {
+                try (PreparedStatement statement = guard.prepare(tx, deleteSql, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        for (int parameter = 1; parameter <= idParameters; parameter++) {
+                            statement.setInt(parameter, ids.get(i));
+                        }
+                        addToBatch(statement, i, ids.size());
+                    }
+                }
+                return null;
+            });
+            LOG.at(Level.INFO).op(op).with("purged", ids.size()).latency(System.nanoTime() - start).log("Purged removed rows");
+            return ids.size();
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op(op).latency(System.nanoTime() - start).error(e).log("Error purging removed rows");
+            throw new RuntimeException("Error purging removed rows", e);
+        }
+    }
+
+    /**
+     * Checks whether the archive tables exist, so statements can tell an empty archive from a missing one.
+     *
+     * @return False only if the archive tables were found missing; true while that is not known.
+     */
+    private boolean hasArchiveTables() {
+        synchronized (archiveLock) {
+            archiveHorizon();
+            return !archiveHorizonLoaded || archiveTablesFound;
+        }
+    }
+
+    /**
+     * Retrieves the latest end date among archived leases, reading it from the database on first use
+     * and again after each archive run. A missing archive table counts as an empty archive.
+     *
+     * @return The latest archived end date, or null if the archive is empty.
+     */
+    private LocalDate archiveHorizon() {
+        synchronized (archiveLock) {
+            if (!archiveHorizonLoaded) {
+                try (PreparedStatement statement = guard.prepare(connection(), SELECT_ARCHIVE_HORIZON_SQL, CallKind.REPORTING);
+                     ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                    archiveHorizon = resultSet.next() ? resultSet.getObject(1, LocalDate.class) : null;
+                    archiveHorizonLoaded = true;
+                    archiveTablesFound = true;
+                } catch (SQLSyntaxErrorException e) {
+                    LOG.at(Level.WARN).op("archiveHorizon").error(e).log("Archive tables not found; reading the hot tier only");
+                    archiveHorizon = null;
+                    archiveHorizonLoaded = true;
+                    archiveTablesFound = false;
+                } catch (SQLException e) {
+                    // Retried on the next read; the read itself will most likely fail the same way
+                    LOG.at(Level.WARN).op("archiveHorizon").error(e).log("Error reading archive horizon");
+                }
+            }
+            return archiveHorizon;
+        }
+    }
+
     // Payment Handling
 
     /**
-     * Records a payment for a lease in the database.
+     * Records a payment for a lease in the database and posts it to the customer's ledger.
      *
      * @param lease  The Lease entity for which the payment is recorded.
      * @param amount The amount of the payment.
@@ -446,14 +1850,29 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     
     @Override
     public void recordPayment(Lease lease, double amount) {
-        String sql = "INSERT INTO Payment (leaseID, paymentDate, amount) VALUES (?, CURRENT_DATE, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, lease.getLeaseID());
-            statement.setDouble(2, amount);
+        long start = System.nanoTime();
+        try {
+            int paymentID = inTransaction(tx -> {
+                int id;
+                try (PreparedStatement statement = tx.prepareStatement(INSERT_PAYMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    statement.setQueryTimeout(guard.getQueryTimeout(CallKind.PAYMENT));
+                    statement.setInt(1, lease.getLeaseID());
+                    statement.setDouble(2, amount);
 
-            statement.executeUpdate();
+                    guard.execute(CallKind.PAYMENT, statement::executeUpdate);
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Recording payment failed, no ID obtained.");
+                        }
+                        id = generatedKeys.getInt(1);
+                    }
+                }
+                postLedgerEntry(tx, lease.getCustomerID(), lease.getLeaseID(), LedgerEntry.PAYMENT, -amount, CallKind.PAYMENT);
+                return id;
+            });
+            eventBus.publish(new PaymentRecordedEvent(paymentID, lease.getLeaseID(), lease.getCustomerID(), lease.getVehicleID(), amount));
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.at(Level.ERROR).op("recordPayment").with("leaseID", lease.getLeaseID()).with("customerID", lease.getCustomerID()).latency(System.nanoTime() - start).error(e).log("Error recording payment");
         }
     }
 
@@ -466,19 +1885,254 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public List<Payment> retrievePaymentHistory(int customerID) {
         List<Payment> paymentHistory = new ArrayList<>();
-        String sql = "SELECT * FROM Payment p JOIN Lease l ON p.leaseID = l.leaseID WHERE l.customerID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        boolean tiered = archiveHorizon() != null;
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_PAYMENTS_BY_CUSTOMER_SQL : SELECT_PAYMENTS_BY_CUSTOMER_SQL, CallKind.PAYMENT)) {
             statement.setInt(1, customerID);
-            ResultSet resultSet = statement.executeQuery();
+            if (tiered) {
+                statement.setInt(2, customerID);
+            }
+            ResultSet resultSet = guard.execute(CallKind.PAYMENT, statement::executeQuery);
             while (resultSet.next()) {
                 paymentHistory.add(mapResultSetToPayment(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.at(Level.ERROR).op("retrievePaymentHistory").with("customerID", customerID).error(e).log("Error retrieving payment history");
         }
         return paymentHistory;
     }
 
+    // Customer Ledger
+
+    /**
+     * Retrieves a customer's balance from its materialized row.
+     *
+     * @param customerID The ID of the customer.
+     * @return The balance owed, or 0 if the customer has no entries or the lookup fails.
+     */
+    @Override
+    public double retrieveBalance(int customerID) {
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_BALANCE_SQL, CallKind.PAYMENT)) {
+            statement.setInt(1, customerID);
+            try (ResultSet resultSet = guard.execute(CallKind.PAYMENT, statement::executeQuery)) {
+                return resultSet.next() ? resultSet.getDouble(1) : 0;
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("retrieveBalance").with("customerID", customerID).error(e).log("Error retrieving balance");
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieves a customer's ledger entries in posting order.
+     *
+     * @param customerID The ID of the customer.
+     * @return A list of ledger entries.
+     */
+    @Override
+    public List<LedgerEntry> retrieveLedger(int customerID) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        try (PreparedStatement statement = guard.prepare(connection(), SELECT_LEDGER_BY_CUSTOMER_SQL, CallKind.PAYMENT)) {
+            statement.setInt(1, customerID);
+            try (ResultSet resultSet = guard.execute(CallKind.PAYMENT, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    entries.add(mapResultSetToLedgerEntry(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("retrieveLedger").with("customerID", customerID).error(e).log("Error retrieving ledger");
+        }
+        return entries;
+    }
+
+    /**
+     * Replaces every ledger entry and balance with ones replayed from the leases and payments, archived
+     * ones included, in a single transaction.
+     *
+     * @return The number of ledger entries written.
+     * @throws RuntimeException If the ledger cannot be rebuilt; the previous ledger is kept.
+     */
+    @Override
+    public int rebuildLedger() {
+        long start = System.nanoTime();
+        String replaySql = archiveHorizon() != null ? REBUILD_TIERED_LEDGER_SQL : REBUILD_LEDGER_SQL;
+        int entries;
+        try {
+            entries = inTransaction(tx -> {
+                executeBulk(tx, DELETE_LEDGER_SQL);
+                executeBulk(tx, DELETE_BALANCES_SQL);
+                int written = executeBulk(tx, replaySql);
+                executeBulk(tx, REBUILD_BALANCES_SQL);
+                return written;
+            });
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("rebuildLedger").latency(System.nanoTime() - start).error(e).log("Error rebuilding ledger");
+            throw new RuntimeException("Error rebuilding ledger", e);
+        }
+        LOG.at(Level.INFO).op("rebuildLedger").with("entries", entries).latency(System.nanoTime() - start).log("Ledger rebuilt");
+        return entries;
+    }
+
+    /**
+     * Posts an entry to a customer's ledger as part of the caller's transaction.
+     *
+     * @param tx         The connection of the surrounding transaction.
+     * @param customerID The ID of the customer.
+     * @param leaseID    The ID of the lease the entry belongs to.
+     * @param kind       The kind of entry.
+     * @param amount     The signed amount; positive adds to the balance owed.
+     * @param callKind   The call kind of the surrounding operation.
+     * @throws SQLException If the entry cannot be posted.
+     */
+    private void postLedgerEntry(Connection tx, int customerID, int leaseID, String kind, double amount, CallKind callKind) throws SQLException {
+        try (PreparedStatement statement = guard.prepare(tx, UPSERT_BALANCE_SQL, callKind)) {
+            statement.setInt(1, customerID);
+            statement.setDouble(2, amount);
+            guard.execute(callKind, statement::executeUpdate);
+        }
+        double balance;
+        try (PreparedStatement statement = guard.prepare(tx, SELECT_BALANCE_SQL, callKind)) {
+            statement.setInt(1, customerID);
+            try (ResultSet resultSet = guard.execute(callKind, statement::executeQuery)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Balance row missing for customer " + customerID);
+                }
+                balance = resultSet.getDouble(1);
+            }
+        }
+        try (PreparedStatement statement = guard.prepare(tx, INSERT_LEDGER_ENTRY_SQL, callKind)) {
+            statement.setInt(1, customerID);
+            statement.setInt(2, leaseID);
+            statement.setString(3, kind);
+            statement.setDouble(4, amount);
+            statement.setDouble(5, balance);
+            guard.execute(callKind, statement::executeUpdate);
+        }
+    }
+
+    /**
+     * Brings a lease's charges in line with its updated car, customer and dates. The lease's customer is
+     * charged the difference to the new charge, and a previous customer is credited what they were charged.
+     *
+     * @param tx     The connection of the surrounding transaction.
+     * @param lease  The updated lease.
+     * @param charge The charge for the lease as it now stands.
+     * @throws SQLException If the adjustments cannot be posted.
+     */
+    private void adjustLeaseCharges(Connection tx, Lease lease, double charge) throws SQLException {
+        KeyedTotals charged;
+        try (PreparedStatement statement = guard.prepare(tx, SELECT_LEASE_CHARGES_SQL, CallKind.BOOKING)) {
+            statement.setInt(1, lease.getLeaseID());
+            try (ResultSet resultSet = guard.execute(CallKind.BOOKING, statement::executeQuery)) {
+                charged = KeyedTotals.read(resultSet);
+            }
+        }
+        for (int i = 0; i < charged.size(); i++) {
+            if (charged.getKey(i) != lease.getCustomerID() && charged.getTotal(i) != 0) {
+                postLedgerEntry(tx, charged.getKey(i), lease.getLeaseID(), LedgerEntry.ADJUSTMENT, -charged.getTotal(i), CallKind.BOOKING);
+            }
+        }
+        // Amounts are stored to the cent
+        double difference = charge - charged.get(lease.getCustomerID());
+        if (Math.abs(difference) >= 0.005) {
+            postLedgerEntry(tx, lease.getCustomerID(), lease.getLeaseID(), LedgerEntry.ADJUSTMENT, difference, CallKind.BOOKING);
+        }
+    }
+
+    /**
+     * Calculates what a lease is charged: the daily rate for every day leased, and at least one day.
+     * This matches the charge the outstanding balance queries use.
+     *
+     * @param dailyRate The car's daily rate.
+     * @param startDate The start date of the lease.
+     * @param endDate   The end date of the lease.
+     * @return The charge.
+     */
+    private static double chargeFor(double dailyRate, LocalDate startDate, LocalDate endDate) {
+        return dailyRate * Math.max(ChronoUnit.DAYS.between(startDate, endDate), 1);
+    }
+
+    /**
+     * Work run inside a transaction, on the transaction's own connection.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run(Connection tx) throws SQLException;
+    }
+
+    /**
+     * Runs work in one transaction on a connection of its own, rolling it back if the work fails. The
+     * shared connection stays in auto-commit mode, so concurrent transactions never share a session:
+     * one thread's rollback cannot undo another's writes, and row locks taken by one transaction hold
+     * off the others.
+     *
+     * @param work The statements to run.
+     * @param <T>  The result type.
+     * @return The result of the work.
+     * @throws SQLException If the work fails.
+     */
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        Connection tx = DBConnection.acquireTransactionConnection();
+        boolean ended = false;
+        try {
+            T result = work.run(tx);
+            tx.commit();
+            ended = true;
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                tx.rollback();
+                ended = true;
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            DBConnection.releaseTransactionConnection(tx, ended);
+        }
+    }
+
+    /**
+     * Runs one long-running update statement.
+     *
+     * @param tx  The connection of the surrounding transaction.
+     * @param sql The statement.
+     * @return The number of rows changed.
+     * @throws SQLException If the statement fails.
+     */
+    private int executeBulk(Connection tx, String sql) throws SQLException {
+        try (PreparedStatement statement = guard.prepare(tx, sql, BULK_TIMEOUT_SECONDS)) {
+            return guard.execute(CallKind.REPORTING, statement::executeUpdate);
+        }
+    }
+
+    /**
+     * Retrieves one page of payments with an ID greater than the given one, ordered by ID.
+     *
+     * @param paymentID The last payment ID of the previous page, or 0 for the first page.
+     * @param limit     The maximum number of payments to return.
+     * @return A list of at most {@code limit} payments.
+     */
+    @Override
+    public List<Payment> listPaymentsAfter(int paymentID, int limit) {
+        List<Payment> payments = new ArrayList<>(limit);
+        boolean tiered = archiveHorizon() != null;
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_PAYMENTS_PAGE_SQL : SELECT_PAYMENTS_PAGE_SQL, CallKind.REPORTING)) {
+            bindPage(statement, tiered, paymentID, limit);
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                while (resultSet.next()) {
+                    payments.add(mapResultSetToPayment(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("listPaymentsAfter").with("afterPaymentID", paymentID).with("limit", limit).error(e).log("Error listing payments");
+        }
+        return payments;
+    }
+
     /**
      * Calculates the total revenue from payments in the database.
      *
@@ -487,18 +2141,218 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
     @Override
     public double calculateTotalRevenue() {
         double totalRevenue = 0;
-        String sql = "SELECT SUM(amount) AS total FROM Payment";
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        String sql = archiveHorizon() != null ? SELECT_TIERED_TOTAL_REVENUE_SQL : SELECT_TOTAL_REVENUE_SQL;
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.REPORTING);
+             ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
             if (resultSet.next()) {
                 totalRevenue = resultSet.getDouble("total");
             }
         } catch (SQLException e) {
-            e.printStackTrace(); 
+            LOG.error("calculateTotalRevenue", "Error calculating total revenue", e);
         }
         return totalRevenue;
     }
 
+    /**
+     * Calculates the total paid by one customer with a single aggregate query.
+     *
+     * @param customerID The ID of the customer.
+     * @return The customer's total payments.
+     */
+    @Override
+    public double calculateRevenueForCustomer(int customerID) {
+        boolean tiered = archiveHorizon() != null;
+        try (PreparedStatement statement = guard.prepare(connection(),
+                tiered ? SELECT_TIERED_REVENUE_FOR_CUSTOMER_SQL : SELECT_REVENUE_FOR_CUSTOMER_SQL, CallKind.REPORTING)) {
+            statement.setInt(1, customerID);
+            if (tiered) {
+                statement.setInt(2, customerID);
+            }
+            try (ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+                return resultSet.next() ? resultSet.getDouble(1) : 0;
+            }
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("calculateRevenueForCustomer").with("customerID", customerID).error(e).log("Error calculating customer revenue");
+        }
+        return 0;
+    }
+
+    /**
+     * Calculates the revenue of every customer with a GROUP BY query.
+     *
+     * @return Total payments keyed by customer ID.
+     */
+    @Override
+    public KeyedTotals calculateRevenueByCustomer() {
+        return queryTotals(archiveHorizon() != null ? SELECT_TIERED_REVENUE_BY_CUSTOMER_SQL : SELECT_REVENUE_BY_CUSTOMER_SQL);
+    }
+
+    /**
+     * Calculates the revenue of every car with a GROUP BY query.
+     *
+     * @return Total payments keyed by vehicle ID.
+     */
+    @Override
+    public KeyedTotals calculateRevenueByCar() {
+        return queryTotals(archiveHorizon() != null ? SELECT_TIERED_REVENUE_BY_CAR_SQL : SELECT_REVENUE_BY_CAR_SQL);
+    }
+
+    /**
+     * Calculates the revenue of every month with a GROUP BY query.
+     *
+     * @return Total payments keyed by month as {@code year * 100 + month}.
+     */
+    @Override
+    public KeyedTotals calculateRevenueByMonth() {
+        return queryTotals(archiveHorizon() != null ? SELECT_TIERED_REVENUE_BY_MONTH_SQL : SELECT_REVENUE_BY_MONTH_SQL);
+    }
+
+    /**
+     * Calculates the balance still owed on every lease with a GROUP BY query.
+     *
+     * @return Outstanding balances keyed by lease ID.
+     */
+    @Override
+    public KeyedTotals calculateOutstandingByLease() {
+        return queryTotals(SELECT_OUTSTANDING_BY_LEASE_SQL);
+    }
+
+    /**
+     * Runs a two-column (key, total) aggregate query.
+     *
+     * @param sql The query.
+     * @return The totals, or empty totals if the query fails.
+     */
+    private KeyedTotals queryTotals(String sql) {
+        try (PreparedStatement statement = guard.prepare(connection(), sql, CallKind.REPORTING);
+             ResultSet resultSet = guard.execute(CallKind.REPORTING, statement::executeQuery)) {
+            return KeyedTotals.read(resultSet);
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("queryTotals").with("sql", sql).error(e).log("Error running aggregate query");
+        }
+        return new KeyedTotals(new int[0], new double[0]);
+    }
+
+    // Bulk Load
+
+    /**
+     * Inserts rows with their existing IDs using batched statements in a single transaction.
+     * With MySQL, set {@code rewriteBatchedStatements=true} on the connection URL so each batch is
+     * sent as one multi-row INSERT. Cached cars, customers and leases and the search indexes are reset
+     * afterwards, on this node and through the invalidation channel on the others, since no events are
+     * published for the loaded rows, and the customer ledger is rebuilt if leases or payments were loaded.
+     *
+     * @param cars      The cars to insert.
+     * @param customers The customers to insert.
+     * @param leases    The leases to insert.
+     * @param payments  The payments to insert.
+     * @throws RuntimeException If the rows cannot be inserted; the whole call is rolled back.
+     */
+    @Override
+    public void bulkLoad(List<Car> cars, List<Customer> customers, List<Lease> leases, List<Payment> payments) {
+        long start = System.nanoTime();
+        try {
+            inTransaction(tx -> {
+                try (PreparedStatement statement = guard.prepare(tx, BULK_INSERT_CAR_SQL, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < cars.size(); i++) {
+                        Car car = cars.get(i);
+                        statement.setInt(1, car.getVehicleID());
+                        statement.setString(2, car.getMake());
+                        statement.setString(3, car.getModel());
+                        statement.setInt(4, car.getYear());
+                        statement.setDouble(5, car.getDailyRate());
+                        statement.setString(6, car.getStatus());
+                        statement.setInt(7, car.getPassengerCapacity());
+                        statement.setInt(8, car.getEngineCapacity());
+                        addToBatch(statement, i, cars.size());
+                    }
+                }
+                try (PreparedStatement statement = guard.prepare(tx, INSERT_CUSTOMER_SQL, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < customers.size(); i++) {
+                        Customer customer = customers.get(i);
+                        statement.setInt(1, customer.getCustomerID());
+                        statement.setString(2, customer.getFirstName());
+                        statement.setString(3, customer.getLastName());
+                        statement.setString(4, customer.getEmail());
+                        statement.setString(5, customer.getPhoneNumber());
+                        addToBatch(statement, i, customers.size());
+                    }
+                }
+                try (PreparedStatement statement = guard.prepare(tx, INSERT_LEASE_SQL, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < leases.size(); i++) {
+                        Lease lease = leases.get(i);
+                        statement.setInt(1, lease.getLeaseID());
+                        statement.setInt(2, lease.getVehicleID());
+                        statement.setInt(3, lease.getCustomerID());
+                        statement.setObject(4, lease.getStartDate());
+                        statement.setObject(5, lease.getEndDate());
+                        statement.setString(6, lease.getType());
+                        statement.setNull(7, Types.DECIMAL);
+                        addToBatch(statement, i, leases.size());
+                    }
+                }
+                // Loaded leases carry no rate; they keep their car's rate as loaded
+                if (!leases.isEmpty()) {
+                    executeBulk(tx, BACKFILL_LEASE_RATES_SQL);
+                }
+                try (PreparedStatement statement = guard.prepare(tx, BULK_INSERT_PAYMENT_SQL, BULK_TIMEOUT_SECONDS)) {
+                    for (int i = 0; i < payments.size(); i++) {
+                        Payment payment = payments.get(i);
+                        statement.setInt(1, payment.getPaymentID());
+                        statement.setInt(2, payment.getLeaseID());
+                        statement.setObject(3, payment.getPaymentDate());
+                        statement.setDouble(4, payment.getAmount());
+                        addToBatch(statement, i, payments.size());
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            LOG.at(Level.ERROR).op("bulkLoad").with("cars", cars.size()).with("leases", leases.size()).with("payments", payments.size()).latency(System.nanoTime() - start).error(e).log("Error bulk loading rows");
+            throw new RuntimeException("Error bulk loading rows", e);
+        }
+
+        if (!cars.isEmpty()) {
+            carCache.clear();
+            invalidateAllElsewhere(carCache);
+            synchronized (carIndex) {
+                carIndexLoaded = false;
+            }
+            if (statusCounts.isLoaded()) {
+                reconcileStatusCounts();
+            }
+        }
+        if (!leases.isEmpty()) {
+            leaseCache.clear();
+            invalidateAllElsewhere(leaseCache);
+        }
+        if (!customers.isEmpty()) {
+            customerCache.clear();
+            invalidateAllElsewhere(customerCache);
+            synchronized (customerIndex) {
+                customerIndexLoaded = false;
+            }
+        }
+        if (!leases.isEmpty() || !payments.isEmpty()) {
+            rebuildLedger();
+        }
+    }
+
+    /**
+     * Adds the current parameters to the batch and executes the batch when it is full or the last row was added.
+     *
+     * @param statement The statement holding the batch.
+     * @param row       The index of the row just bound.
+     * @param rows      The total number of rows.
+     * @throws SQLException If the batch fails.
+     */
+    private void addToBatch(PreparedStatement statement, int row, int rows) throws SQLException {
+        statement.addBatch();
+        if ((row + 1) % BULK_BATCH_SIZE == 0 || row + 1 == rows) {
+            guard.execute(CallKind.REPORTING, statement::executeBatch);
+        }
+    }
+
     // Helper methods to map ResultSets to entities
     
     /**
@@ -510,7 +2364,7 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
      */
 
     private Car mapResultSetToCar(ResultSet resultSet) throws SQLException {
-        return new Car(
+        Car car = new Car(
                 resultSet.getInt("vehicleID"),
                 resultSet.getString("make"),
                 resultSet.getString("model"),
@@ -520,6 +2374,8 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
                 resultSet.getInt("passengerCapacity"),
                 resultSet.getInt("engineCapacity")
         );
+        car.setVersion(resultSet.getInt("version"));
+        return car;
     }
 
     /**
@@ -547,14 +2403,16 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
      * @throws SQLException If a database access error occurs.
      */
     private Lease mapResultSetToLease(ResultSet resultSet) throws SQLException {
-        return new Lease(
+        Lease lease = new Lease(
                 resultSet.getInt("leaseID"),
                 resultSet.getInt("vehicleID"),
                 resultSet.getInt("customerID"),
-                resultSet.getDate("startDate"),
-                resultSet.getDate("endDate"),
+                resultSet.getObject("startDate", LocalDate.class),
+                resultSet.getObject("endDate", LocalDate.class),
                 resultSet.getString("type")
         );
+        lease.setVersion(resultSet.getInt("version"));
+        return lease;
     }
 
     /**
@@ -568,9 +2426,28 @@ public class ICarLeaseRepositoryImpl implements ICarLeaseRepository {
         return new Payment(
                 resultSet.getInt("paymentID"),
                 resultSet.getInt("leaseID"),
-                resultSet.getDate("paymentDate"),
+                resultSet.getObject("paymentDate", LocalDate.class),
                 resultSet.getDouble("amount")
         );
     }
+
+    /**
+     * Maps a ResultSet to a LedgerEntry entity.
+     *
+     * @param resultSet The ResultSet containing ledger information.
+     * @return The mapped LedgerEntry entity.
+     * @throws SQLException If a database access error occurs.
+     */
+    private LedgerEntry mapResultSetToLedgerEntry(ResultSet resultSet) throws SQLException {
+        return new LedgerEntry(
+                resultSet.getLong("entryID"),
+                resultSet.getInt("customerID"),
+                resultSet.getInt("leaseID"),
+                resultSet.getObject("entryDate", LocalDate.class),
+                resultSet.getString("kind"),
+                resultSet.getDouble("amount"),
+                resultSet.getDouble("balance")
+        );
+    }
     
 }
@@ -0,0 +1,138 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The {@code KeyedTotals} class holds the result of a grouped aggregation query as two parallel
+ * primitive arrays: the group keys in ascending order and one total per key.
+ * <p>
+ * Keys are entity IDs (customer, car, lease) or months encoded as {@code year * 100 + month}.
+ */
+public final class KeyedTotals {
+
+    private final int[] keys;
+    private final double[] totals;
+
+    /**
+     * Constructs a new KeyedTotals object from parallel arrays.
+     *
+     * @param keys   The group keys, in ascending order.
+     * @param totals The total of each group.
+     */
+    public KeyedTotals(int[] keys, double[] totals) {
+        if (keys.length != totals.length) {
+            throw new IllegalArgumentException("keys and totals differ in length");
+        }
+        this.keys = keys;
+        this.totals = totals;
+    }
+
+    /**
+     * Reads a two-column (key, total) result set ordered by key.
+     *
+     * @param resultSet The result set.
+     * @return The totals.
+     * @throws SQLException If a database access error occurs.
+     */
+    static KeyedTotals read(ResultSet resultSet) throws SQLException {
+        int[] keys = new int[64];
+        double[] totals = new double[64];
+        int size = 0;
+        while (resultSet.next()) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                totals = Arrays.copyOf(totals, size * 2);
+            }
+            keys[size] = resultSet.getInt(1);
+            totals[size] = resultSet.getDouble(2);
+            size++;
+        }
+        return new KeyedTotals(Arrays.copyOf(keys, size), Arrays.copyOf(totals, size));
+    }
+
+    /**
+     * Retrieves the number of groups.
+     *
+     * @return The group count.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Retrieves the key of a group.
+     *
+     * @param index The position of the group.
+     * @return The key.
+     */
+    public int getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Retrieves the total of a group.
+     *
+     * @param index The position of the group.
+     * @return The total.
+     */
+    public double getTotal(int index) {
+        return totals[index];
+    }
+
+    /**
+     * Looks up the total for a key.
+     *
+     * @param key The group key.
+     * @return The total, or 0 if the key has no group.
+     */
+    public double get(int key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? totals[index] : 0;
+    }
+
+    /**
+     * Sums the totals of all groups.
+     *
+     * @return The grand total.
+     */
+    public double sum() {
+        double sum = 0;
+        for (double total : totals) {
+            sum += total;
+        }
+        return sum;
+    }
+
+    /**
+     * Retrieves a copy of the group keys.
+     *
+     * @return The keys, in ascending order.
+     */
+    public int[] getKeys() {
+        return keys.clone();
+    }
+
+    /**
+     * Retrieves a copy of the group totals.
+     *
+     * @return The totals, matching {@link #getKeys()}.
+     */
+    public double[] getTotals() {
+        return totals.clone();
+    }
+
+    /**
+     * Returns a string representation of the KeyedTotals object.
+     *
+     * @return A string representation of the KeyedTotals object.
+     */
+    @Override
+    public String toString() {
+        return "KeyedTotals{" +
+                "size=" + keys.length +
+                ", sum=" + sum() +
+                '}';
+    }
+}
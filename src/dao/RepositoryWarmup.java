@@ -0,0 +1,92 @@
+package dao;
+
+import log.Logger;
+import util.DBConnection;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Startup warmup for {@link ICarLeaseRepositoryImpl}.
+ * <p>
+ * Loads the JDBC driver and validates the connection first, then runs the remaining phases one after
+ * another: preparing every repository statement, and preloading available cars and active leases into
+ * the repository caches (which also runs the result-set mapping code so it is JIT-compiled before real
+ * traffic). The phases all go through the repository's single shared connection, which serializes
+ * them anyway, so running them in parallel would gain nothing. A failing phase is reported but does not
+ * abort startup.
+ */
+public class RepositoryWarmup {
+
+    private static final Logger LOG = Logger.getLogger(RepositoryWarmup.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ICarLeaseRepositoryImpl repository;
+
+    /**
+     * Constructs a new RepositoryWarmup.
+     *
+     * @param repository The repository to warm up.
+     */
+    public RepositoryWarmup(ICarLeaseRepositoryImpl repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Runs all warmup phases in order.
+     *
+     * @return The warmup report, including time-to-ready.
+     */
+    public WarmupReport run() {
+        WarmupReport report = new WarmupReport();
+        long start = System.nanoTime();
+
+        long phaseStart = System.nanoTime();
+        try {
+            DBConnection.loadDriver();
+            Connection connection = DBConnection.getConnection();
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection failed validation");
+            }
+        } catch (ClassNotFoundException | SQLException | RuntimeException e) {
+            LOG.error("validate", "Connection validation failed", e);
+            report.recordFailure();
+        }
+        report.setValidateMillis(millisSince(phaseStart));
+
+        phaseStart = System.nanoTime();
+        repository.prepareAllStatements(report);
+        if (report.getFailedStatements() > 0) {
+            report.recordFailure();
+        }
+        report.setPrepareMillis(millisSince(phaseStart));
+
+        phaseStart = System.nanoTime();
+        try {
+            report.setCarsPreloaded(repository.preloadAvailableCars());
+        } catch (RuntimeException e) {
+            LOG.error("preload", "Preloading cars failed", e);
+            report.recordFailure();
+        }
+        report.setPreloadCarsMillis(millisSince(phaseStart));
+
+        phaseStart = System.nanoTime();
+        try {
+            report.setLeasesPreloaded(repository.preloadActiveLeases());
+        } catch (RuntimeException e) {
+            LOG.error("preload", "Preloading leases failed", e);
+            report.recordFailure();
+        }
+        report.setPreloadLeasesMillis(millisSince(phaseStart));
+
+        report.setWarmupMillis(millisSince(start));
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        report.setTimeToReadyMillis(System.currentTimeMillis() - jvmStart);
+        return report;
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,187 @@
+package dao;
+
+import log.Level;
+import log.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background purge of cars and customers that were removed with a soft delete.
+ * <p>
+ * Removal only marks a row deleted, so the hot tables keep the rows until this purger deletes them. It runs
+ * only inside a daily off-peak window, deletes in small batches of one transaction each and pauses between
+ * batches, so the deletes never hold many locks at once or hold up the desk for long. Rows are kept for a
+ * retention period after removal, and the window is checked again before every batch, so a long backlog is
+ * spread over several nights rather than running into the morning.
+ */
+public class SoftDeletePurger implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(SoftDeletePurger.class);
+    private static final long CHECK_INTERVAL_MILLIS = 60_000;
+
+    /**
+     * Deletes one batch of removed rows of one table.
+     */
+    @FunctionalInterface
+    public interface BatchPurge {
+        /**
+         * Deletes one batch.
+         *
+         * @param deletedBefore The cutoff; only rows removed before it are deleted.
+         * @param batchSize     The maximum number of rows deleted.
+         * @return The number of rows deleted.
+         */
+        int purge(LocalDateTime deletedBefore, int batchSize);
+    }
+
+    private final List<BatchPurge> purges;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final Duration retention;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Clock clock;
+    private final LongAdder purged = new LongAdder();
+    private Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new SoftDeletePurger for the repository's cars and customers, keeping removed rows for a
+     * day and deleting 200 rows per batch with half a second between batches.
+     *
+     * @param repository  The repository to purge.
+     * @param windowStart The time of day the off-peak window opens.
+     * @param windowEnd   The time of day it closes; earlier than the start for a window across midnight.
+     */
+    public SoftDeletePurger(ICarLeaseRepositoryImpl repository, LocalTime windowStart, LocalTime windowEnd) {
+        this(List.of(repository::purgeDeletedCars, repository::purgeDeletedCustomers), windowStart, windowEnd,
+                Duration.ofDays(1), 200, 500, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a new SoftDeletePurger.
+     *
+     * @param purges      The tables to purge, in order.
+     * @param windowStart The time of day the off-peak window opens.
+     * @param windowEnd   The time of day it closes; earlier than the start for a window across midnight.
+     * @param retention   How long removed rows are kept before they may be deleted.
+     * @param batchSize   The maximum number of rows deleted per transaction.
+     * @param pauseMillis The pause after every batch.
+     * @param clock       The clock deciding the time of day.
+     */
+    public SoftDeletePurger(List<BatchPurge> purges, LocalTime windowStart, LocalTime windowEnd, Duration retention,
+                            int batchSize, long pauseMillis, Clock clock) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.purges = purges;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a time of day falls inside a window, which may span midnight.
+     *
+     * @param time  The time of day.
+     * @param start The start of the window, inclusive.
+     * @param end   The end of the window, exclusive.
+     * @return True if the time is inside the window.
+     */
+    public static boolean isInWindow(LocalTime time, LocalTime start, LocalTime end) {
+        if (start.isBefore(end)) {
+            return !time.isBefore(start) && time.isBefore(end);
+        }
+        return !time.isBefore(start) || time.isBefore(end);
+    }
+
+    /**
+     * Purges batch by batch while the window is open, until every table has no more rows due.
+     *
+     * @return The number of rows deleted.
+     * @throws InterruptedException If interrupted while pausing between batches.
+     */
+    public int purgeDuringWindow() throws InterruptedException {
+        int total = 0;
+        LocalDateTime deletedBefore = LocalDateTime.now(clock).minus(retention);
+        for (BatchPurge purge : purges) {
+            int deleted;
+            do {
+                if (!running || !isInWindow(LocalTime.now(clock), windowStart, windowEnd)) {
+                    return total;
+                }
+                deleted = purge.purge(deletedBefore, batchSize);
+                total += deleted;
+                purged.add(deleted);
+                if (deleted > 0 && pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            } while (deleted == batchSize);
+        }
+        return total;
+    }
+
+    /**
+     * Starts purging on a daemon thread, which checks once a minute whether the window is open.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::runLoop, "soft-delete-purger");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Retrieves the number of rows deleted since the purger was created.
+     *
+     * @return The purged row count.
+     */
+    public long getPurged() {
+        return purged.sum();
+    }
+
+    /**
+     * Stops the purger after the batch in progress.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                if (isInWindow(LocalTime.now(clock), windowStart, windowEnd)) {
+                    int deleted = purgeDuringWindow();
+                    if (deleted > 0) {
+                        LOG.at(Level.INFO).op("purgeDeleted").with("purged", deleted).log("Purge run finished");
+                    }
+                }
+                Thread.sleep(CHECK_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // The failed batch was rolled back; try again at the next check
+                LOG.at(Level.WARN).op("purgeDeleted").error(e).log("Purge run failed");
+                try {
+                    Thread.sleep(CHECK_INTERVAL_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package dao;
+
+/**
+ * The {@code WarmupReport} class summarizes a startup warmup run: how long each phase took,
+ * how much data was preloaded, and the resulting time-to-ready.
+ */
+public class WarmupReport {
+
+    private long validateMillis;
+    private long prepareMillis;
+    private int preparedStatements;
+    private int failedStatements;
+    private long preloadCarsMillis;
+    private int carsPreloaded;
+    private long preloadLeasesMillis;
+    private int leasesPreloaded;
+    private long warmupMillis;
+    private long timeToReadyMillis;
+    private int failures;
+
+    /**
+     * Retrieves the time spent loading the driver and validating the connection.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getValidateMillis() {
+        return validateMillis;
+    }
+
+    void setValidateMillis(long validateMillis) {
+        this.validateMillis = validateMillis;
+    }
+
+    /**
+     * Retrieves the time spent preparing repository statements.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getPrepareMillis() {
+        return prepareMillis;
+    }
+
+    void setPrepareMillis(long prepareMillis) {
+        this.prepareMillis = prepareMillis;
+    }
+
+    /**
+     * Retrieves the number of statements prepared.
+     *
+     * @return The statement count.
+     */
+    public int getPreparedStatements() {
+        return preparedStatements;
+    }
+
+    void setPreparedStatements(int preparedStatements) {
+        this.preparedStatements = preparedStatements;
+    }
+
+    /**
+     * Retrieves the number of statements that could not be prepared, for example because a table
+     * they use has not been created yet.
+     *
+     * @return The statement count.
+     */
+    public int getFailedStatements() {
+        return failedStatements;
+    }
+
+    void setFailedStatements(int failedStatements) {
+        this.failedStatements = failedStatements;
+    }
+
+    /**
+     * Retrieves the time spent preloading available cars.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getPreloadCarsMillis() {
+        return preloadCarsMillis;
+    }
+
+    void setPreloadCarsMillis(long preloadCarsMillis) {
+        this.preloadCarsMillis = preloadCarsMillis;
+    }
+
+    /**
+     * Retrieves the number of cars loaded into the cache.
+     *
+     * @return The car count.
+     */
+    public int getCarsPreloaded() {
+        return carsPreloaded;
+    }
+
+    void setCarsPreloaded(int carsPreloaded) {
+        this.carsPreloaded = carsPreloaded;
+    }
+
+    /**
+     * Retrieves the time spent preloading active leases.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getPreloadLeasesMillis() {
+        return preloadLeasesMillis;
+    }
+
+    void setPreloadLeasesMillis(long preloadLeasesMillis) {
+        this.preloadLeasesMillis = preloadLeasesMillis;
+    }
+
+    /**
+     * Retrieves the number of leases loaded into the cache.
+     *
+     * @return The lease count.
+     */
+    public int getLeasesPreloaded() {
+        return leasesPreloaded;
+    }
+
+    void setLeasesPreloaded(int leasesPreloaded) {
+        this.leasesPreloaded = leasesPreloaded;
+    }
+
+    /**
+     * Retrieves the wall-clock duration of the whole warmup.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    void setWarmupMillis(long warmupMillis) {
+        this.warmupMillis = warmupMillis;
+    }
+
+    /**
+     * Retrieves the time from JVM start until the warmup completed.
+     *
+     * @return The time-to-ready in milliseconds.
+     */
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    void setTimeToReadyMillis(long timeToReadyMillis) {
+        this.timeToReadyMillis = timeToReadyMillis;
+    }
+
+    /**
+     * Retrieves the number of warmup phases that failed.
+     *
+     * @return The failure count.
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    synchronized void recordFailure() {
+        failures++;
+    }
+
+    /**
+     * Returns a string representation of the WarmupReport object.
+     *
+     * @return A string representation of the WarmupReport object.
+     */
+    @Override
+    public String toString() {
+        return "WarmupReport{" +
+                "timeToReadyMillis=" + timeToReadyMillis +
+                ", warmupMillis=" + warmupMillis +
+                ", validateMillis=" + validateMillis +
+                ", prepareMillis=" + prepareMillis +
+                ", preparedStatements=" + preparedStatements +
+                ", failedStatements=" + failedStatements +
+                ", preloadCarsMillis=" + preloadCarsMillis +
+                ", carsPreloaded=" + carsPreloaded +
+                ", preloadLeasesMillis=" + preloadLeasesMillis +
+                ", leasesPreloaded=" + leasesPreloaded +
+                ", failures=" + failures +
+                '}';
+    }
+}
@@ -50,6 +50,11 @@ public class Car {
      */
     private int engineCapacity;
 
+    /**
+     * The row version, incremented by every update and checked to detect concurrent changes.
+     */
+    private int version;
+
     /**
      * Constructs a new Car object with the specified parameters.
      *
@@ -73,6 +78,17 @@ public class Car {
         this.engineCapacity = engineCapacity;
     }
 
+    /**
+     * Constructs a new Car object copying all fields of another car, including its version.
+     *
+     * @param other The car to copy.
+     */
+    public Car(Car other) {
+        this(other.vehicleID, other.make, other.model, other.year, other.dailyRate, other.status,
+                other.passengerCapacity, other.engineCapacity);
+        this.version = other.version;
+    }
+
     /**
      * Retrieves the unique identifier for the car.
      *
@@ -217,6 +233,24 @@ public class Car {
         this.engineCapacity = engineCapacity;
     }
 
+    /**
+     * Retrieves the row version the car was read at.
+     *
+     * @return The version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the row version of the car.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Compares this car to another object for equality.
      *
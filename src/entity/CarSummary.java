@@ -0,0 +1,98 @@
+package entity;
+
+/**
+ * The {@code CarSummary} class is a read-only projection of a {@link Car} holding only the fields a
+ * car list shows. The full car, with its year, status, capacities and version, is loaded on demand by ID.
+ */
+public class CarSummary {
+
+    /**
+     * The unique identifier for the car.
+     */
+    private final int vehicleID;
+
+    /**
+     * The make of the car.
+     */
+    private final String make;
+
+    /**
+     * The model of the car.
+     */
+    private final String model;
+
+    /**
+     * The daily rental rate of the car.
+     */
+    private final double dailyRate;
+
+    /**
+     * Constructs a new CarSummary object with the specified parameters.
+     *
+     * @param vehicleID The unique identifier for the car.
+     * @param make      The make of the car.
+     * @param model     The model of the car.
+     * @param dailyRate The daily rental rate of the car.
+     */
+    public CarSummary(int vehicleID, String make, String model, double dailyRate) {
+        this.vehicleID = vehicleID;
+        this.make = make;
+        this.model = model;
+        this.dailyRate = dailyRate;
+    }
+
+    /**
+     * Constructs a new CarSummary from a fully loaded car.
+     *
+     * @param car The car to summarize.
+     */
+    public CarSummary(Car car) {
+        this(car.getVehicleID(), car.getMake(), car.getModel(), car.getDailyRate());
+    }
+
+    /**
+     * Retrieves the unique identifier for the car.
+     *
+     * @return The vehicle ID.
+     */
+    public int getVehicleID() {
+        return vehicleID;
+    }
+
+    /**
+     * Retrieves the make of the car.
+     *
+     * @return The car make.
+     */
+    public String getMake() {
+        return make;
+    }
+
+    /**
+     * Retrieves the model of the car.
+     *
+     * @return The car model.
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Retrieves the daily rental rate of the car.
+     *
+     * @return The daily rate.
+     */
+    public double getDailyRate() {
+        return dailyRate;
+    }
+
+    @Override
+    public String toString() {
+        return "CarSummary{" +
+                "vehicleID=" + vehicleID +
+                ", make='" + make + '\'' +
+                ", model='" + model + '\'' +
+                ", dailyRate=" + dailyRate +
+                '}';
+    }
+}
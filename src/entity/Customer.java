@@ -49,6 +49,15 @@ public class Customer {
 		this.phone_num = phone_num;
 	}
 
+	/**
+	 * Constructs a new Customer object copying all fields of another customer.
+	 *
+	 * @param other The customer to copy.
+	 */
+	public Customer(Customer other) {
+		this(other.customerID, other.firstName, other.lastName, other.email, other.phone_num);
+	}
+
 	/**
 	 * Retrieves the unique identifier for the customer.
 	 *
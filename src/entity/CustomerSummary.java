@@ -0,0 +1,72 @@
+package entity;
+
+/**
+ * The {@code CustomerSummary} class is a read-only projection of a {@link Customer} holding only the
+ * fields a customer list shows. The full customer, with their contact details, is loaded on demand by ID.
+ */
+public class CustomerSummary {
+
+    /**
+     * The unique identifier for the customer.
+     */
+    private final int customerID;
+
+    /**
+     * The first name of the customer.
+     */
+    private final String firstName;
+
+    /**
+     * The last name of the customer.
+     */
+    private final String lastName;
+
+    /**
+     * Constructs a new CustomerSummary object with the specified parameters.
+     *
+     * @param customerID The unique identifier for the customer.
+     * @param firstName  The first name of the customer.
+     * @param lastName   The last name of the customer.
+     */
+    public CustomerSummary(int customerID, String firstName, String lastName) {
+        this.customerID = customerID;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    /**
+     * Retrieves the unique identifier for the customer.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the first name of the customer.
+     *
+     * @return The first name.
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Retrieves the last name of the customer.
+     *
+     * @return The last name.
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerSummary{" +
+                "customerID=" + customerID +
+                ", firstName='" + firstName + '\'' +
+                ", lastName='" + lastName + '\'' +
+                '}';
+    }
+}
@@ -1,6 +1,6 @@
 package entity;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * The {@code Lease} class represents a lease agreement in a car rental system.
@@ -27,18 +27,23 @@ public class Lease {
     /**
      * The start date of the lease.
      */
-    private Date startDate;
+    private LocalDate startDate;
 
     /**
      * The end date of the lease.
      */
-    private Date endDate;
+    private LocalDate endDate;
 
     /**
      * The type of the lease (e.g., daily, weekly).
      */
     private String type;
 
+    /**
+     * The row version, incremented by every update and checked to detect concurrent changes.
+     */
+    private int version;
+
     /**
      * Constructs a new Lease object with the specified parameters.
      *
@@ -49,7 +54,7 @@ public class Lease {
      * @param endDate    The end date of the lease.
      * @param type       The type of the lease (e.g., daily, weekly).
      */
-    public Lease(int leaseID, int vehicleID, int customerID, Date startDate, Date endDate, String type) {
+    public Lease(int leaseID, int vehicleID, int customerID, LocalDate startDate, LocalDate endDate, String type) {
         this.leaseID = leaseID;
         this.vehicleID = vehicleID;
         this.customerID = customerID;
@@ -58,6 +63,16 @@ public class Lease {
         this.type = type;
     }
 
+    /**
+     * Constructs a new Lease object copying all fields of another lease, including its version.
+     *
+     * @param other The lease to copy.
+     */
+    public Lease(Lease other) {
+        this(other.leaseID, other.vehicleID, other.customerID, other.startDate, other.endDate, other.type);
+        this.version = other.version;
+    }
+
     /**
      * Retrieves the unique identifier for the lease.
      *
@@ -117,7 +132,7 @@ public class Lease {
      *
      * @return The start date of the lease.
      */
-    public Date getStartDate() {
+    public LocalDate getStartDate() {
         return startDate;
     }
 
@@ -126,7 +141,7 @@ public class Lease {
      *
      * @param startDate The start date to set.
      */
-    public void setStartDate(Date startDate) {
+    public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
 
@@ -135,7 +150,7 @@ public class Lease {
      *
      * @return The end date of the lease.
      */
-    public Date getEndDate() {
+    public LocalDate getEndDate() {
         return endDate;
     }
 
@@ -144,7 +159,7 @@ public class Lease {
      *
      * @param endDate The end date to set.
      */
-    public void setEndDate(Date endDate) {
+    public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
 
@@ -166,6 +181,24 @@ public class Lease {
         this.type = type;
     }
 
+    /**
+     * Retrieves the row version the lease was read at.
+     *
+     * @return The version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the row version of the lease.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the Lease object.
      *
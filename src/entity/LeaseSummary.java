@@ -0,0 +1,108 @@
+package entity;
+
+import java.time.LocalDate;
+
+/**
+ * The {@code LeaseSummary} class is a read-only projection of a {@link Lease} holding only the fields a
+ * lease list shows. The full lease, with its type and version, is loaded on demand by ID.
+ */
+public class LeaseSummary {
+
+    /**
+     * The unique identifier for the lease.
+     */
+    private final int leaseID;
+
+    /**
+     * The identifier of the leased vehicle.
+     */
+    private final int vehicleID;
+
+    /**
+     * The identifier of the customer holding the lease.
+     */
+    private final int customerID;
+
+    /**
+     * The start date of the lease.
+     */
+    private final LocalDate startDate;
+
+    /**
+     * The end date of the lease.
+     */
+    private final LocalDate endDate;
+
+    /**
+     * Constructs a new LeaseSummary object with the specified parameters.
+     *
+     * @param leaseID    The unique identifier for the lease.
+     * @param vehicleID  The identifier of the leased vehicle.
+     * @param customerID The identifier of the customer.
+     * @param startDate  The start date of the lease.
+     * @param endDate    The end date of the lease.
+     */
+    public LeaseSummary(int leaseID, int vehicleID, int customerID, LocalDate startDate, LocalDate endDate) {
+        this.leaseID = leaseID;
+        this.vehicleID = vehicleID;
+        this.customerID = customerID;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Retrieves the unique identifier for the lease.
+     *
+     * @return The lease ID.
+     */
+    public int getLeaseID() {
+        return leaseID;
+    }
+
+    /**
+     * Retrieves the identifier of the leased vehicle.
+     *
+     * @return The vehicle ID.
+     */
+    public int getVehicleID() {
+        return vehicleID;
+    }
+
+    /**
+     * Retrieves the identifier of the customer holding the lease.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the start date of the lease.
+     *
+     * @return The start date.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Retrieves the end date of the lease.
+     *
+     * @return The end date.
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaseSummary{" +
+                "leaseID=" + leaseID +
+                ", vehicleID=" + vehicleID +
+                ", customerID=" + customerID +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
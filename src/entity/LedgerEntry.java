@@ -0,0 +1,159 @@
+package entity;
+
+import java.time.LocalDate;
+
+/**
+ * The {@code LedgerEntry} class represents one line of a customer's ledger in a car rental system.
+ * Charges for leases add to what the customer owes and payments reduce it; every entry carries the
+ * customer's running balance after it was posted.
+ */
+public class LedgerEntry {
+
+    /**
+     * Entry kind for the charge of a new lease.
+     */
+    public static final String CHARGE = "charge";
+
+    /**
+     * Entry kind for a payment received against a lease.
+     */
+    public static final String PAYMENT = "payment";
+
+    /**
+     * Entry kind for a correction to a lease's charge after the lease was updated.
+     */
+    public static final String ADJUSTMENT = "adjustment";
+
+    /**
+     * The unique identifier for the entry; entries of a customer are posted in ID order.
+     */
+    private final long entryID;
+
+    /**
+     * The identifier of the customer whose ledger holds the entry.
+     */
+    private final int customerID;
+
+    /**
+     * The identifier of the lease the entry was posted for.
+     */
+    private final int leaseID;
+
+    /**
+     * The date the entry was posted.
+     */
+    private final LocalDate entryDate;
+
+    /**
+     * The kind of entry: {@link #CHARGE}, {@link #PAYMENT} or {@link #ADJUSTMENT}.
+     */
+    private final String kind;
+
+    /**
+     * The signed amount; positive amounts add to the balance owed, negative amounts reduce it.
+     */
+    private final double amount;
+
+    /**
+     * The customer's balance after this entry.
+     */
+    private final double balance;
+
+    /**
+     * Constructs a new LedgerEntry object with the specified parameters.
+     *
+     * @param entryID    The unique identifier for the entry.
+     * @param customerID The identifier of the customer.
+     * @param leaseID    The identifier of the lease.
+     * @param entryDate  The date the entry was posted.
+     * @param kind       The kind of entry.
+     * @param amount     The signed amount.
+     * @param balance    The customer's balance after this entry.
+     */
+    public LedgerEntry(long entryID, int customerID, int leaseID, LocalDate entryDate, String kind, double amount,
+                       double balance) {
+        this.entryID = entryID;
+        this.customerID = customerID;
+        this.leaseID = leaseID;
+        this.entryDate = entryDate;
+        this.kind = kind;
+        this.amount = amount;
+        this.balance = balance;
+    }
+
+    /**
+     * Retrieves the unique identifier for the entry.
+     *
+     * @return The entry ID.
+     */
+    public long getEntryID() {
+        return entryID;
+    }
+
+    /**
+     * Retrieves the identifier of the customer.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the identifier of the lease.
+     *
+     * @return The lease ID.
+     */
+    public int getLeaseID() {
+        return leaseID;
+    }
+
+    /**
+     * Retrieves the date the entry was posted.
+     *
+     * @return The entry date.
+     */
+    public LocalDate getEntryDate() {
+        return entryDate;
+    }
+
+    /**
+     * Retrieves the kind of entry.
+     *
+     * @return {@link #CHARGE}, {@link #PAYMENT} or {@link #ADJUSTMENT}.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves the signed amount.
+     *
+     * @return The amount; negative for payments.
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Retrieves the customer's balance after this entry.
+     *
+     * @return The running balance.
+     */
+    public double getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerEntry{" +
+                "entryID=" + entryID +
+                ", customerID=" + customerID +
+                ", leaseID=" + leaseID +
+                ", entryDate=" + entryDate +
+                ", kind='" + kind + '\'' +
+                ", amount=" + amount +
+                ", balance=" + balance +
+                '}';
+    }
+}
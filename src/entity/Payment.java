@@ -1,6 +1,6 @@
 package entity;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * The {@code Payment} class represents a payment made in a car rental system
@@ -22,7 +22,7 @@ public class Payment {
     /**
      * The date when the payment was made.
      */
-    private Date paymentDate;
+    private LocalDate paymentDate;
 
     /**
      * The amount of the payment.
@@ -37,7 +37,7 @@ public class Payment {
      * @param paymentDate The date when the payment was made.
      * @param amount      The amount of the payment.
      */
-    public Payment(int paymentID, int leaseID, Date paymentDate, double amount) {
+    public Payment(int paymentID, int leaseID, LocalDate paymentDate, double amount) {
         this.paymentID = paymentID;
         this.leaseID = leaseID;
         this.paymentDate = paymentDate;
@@ -85,7 +85,7 @@ public class Payment {
      *
      * @return The payment date.
      */
-    public Date getPaymentDate() {
+    public LocalDate getPaymentDate() {
         return paymentDate;
     }
 
@@ -94,7 +94,7 @@ public class Payment {
      *
      * @param paymentDate The payment date to set.
      */
-    public void setPaymentDate(Date paymentDate) {
+    public void setPaymentDate(LocalDate paymentDate) {
         this.paymentDate = paymentDate;
     }
 
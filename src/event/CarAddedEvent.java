@@ -0,0 +1,48 @@
+package event;
+
+import entity.Car;
+
+/**
+ * Event published after a car has been inserted into the repository.
+ */
+public class CarAddedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the car that was added, including its generated vehicle ID.
+     */
+    private final Car car;
+
+    /**
+     * Constructs a new CarAddedEvent.
+     *
+     * @param car The car that was added.
+     */
+    public CarAddedEvent(Car car) {
+        this.car = new Car(car);
+    }
+
+    /**
+     * Constructs a new CarAddedEvent with an explicit timestamp.
+     *
+     * @param car       The car that was added.
+     * @param timestamp The time (epoch milliseconds) at which the car was added.
+     */
+    public CarAddedEvent(Car car, long timestamp) {
+        super(timestamp);
+        this.car = new Car(car);
+    }
+
+    /**
+     * Retrieves the car that was added.
+     *
+     * @return The added car.
+     */
+    public Car getCar() {
+        return car;
+    }
+
+    @Override
+    public String toString() {
+        return "CarAddedEvent{" + "sequence=" + getSequence() + ", car=" + car + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package event;
+
+/**
+ * Event published after a car has been removed from the repository.
+ */
+public class CarRemovedEvent extends RepositoryEvent {
+
+    /**
+     * The ID of the removed car.
+     */
+    private final int vehicleID;
+
+    /**
+     * Constructs a new CarRemovedEvent.
+     *
+     * @param vehicleID The ID of the removed car.
+     */
+    public CarRemovedEvent(int vehicleID) {
+        this.vehicleID = vehicleID;
+    }
+
+    /**
+     * Constructs a new CarRemovedEvent with an explicit timestamp.
+     *
+     * @param vehicleID The ID of the removed car.
+     * @param timestamp The time (epoch milliseconds) at which the car was removed.
+     */
+    public CarRemovedEvent(int vehicleID, long timestamp) {
+        super(timestamp);
+        this.vehicleID = vehicleID;
+    }
+
+    /**
+     * Retrieves the ID of the removed car.
+     *
+     * @return The vehicle ID.
+     */
+    public int getVehicleID() {
+        return vehicleID;
+    }
+
+    @Override
+    public String toString() {
+        return "CarRemovedEvent{" + "sequence=" + getSequence() + ", vehicleID=" + vehicleID + '}';
+    }
+}
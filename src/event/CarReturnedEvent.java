@@ -0,0 +1,48 @@
+package event;
+
+import entity.Lease;
+
+/**
+ * Event published after a leased car has been returned.
+ */
+public class CarReturnedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the lease under which the car was returned.
+     */
+    private final Lease lease;
+
+    /**
+     * Constructs a new CarReturnedEvent.
+     *
+     * @param lease The lease under which the car was returned.
+     */
+    public CarReturnedEvent(Lease lease) {
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Constructs a new CarReturnedEvent with an explicit timestamp.
+     *
+     * @param lease     The lease under which the car was returned.
+     * @param timestamp The time (epoch milliseconds) at which the car was returned.
+     */
+    public CarReturnedEvent(Lease lease, long timestamp) {
+        super(timestamp);
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Retrieves the lease under which the car was returned.
+     *
+     * @return The returned lease.
+     */
+    public Lease getLease() {
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "CarReturnedEvent{" + "sequence=" + getSequence() + ", lease=" + lease + '}';
+    }
+}
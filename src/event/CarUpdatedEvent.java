@@ -0,0 +1,48 @@
+package event;
+
+import entity.Car;
+
+/**
+ * Event published after a car's details have been updated.
+ */
+public class CarUpdatedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the car as it was stored, with its new version.
+     */
+    private final Car car;
+
+    /**
+     * Constructs a new CarUpdatedEvent.
+     *
+     * @param car The updated car.
+     */
+    public CarUpdatedEvent(Car car) {
+        this.car = new Car(car);
+    }
+
+    /**
+     * Constructs a new CarUpdatedEvent with an explicit timestamp.
+     *
+     * @param car       The updated car.
+     * @param timestamp The time (epoch milliseconds) at which the car was updated.
+     */
+    public CarUpdatedEvent(Car car, long timestamp) {
+        super(timestamp);
+        this.car = new Car(car);
+    }
+
+    /**
+     * Retrieves the updated car.
+     *
+     * @return The updated car.
+     */
+    public Car getCar() {
+        return car;
+    }
+
+    @Override
+    public String toString() {
+        return "CarUpdatedEvent{" + "sequence=" + getSequence() + ", car=" + car + '}';
+    }
+}
@@ -0,0 +1,48 @@
+package event;
+
+import entity.Customer;
+
+/**
+ * Event published after a customer has been inserted into the repository.
+ */
+public class CustomerAddedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the customer that was added.
+     */
+    private final Customer customer;
+
+    /**
+     * Constructs a new CustomerAddedEvent.
+     *
+     * @param customer The customer that was added.
+     */
+    public CustomerAddedEvent(Customer customer) {
+        this.customer = new Customer(customer);
+    }
+
+    /**
+     * Constructs a new CustomerAddedEvent with an explicit timestamp.
+     *
+     * @param customer  The customer that was added.
+     * @param timestamp The time (epoch milliseconds) at which the customer was added.
+     */
+    public CustomerAddedEvent(Customer customer, long timestamp) {
+        super(timestamp);
+        this.customer = new Customer(customer);
+    }
+
+    /**
+     * Retrieves the customer that was added.
+     *
+     * @return The added customer.
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerAddedEvent{" + "sequence=" + getSequence() + ", customer=" + customer + '}';
+    }
+}
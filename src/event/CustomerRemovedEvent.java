@@ -0,0 +1,46 @@
+package event;
+
+/**
+ * Event published after a customer has been removed from the repository.
+ */
+public class CustomerRemovedEvent extends RepositoryEvent {
+
+    /**
+     * The ID of the removed customer.
+     */
+    private final int customerID;
+
+    /**
+     * Constructs a new CustomerRemovedEvent.
+     *
+     * @param customerID The ID of the removed customer.
+     */
+    public CustomerRemovedEvent(int customerID) {
+        this.customerID = customerID;
+    }
+
+    /**
+     * Constructs a new CustomerRemovedEvent with an explicit timestamp.
+     *
+     * @param customerID The ID of the removed customer.
+     * @param timestamp  The time (epoch milliseconds) at which the customer was removed.
+     */
+    public CustomerRemovedEvent(int customerID, long timestamp) {
+        super(timestamp);
+        this.customerID = customerID;
+    }
+
+    /**
+     * Retrieves the ID of the removed customer.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerRemovedEvent{" + "sequence=" + getSequence() + ", customerID=" + customerID + '}';
+    }
+}
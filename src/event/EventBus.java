@@ -0,0 +1,364 @@
+package event;
+
+import log.Level;
+import log.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process event bus that fans repository change events out to subscribers.
+ * <p>
+ * Events are stored in a fixed-size ring buffer and every subscriber reads from it
+ * at its own pace on a dedicated daemon thread. When the slowest subscriber falls a full
+ * ring behind, publishers are blocked (back-pressure). By default a subscriber never loses
+ * an event: publishers wait for it for as long as it takes, logging a warning every
+ * {@code maxPublishWaitMillis}. A subscriber registered with a {@link Resync} may instead be
+ * skipped forward once that wait elapses; the skipped events are counted as dropped and the
+ * subscriber resyncs on its own thread before it receives the next event.
+ */
+public class EventBus {
+
+    private static final Logger LOG = Logger.getLogger(EventBus.class);
+
+    // Shared bus used by repositories that are not given one explicitly
+    private static final EventBus DEFAULT = new EventBus(1024, 2000);
+
+    private final RepositoryEvent[] ring;
+    private final int mask;
+    private final long maxPublishWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Sequence number that will be assigned to the next published event (guarded by lock)
+    private long nextSequence;
+
+    /**
+     * Constructs a new EventBus.
+     *
+     * @param capacity             The ring buffer size; must be a positive power of two.
+     * @param maxPublishWaitMillis The maximum time a publisher waits for a lagging subscriber.
+     */
+    public EventBus(int capacity, long maxPublishWaitMillis) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.ring = new RepositoryEvent[capacity];
+        this.mask = capacity - 1;
+        this.maxPublishWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxPublishWaitMillis);
+    }
+
+    /**
+     * Retrieves the shared event bus.
+     *
+     * @return The default event bus.
+     */
+    public static EventBus getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Rebuilds a subscriber's state from the source of truth after it was skipped past events.
+     */
+    @FunctionalInterface
+    public interface Resync {
+        /**
+         * Rebuilds the state. Events published after the skip are still delivered afterwards, so the
+         * subscriber must tolerate events its rebuilt state already reflects.
+         *
+         * @throws Exception If the state cannot be rebuilt; the failure is reported and delivery continues.
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Registers a subscriber that never misses an event. The subscriber receives every event published
+     * after this call; while it lags a full ring behind, publishers wait for it.
+     *
+     * @param name       A short name for the subscriber, used for its delivery thread.
+     * @param subscriber The subscriber to register.
+     * @return The subscription handle, which can be closed to unsubscribe.
+     */
+    public Subscription subscribe(String name, EventSubscriber subscriber) {
+        return subscribe(name, subscriber, null);
+    }
+
+    /**
+     * Registers a subscriber that may be skipped forward when it lags a full ring behind for longer than
+     * the publish wait, and that then rebuilds its state instead of replaying the skipped events.
+     *
+     * @param name       A short name for the subscriber, used for its delivery thread.
+     * @param subscriber The subscriber to register.
+     * @param resync     Rebuilds the subscriber's state after a skip, or null for a subscriber that is never skipped.
+     * @return The subscription handle, which can be closed to unsubscribe.
+     */
+    public Subscription subscribe(String name, EventSubscriber subscriber, Resync resync) {
+        lock.lock();
+        try {
+            Subscription subscription = new Subscription(name, subscriber, resync, nextSequence);
+            subscriptions.add(subscription);
+            subscription.thread.start();
+            return subscription;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes an event to all subscribers. Blocks while the ring is full: up to the configured wait if
+     * only skippable subscribers lag, and until they catch up if a subscriber that is never skipped lags.
+     *
+     * @param event The event to publish.
+     * @return The sequence number assigned to the event.
+     */
+    public long publish(RepositoryEvent event) {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + maxPublishWaitNanos;
+            while (nextSequence - slowestCursor() >= ring.length) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || interrupted) {
+                    skipLaggingSubscribers();
+                    if (nextSequence - slowestCursor() < ring.length) {
+                        break;
+                    }
+                    if (remaining <= 0) {
+                        LOG.at(Level.WARN).op("publish").with("subscriber", slowestName())
+                                .log("Publisher waiting for a lagging subscriber");
+                        deadline = System.nanoTime() + maxPublishWaitNanos;
+                        remaining = maxPublishWaitNanos;
+                    }
+                }
+                try {
+                    notFull.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    // The write is already committed, so the event is still published
+                    interrupted = true;
+                }
+            }
+            long sequence = nextSequence++;
+            event.setSequence(sequence);
+            ring[(int) (sequence & mask)] = event;
+            notEmpty.signalAll();
+            return sequence;
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until every subscriber has consumed all events published so far.
+     *
+     * @param timeoutMillis The maximum time to wait.
+     * @return True if all subscribers caught up, false if the timeout elapsed.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (slowestCursor() < nextSequence) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the sequence number that will be assigned to the next published event.
+     *
+     * @return The next sequence number.
+     */
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops all subscriptions.
+     */
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    // Must be called with the lock held
+    private long slowestCursor() {
+        long slowest = nextSequence;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.cursor);
+        }
+        return slowest;
+    }
+
+    // Must be called with the lock held
+    private String slowestName() {
+        Subscription slowest = null;
+        for (Subscription subscription : subscriptions) {
+            if (slowest == null || subscription.cursor < slowest.cursor) {
+                slowest = subscription;
+            }
+        }
+        return slowest == null ? "" : slowest.name;
+    }
+
+    // Must be called with the lock held; subscribers without a resync are never skipped
+    private void skipLaggingSubscribers() {
+        long oldestRetained = nextSequence - ring.length + 1;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.resync != null && subscription.cursor < oldestRetained) {
+                subscription.droppedEvents += oldestRetained - subscription.cursor;
+                subscription.cursor = oldestRetained;
+                subscription.resyncPending = true;
+            }
+        }
+    }
+
+    /**
+     * A registered subscriber together with its read position in the ring buffer.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        private final EventSubscriber subscriber;
+        private final Resync resync;
+        private final Thread thread;
+
+        // Next sequence to deliver; guarded by the bus lock
+        private long cursor;
+        private long droppedEvents;
+        private boolean resyncPending;
+        private boolean running = true;
+
+        private Subscription(String name, EventSubscriber subscriber, Resync resync, long cursor) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.resync = resync;
+            this.cursor = cursor;
+            this.thread = new Thread(this::deliverLoop, "event-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Retrieves the subscriber name.
+         *
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Retrieves the number of published events this subscriber has not consumed yet.
+         *
+         * @return The lag in events.
+         */
+        public long getLag() {
+            lock.lock();
+            try {
+                return nextSequence - cursor;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Retrieves the number of events skipped because this subscriber fell too far behind. Always 0
+         * for a subscriber registered without a resync.
+         *
+         * @return The number of dropped events.
+         */
+        public long getDroppedEvents() {
+            lock.lock();
+            try {
+                return droppedEvents;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops delivery and removes the subscription from the bus.
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                running = false;
+                subscriptions.remove(this);
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void deliverLoop() {
+            while (true) {
+                RepositoryEvent event;
+                boolean resyncNow;
+                lock.lock();
+                try {
+                    while (running && cursor == nextSequence) {
+                        notEmpty.await();
+                    }
+                    if (!running) {
+                        return;
+                    }
+                    event = ring[(int) (cursor & mask)];
+                    resyncNow = resyncPending;
+                    resyncPending = false;
+                } catch (InterruptedException e) {
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+
+                if (resyncNow) {
+                    try {
+                        resync.run();
+                        LOG.at(Level.WARN).op("resync").with("subscriber", name).log("Subscriber resynced after falling behind");
+                    } catch (Exception e) {
+                        LOG.at(Level.ERROR).op("resync").with("subscriber", name).error(e).log("Subscriber could not resync");
+                    }
+                }
+                try {
+                    subscriber.onEvent(event);
+                } catch (Exception e) {
+                    LOG.at(Level.ERROR).op("deliver").with("subscriber", name).with("sequence", event.getSequence())
+                            .error(e).log("Subscriber failed");
+                }
+
+                lock.lock();
+                try {
+                    // The cursor may have been skipped forward while the event was being handled
+                    if (cursor == event.getSequence()) {
+                        cursor++;
+                    }
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
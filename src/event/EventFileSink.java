@@ -0,0 +1,236 @@
+package event;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import util.Dates;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Subscriber that appends every repository event to a text file, one tab-separated line per event,
+ * so downstream consumers can rebuild their state by replaying the file.
+ * The file is only ever appended to; existing content is never rewritten.
+ */
+public class EventFileSink implements EventSubscriber, Closeable {
+
+    private final BufferedWriter writer;
+
+    /**
+     * Constructs a new EventFileSink appending to the given file, creating it if necessary.
+     *
+     * @param file The file to append events to.
+     * @throws IOException If the file cannot be opened.
+     */
+    public EventFileSink(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Appends the event to the file.
+     *
+     * @param event The event to write.
+     * @throws IOException If the event cannot be written.
+     */
+    @Override
+    public synchronized void onEvent(RepositoryEvent event) throws IOException {
+        writer.write(toLine(event));
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Replays every event stored in the given file, in the order it was written.
+     *
+     * @param file       The file written by an {@code EventFileSink}.
+     * @param subscriber The subscriber that receives the replayed events.
+     * @return The number of events replayed.
+     * @throws IOException If the file cannot be read or contains a malformed line.
+     */
+    public static long replay(Path file, EventSubscriber subscriber) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                RepositoryEvent event = fromLine(line);
+                try {
+                    subscriber.onEvent(event);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Subscriber failed while replaying event " + event.getSequence(), e);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Line format: sequence, timestamp, type, then the type-specific fields
+
+    private static String toLine(RepositoryEvent event) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(event.getSequence()).append('\t').append(event.getTimestamp()).append('\t');
+        if (event instanceof CarAddedEvent) {
+            Car car = ((CarAddedEvent) event).getCar();
+            line.append("CAR_ADDED");
+            appendCar(line, car);
+        } else if (event instanceof CarRemovedEvent) {
+            line.append("CAR_REMOVED");
+            append(line, ((CarRemovedEvent) event).getVehicleID());
+        } else if (event instanceof CustomerAddedEvent) {
+            Customer customer = ((CustomerAddedEvent) event).getCustomer();
+            line.append("CUSTOMER_ADDED");
+            append(line, customer.getCustomerID(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getPhoneNumber());
+        } else if (event instanceof CustomerRemovedEvent) {
+            line.append("CUSTOMER_REMOVED");
+            append(line, ((CustomerRemovedEvent) event).getCustomerID());
+        } else if (event instanceof LeaseCreatedEvent) {
+            line.append("LEASE_CREATED");
+            appendLease(line, ((LeaseCreatedEvent) event).getLease());
+        } else if (event instanceof CarReturnedEvent) {
+            line.append("CAR_RETURNED");
+            appendLease(line, ((CarReturnedEvent) event).getLease());
+        } else if (event instanceof PaymentRecordedEvent) {
+            PaymentRecordedEvent payment = (PaymentRecordedEvent) event;
+            line.append("PAYMENT_RECORDED");
+            append(line, payment.getPaymentID(), payment.getLeaseID(), payment.getCustomerID(), payment.getVehicleID(), payment.getAmount());
+        } else if (event instanceof CarUpdatedEvent) {
+            Car car = ((CarUpdatedEvent) event).getCar();
+            line.append("CAR_UPDATED");
+            appendCar(line, car);
+            append(line, car.getVersion());
+        } else if (event instanceof LeaseUpdatedEvent) {
+            Lease lease = ((LeaseUpdatedEvent) event).getLease();
+            line.append("LEASE_UPDATED");
+            appendLease(line, lease);
+            append(line, lease.getVersion());
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+        return line.toString();
+    }
+
+    private static void appendCar(StringBuilder line, Car car) {
+        append(line, car.getVehicleID(), car.getMake(), car.getModel(), car.getYear(), car.getDailyRate(),
+                car.getStatus(), car.getPassengerCapacity(), car.getEngineCapacity());
+    }
+
+    private static void appendLease(StringBuilder line, Lease lease) {
+        append(line, lease.getLeaseID(), lease.getVehicleID(), lease.getCustomerID(),
+                lease.getStartDate(), lease.getEndDate(), lease.getType());
+    }
+
+    private static void append(StringBuilder line, Object... fields) {
+        for (Object field : fields) {
+            line.append('\t').append(escape(String.valueOf(field)));
+        }
+    }
+
+    private static RepositoryEvent fromLine(String line) throws IOException {
+        String[] f = line.split("\t", -1);
+        try {
+            long sequence = Long.parseLong(f[0]);
+            long timestamp = Long.parseLong(f[1]);
+            RepositoryEvent event;
+            switch (f[2]) {
+                case "CAR_ADDED":
+                    event = new CarAddedEvent(parseCar(f), timestamp);
+                    break;
+                case "CAR_REMOVED":
+                    event = new CarRemovedEvent(Integer.parseInt(f[3]), timestamp);
+                    break;
+                case "CUSTOMER_ADDED":
+                    event = new CustomerAddedEvent(new Customer(Integer.parseInt(f[3]), unescape(f[4]),
+                            unescape(f[5]), unescape(f[6]), unescape(f[7])), timestamp);
+                    break;
+                case "CUSTOMER_REMOVED":
+                    event = new CustomerRemovedEvent(Integer.parseInt(f[3]), timestamp);
+                    break;
+                case "LEASE_CREATED":
+                    event = new LeaseCreatedEvent(parseLease(f), timestamp);
+                    break;
+                case "CAR_RETURNED":
+                    event = new CarReturnedEvent(parseLease(f), timestamp);
+                    break;
+                case "PAYMENT_RECORDED":
+                    event = new PaymentRecordedEvent(Integer.parseInt(f[3]), Integer.parseInt(f[4]),
+                            Integer.parseInt(f[5]), Integer.parseInt(f[6]), Double.parseDouble(f[7]), timestamp);
+                    break;
+                case "CAR_UPDATED":
+                    Car car = parseCar(f);
+                    car.setVersion(Integer.parseInt(f[11]));
+                    event = new CarUpdatedEvent(car, timestamp);
+                    break;
+                case "LEASE_UPDATED":
+                    Lease lease = parseLease(f);
+                    lease.setVersion(Integer.parseInt(f[9]));
+                    event = new LeaseUpdatedEvent(lease, timestamp);
+                    break;
+                default:
+                    throw new IOException("Unknown event type: " + f[2]);
+            }
+            event.setSequence(sequence);
+            return event;
+        } catch (NumberFormatException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed event line: " + line, e);
+        }
+    }
+
+    private static Car parseCar(String[] f) {
+        return new Car(Integer.parseInt(f[3]), unescape(f[4]), unescape(f[5]), Integer.parseInt(f[6]),
+                Double.parseDouble(f[7]), unescape(f[8]), Integer.parseInt(f[9]), Integer.parseInt(f[10]));
+    }
+
+    private static Lease parseLease(String[] f) {
+        return new Lease(Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5]),
+                Dates.parse(f[6]), Dates.parse(f[7]), unescape(f[8]));
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package event;
+
+/**
+ * The {@code EventSubscriber} interface is implemented by consumers of repository change events.
+ * Each subscriber is driven by its own delivery thread and receives events in publish order.
+ */
+public interface EventSubscriber {
+
+    /**
+     * Handles a single repository event.
+     *
+     * @param event The event to handle.
+     * @throws Exception If the subscriber fails to process the event; the failure is reported
+     *                   and delivery continues with the next event.
+     */
+    void onEvent(RepositoryEvent event) throws Exception;
+}
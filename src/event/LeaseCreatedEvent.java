@@ -0,0 +1,48 @@
+package event;
+
+import entity.Lease;
+
+/**
+ * Event published after a lease has been inserted into the repository.
+ */
+public class LeaseCreatedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the lease that was created.
+     */
+    private final Lease lease;
+
+    /**
+     * Constructs a new LeaseCreatedEvent.
+     *
+     * @param lease The lease that was created.
+     */
+    public LeaseCreatedEvent(Lease lease) {
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Constructs a new LeaseCreatedEvent with an explicit timestamp.
+     *
+     * @param lease     The lease that was created.
+     * @param timestamp The time (epoch milliseconds) at which the lease was created.
+     */
+    public LeaseCreatedEvent(Lease lease, long timestamp) {
+        super(timestamp);
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Retrieves the lease that was created.
+     *
+     * @return The created lease.
+     */
+    public Lease getLease() {
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaseCreatedEvent{" + "sequence=" + getSequence() + ", lease=" + lease + '}';
+    }
+}
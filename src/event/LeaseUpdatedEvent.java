@@ -0,0 +1,48 @@
+package event;
+
+import entity.Lease;
+
+/**
+ * Event published after a lease's details have been updated.
+ */
+public class LeaseUpdatedEvent extends RepositoryEvent {
+
+    /**
+     * A copy of the lease as it was stored, with its new version.
+     */
+    private final Lease lease;
+
+    /**
+     * Constructs a new LeaseUpdatedEvent.
+     *
+     * @param lease The updated lease.
+     */
+    public LeaseUpdatedEvent(Lease lease) {
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Constructs a new LeaseUpdatedEvent with an explicit timestamp.
+     *
+     * @param lease     The updated lease.
+     * @param timestamp The time (epoch milliseconds) at which the lease was updated.
+     */
+    public LeaseUpdatedEvent(Lease lease, long timestamp) {
+        super(timestamp);
+        this.lease = new Lease(lease);
+    }
+
+    /**
+     * Retrieves the updated lease.
+     *
+     * @return The updated lease.
+     */
+    public Lease getLease() {
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaseUpdatedEvent{" + "sequence=" + getSequence() + ", lease=" + lease + '}';
+    }
+}
@@ -0,0 +1,125 @@
+package event;
+
+/**
+ * Event published after a payment has been recorded against a lease.
+ */
+public class PaymentRecordedEvent extends RepositoryEvent {
+
+    /**
+     * The ID of the recorded payment.
+     */
+    private final int paymentID;
+
+    /**
+     * The ID of the lease the payment was recorded for.
+     */
+    private final int leaseID;
+
+    /**
+     * The ID of the customer holding the lease.
+     */
+    private final int customerID;
+
+    /**
+     * The ID of the leased vehicle.
+     */
+    private final int vehicleID;
+
+    /**
+     * The amount of the payment.
+     */
+    private final double amount;
+
+    /**
+     * Constructs a new PaymentRecordedEvent.
+     *
+     * @param paymentID  The ID of the recorded payment.
+     * @param leaseID    The ID of the lease the payment was recorded for.
+     * @param customerID The ID of the customer holding the lease.
+     * @param vehicleID  The ID of the leased vehicle.
+     * @param amount     The amount of the payment.
+     */
+    public PaymentRecordedEvent(int paymentID, int leaseID, int customerID, int vehicleID, double amount) {
+        this.paymentID = paymentID;
+        this.leaseID = leaseID;
+        this.customerID = customerID;
+        this.vehicleID = vehicleID;
+        this.amount = amount;
+    }
+
+    /**
+     * Constructs a new PaymentRecordedEvent with an explicit timestamp.
+     *
+     * @param paymentID  The ID of the recorded payment.
+     * @param leaseID    The ID of the lease the payment was recorded for.
+     * @param customerID The ID of the customer holding the lease.
+     * @param vehicleID  The ID of the leased vehicle.
+     * @param amount     The amount of the payment.
+     * @param timestamp  The time (epoch milliseconds) at which the payment was recorded.
+     */
+    public PaymentRecordedEvent(int paymentID, int leaseID, int customerID, int vehicleID, double amount, long timestamp) {
+        super(timestamp);
+        this.paymentID = paymentID;
+        this.leaseID = leaseID;
+        this.customerID = customerID;
+        this.vehicleID = vehicleID;
+        this.amount = amount;
+    }
+
+    /**
+     * Retrieves the ID of the recorded payment.
+     *
+     * @return The payment ID.
+     */
+    public int getPaymentID() {
+        return paymentID;
+    }
+
+    /**
+     * Retrieves the ID of the lease the payment was recorded for.
+     *
+     * @return The lease ID.
+     */
+    public int getLeaseID() {
+        return leaseID;
+    }
+
+    /**
+     * Retrieves the ID of the customer holding the lease.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the ID of the leased vehicle.
+     *
+     * @return The vehicle ID.
+     */
+    public int getVehicleID() {
+        return vehicleID;
+    }
+
+    /**
+     * Retrieves the amount of the payment.
+     *
+     * @return The payment amount.
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentRecordedEvent{" +
+                "sequence=" + getSequence() +
+                ", paymentID=" + paymentID +
+                ", leaseID=" + leaseID +
+                ", customerID=" + customerID +
+                ", vehicleID=" + vehicleID +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package event;
+
+/**
+ * The {@code RepositoryEvent} class is the base type for all change-data events published
+ * by the repository after a write has been committed to the database.
+ * Each event carries the sequence number assigned by the {@link EventBus} and the time
+ * at which the change was observed.
+ * <p>
+ * Events that describe an entity copy it when they are constructed, so the repository or a caller changing
+ * its own object afterwards cannot alter an event that subscribers have already seen or stored.
+ * Subscribers share the copy and must not modify it.
+ */
+public abstract class RepositoryEvent {
+
+    /**
+     * The sequence number assigned by the event bus, or -1 if the event has not been published yet.
+     */
+    private long sequence = -1;
+
+    /**
+     * The time (epoch milliseconds) at which the change was committed.
+     */
+    private final long timestamp;
+
+    /**
+     * Constructs a new RepositoryEvent stamped with the current time.
+     */
+    protected RepositoryEvent() {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs a new RepositoryEvent with an explicit timestamp, used when replaying events.
+     *
+     * @param timestamp The time (epoch milliseconds) at which the change was committed.
+     */
+    protected RepositoryEvent(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Retrieves the sequence number assigned by the event bus.
+     *
+     * @return The sequence number, or -1 if the event has not been published.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Sets the sequence number. Called by the event bus on publish and by replay.
+     *
+     * @param sequence The sequence number to set.
+     */
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Retrieves the time at which the change was committed.
+     *
+     * @return The timestamp in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
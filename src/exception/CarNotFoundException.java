@@ -6,7 +6,7 @@ package exception;
 public class CarNotFoundException extends Exception {
 
     public CarNotFoundException(String message) {
-        System.out.println("car not found");
+        super(message);
     }
     public String toString() {
     	return "car with this id not found";
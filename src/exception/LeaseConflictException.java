@@ -0,0 +1,19 @@
+package exception;
+
+/**
+ * Exception class indicating that a lease was rejected because the car is already leased for part of
+ * the period.
+ */
+public class LeaseConflictException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new LeaseConflictException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public LeaseConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package exception;
+
+/**
+ * Exception class indicating that an update was rejected because the row was changed by someone else
+ * after it was read. Re-read the row and apply the change again.
+ */
+public class OptimisticLockException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new OptimisticLockException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package exception;
+
+import java.sql.SQLTransientException;
+
+/**
+ * Exception class indicating that a database call was rejected without being attempted, because the
+ * circuit breaker is open or the call's bulkhead is full. It is an {@link SQLTransientException}, so it
+ * takes the same error paths as a failed statement; retrying later may succeed.
+ */
+public class ServiceUnavailableException extends SQLTransientException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new ServiceUnavailableException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
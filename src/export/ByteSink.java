@@ -0,0 +1,335 @@
+package export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * A reusable byte buffer in front of an {@link OutputStream}, with primitives for writing text fields
+ * without creating intermediate Strings: characters are encoded to UTF-8 in place, integers and amounts are
+ * written digit by digit, and so are dates. The buffer is drained to the stream when
+ * full and on {@link #flush()}.
+ * <p>
+ * Not thread-safe; use one sink per export.
+ */
+public final class ByteSink implements Closeable {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long written;
+
+    /**
+     * Constructs a new ByteSink with the specified buffer size.
+     *
+     * @param out      The destination stream.
+     * @param capacity The buffer size in bytes; at least 64.
+     */
+    public ByteSink(OutputStream out, int capacity) {
+        this.out = out;
+        this.buffer = new byte[Math.max(64, capacity)];
+    }
+
+    /**
+     * Constructs a new ByteSink with a 64 KB buffer.
+     *
+     * @param out The destination stream.
+     */
+    public ByteSink(OutputStream out) {
+        this(out, 64 * 1024);
+    }
+
+    /**
+     * Writes one byte.
+     *
+     * @param b The byte.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void write(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * Writes pre-encoded bytes, such as constant field names.
+     *
+     * @param bytes The bytes.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                written += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Writes a string as UTF-8 without escaping.
+     *
+     * @param value The string.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeUtf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                write(c);
+            } else {
+                i = writeNonAscii(value, i);
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string, or {@code null}.
+     *
+     * @param value The string.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeJsonString(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                write('\\');
+                write(c);
+            } else if (c == '\n') {
+                write('\\');
+                write('n');
+            } else if (c == '\r') {
+                write('\\');
+                write('r');
+            } else if (c == '\t') {
+                write('\\');
+                write('t');
+            } else if (c < 0x20) {
+                write('\\');
+                write('u');
+                write('0');
+                write('0');
+                write(HEX[c >> 4]);
+                write(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                write(c);
+            } else {
+                i = writeNonAscii(value, i);
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Writes a CSV field, quoting it only if it contains a comma, quote or line break.
+     * A null value is written as an empty field.
+     *
+     * @param value The field value.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writeUtf8(value);
+            return;
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                write('"');
+                write('"');
+            } else if (c < 0x80) {
+                write(c);
+            } else {
+                i = writeNonAscii(value, i);
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Writes an integer in decimal.
+     *
+     * @param value The value.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        if (buffer.length - position < 20) {
+            drain();
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Writes a currency amount with exactly two decimals, rounding half away from zero. Rates and payments in
+     * this system are money, so fixed two-decimal output is both exact enough and allocation-free.
+     * Non-finite values are written as {@code null}.
+     *
+     * @param value The amount.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeAmount(double value) throws IOException {
+        if (!Double.isFinite(value)) {
+            writeNull();
+            return;
+        }
+        long cents = Math.round(Math.abs(value) * 100);
+        if (value < 0 && cents != 0) {
+            write('-');
+        }
+        writeLong(cents / 100);
+        write('.');
+        long fraction = cents % 100;
+        write('0' + (int) (fraction / 10));
+        write('0' + (int) (fraction % 10));
+    }
+
+    /**
+     * Writes a date as {@code yyyy-MM-dd}, or nothing for null.
+     *
+     * @param date The date.
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            write(date.toString().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (buffer.length - position < 10) {
+            drain();
+        }
+        byte[] b = buffer;
+        int p = position;
+        b[p] = (byte) ('0' + year / 1000);
+        b[p + 1] = (byte) ('0' + year / 100 % 10);
+        b[p + 2] = (byte) ('0' + year / 10 % 10);
+        b[p + 3] = (byte) ('0' + year % 10);
+        b[p + 4] = '-';
+        b[p + 5] = (byte) ('0' + date.getMonthValue() / 10);
+        b[p + 6] = (byte) ('0' + date.getMonthValue() % 10);
+        b[p + 7] = '-';
+        b[p + 8] = (byte) ('0' + date.getDayOfMonth() / 10);
+        b[p + 9] = (byte) ('0' + date.getDayOfMonth() % 10);
+        position = p + 10;
+    }
+
+    /**
+     * Writes the JSON literal {@code null}.
+     *
+     * @throws IOException If draining the buffer fails.
+     */
+    public void writeNull() throws IOException {
+        write('n');
+        write('u');
+        write('l');
+        write('l');
+    }
+
+    /**
+     * Retrieves the number of bytes written so far, including buffered bytes.
+     *
+     * @return The byte count.
+     */
+    public long getBytesWritten() {
+        return written + position;
+    }
+
+    /**
+     * Drains the buffer and flushes the stream.
+     *
+     * @throws IOException If writing fails.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the stream.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            written += position;
+            position = 0;
+        }
+    }
+
+    // Encodes the character at index (a surrogate pair counts as one) and returns the last index consumed
+    private int writeNonAscii(String value, int index) throws IOException {
+        char c = value.charAt(index);
+        if (c < 0x800) {
+            write(0xC0 | (c >> 6));
+            write(0x80 | (c & 0x3F));
+            return index;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            write(0xF0 | (codePoint >> 18));
+            write(0x80 | ((codePoint >> 12) & 0x3F));
+            write(0x80 | ((codePoint >> 6) & 0x3F));
+            write(0x80 | (codePoint & 0x3F));
+            return index + 1;
+        }
+        if (Character.isSurrogate(c)) {
+            write('?');
+            return index;
+        }
+        write(0xE0 | (c >> 12));
+        write(0x80 | ((c >> 6) & 0x3F));
+        write(0x80 | (c & 0x3F));
+        return index;
+    }
+}
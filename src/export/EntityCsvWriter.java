@@ -0,0 +1,167 @@
+package export;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes cars, customers, leases and payments as CSV rows straight into a {@link ByteSink}.
+ * Columns follow the entity fields in declaration order; each entity type has a matching header row.
+ * Writing a row allocates nothing.
+ */
+public class EntityCsvWriter implements EntityWriter {
+
+    private static final byte[] CAR_HEADER =
+            ascii("vehicleID,make,model,year,dailyRate,status,passengerCapacity,engineCapacity\n");
+    private static final byte[] CUSTOMER_HEADER =
+            ascii("customerID,firstName,lastName,email,phoneNumber\n");
+    private static final byte[] LEASE_HEADER =
+            ascii("leaseID,vehicleID,customerID,startDate,endDate,type\n");
+    private static final byte[] PAYMENT_HEADER =
+            ascii("paymentID,leaseID,paymentDate,amount\n");
+
+    private final ByteSink sink;
+
+    /**
+     * Constructs a new EntityCsvWriter writing to the specified sink.
+     *
+     * @param sink The destination.
+     */
+    public EntityCsvWriter(ByteSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Writes the header row for cars.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void writeCarHeader() throws IOException {
+        sink.write(CAR_HEADER);
+    }
+
+    /**
+     * Writes the header row for customers.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void writeCustomerHeader() throws IOException {
+        sink.write(CUSTOMER_HEADER);
+    }
+
+    /**
+     * Writes the header row for leases.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void writeLeaseHeader() throws IOException {
+        sink.write(LEASE_HEADER);
+    }
+
+    /**
+     * Writes the header row for payments.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void writePaymentHeader() throws IOException {
+        sink.write(PAYMENT_HEADER);
+    }
+
+    /**
+     * Writes a car row.
+     *
+     * @param car The car.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Car car) throws IOException {
+        sink.writeLong(car.getVehicleID());
+        sink.write(',');
+        sink.writeCsvField(car.getMake());
+        sink.write(',');
+        sink.writeCsvField(car.getModel());
+        sink.write(',');
+        sink.writeLong(car.getYear());
+        sink.write(',');
+        sink.writeAmount(car.getDailyRate());
+        sink.write(',');
+        sink.writeCsvField(car.getStatus());
+        sink.write(',');
+        sink.writeLong(car.getPassengerCapacity());
+        sink.write(',');
+        sink.writeLong(car.getEngineCapacity());
+        sink.write('\n');
+    }
+
+    /**
+     * Writes a customer row.
+     *
+     * @param customer The customer.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Customer customer) throws IOException {
+        sink.writeLong(customer.getCustomerID());
+        sink.write(',');
+        sink.writeCsvField(customer.getFirstName());
+        sink.write(',');
+        sink.writeCsvField(customer.getLastName());
+        sink.write(',');
+        sink.writeCsvField(customer.getEmail());
+        sink.write(',');
+        sink.writeCsvField(customer.getPhoneNumber());
+        sink.write('\n');
+    }
+
+    /**
+     * Writes a lease row.
+     *
+     * @param lease The lease.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Lease lease) throws IOException {
+        sink.writeLong(lease.getLeaseID());
+        sink.write(',');
+        sink.writeLong(lease.getVehicleID());
+        sink.write(',');
+        sink.writeLong(lease.getCustomerID());
+        sink.write(',');
+        sink.writeDate(lease.getStartDate());
+        sink.write(',');
+        sink.writeDate(lease.getEndDate());
+        sink.write(',');
+        sink.writeCsvField(lease.getType());
+        sink.write('\n');
+    }
+
+    /**
+     * Writes a payment row.
+     *
+     * @param payment The payment.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Payment payment) throws IOException {
+        sink.writeLong(payment.getPaymentID());
+        sink.write(',');
+        sink.writeLong(payment.getLeaseID());
+        sink.write(',');
+        sink.writeDate(payment.getPaymentDate());
+        sink.write(',');
+        sink.writeAmount(payment.getAmount());
+        sink.write('\n');
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,231 @@
+package export;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Writes cars, customers, leases and payments as JSON objects straight into a {@link ByteSink}.
+ * Field names are pre-encoded once, so writing an entity allocates nothing.
+ * <p>
+ * Entities written between {@link #beginArray()} and {@link #endArray()} are comma-separated; outside an
+ * array each entity is written on its own line (JSON Lines).
+ */
+public class EntityJsonWriter implements EntityWriter {
+
+    private static final byte[] CAR_ID = ascii("{\"vehicleID\":");
+    private static final byte[] MAKE = ascii(",\"make\":");
+    private static final byte[] MODEL = ascii(",\"model\":");
+    private static final byte[] YEAR = ascii(",\"year\":");
+    private static final byte[] DAILY_RATE = ascii(",\"dailyRate\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] PASSENGER_CAPACITY = ascii(",\"passengerCapacity\":");
+    private static final byte[] ENGINE_CAPACITY = ascii(",\"engineCapacity\":");
+
+    private static final byte[] CUSTOMER_ID = ascii("{\"customerID\":");
+    private static final byte[] FIRST_NAME = ascii(",\"firstName\":");
+    private static final byte[] LAST_NAME = ascii(",\"lastName\":");
+    private static final byte[] EMAIL = ascii(",\"email\":");
+    private static final byte[] PHONE_NUMBER = ascii(",\"phoneNumber\":");
+
+    private static final byte[] LEASE_ID = ascii("{\"leaseID\":");
+    private static final byte[] LEASE_VEHICLE_ID = ascii(",\"vehicleID\":");
+    private static final byte[] LEASE_CUSTOMER_ID = ascii(",\"customerID\":");
+    private static final byte[] START_DATE = ascii(",\"startDate\":");
+    private static final byte[] END_DATE = ascii(",\"endDate\":");
+    private static final byte[] TYPE = ascii(",\"type\":");
+
+    private static final byte[] PAYMENT_ID = ascii("{\"paymentID\":");
+    private static final byte[] PAYMENT_LEASE_ID = ascii(",\"leaseID\":");
+    private static final byte[] PAYMENT_DATE = ascii(",\"paymentDate\":");
+    private static final byte[] AMOUNT = ascii(",\"amount\":");
+
+    private final ByteSink sink;
+    private boolean inArray;
+    private boolean firstInArray;
+
+    /**
+     * Constructs a new EntityJsonWriter writing to the specified sink.
+     *
+     * @param sink The destination.
+     */
+    public EntityJsonWriter(ByteSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Opens a JSON array; entities written until {@link #endArray()} become its elements.
+     *
+     * @throws IOException If writing fails.
+     */
+    public void beginArray() throws IOException {
+        sink.write('[');
+        inArray = true;
+        firstInArray = true;
+    }
+
+    /**
+     * Closes the array opened by {@link #beginArray()}.
+     *
+     * @throws IOException If writing fails.
+     */
+    public void endArray() throws IOException {
+        sink.write(']');
+        inArray = false;
+    }
+
+    /**
+     * Writes nothing; JSON rows need no header.
+     */
+    @Override
+    public void writeCarHeader() {
+    }
+
+    /**
+     * Writes nothing; JSON rows need no header.
+     */
+    @Override
+    public void writeCustomerHeader() {
+    }
+
+    /**
+     * Writes nothing; JSON rows need no header.
+     */
+    @Override
+    public void writeLeaseHeader() {
+    }
+
+    /**
+     * Writes nothing; JSON rows need no header.
+     */
+    @Override
+    public void writePaymentHeader() {
+    }
+
+    /**
+     * Writes a car.
+     *
+     * @param car The car.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Car car) throws IOException {
+        before();
+        sink.write(CAR_ID);
+        sink.writeLong(car.getVehicleID());
+        sink.write(MAKE);
+        sink.writeJsonString(car.getMake());
+        sink.write(MODEL);
+        sink.writeJsonString(car.getModel());
+        sink.write(YEAR);
+        sink.writeLong(car.getYear());
+        sink.write(DAILY_RATE);
+        sink.writeAmount(car.getDailyRate());
+        sink.write(STATUS);
+        sink.writeJsonString(car.getStatus());
+        sink.write(PASSENGER_CAPACITY);
+        sink.writeLong(car.getPassengerCapacity());
+        sink.write(ENGINE_CAPACITY);
+        sink.writeLong(car.getEngineCapacity());
+        after();
+    }
+
+    /**
+     * Writes a customer.
+     *
+     * @param customer The customer.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Customer customer) throws IOException {
+        before();
+        sink.write(CUSTOMER_ID);
+        sink.writeLong(customer.getCustomerID());
+        sink.write(FIRST_NAME);
+        sink.writeJsonString(customer.getFirstName());
+        sink.write(LAST_NAME);
+        sink.writeJsonString(customer.getLastName());
+        sink.write(EMAIL);
+        sink.writeJsonString(customer.getEmail());
+        sink.write(PHONE_NUMBER);
+        sink.writeJsonString(customer.getPhoneNumber());
+        after();
+    }
+
+    /**
+     * Writes a lease.
+     *
+     * @param lease The lease.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Lease lease) throws IOException {
+        before();
+        sink.write(LEASE_ID);
+        sink.writeLong(lease.getLeaseID());
+        sink.write(LEASE_VEHICLE_ID);
+        sink.writeLong(lease.getVehicleID());
+        sink.write(LEASE_CUSTOMER_ID);
+        sink.writeLong(lease.getCustomerID());
+        sink.write(START_DATE);
+        writeDate(lease.getStartDate());
+        sink.write(END_DATE);
+        writeDate(lease.getEndDate());
+        sink.write(TYPE);
+        sink.writeJsonString(lease.getType());
+        after();
+    }
+
+    /**
+     * Writes a payment.
+     *
+     * @param payment The payment.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(Payment payment) throws IOException {
+        before();
+        sink.write(PAYMENT_ID);
+        sink.writeLong(payment.getPaymentID());
+        sink.write(PAYMENT_LEASE_ID);
+        sink.writeLong(payment.getLeaseID());
+        sink.write(PAYMENT_DATE);
+        writeDate(payment.getPaymentDate());
+        sink.write(AMOUNT);
+        sink.writeAmount(payment.getAmount());
+        after();
+    }
+
+    private void writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            sink.writeNull();
+            return;
+        }
+        sink.write('"');
+        sink.writeDate(date);
+        sink.write('"');
+    }
+
+    private void before() throws IOException {
+        if (inArray && !firstInArray) {
+            sink.write(',');
+        }
+        firstInArray = false;
+    }
+
+    private void after() throws IOException {
+        sink.write('}');
+        if (!inArray) {
+            sink.write('\n');
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,75 @@
+package export;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.io.IOException;
+
+/**
+ * Serializes entities into a {@link ByteSink} in one output format.
+ * A file holds one entity type: call the matching header method once, then write the rows.
+ */
+public interface EntityWriter {
+
+    /**
+     * Writes whatever precedes a list of cars, such as a CSV header row.
+     *
+     * @throws IOException If writing fails.
+     */
+    void writeCarHeader() throws IOException;
+
+    /**
+     * Writes whatever precedes a list of customers, such as a CSV header row.
+     *
+     * @throws IOException If writing fails.
+     */
+    void writeCustomerHeader() throws IOException;
+
+    /**
+     * Writes whatever precedes a list of leases, such as a CSV header row.
+     *
+     * @throws IOException If writing fails.
+     */
+    void writeLeaseHeader() throws IOException;
+
+    /**
+     * Writes whatever precedes a list of payments, such as a CSV header row.
+     *
+     * @throws IOException If writing fails.
+     */
+    void writePaymentHeader() throws IOException;
+
+    /**
+     * Writes a car.
+     *
+     * @param car The car.
+     * @throws IOException If writing fails.
+     */
+    void write(Car car) throws IOException;
+
+    /**
+     * Writes a customer.
+     *
+     * @param customer The customer.
+     * @throws IOException If writing fails.
+     */
+    void write(Customer customer) throws IOException;
+
+    /**
+     * Writes a lease.
+     *
+     * @param lease The lease.
+     * @throws IOException If writing fails.
+     */
+    void write(Lease lease) throws IOException;
+
+    /**
+     * Writes a payment.
+     *
+     * @param payment The payment.
+     * @throws IOException If writing fails.
+     */
+    void write(Payment payment) throws IOException;
+}
@@ -0,0 +1,239 @@
+package index;
+
+import dao.CarQuery;
+import entity.Car;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap indexes over the fleet, used to answer {@link CarQuery} filters without SQL.
+ * <p>
+ * Every indexed car occupies a dense slot; each attribute value maps to a {@link BitSet} of the slots
+ * holding that value. Equality filters (make, status) pick one bitmap per accepted value and OR them;
+ * range filters (passenger capacity, engine capacity, year, daily rate) OR the bitmaps of every value in
+ * the range from a sorted map; the per-attribute results are then ANDed. Slots of removed cars are reused,
+ * so the bitmaps stay dense and small for the life of the process.
+ * <p>
+ * Results are produced in daily-rate order by walking the rate bitmaps in order and intersecting each with
+ * the filter result, so no separate sort is needed and a query with a limit stops early.
+ */
+public class CarFilterIndex {
+
+    private final Map<Integer, Integer> slotByVehicleID = new HashMap<>();
+    private Car[] cars = new Car[64];
+    // Attribute values as they were indexed, so removal still works if a caller mutates the Car
+    private IndexedValues[] indexedValues = new IndexedValues[64];
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+    private final BitSet live = new BitSet();
+
+    private final Map<String, BitSet> byMake = new HashMap<>();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+    private final TreeMap<Integer, BitSet> byPassengerCapacity = new TreeMap<>();
+    private final TreeMap<Integer, BitSet> byEngineCapacity = new TreeMap<>();
+    private final TreeMap<Integer, BitSet> byYear = new TreeMap<>();
+    private final TreeMap<Double, BitSet> byDailyRate = new TreeMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a car to the index, replacing any previous entry with the same vehicle ID.
+     *
+     * @param car The car to index.
+     */
+    public void add(Car car) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(car.getVehicleID());
+            int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            if (slot >= cars.length) {
+                cars = Arrays.copyOf(cars, cars.length * 2);
+                indexedValues = Arrays.copyOf(indexedValues, indexedValues.length * 2);
+            }
+            IndexedValues values = new IndexedValues(car);
+            cars[slot] = car;
+            indexedValues[slot] = values;
+            slotByVehicleID.put(car.getVehicleID(), slot);
+            live.set(slot);
+            bitmap(byMake, values.make).set(slot);
+            bitmap(byStatus, values.status).set(slot);
+            bitmap(byPassengerCapacity, values.passengerCapacity).set(slot);
+            bitmap(byEngineCapacity, values.engineCapacity).set(slot);
+            bitmap(byYear, values.year).set(slot);
+            bitmap(byDailyRate, values.dailyRate).set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a car from the index.
+     *
+     * @param vehicleID The ID of the car to remove.
+     */
+    public void remove(int vehicleID) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(vehicleID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the cars matching the query, ordered by daily rate.
+     *
+     * @param query The filter to apply.
+     * @return The matching cars.
+     */
+    public List<Car> find(CarQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = evaluate(query);
+            List<Car> results = new ArrayList<>();
+            NavigableMap<Double, BitSet> rates = query.isDescending() ? byDailyRate.descendingMap() : byDailyRate;
+            for (BitSet rateSlots : rates.values()) {
+                if (!rateSlots.intersects(matches)) {
+                    continue;
+                }
+                for (int slot = rateSlots.nextSetBit(0); slot >= 0; slot = rateSlots.nextSetBit(slot + 1)) {
+                    if (matches.get(slot)) {
+                        results.add(cars[slot]);
+                        if (results.size() >= query.getLimit()) {
+                            return results;
+                        }
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of indexed cars.
+     *
+     * @return The car count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByVehicleID.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet evaluate(CarQuery query) {
+        BitSet result = (BitSet) live.clone();
+        if (!query.getMakes().isEmpty()) {
+            result.and(union(byMake, query.getMakes()));
+        }
+        if (!query.getStatuses().isEmpty()) {
+            result.and(union(byStatus, query.getStatuses()));
+        }
+        andRange(result, byPassengerCapacity, query.getMinPassengerCapacity(), query.getMaxPassengerCapacity());
+        andRange(result, byEngineCapacity, query.getMinEngineCapacity(), query.getMaxEngineCapacity());
+        andRange(result, byYear, query.getMinYear(), query.getMaxYear());
+        andRange(result, byDailyRate, query.getMinDailyRate(), query.getMaxDailyRate());
+        for (CarQuery alternative : query.getAlternatives()) {
+            result.or(evaluate(alternative));
+        }
+        return result;
+    }
+
+    private static BitSet union(Map<String, BitSet> index, Iterable<String> keys) {
+        BitSet union = new BitSet();
+        for (String key : keys) {
+            BitSet slots = index.get(key);
+            if (slots != null) {
+                union.or(slots);
+            }
+        }
+        return union;
+    }
+
+    private static <K extends Comparable<K>> void andRange(BitSet result, TreeMap<K, BitSet> index, K min, K max) {
+        if (min == null && max == null) {
+            return;
+        }
+        NavigableMap<K, BitSet> range = index;
+        if (min != null && max != null) {
+            range = index.subMap(min, true, max, true);
+        } else if (min != null) {
+            range = index.tailMap(min, true);
+        } else {
+            range = index.headMap(max, true);
+        }
+        BitSet union = new BitSet();
+        for (BitSet slots : range.values()) {
+            union.or(slots);
+        }
+        result.and(union);
+    }
+
+    private void removeLocked(int vehicleID) {
+        Integer slot = slotByVehicleID.remove(vehicleID);
+        if (slot == null) {
+            return;
+        }
+        IndexedValues values = indexedValues[slot];
+        clear(byMake, values.make, slot);
+        clear(byStatus, values.status, slot);
+        clear(byPassengerCapacity, values.passengerCapacity, slot);
+        clear(byEngineCapacity, values.engineCapacity, slot);
+        clear(byYear, values.year, slot);
+        clear(byDailyRate, values.dailyRate, slot);
+        live.clear(slot);
+        cars[slot] = null;
+        indexedValues[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private static <K> BitSet bitmap(Map<K, BitSet> index, K key) {
+        return index.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static <K> void clear(Map<K, BitSet> index, K key, int slot) {
+        BitSet slots = index.get(key);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The attribute values a car was indexed under.
+     */
+    private static final class IndexedValues {
+        private final String make;
+        private final String status;
+        private final int passengerCapacity;
+        private final int engineCapacity;
+        private final int year;
+        private final double dailyRate;
+
+        IndexedValues(Car car) {
+            this.make = car.getMake() == null ? "" : car.getMake().toLowerCase(Locale.ROOT);
+            this.status = car.getStatus();
+            this.passengerCapacity = car.getPassengerCapacity();
+            this.engineCapacity = car.getEngineCapacity();
+            this.year = car.getYear();
+            this.dailyRate = car.getDailyRate();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package index;
+
+import entity.Car;
+import log.Level;
+import log.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live counts of the fleet by status, and by make within each status, so dashboards can show how many cars
+ * are available, rented or in maintenance without fetching the cars.
+ * <p>
+ * Each count is a {@link LongAdder}, whose cells are striped across threads, so concurrent writers do not
+ * contend on one counter and a read only sums a few cells. The repository applies every status change it
+ * commits between {@link #beginChange()} and {@link #endChange()}. Changes race with each other only when
+ * two writers change the same car at once, and a {@link #reconcile(CountSource) reconciliation} against the
+ * database, run periodically with changes held off, corrects any such drift.
+ */
+public class CarStatusCounts {
+
+    private static final Logger LOG = Logger.getLogger(CarStatusCounts.class);
+
+    // Replaced as a whole by each reconciliation, so readers never see a half-built set of counts
+    private volatile Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+    private volatile Map<String, Map<String, LongAdder>> byStatusAndMake = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private volatile long lastDrift;
+    private Thread reconciler;
+
+    /**
+     * Reads the actual counts from the database.
+     */
+    @FunctionalInterface
+    public interface CountSource {
+        /**
+         * Counts the cars.
+         *
+         * @return The number of cars by status, then by make.
+         * @throws Exception If the counts cannot be read.
+         */
+        Map<String, Map<String, Long>> load() throws Exception;
+    }
+
+    /**
+     * Marks the start of a write that may change car statuses. Writes run concurrently with each other,
+     * but not with a reconciliation.
+     */
+    public void beginChange() {
+        lock.readLock().lock();
+    }
+
+    /**
+     * Marks the end of a write started with {@link #beginChange()}.
+     */
+    public void endChange() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * Counts a car that was added.
+     *
+     * @param car The added car.
+     */
+    public void added(Car car) {
+        adjust(car.getStatus(), car.getMake(), 1);
+    }
+
+    /**
+     * Stops counting a car that was removed.
+     *
+     * @param car The car as it was before it was removed.
+     */
+    public void removed(Car car) {
+        adjust(car.getStatus(), car.getMake(), -1);
+    }
+
+    /**
+     * Moves a car between counts after it was updated. Nothing changes unless its status or make did.
+     *
+     * @param before The car as it was before the update.
+     * @param after  The car as it is now.
+     */
+    public void changed(Car before, Car after) {
+        if (before.getStatus().equals(after.getStatus()) && before.getMake().equals(after.getMake())) {
+            return;
+        }
+        removed(before);
+        added(after);
+    }
+
+    /**
+     * Retrieves the number of cars with a status.
+     *
+     * @param status The status, for example "available".
+     * @return The count.
+     */
+    public long count(String status) {
+        LongAdder count = byStatus.get(status);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Retrieves the number of cars in every status that has cars.
+     *
+     * @return The counts keyed by status, in status order.
+     */
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : byStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count != 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the number of cars of every make with a status.
+     *
+     * @param status The status.
+     * @return The counts keyed by make, in make order.
+     */
+    public Map<String, Long> countByMake(String status) {
+        Map<String, Long> counts = new TreeMap<>();
+        Map<String, LongAdder> makes = byStatusAndMake.get(status);
+        if (makes != null) {
+            for (Map.Entry<String, LongAdder> entry : makes.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count != 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Checks whether the counts have been loaded by a first reconciliation.
+     *
+     * @return True once the counts are usable.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces the counts with the actual counts from the database. Changes wait until it is done, so none
+     * is lost or counted twice.
+     *
+     * @param source The database counts.
+     * @return The number of cars the counts were off by, summed over statuses and makes.
+     * @throws Exception If the actual counts cannot be read; the counts are then left as they were.
+     */
+    public long reconcile(CountSource source) throws Exception {
+        lock.writeLock().lock();
+        try {
+            Map<String, Map<String, Long>> actual = source.load();
+            long drift = 0;
+            if (loaded) {
+                for (Map.Entry<String, Map<String, LongAdder>> status : byStatusAndMake.entrySet()) {
+                    Map<String, Long> actualMakes = actual.getOrDefault(status.getKey(), Map.of());
+                    for (Map.Entry<String, LongAdder> make : status.getValue().entrySet()) {
+                        drift += Math.abs(make.getValue().sum() - actualMakes.getOrDefault(make.getKey(), 0L));
+                    }
+                }
+                for (Map.Entry<String, Map<String, Long>> status : actual.entrySet()) {
+                    Map<String, LongAdder> makes = byStatusAndMake.getOrDefault(status.getKey(), Map.of());
+                    for (Map.Entry<String, Long> make : status.getValue().entrySet()) {
+                        if (!makes.containsKey(make.getKey())) {
+                            drift += make.getValue();
+                        }
+                    }
+                }
+                if (drift != 0) {
+                    LOG.at(Level.WARN).op("reconcileStatusCounts").with("drift", drift).log("Corrected car status counts");
+                }
+            }
+            Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+            Map<String, Map<String, LongAdder>> makes = new ConcurrentHashMap<>();
+            for (Map.Entry<String, Map<String, Long>> status : actual.entrySet()) {
+                for (Map.Entry<String, Long> make : status.getValue().entrySet()) {
+                    adjust(statuses, makes, status.getKey(), make.getKey(), make.getValue());
+                }
+            }
+            byStatusAndMake = makes;
+            byStatus = statuses;
+            lastDrift = drift;
+            loaded = true;
+            return drift;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the drift found by the last reconciliation.
+     *
+     * @return The number of cars the counts were off by.
+     */
+    public long getLastDrift() {
+        return lastDrift;
+    }
+
+    /**
+     * Starts reconciling on a daemon thread at a fixed interval, unless that is already happening.
+     *
+     * @param source       The database counts.
+     * @param periodMillis The time between reconciliations.
+     */
+    public synchronized void startReconciling(CountSource source, long periodMillis) {
+        if (reconciler != null) {
+            return;
+        }
+        reconciler = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(periodMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    reconcile(source);
+                } catch (Exception e) {
+                    LOG.at(Level.WARN).op("reconcileStatusCounts").error(e).log("Could not reconcile car status counts");
+                }
+            }
+        }, "status-count-reconciler");
+        reconciler.setDaemon(true);
+        reconciler.start();
+    }
+
+    private void adjust(String status, String make, long delta) {
+        adjust(byStatus, byStatusAndMake, status, make, delta);
+    }
+
+    private static void adjust(Map<String, LongAdder> statuses, Map<String, Map<String, LongAdder>> makes,
+                               String status, String make, long delta) {
+        statuses.computeIfAbsent(status, s -> new LongAdder()).add(delta);
+        makes.computeIfAbsent(status, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(make, m -> new LongAdder()).add(delta);
+    }
+}
@@ -0,0 +1,436 @@
+package index;
+
+import entity.Customer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix index over customer first name, last name, email and phone number.
+ * <p>
+ * Terms are stored in a burst trie: a node keeps its terms in a flat bucket until the bucket grows past
+ * {@link #BURST_THRESHOLD}, and only then splits into one child per next character. This keeps the node
+ * count proportional to the number of distinct busy prefixes rather than to the total number of characters,
+ * which matters at millions of customers. Phone numbers are indexed by their digits and by their reversed
+ * digits, so a clerk can search by the leading digits or by the last few digits.
+ * <p>
+ * Searches take a read lock and may run concurrently; {@link #add(Customer)} and {@link #remove(int)} take
+ * the write lock.
+ */
+public class CustomerSearchIndex {
+
+    private static final int BURST_THRESHOLD = 64;
+    private static final int MAX_DEPTH = 24;
+    // Prefix marking reversed phone digits; never produced by normalize()
+    private static final char REVERSED_PHONE = '~';
+
+    private final Node root = new Node(0);
+    private final Map<Integer, Customer> customers = new HashMap<>();
+    private final Map<Integer, String[]> termsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a customer to the index, replacing any previous entry with the same ID.
+     *
+     * @param customer The customer to index.
+     */
+    public void add(Customer customer) {
+        String[] terms = termsFor(customer);
+        lock.writeLock().lock();
+        try {
+            removeLocked(customer.getCustomerID());
+            customers.put(customer.getCustomerID(), customer);
+            termsById.put(customer.getCustomerID(), terms);
+            for (String term : terms) {
+                root.add(term, customer.getCustomerID());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a customer from the index.
+     *
+     * @param customerID The ID of the customer to remove.
+     */
+    public void remove(int customerID) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(customerID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds customers matching the query. Every whitespace-separated word of the query must be a
+     * prefix of one of the customer's names, email or phone number (or a suffix of the phone number).
+     * With several words, the matches of the most selective word are checked against the others, so a
+     * common first name does not crowd out the few customers that also match a rare surname. Exact term
+     * matches of that word are returned before prefix matches.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of customers to return.
+     * @return The matching customers, best matches first.
+     */
+    public List<Customer> search(String query, int limit) {
+        String[] words = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        List<Customer> results = new ArrayList<>(Math.min(limit, 64));
+        if (limit <= 0 || words[0].isEmpty()) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        try {
+            IdCollector candidates;
+            if (words.length == 1) {
+                candidates = new IdCollector(limit);
+                collect(words[0], candidates);
+            } else {
+                candidates = mostSelective(words);
+            }
+            for (int i = 0; i < candidates.size && results.size() < limit; i++) {
+                int id = candidates.ids[i];
+                if (words.length == 1 || matchesAll(termsById.get(id), words)) {
+                    results.add(customers.get(id));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves an indexed customer by ID.
+     *
+     * @param customerID The ID of the customer.
+     * @return The customer, or null if it is not indexed.
+     */
+    public Customer get(int customerID) {
+        lock.readLock().lock();
+        try {
+            return customers.get(customerID);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of indexed customers.
+     *
+     * @return The customer count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return customers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(int customerID) {
+        String[] terms = termsById.remove(customerID);
+        if (terms == null) {
+            return;
+        }
+        customers.remove(customerID);
+        for (String term : terms) {
+            root.remove(term, customerID);
+        }
+    }
+
+    // Every match of the word with the fewest matches. Longer words tend to be more selective, so they
+    // are tried first, and each later word is only collected up to the smallest set found so far.
+    private IdCollector mostSelective(String[] words) {
+        String[] byLength = words.clone();
+        Arrays.sort(byLength, (a, b) -> b.length() - a.length());
+        IdCollector smallest = new IdCollector(Integer.MAX_VALUE);
+        collect(byLength[0], smallest);
+        for (int w = 1; w < byLength.length && smallest.size > 0; w++) {
+            IdCollector collector = new IdCollector(smallest.size);
+            collect(byLength[w], collector);
+            if (!collector.isFull()) {
+                smallest = collector;
+            }
+        }
+        return smallest;
+    }
+
+    private void collect(String word, IdCollector collector) {
+        root.collect(word, collector);
+        String digits = digitsOnly(word);
+        if (digits.length() == word.length()) {
+            root.collect(REVERSED_PHONE + new StringBuilder(digits).reverse().toString(), collector);
+        }
+    }
+
+    private static boolean matchesAll(String[] terms, String[] words) {
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            String reversed = REVERSED_PHONE + new StringBuilder(word).reverse().toString();
+            boolean matched = false;
+            for (String term : terms) {
+                if (term.startsWith(word) || term.startsWith(reversed)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] termsFor(Customer customer) {
+        List<String> terms = new ArrayList<>(5);
+        addTerm(terms, normalize(customer.getFirstName()));
+        addTerm(terms, normalize(customer.getLastName()));
+        addTerm(terms, normalize(customer.getEmail()));
+        String phone = customer.getPhoneNumber() == null ? "" : digitsOnly(customer.getPhoneNumber());
+        if (!phone.isEmpty()) {
+            addTerm(terms, phone);
+            addTerm(terms, REVERSED_PHONE + new StringBuilder(phone).reverse().toString());
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (!term.isEmpty() && !terms.contains(term)) {
+            terms.add(term);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replace(REVERSED_PHONE, ' ');
+    }
+
+    private static String digitsOnly(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Collects distinct customer IDs in match order, up to a limit.
+     */
+    private static final class IdCollector {
+        private final int limit;
+        private final HashSet<Integer> seen = new HashSet<>();
+        private int[] ids;
+        private int size;
+
+        IdCollector(int limit) {
+            this.limit = limit;
+            this.ids = new int[Math.min(limit, 16)];
+        }
+
+        boolean isFull() {
+            return size == limit;
+        }
+
+        void add(int id) {
+            if (isFull() || !seen.add(id)) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(limit, size * 2));
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * Burst trie node. A node is either a bucket (flat term/ID arrays) or an internal node with
+     * one child per next character plus the IDs of terms that end exactly at this depth.
+     */
+    private static final class Node {
+        private final int depth;
+
+        // Bucket storage, used while the node has not burst
+        private String[] terms = new String[4];
+        private int[] termIds = new int[4];
+        private int termCount;
+
+        // Internal storage, used after the node has burst
+        private boolean burst;
+        private char[] keys;
+        private Node[] children;
+        private int childCount;
+        private int[] endIds;
+        private int endCount;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+
+        void add(String term, int id) {
+            Node node = this;
+            while (node.burst) {
+                if (term.length() == node.depth) {
+                    node.addEnd(id);
+                    return;
+                }
+                node = node.childFor(term.charAt(node.depth), true);
+            }
+            node.addToBucket(term, id);
+        }
+
+        void remove(String term, int id) {
+            Node node = this;
+            while (node.burst) {
+                if (term.length() == node.depth) {
+                    node.removeEnd(id);
+                    return;
+                }
+                node = node.childFor(term.charAt(node.depth), false);
+                if (node == null) {
+                    return;
+                }
+            }
+            for (int i = 0; i < node.termCount; i++) {
+                if (node.termIds[i] == id && node.terms[i].equals(term)) {
+                    node.termCount--;
+                    node.terms[i] = node.terms[node.termCount];
+                    node.termIds[i] = node.termIds[node.termCount];
+                    node.terms[node.termCount] = null;
+                    return;
+                }
+            }
+        }
+
+        void collect(String prefix, IdCollector collector) {
+            Node node = this;
+            while (node.burst && node.depth < prefix.length()) {
+                node = node.childFor(prefix.charAt(node.depth), false);
+                if (node == null) {
+                    return;
+                }
+            }
+            if (!node.burst) {
+                node.collectFromBucket(prefix, collector);
+                return;
+            }
+            // The whole prefix has been consumed: exact matches first, then breadth-first descendants
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty() && !collector.isFull()) {
+                Node current = queue.poll();
+                if (current.burst) {
+                    for (int i = 0; i < current.endCount && !collector.isFull(); i++) {
+                        collector.add(current.endIds[i]);
+                    }
+                    for (int i = 0; i < current.childCount; i++) {
+                        queue.add(current.children[i]);
+                    }
+                } else {
+                    current.collectFromBucket(prefix, collector);
+                }
+            }
+        }
+
+        private void collectFromBucket(String prefix, IdCollector collector) {
+            for (int i = 0; i < termCount && !collector.isFull(); i++) {
+                if (terms[i].equals(prefix)) {
+                    collector.add(termIds[i]);
+                }
+            }
+            for (int i = 0; i < termCount && !collector.isFull(); i++) {
+                if (terms[i].length() > prefix.length() && terms[i].startsWith(prefix)) {
+                    collector.add(termIds[i]);
+                }
+            }
+        }
+
+        private void addToBucket(String term, int id) {
+            if (termCount == terms.length) {
+                terms = Arrays.copyOf(terms, termCount * 2);
+                termIds = Arrays.copyOf(termIds, termCount * 2);
+            }
+            terms[termCount] = term;
+            termIds[termCount] = id;
+            termCount++;
+            if (termCount > BURST_THRESHOLD && depth < MAX_DEPTH) {
+                burst();
+            }
+        }
+
+        private void burst() {
+            String[] oldTerms = terms;
+            int[] oldIds = termIds;
+            int oldCount = termCount;
+            burst = true;
+            terms = null;
+            termIds = null;
+            termCount = 0;
+            keys = new char[4];
+            children = new Node[4];
+            endIds = new int[2];
+            for (int i = 0; i < oldCount; i++) {
+                add(oldTerms[i], oldIds[i]);
+            }
+        }
+
+        private void addEnd(int id) {
+            if (endCount == endIds.length) {
+                endIds = Arrays.copyOf(endIds, endCount * 2);
+            }
+            endIds[endCount++] = id;
+        }
+
+        private void removeEnd(int id) {
+            for (int i = 0; i < endCount; i++) {
+                if (endIds[i] == id) {
+                    endIds[i] = endIds[--endCount];
+                    return;
+                }
+            }
+        }
+
+        // Children are kept sorted by key so lookups can binary search
+        private Node childFor(char key, boolean create) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else if (keys[mid] > key) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            if (childCount == keys.length) {
+                keys = Arrays.copyOf(keys, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            System.arraycopy(keys, low, keys, low + 1, childCount - low);
+            System.arraycopy(children, low, children, low + 1, childCount - low);
+            Node child = new Node(depth + 1);
+            keys[low] = key;
+            children[low] = child;
+            childCount++;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package journal;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.CarReturnedEvent;
+import event.CarUpdatedEvent;
+import event.CustomerAddedEvent;
+import event.CustomerRemovedEvent;
+import event.LeaseCreatedEvent;
+import event.LeaseUpdatedEvent;
+import event.PaymentRecordedEvent;
+import event.RepositoryEvent;
+import util.Dates;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of repository events and entities, shared by the journal and snapshots.
+ * Strings are written as a signed short byte length followed by UTF-8 bytes (-1 for null).
+ */
+final class EventCodec {
+
+    static final byte CAR_ADDED = 1;
+    static final byte CAR_REMOVED = 2;
+    static final byte CUSTOMER_ADDED = 3;
+    static final byte CUSTOMER_REMOVED = 4;
+    static final byte LEASE_CREATED = 5;
+    static final byte CAR_RETURNED = 6;
+    static final byte PAYMENT_RECORDED = 7;
+    static final byte CAR_UPDATED = 8;
+    static final byte LEASE_UPDATED = 9;
+
+    private EventCodec() {
+    }
+
+    /**
+     * Encodes an event into the buffer at its current position.
+     *
+     * @param event  The event to encode.
+     * @param buffer The target buffer.
+     * @throws BufferOverflowException If the buffer is too small for the event.
+     */
+    static void encode(RepositoryEvent event, ByteBuffer buffer) {
+        if (event instanceof CarAddedEvent) {
+            buffer.put(CAR_ADDED).putLong(event.getTimestamp());
+            writeCar(((CarAddedEvent) event).getCar(), buffer);
+        } else if (event instanceof CarRemovedEvent) {
+            buffer.put(CAR_REMOVED).putLong(event.getTimestamp());
+            buffer.putInt(((CarRemovedEvent) event).getVehicleID());
+        } else if (event instanceof CustomerAddedEvent) {
+            buffer.put(CUSTOMER_ADDED).putLong(event.getTimestamp());
+            writeCustomer(((CustomerAddedEvent) event).getCustomer(), buffer);
+        } else if (event instanceof CustomerRemovedEvent) {
+            buffer.put(CUSTOMER_REMOVED).putLong(event.getTimestamp());
+            buffer.putInt(((CustomerRemovedEvent) event).getCustomerID());
+        } else if (event instanceof LeaseCreatedEvent) {
+            buffer.put(LEASE_CREATED).putLong(event.getTimestamp());
+            writeLease(((LeaseCreatedEvent) event).getLease(), buffer);
+        } else if (event instanceof CarReturnedEvent) {
+            buffer.put(CAR_RETURNED).putLong(event.getTimestamp());
+            writeLease(((CarReturnedEvent) event).getLease(), buffer);
+        } else if (event instanceof PaymentRecordedEvent) {
+            PaymentRecordedEvent payment = (PaymentRecordedEvent) event;
+            buffer.put(PAYMENT_RECORDED).putLong(event.getTimestamp());
+            buffer.putInt(payment.getPaymentID()).putInt(payment.getLeaseID()).putInt(payment.getCustomerID()).putInt(payment.getVehicleID());
+            buffer.putDouble(payment.getAmount());
+        } else if (event instanceof CarUpdatedEvent) {
+            buffer.put(CAR_UPDATED).putLong(event.getTimestamp());
+            writeCar(((CarUpdatedEvent) event).getCar(), buffer);
+        } else if (event instanceof LeaseUpdatedEvent) {
+            buffer.put(LEASE_UPDATED).putLong(event.getTimestamp());
+            writeLease(((LeaseUpdatedEvent) event).getLease(), buffer);
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+    }
+
+    /**
+     * Decodes an event from the buffer at its current position.
+     *
+     * @param buffer The source buffer.
+     * @return The decoded event.
+     */
+    static RepositoryEvent decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        long timestamp = buffer.getLong();
+        switch (type) {
+            case CAR_ADDED:
+                return new CarAddedEvent(readCar(buffer), timestamp);
+            case CAR_REMOVED:
+                return new CarRemovedEvent(buffer.getInt(), timestamp);
+            case CUSTOMER_ADDED:
+                return new CustomerAddedEvent(readCustomer(buffer), timestamp);
+            case CUSTOMER_REMOVED:
+                return new CustomerRemovedEvent(buffer.getInt(), timestamp);
+            case LEASE_CREATED:
+                return new LeaseCreatedEvent(readLease(buffer), timestamp);
+            case CAR_RETURNED:
+                return new CarReturnedEvent(readLease(buffer), timestamp);
+            case PAYMENT_RECORDED:
+                return new PaymentRecordedEvent(buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), buffer.getDouble(), timestamp);
+            case CAR_UPDATED:
+                return new CarUpdatedEvent(readCar(buffer), timestamp);
+            case LEASE_UPDATED:
+                return new LeaseUpdatedEvent(readLease(buffer), timestamp);
+            default:
+                throw new IllegalArgumentException("Unknown event type: " + type);
+        }
+    }
+
+    static void writeCar(Car car, ByteBuffer buffer) {
+        buffer.putInt(car.getVehicleID());
+        writeString(car.getMake(), buffer);
+        writeString(car.getModel(), buffer);
+        buffer.putInt(car.getYear());
+        buffer.putDouble(car.getDailyRate());
+        writeString(car.getStatus(), buffer);
+        buffer.putInt(car.getPassengerCapacity());
+        buffer.putInt(car.getEngineCapacity());
+    }
+
+    static Car readCar(ByteBuffer buffer) {
+        return new Car(buffer.getInt(), readString(buffer), readString(buffer), buffer.getInt(),
+                buffer.getDouble(), readString(buffer), buffer.getInt(), buffer.getInt());
+    }
+
+    static void writeCustomer(Customer customer, ByteBuffer buffer) {
+        buffer.putInt(customer.getCustomerID());
+        writeString(customer.getFirstName(), buffer);
+        writeString(customer.getLastName(), buffer);
+        writeString(customer.getEmail(), buffer);
+        writeString(customer.getPhoneNumber(), buffer);
+    }
+
+    static Customer readCustomer(ByteBuffer buffer) {
+        return new Customer(buffer.getInt(), readString(buffer), readString(buffer),
+                readString(buffer), readString(buffer));
+    }
+
+    static void writeLease(Lease lease, ByteBuffer buffer) {
+        buffer.putInt(lease.getLeaseID());
+        buffer.putInt(lease.getVehicleID());
+        buffer.putInt(lease.getCustomerID());
+        buffer.putInt((int) lease.getStartDate().toEpochDay());
+        buffer.putInt((int) lease.getEndDate().toEpochDay());
+        writeString(lease.getType(), buffer);
+    }
+
+    static Lease readLease(ByteBuffer buffer) {
+        return new Lease(buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                Dates.ofEpochDay(buffer.getInt()), Dates.ofEpochDay(buffer.getInt()), readString(buffer));
+    }
+
+    static void writeString(String value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long to encode: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
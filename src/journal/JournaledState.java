@@ -0,0 +1,239 @@
+package journal;
+
+import dao.CarQuery;
+import dao.ICarLeaseRepository;
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+import event.CarAddedEvent;
+import event.CustomerAddedEvent;
+import event.EventBus;
+import event.EventSubscriber;
+import event.LeaseCreatedEvent;
+import event.PaymentRecordedEvent;
+import event.RepositoryEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a {@link RentalState} durable across restarts using a memory-mapped write-ahead journal
+ * plus periodic compact snapshots.
+ * <p>
+ * Register an instance on the repository's {@link event.EventBus} with a plain, lossless subscription, so
+ * it is never skipped past events: every event is appended to the journal and forced to disk before it
+ * is applied to the state. After {@code snapshotEvery} events the state is written to a snapshot and the
+ * journal is reset. On {@link #open(Path, int)} the latest snapshot is loaded and only the journal tail
+ * written after it is replayed, instead of reloading all tables from the database. The controller opens
+ * it at startup when a journal directory is configured.
+ */
+public class JournaledState implements EventSubscriber, Closeable {
+
+    private static final String JOURNAL_FILE = "journal.dat";
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final int JOURNAL_MAP_SIZE = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final RentalState state;
+    private final MappedJournal journal;
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(64 * 1024);
+
+    private long lastSequence;
+    // Events delivered while seeding, or null when not seeding
+    private List<RepositoryEvent> pendingEvents;
+    private int eventsSinceSnapshot;
+    private final long recoveredEvents;
+    private final long recoveryMillis;
+    private final boolean fresh;
+
+    private JournaledState(Path directory, int snapshotEvery) throws IOException {
+        long start = System.nanoTime();
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        this.state = new RentalState();
+
+        Files.createDirectories(directory);
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        boolean snapshotFound = Files.exists(snapshotFile);
+        long snapshotSequence = snapshotFound ? SnapshotStore.read(snapshotFile, state) : 0;
+
+        this.journal = MappedJournal.open(directory.resolve(JOURNAL_FILE), JOURNAL_MAP_SIZE);
+        this.recoveredEvents = journal.replay(snapshotSequence, payload -> state.apply(EventCodec.decode(payload)));
+        this.lastSequence = Math.max(snapshotSequence, journal.getLastSequence());
+        this.eventsSinceSnapshot = (int) recoveredEvents;
+        this.fresh = !snapshotFound && recoveredEvents == 0;
+        this.recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Opens the journaled state stored in the given directory, recovering it from the latest
+     * snapshot and the journal tail. An empty directory yields an empty state.
+     *
+     * @param directory     The directory holding the journal and snapshot files.
+     * @param snapshotEvery The number of journaled events between snapshots.
+     * @return The recovered state.
+     * @throws IOException If the files cannot be read.
+     */
+    public static JournaledState open(Path directory, int snapshotEvery) throws IOException {
+        if (snapshotEvery <= 0) {
+            throw new IllegalArgumentException("snapshotEvery must be positive: " + snapshotEvery);
+        }
+        return new JournaledState(directory, snapshotEvery);
+    }
+
+    /**
+     * Populates an empty state from the database, subscribes it to the bus and writes an initial snapshot.
+     * Only needed on the very first start, before any journal or snapshot exists; otherwise subscribe the
+     * state directly.
+     * <p>
+     * The state is subscribed before the load so no change made during it is missed, but events delivered
+     * meanwhile are held back rather than applied. Those published before the load started are already in
+     * the loaded rows and are dropped; later ones are applied in order once the load completes, except
+     * payments the load has already counted.
+     *
+     * @param repository The repository to load from.
+     * @param bus        The bus the repository publishes its changes on.
+     * @throws Exception If loading from the repository or writing the snapshot fails, in which case the
+     *                   state is unsubscribed again.
+     */
+    public void seedFrom(ICarLeaseRepository repository, EventBus bus) throws Exception {
+        synchronized (this) {
+            pendingEvents = new ArrayList<>();
+        }
+        EventBus.Subscription subscription = bus.subscribe("journal", this);
+        long seedPoint = bus.getNextSequence();
+        try {
+            // All live cars, whatever their status
+            for (Car car : repository.findCars(new CarQuery())) {
+                state.apply(new CarAddedEvent(car));
+            }
+            Set<Integer> seededPaymentIDs = new HashSet<>();
+            for (Customer customer : repository.listCustomers()) {
+                state.apply(new CustomerAddedEvent(customer));
+                for (Payment payment : repository.retrievePaymentHistory(customer.getCustomerID())) {
+                    state.addPayment(payment.getLeaseID(), payment.getAmount());
+                    seededPaymentIDs.add(payment.getPaymentID());
+                }
+            }
+            for (Lease lease : repository.listLeaseHistory()) {
+                state.apply(new LeaseCreatedEvent(lease));
+            }
+
+            synchronized (this) {
+                for (RepositoryEvent event : pendingEvents) {
+                    if (event.getSequence() < seedPoint) {
+                        continue;
+                    }
+                    if (event instanceof PaymentRecordedEvent
+                            && seededPaymentIDs.contains(((PaymentRecordedEvent) event).getPaymentID())) {
+                        continue;
+                    }
+                    state.apply(event);
+                }
+                pendingEvents = null;
+                snapshot();
+            }
+        } catch (Exception e) {
+            subscription.close();
+            throw e;
+        } finally {
+            synchronized (this) {
+                pendingEvents = null;
+            }
+        }
+    }
+
+    /**
+     * Journals the event and applies it to the state, or holds it back while the state is being seeded.
+     *
+     * @param event The repository event.
+     * @throws IOException If the event cannot be journaled or a due snapshot cannot be written.
+     */
+    @Override
+    public synchronized void onEvent(RepositoryEvent event) throws IOException {
+        if (pendingEvents != null) {
+            pendingEvents.add(event);
+            return;
+        }
+        encodeBuffer.clear();
+        EventCodec.encode(event, encodeBuffer);
+        encodeBuffer.flip();
+        journal.append(lastSequence + 1, encodeBuffer);
+        // Forced per record; events arrive on the bus's delivery thread, so no request waits for the disk
+        journal.force();
+        lastSequence++;
+        state.apply(event);
+
+        if (++eventsSinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current state and resets the journal.
+     *
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public synchronized void snapshot() throws IOException {
+        journal.force();
+        SnapshotStore.write(directory.resolve(SNAPSHOT_FILE), state, lastSequence);
+        journal.reset();
+        eventsSinceSnapshot = 0;
+    }
+
+    /**
+     * Retrieves the recovered, continuously updated state.
+     *
+     * @return The rental state.
+     */
+    public RentalState getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether the directory held neither a snapshot nor journaled events when the state was
+     * opened, in which case it must be {@link #seedFrom(ICarLeaseRepository) seeded}.
+     *
+     * @return True on the very first start.
+     */
+    public boolean isFresh() {
+        return fresh;
+    }
+
+    /**
+     * Retrieves the number of journal records replayed on top of the snapshot during recovery.
+     *
+     * @return The number of recovered events.
+     */
+    public long getRecoveredEvents() {
+        return recoveredEvents;
+    }
+
+    /**
+     * Retrieves how long recovery took when the state was opened.
+     *
+     * @return The recovery time in milliseconds.
+     */
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    /**
+     * Flushes and closes the journal.
+     *
+     * @throws IOException If the journal cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        journal.close();
+    }
+}
@@ -0,0 +1,208 @@
+package journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal stored in a memory-mapped file.
+ * <p>
+ * Each record is laid out as {@code [int length][long sequence][int crc32][payload]}. Sequences of
+ * consecutive records must increase by exactly one, which lets {@link #reset()} reuse the file from
+ * the start: any stale record left behind after the new tail breaks the sequence chain (or fails its
+ * checksum) and marks the end of the journal, just like a torn write after a crash.
+ */
+public class MappedJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 4 + 8 + 4;
+
+    private final FileChannel channel;
+    private final int growBy;
+    private MappedByteBuffer buffer;
+    private long lastSequence = -1;
+
+    private MappedJournal(FileChannel channel, int initialSize) throws IOException {
+        this.channel = channel;
+        this.growBy = initialSize;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialSize));
+        scanToEnd();
+    }
+
+    /**
+     * Opens a journal file, creating it if it does not exist, and positions it after the last valid record.
+     *
+     * @param file        The journal file.
+     * @param initialSize The initial mapping size in bytes; the mapping grows in steps of this size.
+     * @return The opened journal.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static MappedJournal open(Path file, int initialSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new MappedJournal(channel, initialSize);
+    }
+
+    /**
+     * Appends a record. The sequence must be exactly one greater than the previous record's.
+     *
+     * @param sequence The record sequence number.
+     * @param payload  The record payload, read from its position to its limit.
+     * @throws IOException If the mapping cannot be grown.
+     */
+    public void append(long sequence, ByteBuffer payload) throws IOException {
+        if (lastSequence >= 0 && sequence != lastSequence + 1) {
+            throw new IllegalArgumentException("Journal sequence gap: expected " + (lastSequence + 1) + " but got " + sequence);
+        }
+        int length = payload.remaining();
+        ensureCapacity(HEADER_SIZE + length + 4);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putLong(sequence);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        // Terminate the journal before publishing the record length, so a reader never sees a half record
+        buffer.putInt(buffer.position(), 0);
+        buffer.putInt(start, length);
+
+        lastSequence = sequence;
+    }
+
+    /**
+     * Replays every record with a sequence greater than the given one, in order.
+     *
+     * @param afterSequence Records with a sequence at or below this value are skipped.
+     * @param consumer      Receives a read-only view of each record payload.
+     * @return The number of records replayed.
+     */
+    public long replay(long afterSequence, Consumer<ByteBuffer> consumer) {
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(0);
+        long expected = -1;
+        long count = 0;
+        while (true) {
+            int start = reader.position();
+            ByteBuffer payload = nextRecord(reader, expected);
+            if (payload == null) {
+                return count;
+            }
+            long sequence = reader.getLong(start + 4);
+            if (sequence > afterSequence) {
+                consumer.accept(payload.asReadOnlyBuffer());
+                count++;
+            }
+            expected = sequence + 1;
+        }
+    }
+
+    /**
+     * Forces written records to the storage device.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Discards all records. The file is reused from the beginning.
+     */
+    public void reset() {
+        buffer.putInt(0, 0);
+        buffer.force();
+        buffer.position(0);
+        lastSequence = -1;
+    }
+
+    /**
+     * Retrieves the sequence of the last valid record.
+     *
+     * @return The last sequence, or -1 if the journal is empty.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Retrieves the number of bytes used by valid records.
+     *
+     * @return The journal size in bytes.
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Flushes and closes the journal file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void scanToEnd() {
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(0);
+        long expected = -1;
+        while (true) {
+            int start = reader.position();
+            if (nextRecord(reader, expected) == null) {
+                break;
+            }
+            long sequence = reader.getLong(start + 4);
+            lastSequence = sequence;
+            expected = sequence + 1;
+        }
+        buffer.position(reader.position());
+    }
+
+    // Reads the record at the reader position, or returns null at the end of the valid journal
+    private ByteBuffer nextRecord(ByteBuffer reader, long expectedSequence) {
+        int start = reader.position();
+        if (reader.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int length = reader.getInt(start);
+        if (length <= 0 || length > reader.remaining() - HEADER_SIZE) {
+            return null;
+        }
+        long sequence = reader.getLong(start + 4);
+        if (expectedSequence >= 0 && sequence != expectedSequence) {
+            return null;
+        }
+        int storedCrc = reader.getInt(start + 12);
+        ByteBuffer payload = reader.duplicate();
+        payload.position(start + HEADER_SIZE).limit(start + HEADER_SIZE + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != storedCrc) {
+            return null;
+        }
+        reader.position(start + HEADER_SIZE + length);
+        return payload;
+    }
+
+    private void ensureCapacity(int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        int position = buffer.position();
+        long newSize = (long) buffer.capacity() + Math.max(growBy, needed);
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IOException("Journal exceeds the maximum mappable size; take a snapshot to compact it");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        buffer.position(position);
+    }
+}
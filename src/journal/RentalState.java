@@ -0,0 +1,191 @@
+package journal;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.CarReturnedEvent;
+import event.CarUpdatedEvent;
+import event.CustomerAddedEvent;
+import event.CustomerRemovedEvent;
+import event.LeaseCreatedEvent;
+import event.LeaseUpdatedEvent;
+import event.PaymentRecordedEvent;
+import event.RepositoryEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * In-memory copy of the fleet, customer, lease and revenue state, maintained by applying
+ * repository events. Events are applied by a single writer; reads are safe from any thread.
+ */
+public class RentalState {
+
+    private final Map<Integer, Car> cars = new ConcurrentHashMap<>();
+    private final Map<Integer, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<Integer, Lease> leases = new ConcurrentHashMap<>();
+    private final Set<Integer> returnedLeaseIDs = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Double> revenueByLease = new ConcurrentHashMap<>();
+    private final DoubleAdder totalRevenue = new DoubleAdder();
+
+    /**
+     * Applies a repository event to the state.
+     *
+     * @param event The event to apply.
+     */
+    public void apply(RepositoryEvent event) {
+        if (event instanceof CarAddedEvent) {
+            Car car = ((CarAddedEvent) event).getCar();
+            cars.put(car.getVehicleID(), car);
+        } else if (event instanceof CarRemovedEvent) {
+            cars.remove(((CarRemovedEvent) event).getVehicleID());
+        } else if (event instanceof CustomerAddedEvent) {
+            Customer customer = ((CustomerAddedEvent) event).getCustomer();
+            customers.put(customer.getCustomerID(), customer);
+        } else if (event instanceof CustomerRemovedEvent) {
+            customers.remove(((CustomerRemovedEvent) event).getCustomerID());
+        } else if (event instanceof LeaseCreatedEvent) {
+            Lease lease = ((LeaseCreatedEvent) event).getLease();
+            leases.put(lease.getLeaseID(), lease);
+        } else if (event instanceof CarReturnedEvent) {
+            Lease lease = ((CarReturnedEvent) event).getLease();
+            leases.putIfAbsent(lease.getLeaseID(), lease);
+            returnedLeaseIDs.add(lease.getLeaseID());
+        } else if (event instanceof PaymentRecordedEvent) {
+            PaymentRecordedEvent payment = (PaymentRecordedEvent) event;
+            addPayment(payment.getLeaseID(), payment.getAmount());
+        } else if (event instanceof CarUpdatedEvent) {
+            Car car = ((CarUpdatedEvent) event).getCar();
+            cars.put(car.getVehicleID(), car);
+        } else if (event instanceof LeaseUpdatedEvent) {
+            Lease lease = ((LeaseUpdatedEvent) event).getLease();
+            leases.put(lease.getLeaseID(), lease);
+        }
+    }
+
+    /**
+     * Finds a car by its ID.
+     *
+     * @param vehicleID The ID of the car.
+     * @return The car, or null if it is not known.
+     */
+    public Car findCar(int vehicleID) {
+        return cars.get(vehicleID);
+    }
+
+    /**
+     * Retrieves all known cars.
+     *
+     * @return An unmodifiable view of the cars.
+     */
+    public Collection<Car> getCars() {
+        return Collections.unmodifiableCollection(cars.values());
+    }
+
+    /**
+     * Finds a customer by their ID.
+     *
+     * @param customerID The ID of the customer.
+     * @return The customer, or null if they are not known.
+     */
+    public Customer findCustomer(int customerID) {
+        return customers.get(customerID);
+    }
+
+    /**
+     * Retrieves all known customers.
+     *
+     * @return An unmodifiable view of the customers.
+     */
+    public Collection<Customer> getCustomers() {
+        return Collections.unmodifiableCollection(customers.values());
+    }
+
+    /**
+     * Finds a lease by its ID.
+     *
+     * @param leaseID The ID of the lease.
+     * @return The lease, or null if it is not known.
+     */
+    public Lease findLease(int leaseID) {
+        return leases.get(leaseID);
+    }
+
+    /**
+     * Retrieves all known leases.
+     *
+     * @return An unmodifiable view of the leases.
+     */
+    public Collection<Lease> getLeases() {
+        return Collections.unmodifiableCollection(leases.values());
+    }
+
+    /**
+     * Retrieves the leases that have not been returned and end on or after the given date.
+     *
+     * @param today The reference date.
+     * @return A list of active leases.
+     */
+    public List<Lease> getActiveLeases(LocalDate today) {
+        List<Lease> active = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (!returnedLeaseIDs.contains(lease.getLeaseID()) && !lease.getEndDate().isBefore(today)) {
+                active.add(lease);
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Checks whether the lease has been returned.
+     *
+     * @param leaseID The ID of the lease.
+     * @return True if a return has been recorded for the lease.
+     */
+    public boolean isReturned(int leaseID) {
+        return returnedLeaseIDs.contains(leaseID);
+    }
+
+    /**
+     * Retrieves the total amount paid against a lease.
+     *
+     * @param leaseID The ID of the lease.
+     * @return The revenue collected for the lease.
+     */
+    public double getRevenueForLease(int leaseID) {
+        return revenueByLease.getOrDefault(leaseID, 0.0);
+    }
+
+    /**
+     * Retrieves the total revenue over all payments.
+     *
+     * @return The total revenue.
+     */
+    public double getTotalRevenue() {
+        return totalRevenue.sum();
+    }
+
+    // Package-private accessors used by SnapshotStore
+
+    void addPayment(int leaseID, double amount) {
+        revenueByLease.merge(leaseID, amount, Double::sum);
+        totalRevenue.add(amount);
+    }
+
+    void markReturned(int leaseID) {
+        returnedLeaseIDs.add(leaseID);
+    }
+
+    Map<Integer, Double> getRevenueByLease() {
+        return revenueByLease;
+    }
+}
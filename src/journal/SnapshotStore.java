@@ -0,0 +1,131 @@
+package journal;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CustomerAddedEvent;
+import event.LeaseCreatedEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Reads and writes compact binary snapshots of a {@link RentalState}.
+ * A snapshot records the journal sequence it covers, so recovery only needs to replay later records.
+ * Snapshots are written to a temporary file and atomically moved into place.
+ */
+final class SnapshotStore {
+
+    private static final int MAGIC = 0x52534E50; // "RSNP"
+    private static final int VERSION = 2;
+    private static final int FLUSH_THRESHOLD = 4096;
+
+    private SnapshotStore() {
+    }
+
+    /**
+     * Writes a snapshot of the state.
+     *
+     * @param file     The snapshot file to replace.
+     * @param state    The state to write.
+     * @param sequence The last journal sequence included in the state.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    static void write(Path file, RentalState state, long sequence) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence);
+
+            buffer.putInt(state.getCars().size());
+            for (Car car : state.getCars()) {
+                flushIfFull(channel, buffer);
+                EventCodec.writeCar(car, buffer);
+            }
+            buffer.putInt(state.getCustomers().size());
+            for (Customer customer : state.getCustomers()) {
+                flushIfFull(channel, buffer);
+                EventCodec.writeCustomer(customer, buffer);
+            }
+            buffer.putInt(state.getLeases().size());
+            for (Lease lease : state.getLeases()) {
+                flushIfFull(channel, buffer);
+                EventCodec.writeLease(lease, buffer);
+                buffer.put((byte) (state.isReturned(lease.getLeaseID()) ? 1 : 0));
+            }
+            Map<Integer, Double> revenue = state.getRevenueByLease();
+            buffer.putInt(revenue.size());
+            for (Map.Entry<Integer, Double> entry : revenue.entrySet()) {
+                flushIfFull(channel, buffer);
+                buffer.putInt(entry.getKey()).putDouble(entry.getValue());
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot into the given (empty) state.
+     *
+     * @param file  The snapshot file.
+     * @param state The state to populate.
+     * @return The last journal sequence included in the snapshot.
+     * @throws IOException If the snapshot cannot be read or is not a valid snapshot.
+     */
+    static long read(Path file, RentalState state) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            long sequence = buffer.getLong();
+
+            for (int i = buffer.getInt(); i > 0; i--) {
+                state.apply(new CarAddedEvent(EventCodec.readCar(buffer)));
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                state.apply(new CustomerAddedEvent(EventCodec.readCustomer(buffer)));
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                Lease lease = EventCodec.readLease(buffer);
+                state.apply(new LeaseCreatedEvent(lease));
+                if (buffer.get() == 1) {
+                    state.markReturned(lease.getLeaseID());
+                }
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                state.addPayment(buffer.getInt(), buffer.getDouble());
+            }
+            return sequence;
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() >= FLUSH_THRESHOLD) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,392 @@
+package loadtest;
+
+import api.LatencyHistogram;
+import controller.CarRentalController;
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+import log.AsyncLogWriter;
+import log.Level;
+import pricing.LeaseType;
+import reservation.Hold;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator that drives {@link CarRentalController} through a rental desk's day against an
+ * {@link InMemoryRepository}, and reports throughput, latency percentiles and error rates per operation.
+ * <p>
+ * Each of the worker threads draws operations from a weighted mix of bookings (hold a car, then confirm the
+ * hold), returns, lookups, payments and revenue reports. Cars are picked by Zipf popularity, so a few cars
+ * take most of the bookings and their holds collide; customers and dates are uniform. Arrivals are a
+ * Poisson process at the given peak rate, thinned over the run by a day profile with a morning and an
+ * evening peak, or a flat one. Latency is measured from each operation's scheduled arrival rather than
+ * from when a thread got to it, so time spent queued behind a slow call counts. With a rate of 0 every
+ * thread runs operations back to back instead.
+ * <p>
+ * An operation is an error if it threw or hit an injected database failure, and rejected if the controller
+ * turned it down, for example a booking for a car that is already held or leased.
+ * <p>
+ * Usage: {@code DeskDayLoadTest [key=value...]} with the keys {@code threads} (32), {@code seconds} (30),
+ * {@code rate} peak operations per second (2000), {@code profile} {@code day} or {@code flat} (day),
+ * {@code mix} such as {@code booking:25,return:15,lookup:40,payment:15,report:5}, {@code cars} (500),
+ * {@code customers} (5000), {@code zipf} exponent (1.1), {@code roundTripMicros} (200),
+ * {@code failureRate} (0) and {@code logLevel} (WARN, so per-operation records do not dominate the run).
+ */
+public class DeskDayLoadTest {
+
+    private static final String[] MAKES = {"Toyota", "Honda", "Hyundai", "Maruti", "Tata", "Mahindra", "Kia", "Skoda"};
+    private static final String[] FIRST_NAMES = {"Asha", "Ravi", "Meera", "Arjun", "Priya", "Kiran", "Neha", "Vikram"};
+    private static final String[] LAST_NAMES = {"Sharma", "Iyer", "Patel", "Reddy", "Nair", "Gupta", "Das", "Rao"};
+    private static final int BOOKING_HORIZON_DAYS = 90;
+
+    /**
+     * The operations of a desk, with their default share of the mix.
+     */
+    public enum Operation {
+        BOOKING(25),
+        RETURN(15),
+        LOOKUP(40),
+        PAYMENT(15),
+        REPORT(5);
+
+        private final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        /**
+         * Retrieves the operation's default share of the mix.
+         *
+         * @return The default weight, in percent.
+         */
+        public int getDefaultWeight() {
+            return defaultWeight;
+        }
+    }
+
+    private final InMemoryRepository repository;
+    private final CarRentalController controller;
+    private final int[] carsByPopularity;
+    private final ZipfSampler popularity;
+    private final int customers;
+    private final Map<Operation, LatencyHistogram> latencies = new HashMap<>();
+    private final Map<Operation, LongAdder> rejections = new HashMap<>();
+
+    /**
+     * Constructs a new DeskDayLoadTest over a seeded repository.
+     *
+     * @param repository   The repository, seeded with cars 1 to {@code cars} and customers 1 to {@code customers}.
+     * @param cars         The number of cars.
+     * @param customers    The number of customers.
+     * @param zipfExponent The skew of car popularity.
+     * @param seed         The seed that decides which cars are popular.
+     */
+    public DeskDayLoadTest(InMemoryRepository repository, int cars, int customers, double zipfExponent, long seed) {
+        this.repository = repository;
+        this.controller = new CarRentalController(repository);
+        this.customers = customers;
+        this.popularity = new ZipfSampler(cars, zipfExponent);
+        this.carsByPopularity = new int[cars];
+        Random random = new Random(seed);
+        for (int i = 0; i < cars; i++) {
+            carsByPopularity[i] = i + 1;
+        }
+        for (int i = cars - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = carsByPopularity[i];
+            carsByPopularity[i] = carsByPopularity[j];
+            carsByPopularity[j] = swap;
+        }
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            rejections.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The command-line arguments, as described in the class comment.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        int threads = Integer.parseInt(settings.getOrDefault("threads", "32"));
+        int seconds = Integer.parseInt(settings.getOrDefault("seconds", "30"));
+        double rate = Double.parseDouble(settings.getOrDefault("rate", "2000"));
+        boolean dayProfile = settings.getOrDefault("profile", "day").equals("day");
+        int[] mix = parseMix(settings.get("mix"));
+        int cars = Integer.parseInt(settings.getOrDefault("cars", "500"));
+        int customers = Integer.parseInt(settings.getOrDefault("customers", "5000"));
+        double zipf = Double.parseDouble(settings.getOrDefault("zipf", "1.1"));
+        long roundTripMicros = Long.parseLong(settings.getOrDefault("roundTripMicros", "200"));
+        double failureRate = Double.parseDouble(settings.getOrDefault("failureRate", "0"));
+        AsyncLogWriter.getDefault().setLevel(Level.valueOf(settings.getOrDefault("logLevel", "WARN").toUpperCase(Locale.ROOT)));
+
+        InMemoryRepository repository = new InMemoryRepository();
+        seed(repository, cars, customers, new Random(42));
+        repository.setRoundTrip(roundTripMicros, failureRate);
+
+        DeskDayLoadTest test = new DeskDayLoadTest(repository, cars, customers, zipf, 42);
+        System.out.printf(Locale.ROOT, "%d threads, %d s, %s, %d cars (Zipf %.2f), %d customers, %d us round trip, "
+                        + "%.3f%% injected failures%n", threads, seconds,
+                rate > 0 ? String.format(Locale.ROOT, "peak %.0f ops/s (%s profile)", rate, dayProfile ? "day" : "flat") : "closed loop",
+                cars, zipf, customers, roundTripMicros, failureRate * 100);
+        System.out.println(test.run(threads, seconds, rate, dayProfile, mix));
+    }
+
+    /**
+     * Parses an operation mix such as {@code booking:25,lookup:75}; operations left out get no share.
+     *
+     * @param mix The mix, or null for the default mix.
+     * @return The weights indexed by operation ordinal.
+     * @throws IllegalArgumentException If the mix names an unknown operation or has no positive weight.
+     */
+    public static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        if (mix == null) {
+            for (Operation operation : Operation.values()) {
+                weights[operation.ordinal()] = operation.getDefaultWeight();
+            }
+            return weights;
+        }
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            weights[Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)).ordinal()] = weight;
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Loads a dataset into the repository: cars and customers numbered from 1, and one past, fully or half
+     * paid lease for every other customer, so returns and payments have leases to work on from the start.
+     *
+     * @param repository The repository to load.
+     * @param cars       The number of cars.
+     * @param customers  The number of customers.
+     * @param random     The source of randomness.
+     */
+    public static void seed(InMemoryRepository repository, int cars, int customers, Random random) {
+        List<Car> carRows = new ArrayList<>(cars);
+        for (int id = 1; id <= cars; id++) {
+            carRows.add(new Car(id, MAKES[random.nextInt(MAKES.length)], "Model " + (char) ('A' + random.nextInt(26)),
+                    2015 + random.nextInt(10), 1000 + 100 * random.nextInt(40), "available", 4 + random.nextInt(4),
+                    1000 + 250 * random.nextInt(8)));
+        }
+        List<Customer> customerRows = new ArrayList<>(customers);
+        for (int id = 1; id <= customers; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            customerRows.add(new Customer(id, first, last, first.toLowerCase(Locale.ROOT) + id + "@example.com",
+                    String.format("9%09d", id)));
+        }
+        List<Lease> leaseRows = new ArrayList<>();
+        List<Payment> paymentRows = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int customerID = 2; customerID <= customers; customerID += 2) {
+            Car car = carRows.get(random.nextInt(cars));
+            LocalDate start = today.minusDays(30 + random.nextInt(300));
+            LocalDate end = start.plusDays(1 + random.nextInt(14));
+            int leaseID = leaseRows.size() + 1;
+            leaseRows.add(new Lease(leaseID, car.getVehicleID(), customerID, start, end,
+                    LeaseType.forPeriod(start, end).getLabel()));
+            double charge = car.getDailyRate() * Math.max(end.toEpochDay() - start.toEpochDay(), 1);
+            paymentRows.add(new Payment(paymentRows.size() + 1, leaseID, end, random.nextBoolean() ? charge : charge / 2));
+        }
+        repository.bulkLoad(carRows, customerRows, leaseRows, paymentRows);
+    }
+
+    /**
+     * Runs the workers and summarizes the results.
+     *
+     * @param threads    The number of worker threads.
+     * @param seconds    The test duration.
+     * @param peakRate   The peak arrival rate over all threads in operations per second, or 0 for a closed loop.
+     * @param dayProfile Whether the rate follows a day with morning and evening peaks rather than staying flat.
+     * @param mix        The weight of each operation, indexed by ordinal.
+     * @return The per-operation summary.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public String run(int threads, int seconds, double peakRate, boolean dayProfile, int[] mix) throws InterruptedException {
+        long runNanos = seconds * 1_000_000_000L;
+        double meanGapNanos = peakRate > 0 ? threads * 1e9 / peakRate : 0;
+        CountDownLatch done = new CountDownLatch(threads);
+        long runStart = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    work(runStart, runNanos, meanGapNanos, dayProfile, mix);
+                } finally {
+                    done.countDown();
+                }
+            }, "desk-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        return summarize((System.nanoTime() - runStart) / 1e9);
+    }
+
+    private void work(long runStart, long runNanos, double meanGapNanos, boolean dayProfile, int[] mix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = 0;
+        for (int weight : mix) {
+            totalWeight += weight;
+        }
+        long arrival = runStart;
+        while (true) {
+            if (meanGapNanos > 0) {
+                // Thinning: draw arrivals at the peak rate and keep each with the profile's share of it
+                do {
+                    arrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+                } while (dayProfile && random.nextDouble() > dayShape((double) (arrival - runStart) / runNanos));
+                if (arrival - runStart >= runNanos) {
+                    return;
+                }
+                long wait = arrival - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                arrival = System.nanoTime();
+                if (arrival - runStart >= runNanos) {
+                    return;
+                }
+            }
+
+            Operation operation = pick(mix, totalWeight, random);
+            long failuresBefore = repository.getFailuresOnCurrentThread();
+            boolean completed = false;
+            boolean threw = false;
+            try {
+                completed = perform(operation, random);
+            } catch (Exception e) {
+                threw = true;
+            }
+            boolean error = threw || repository.getFailuresOnCurrentThread() != failuresBefore;
+            latencies.get(operation).record(System.nanoTime() - arrival, error);
+            if (!completed && !error) {
+                rejections.get(operation).increment();
+            }
+        }
+    }
+
+    /**
+     * Runs one operation.
+     *
+     * @return True if the operation completed, false if the controller turned it down.
+     * @throws Exception If the operation failed.
+     */
+    private boolean perform(Operation operation, Random random) throws Exception {
+        switch (operation) {
+            case BOOKING:
+                int carID = carsByPopularity[popularity.next(random)];
+                LocalDate start = LocalDate.now().plusDays(random.nextInt(BOOKING_HORIZON_DAYS));
+                LocalDate end = start.plusDays(1 + random.nextInt(7) + random.nextInt(8));
+                Hold hold = controller.reserveCar(1 + random.nextInt(customers), carID, start, end);
+                return hold != null && controller.confirmReservation(hold.getHoldID()) != null;
+            case RETURN:
+                return controller.returnCar(1 + random.nextInt(repository.getLastLeaseID())) != null;
+            case LOOKUP:
+                if (random.nextBoolean()) {
+                    return controller.findCarById(carsByPopularity[popularity.next(random)]) != null;
+                }
+                return controller.findCustomerById(1 + random.nextInt(customers)) != null;
+            case PAYMENT:
+                Lease lease = controller.findLeaseById(1 + random.nextInt(repository.getLastLeaseID()));
+                controller.recordPayment(lease, 500 + random.nextInt(4500));
+                return true;
+            case REPORT:
+                if (random.nextBoolean()) {
+                    return controller.calculateRevenueByCar() != null;
+                }
+                controller.calculateTotalRevenue();
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private String summarize(double elapsedSeconds) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "%-9s %9s %9s %9s %8s %8s %9s %9s %9s %9s%n", "operation", "count",
+                "ops/s", "rejected", "errors", "error%", "mean us", "p50 us", "p99 us", "p99.9 us"));
+        long count = 0;
+        long rejected = 0;
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long operationRejected = rejections.get(operation).sum();
+            summary.append(String.format(Locale.ROOT, "%-9s %9d %9.0f %9d %8d %7.3f%% %9.0f %9d %9d %9d%n",
+                    operation.name().toLowerCase(Locale.ROOT), histogram.getCount(), histogram.getCount() / elapsedSeconds,
+                    operationRejected, histogram.getErrors(),
+                    histogram.getCount() == 0 ? 0 : 100.0 * histogram.getErrors() / histogram.getCount(),
+                    histogram.getMeanMicros(), histogram.getPercentileMicros(50), histogram.getPercentileMicros(99),
+                    histogram.getPercentileMicros(99.9)));
+            count += histogram.getCount();
+            rejected += operationRejected;
+            errors += histogram.getErrors();
+        }
+        summary.append(String.format(Locale.ROOT, "%-9s %9d %9.0f %9d %8d %7.3f%%%n", "total", count, count / elapsedSeconds,
+                rejected, errors, count == 0 ? 0 : 100.0 * errors / count));
+
+        double topShare = 0;
+        int top = Math.max(1, popularity.size() / 100);
+        for (int rank = 0; rank < top; rank++) {
+            topShare += popularity.probability(rank);
+        }
+        summary.append(String.format(Locale.ROOT, "Most popular %d of %d cars draw %.1f%% of bookings and car lookups",
+                top, popularity.size(), topShare * 100));
+        return summary.toString();
+    }
+
+    private static Operation pick(int[] mix, int totalWeight, Random random) {
+        int draw = random.nextInt(totalWeight);
+        for (Operation operation : Operation.values()) {
+            draw -= mix[operation.ordinal()];
+            if (draw < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation mix is empty");
+    }
+
+    /**
+     * The share of the peak rate at a point of the day: a quarter of it overnight-quiet, rising to the full
+     * rate for the morning pickups and the evening returns.
+     *
+     * @param fraction How far through the run, from 0 to 1.
+     * @return The share of the peak rate, between 0.25 and 1.
+     */
+    private static double dayShape(double fraction) {
+        double morning = Math.exp(-Math.pow((fraction - 0.15) / 0.08, 2) / 2);
+        double evening = Math.exp(-Math.pow((fraction - 0.8) / 0.08, 2) / 2);
+        return 0.25 + 0.75 * Math.max(morning, evening);
+    }
+}
@@ -0,0 +1,777 @@
+package loadtest;
+
+import dao.CarQuery;
+import dao.ICarLeaseRepository;
+import dao.KeyedTotals;
+import entity.Car;
+import entity.CarSummary;
+import entity.Customer;
+import entity.CustomerSummary;
+import entity.Lease;
+import entity.LeaseSummary;
+import entity.LedgerEntry;
+import entity.Payment;
+import exception.CarNotFoundException;
+import exception.CustomerAlreadyExistsException;
+import exception.CustomerNotFoundException;
+import exception.LeaseConflictException;
+import exception.LeaseNotFoundException;
+import exception.OptimisticLockException;
+import index.CarFilterIndex;
+import index.CarStatusCounts;
+import index.CustomerSearchIndex;
+import pricing.LeaseType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread-safe in-memory stand-in for the database, so {@link controller.CarRentalController} can be driven
+ * under load without MySQL.
+ * <p>
+ * It follows the semantics of {@link dao.ICarLeaseRepositoryImpl}: generated IDs, optimistic versions,
+ * ledger charges of the daily rate times the days leased, and entities copied in and out so callers never
+ * share state with the store. There is a single tier, so {@link #archiveLeases(LocalDate, int)} moves
+ * nothing. No change events are published.
+ * <p>
+ * Every call first waits a configurable round trip and then fails with a configurable probability, to
+ * stand in for a local database. Injected failures are counted per thread, so a caller can tell a failed
+ * operation from one the controller turned down.
+ */
+public class InMemoryRepository implements ICarLeaseRepository {
+
+    private final ConcurrentHashMap<Integer, Car> cars = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Customer> customers = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Lease> leases = new ConcurrentSkipListMap<>();
+    // Leases keyed by start day, so range queries only scan leases that can overlap
+    private final ConcurrentSkipListMap<Long, Queue<Lease>> leasesByStartDay = new ConcurrentSkipListMap<>();
+    private final AtomicLong longestLeaseDays = new AtomicLong();
+    private final ConcurrentSkipListMap<Integer, Payment> payments = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, Account> accounts = new ConcurrentHashMap<>();
+    // What the lease's current customer has been charged for it, to post adjustments on update
+    private final ConcurrentHashMap<Integer, Double> chargedByLease = new ConcurrentHashMap<>();
+    // The daily rate each lease was booked at, which later rate changes leave alone
+    private final ConcurrentHashMap<Integer, Double> rateByLease = new ConcurrentHashMap<>();
+    private final AtomicInteger lastCarID = new AtomicInteger();
+    private final AtomicInteger lastLeaseID = new AtomicInteger();
+    private final AtomicInteger lastPaymentID = new AtomicInteger();
+    private final AtomicLong lastEntryID = new AtomicLong();
+    private final CarFilterIndex carIndex = new CarFilterIndex();
+    private final CarStatusCounts statusCounts = new CarStatusCounts();
+    private final CustomerSearchIndex customerIndex = new CustomerSearchIndex();
+    // Serializes optimistic updates and ledger rebuilds
+    private final Object updateLock = new Object();
+    // Serializes the overlap check and insert of new leases
+    private final Object bookingLock = new Object();
+    private final ThreadLocal<long[]> threadFailures = ThreadLocal.withInitial(() -> new long[1]);
+
+    private volatile long roundTripNanos;
+    private volatile double failureRate;
+
+    /**
+     * A customer's ledger and balance.
+     */
+    private static final class Account {
+        private final List<LedgerEntry> entries = new ArrayList<>();
+        private double balance;
+    }
+
+    /**
+     * A charge or payment waiting to be replayed into the ledger, ordered like the database rebuild.
+     */
+    private static final class Posting {
+        private final LocalDate date;
+        private final int order;
+        private final int sourceID;
+        private final int customerID;
+        private final int leaseID;
+        private final String kind;
+        private final double amount;
+
+        private Posting(LocalDate date, int order, int sourceID, int customerID, int leaseID, String kind, double amount) {
+            this.date = date;
+            this.order = order;
+            this.sourceID = sourceID;
+            this.customerID = customerID;
+            this.leaseID = leaseID;
+            this.kind = kind;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * Sets the simulated database behaviour for every following call.
+     *
+     * @param roundTripMicros How long each call waits before it runs.
+     * @param failureRate     The probability, between 0 and 1, that a call fails instead of running.
+     */
+    public void setRoundTrip(long roundTripMicros, double failureRate) {
+        this.roundTripNanos = roundTripMicros * 1_000;
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Retrieves the number of injected failures raised on the calling thread so far.
+     *
+     * @return The failure count for the current thread.
+     */
+    public long getFailuresOnCurrentThread() {
+        return threadFailures.get()[0];
+    }
+
+    /**
+     * Retrieves the highest lease ID in use; lease IDs are handed out without gaps.
+     *
+     * @return The highest lease ID, or 0 if there are no leases.
+     */
+    public int getLastLeaseID() {
+        return lastLeaseID.get();
+    }
+
+    // Car Management
+
+    @Override
+    public void addCar(Car car) {
+        roundTrip();
+        car.setVehicleID(lastCarID.incrementAndGet());
+        storeCar(new Car(car));
+    }
+
+    @Override
+    public void removeCar(int carID) throws CarNotFoundException {
+        roundTrip();
+        statusCounts.beginChange();
+        try {
+            Car removed = cars.remove(carID);
+            if (removed == null) {
+                throw new CarNotFoundException("Car with ID " + carID + " not found.");
+            }
+            carIndex.remove(carID);
+            statusCounts.removed(removed);
+        } finally {
+            statusCounts.endChange();
+        }
+    }
+
+    @Override
+    public List<Car> listAvailableCars() {
+        roundTrip();
+        return carsWithStatus("available");
+    }
+
+    @Override
+    public List<CarSummary> listAvailableCarSummaries() {
+        roundTrip();
+        List<CarSummary> summaries = new ArrayList<>();
+        for (Car car : cars.values()) {
+            if ("available".equals(car.getStatus())) {
+                summaries.add(new CarSummary(car));
+            }
+        }
+        return summaries;
+    }
+
+    @Override
+    public List<Car> listRentedCars() {
+        roundTrip();
+        return carsWithStatus("notAvailable");
+    }
+
+    @Override
+    public Map<String, Long> countCarsByStatus() {
+        roundTrip();
+        loadStatusCounts();
+        return statusCounts.countByStatus();
+    }
+
+    @Override
+    public Map<String, Long> countCarsByMake(String status) {
+        roundTrip();
+        loadStatusCounts();
+        return statusCounts.countByMake(status);
+    }
+
+    @Override
+    public Car findCarById(int carID) throws CarNotFoundException {
+        roundTrip();
+        return new Car(car(carID));
+    }
+
+    @Override
+    public List<Car> findCars(CarQuery query) {
+        roundTrip();
+        return carIndex.find(query);
+    }
+
+    @Override
+    public void updateCar(Car car) throws CarNotFoundException, OptimisticLockException {
+        roundTrip();
+        synchronized (updateLock) {
+            Car stored = car(car.getVehicleID());
+            if (stored.getVersion() != car.getVersion()) {
+                throw new OptimisticLockException("Car " + car.getVehicleID() + " was updated concurrently: read version "
+                        + car.getVersion() + ", current version " + stored.getVersion());
+            }
+            car.setVersion(car.getVersion() + 1);
+            storeCar(new Car(car));
+        }
+    }
+
+    // Customer Management
+
+    @Override
+    public void addCustomer(Customer customer) throws CustomerAlreadyExistsException {
+        roundTrip();
+        if (customers.putIfAbsent(customer.getCustomerID(), customer) != null) {
+            throw new CustomerAlreadyExistsException("Customer with ID " + customer.getCustomerID() + " already exists.");
+        }
+        customerIndex.add(customer);
+    }
+
+    @Override
+    public void removeCustomer(int customerID) throws CustomerNotFoundException {
+        roundTrip();
+        if (customers.remove(customerID) == null) {
+            throw new CustomerNotFoundException("Customer not found with ID: " + customerID);
+        }
+        customerIndex.remove(customerID);
+    }
+
+    @Override
+    public List<Customer> listCustomers() {
+        roundTrip();
+        return new ArrayList<>(customers.values());
+    }
+
+    @Override
+    public List<CustomerSummary> listCustomerSummaries() {
+        roundTrip();
+        List<CustomerSummary> summaries = new ArrayList<>(customers.size());
+        for (Customer customer : customers.values()) {
+            summaries.add(new CustomerSummary(customer.getCustomerID(), customer.getFirstName(), customer.getLastName()));
+        }
+        return summaries;
+    }
+
+    @Override
+    public Customer findCustomerById(int customerID) throws CustomerNotFoundException {
+        roundTrip();
+        return customer(customerID);
+    }
+
+    @Override
+    public List<Customer> searchCustomers(String query, int limit) {
+        roundTrip();
+        return customerIndex.search(query, limit);
+    }
+
+    // Lease Management
+
+    @Override
+    public Lease createLease(int customerID, int carID, LocalDate startDate, LocalDate endDate)
+            throws CarNotFoundException, CustomerNotFoundException, LeaseConflictException {
+        roundTrip();
+        double dailyRate = car(carID).getDailyRate();
+        double charge = chargeFor(dailyRate, startDate, endDate);
+        customer(customerID);
+        Lease lease;
+        synchronized (bookingLock) {
+            for (Lease existing : overlapping(startDate, endDate)) {
+                if (existing.getVehicleID() == carID) {
+                    throw new LeaseConflictException("Car " + carID + " is already leased between " + startDate + " and " + endDate);
+                }
+            }
+            lease = new Lease(lastLeaseID.incrementAndGet(), carID, customerID, startDate, endDate,
+                    LeaseType.forPeriod(startDate, endDate).getLabel());
+            storeLease(new Lease(lease));
+        }
+        rateByLease.put(lease.getLeaseID(), dailyRate);
+        chargedByLease.put(lease.getLeaseID(), cents(charge));
+        post(customerID, lease.getLeaseID(), LocalDate.now(), LedgerEntry.CHARGE, charge);
+        return lease;
+    }
+
+    @Override
+    public Lease returnCar(int leaseID) throws LeaseNotFoundException {
+        roundTrip();
+        return new Lease(lease(leaseID));
+    }
+
+    @Override
+    public List<Lease> listActiveLeases() {
+        roundTrip();
+        LocalDate today = LocalDate.now();
+        List<Lease> active = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (!lease.getEndDate().isBefore(today)) {
+                active.add(new Lease(lease));
+            }
+        }
+        return active;
+    }
+
+    @Override
+    public List<Lease> listLeaseHistory() {
+        roundTrip();
+        return copies(leases.values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<LeaseSummary> listLeaseSummaries() {
+        roundTrip();
+        List<LeaseSummary> summaries = new ArrayList<>(leases.size());
+        for (Lease lease : leases.values()) {
+            summaries.add(new LeaseSummary(lease.getLeaseID(), lease.getVehicleID(), lease.getCustomerID(),
+                    lease.getStartDate(), lease.getEndDate()));
+        }
+        return summaries;
+    }
+
+    @Override
+    public List<Lease> listLeasesAfter(int leaseID) {
+        roundTrip();
+        return copies(leases.tailMap(leaseID, false).values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Lease> listLeasesAfter(int leaseID, int limit) {
+        roundTrip();
+        return copies(leases.tailMap(leaseID, false).values(), limit);
+    }
+
+    @Override
+    public List<Lease> listLeases(LocalDate from, LocalDate to) {
+        roundTrip();
+        return overlapping(from, to);
+    }
+
+    @Override
+    public List<Lease> listLeases(int vehicleID, LocalDate from, LocalDate to) {
+        List<Lease> overlapping = listLeases(from, to);
+        overlapping.removeIf(lease -> lease.getVehicleID() != vehicleID);
+        return overlapping;
+    }
+
+    private List<Lease> overlapping(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        List<Lease> overlapping = new ArrayList<>();
+        for (Queue<Lease> starting : leasesByStartDay.subMap(fromDay - longestLeaseDays.get(), true, to.toEpochDay(), true).values()) {
+            for (Lease lease : starting) {
+                if (lease.getEndDate().toEpochDay() >= fromDay) {
+                    overlapping.add(new Lease(lease));
+                }
+            }
+        }
+        overlapping.sort(Comparator.comparingInt(Lease::getLeaseID));
+        return overlapping;
+    }
+
+    @Override
+    public int archiveLeases(LocalDate endedBefore, int batchSize) {
+        roundTrip();
+        if (endedBefore.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot archive leases that have not ended: " + endedBefore);
+        }
+        return 0;
+    }
+
+    @Override
+    public Lease findLeaseById(int leaseID) throws LeaseNotFoundException {
+        roundTrip();
+        return new Lease(lease(leaseID));
+    }
+
+    @Override
+    public void updateLease(Lease lease) throws LeaseNotFoundException, OptimisticLockException {
+        roundTrip();
+        synchronized (updateLock) {
+            Lease stored = lease(lease.getLeaseID());
+            if (stored.getVersion() != lease.getVersion()) {
+                throw new OptimisticLockException("Lease " + lease.getLeaseID() + " was updated concurrently: read version "
+                        + lease.getVersion() + ", current version " + stored.getVersion());
+            }
+            Double dailyRate = stored.getVehicleID() == lease.getVehicleID() ? rateByLease.get(lease.getLeaseID()) : null;
+            if (dailyRate == null) {
+                Car car = cars.get(lease.getVehicleID());
+                if (car == null) {
+                    throw new IllegalArgumentException("Car not found with ID: " + lease.getVehicleID());
+                }
+                dailyRate = car.getDailyRate();
+            }
+            double charge = cents(chargeFor(dailyRate, lease.getStartDate(), lease.getEndDate()));
+            rateByLease.put(lease.getLeaseID(), dailyRate);
+            double charged = chargedByLease.getOrDefault(lease.getLeaseID(), 0.0);
+            if (stored.getCustomerID() != lease.getCustomerID()) {
+                post(stored.getCustomerID(), lease.getLeaseID(), LocalDate.now(), LedgerEntry.ADJUSTMENT, -charged);
+                post(lease.getCustomerID(), lease.getLeaseID(), LocalDate.now(), LedgerEntry.ADJUSTMENT, charge);
+            } else if (Math.abs(charge - charged) >= 0.005) {
+                post(lease.getCustomerID(), lease.getLeaseID(), LocalDate.now(), LedgerEntry.ADJUSTMENT, charge - charged);
+            }
+            chargedByLease.put(lease.getLeaseID(), charge);
+
+            Queue<Lease> starting = leasesByStartDay.get(stored.getStartDate().toEpochDay());
+            if (starting != null) {
+                starting.remove(stored);
+            }
+            lease.setVersion(lease.getVersion() + 1);
+            storeLease(new Lease(lease));
+        }
+    }
+
+    // Payment Handling
+
+    @Override
+    public void recordPayment(Lease lease, double amount) {
+        roundTrip();
+        Payment payment = new Payment(lastPaymentID.incrementAndGet(), lease.getLeaseID(), LocalDate.now(), amount);
+        payments.put(payment.getPaymentID(), payment);
+        post(lease.getCustomerID(), lease.getLeaseID(), payment.getPaymentDate(), LedgerEntry.PAYMENT, -amount);
+    }
+
+    @Override
+    public double retrieveBalance(int customerID) {
+        roundTrip();
+        Account account = accounts.get(customerID);
+        if (account == null) {
+            return 0;
+        }
+        synchronized (account) {
+            return account.balance;
+        }
+    }
+
+    @Override
+    public List<LedgerEntry> retrieveLedger(int customerID) {
+        roundTrip();
+        Account account = accounts.get(customerID);
+        if (account == null) {
+            return new ArrayList<>();
+        }
+        synchronized (account) {
+            return new ArrayList<>(account.entries);
+        }
+    }
+
+    /**
+     * Replays every lease and payment into fresh ledgers. Charges are dated at the start of their lease.
+     * Not meant to run while other threads post to the ledger.
+     *
+     * @return The number of ledger entries written.
+     */
+    @Override
+    public int rebuildLedger() {
+        roundTrip();
+        synchronized (updateLock) {
+            accounts.clear();
+            chargedByLease.clear();
+            List<Posting> replay = new ArrayList<>();
+            for (Lease lease : leases.values()) {
+                double charge = chargeFor(rateByLease.getOrDefault(lease.getLeaseID(), 0.0), lease.getStartDate(), lease.getEndDate());
+                replay.add(new Posting(lease.getStartDate(), 0, lease.getLeaseID(), lease.getCustomerID(), lease.getLeaseID(),
+                        LedgerEntry.CHARGE, charge));
+                chargedByLease.put(lease.getLeaseID(), cents(charge));
+            }
+            for (Payment payment : payments.values()) {
+                Lease lease = leases.get(payment.getLeaseID());
+                if (lease != null) {
+                    replay.add(new Posting(payment.getPaymentDate(), 1, payment.getPaymentID(), lease.getCustomerID(),
+                            lease.getLeaseID(), LedgerEntry.PAYMENT, -payment.getAmount()));
+                }
+            }
+            replay.sort(Comparator.comparing((Posting posting) -> posting.date)
+                    .thenComparingInt(posting -> posting.order)
+                    .thenComparingInt(posting -> posting.sourceID));
+            for (Posting posting : replay) {
+                post(posting.customerID, posting.leaseID, posting.date, posting.kind, posting.amount);
+            }
+            return replay.size();
+        }
+    }
+
+    @Override
+    public List<Payment> retrievePaymentHistory(int customerID) {
+        roundTrip();
+        List<Payment> history = new ArrayList<>();
+        for (Payment payment : payments.values()) {
+            Lease lease = leases.get(payment.getLeaseID());
+            if (lease != null && lease.getCustomerID() == customerID) {
+                history.add(copy(payment));
+            }
+        }
+        return history;
+    }
+
+    @Override
+    public List<Payment> listPaymentsAfter(int paymentID, int limit) {
+        roundTrip();
+        List<Payment> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Payment payment : payments.tailMap(paymentID, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(copy(payment));
+        }
+        return page;
+    }
+
+    @Override
+    public double calculateTotalRevenue() {
+        roundTrip();
+        double total = 0;
+        for (Payment payment : payments.values()) {
+            total += payment.getAmount();
+        }
+        return total;
+    }
+
+    @Override
+    public double calculateRevenueForCustomer(int customerID) {
+        roundTrip();
+        double total = 0;
+        for (Payment payment : payments.values()) {
+            Lease lease = leases.get(payment.getLeaseID());
+            if (lease != null && lease.getCustomerID() == customerID) {
+                total += payment.getAmount();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public KeyedTotals calculateRevenueByCustomer() {
+        roundTrip();
+        Map<Integer, Double> totals = new TreeMap<>();
+        for (Payment payment : payments.values()) {
+            Lease lease = leases.get(payment.getLeaseID());
+            if (lease != null) {
+                totals.merge(lease.getCustomerID(), payment.getAmount(), Double::sum);
+            }
+        }
+        return toKeyedTotals(totals);
+    }
+
+    @Override
+    public KeyedTotals calculateRevenueByCar() {
+        roundTrip();
+        Map<Integer, Double> totals = new TreeMap<>();
+        for (Payment payment : payments.values()) {
+            Lease lease = leases.get(payment.getLeaseID());
+            if (lease != null) {
+                totals.merge(lease.getVehicleID(), payment.getAmount(), Double::sum);
+            }
+        }
+        return toKeyedTotals(totals);
+    }
+
+    @Override
+    public KeyedTotals calculateRevenueByMonth() {
+        roundTrip();
+        Map<Integer, Double> totals = new TreeMap<>();
+        for (Payment payment : payments.values()) {
+            LocalDate date = payment.getPaymentDate();
+            totals.merge(date.getYear() * 100 + date.getMonthValue(), payment.getAmount(), Double::sum);
+        }
+        return toKeyedTotals(totals);
+    }
+
+    @Override
+    public KeyedTotals calculateOutstandingByLease() {
+        roundTrip();
+        Map<Integer, Double> outstanding = new TreeMap<>();
+        for (Lease lease : leases.values()) {
+            Double dailyRate = rateByLease.get(lease.getLeaseID());
+            if (dailyRate != null) {
+                outstanding.put(lease.getLeaseID(), chargeFor(dailyRate, lease.getStartDate(), lease.getEndDate()));
+            }
+        }
+        for (Payment payment : payments.values()) {
+            outstanding.computeIfPresent(payment.getLeaseID(), (id, owed) -> owed - payment.getAmount());
+        }
+        outstanding.values().removeIf(owed -> owed <= 0);
+        return toKeyedTotals(outstanding);
+    }
+
+    // Bulk Load
+
+    @Override
+    public void bulkLoad(List<Car> cars, List<Customer> customers, List<Lease> leases, List<Payment> payments) {
+        roundTrip();
+        for (Car car : cars) {
+            storeCar(new Car(car));
+            lastCarID.accumulateAndGet(car.getVehicleID(), Math::max);
+        }
+        for (Customer customer : customers) {
+            this.customers.put(customer.getCustomerID(), customer);
+            customerIndex.add(customer);
+        }
+        for (Lease lease : leases) {
+            storeLease(new Lease(lease));
+            lastLeaseID.accumulateAndGet(lease.getLeaseID(), Math::max);
+            Car car = this.cars.get(lease.getVehicleID());
+            if (car != null) {
+                rateByLease.putIfAbsent(lease.getLeaseID(), car.getDailyRate());
+            }
+        }
+        for (Payment payment : payments) {
+            this.payments.put(payment.getPaymentID(), copy(payment));
+            lastPaymentID.accumulateAndGet(payment.getPaymentID(), Math::max);
+        }
+        if (!leases.isEmpty() || !payments.isEmpty()) {
+            rebuildLedger();
+        }
+    }
+
+    // Helpers
+
+    /**
+     * Waits the simulated round trip and injects a failure with the configured probability.
+     *
+     * @throws IllegalStateException If a failure is injected.
+     */
+    private void roundTrip() {
+        long nanos = roundTripNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+        double rate = failureRate;
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            threadFailures.get()[0]++;
+            throw new IllegalStateException("Injected database failure");
+        }
+    }
+
+    private Car car(int carID) throws CarNotFoundException {
+        Car car = cars.get(carID);
+        if (car == null) {
+            throw new CarNotFoundException("Car with ID " + carID + " not found.");
+        }
+        return car;
+    }
+
+    private Customer customer(int customerID) throws CustomerNotFoundException {
+        Customer customer = customers.get(customerID);
+        if (customer == null) {
+            throw new CustomerNotFoundException("Customer not found with ID: " + customerID);
+        }
+        return customer;
+    }
+
+    private Lease lease(int leaseID) throws LeaseNotFoundException {
+        Lease lease = leases.get(leaseID);
+        if (lease == null) {
+            throw new LeaseNotFoundException("Lease not found with ID: " + leaseID);
+        }
+        return lease;
+    }
+
+    private void storeCar(Car car) {
+        statusCounts.beginChange();
+        try {
+            Car previous = cars.put(car.getVehicleID(), car);
+            carIndex.add(car);
+            if (previous == null) {
+                statusCounts.added(car);
+            } else {
+                statusCounts.changed(previous, car);
+            }
+        } finally {
+            statusCounts.endChange();
+        }
+    }
+
+    // The counts follow every change from the start; counting the map once only marks them loaded
+    private void loadStatusCounts() {
+        if (statusCounts.isLoaded()) {
+            return;
+        }
+        try {
+            statusCounts.reconcile(() -> {
+                Map<String, Map<String, Long>> counts = new HashMap<>();
+                for (Car car : cars.values()) {
+                    counts.computeIfAbsent(car.getStatus(), status -> new HashMap<>()).merge(car.getMake(), 1L, Long::sum);
+                }
+                return counts;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not count cars", e);
+        }
+    }
+
+    private void storeLease(Lease lease) {
+        leases.put(lease.getLeaseID(), lease);
+        long startDay = lease.getStartDate().toEpochDay();
+        longestLeaseDays.accumulateAndGet(lease.getEndDate().toEpochDay() - startDay, Math::max);
+        leasesByStartDay.computeIfAbsent(startDay, day -> new ConcurrentLinkedQueue<>()).add(lease);
+    }
+
+    private List<Car> carsWithStatus(String status) {
+        List<Car> matching = new ArrayList<>();
+        for (Car car : cars.values()) {
+            if (status.equals(car.getStatus())) {
+                matching.add(new Car(car));
+            }
+        }
+        return matching;
+    }
+
+    private static List<Lease> copies(Iterable<Lease> leases, int limit) {
+        List<Lease> copies = new ArrayList<>();
+        for (Lease lease : leases) {
+            if (copies.size() == limit) {
+                break;
+            }
+            copies.add(new Lease(lease));
+        }
+        return copies;
+    }
+
+    private static Payment copy(Payment payment) {
+        return new Payment(payment.getPaymentID(), payment.getLeaseID(), payment.getPaymentDate(), payment.getAmount());
+    }
+
+    /**
+     * Posts an entry to a customer's ledger; amounts are kept to the cent, as in the database.
+     */
+    private void post(int customerID, int leaseID, LocalDate date, String kind, double amount) {
+        Account account = accounts.computeIfAbsent(customerID, id -> new Account());
+        synchronized (account) {
+            double posted = cents(amount);
+            account.balance = cents(account.balance + posted);
+            account.entries.add(new LedgerEntry(lastEntryID.incrementAndGet(), customerID, leaseID, date, kind, posted,
+                    account.balance));
+        }
+    }
+
+    private static double chargeFor(double dailyRate, LocalDate startDate, LocalDate endDate) {
+        return dailyRate * Math.max(ChronoUnit.DAYS.between(startDate, endDate), 1);
+    }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static KeyedTotals toKeyedTotals(Map<Integer, Double> totals) {
+        int[] keys = new int[totals.size()];
+        double[] values = new double[totals.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> entry : totals.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return new KeyedTotals(keys, values);
+    }
+}
@@ -0,0 +1,70 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks from a Zipf distribution: rank {@code k} (counting from 0) is drawn with probability
+ * proportional to {@code 1 / (k + 1)^exponent}. With an exponent around 1 a handful of ranks take most of
+ * the draws, the way a few popular cars take most of a desk's bookings.
+ * <p>
+ * The cumulative distribution is computed once, so each draw is one random number and a binary search.
+ * Instances are immutable and may be shared between threads.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    /**
+     * Constructs a new ZipfSampler.
+     *
+     * @param size     The number of ranks.
+     * @param exponent The skew; 0 gives a uniform distribution, larger values a steeper one.
+     * @throws IllegalArgumentException If the size is not positive or the exponent is negative.
+     */
+    public ZipfSampler(int size, double exponent) {
+        if (size <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Invalid Zipf parameters: size " + size + ", exponent " + exponent);
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random The source of randomness.
+     * @return A rank between 0 and {@code size - 1}; low ranks are the most likely.
+     */
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * Retrieves the probability of a rank.
+     *
+     * @param rank The rank.
+     * @return The probability of drawing it.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    /**
+     * Retrieves the number of ranks.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return cumulative.length;
+    }
+}
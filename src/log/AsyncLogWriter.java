@@ -0,0 +1,332 @@
+package log;
+
+import export.ByteSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes structured log records as JSON lines on a background thread.
+ * <p>
+ * Records are copied into a fixed ring of pre-allocated {@link LogEntry} slots. Any number of threads claim
+ * slots with a compare-and-set on a shared sequence and publish them through a per-slot sequence number, so
+ * logging never takes a lock and never waits for I/O; when the ring is full the record is dropped and counted,
+ * and the count is reported in the output once the writer catches up. A single daemon thread formats the
+ * records through a reused {@link ByteSink} and flushes whenever it runs out of work.
+ * <p>
+ * Warnings and errors are rate limited per logger, operation, message and error type: past
+ * {@code burstLimit} records per window the rest are suppressed, and the next record written for the same
+ * key carries the number suppressed.
+ */
+public class AsyncLogWriter implements Closeable {
+
+    private static final byte[] TS = ascii("{\"ts\":");
+    private static final byte[] LEVEL = ascii(",\"level\":\"");
+    private static final byte[] LOGGER = ascii("\",\"logger\":");
+    private static final byte[] THREAD = ascii(",\"thread\":");
+    private static final byte[] OP = ascii(",\"op\":");
+    private static final byte[] MSG = ascii(",\"msg\":");
+    private static final byte[] LATENCY = ascii(",\"latencyMicros\":");
+    private static final byte[] SUPPRESSED = ascii(",\"suppressed\":");
+    private static final byte[] ERROR = ascii(",\"error\":");
+    private static final byte[] STACK = ascii(",\"stack\":");
+    private static final byte[][] LEVEL_NAMES = new byte[Level.values().length][];
+
+    static {
+        for (Level level : Level.values()) {
+            LEVEL_NAMES[level.ordinal()] = ascii(level.name());
+        }
+    }
+
+    // Shared writer used by loggers that are not given one explicitly
+    private static final AsyncLogWriter DEFAULT = new AsyncLogWriter(System.err, 8192, 20, 1000);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DEFAULT::close, "log-writer-shutdown"));
+    }
+
+    private final LogEntry[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final RateLimiter limiter;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder suppressedTotal = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final ByteSink sink;
+    private final Thread thread;
+
+    private volatile Level level = Level.INFO;
+    private volatile boolean running = true;
+    // Records before this sequence have been written and flushed; only advanced by the writer thread
+    private volatile long flushed;
+    private long reportedDropped;
+
+    /**
+     * Constructs a new AsyncLogWriter and starts its writer thread.
+     *
+     * @param out          The stream receiving JSON lines; it is flushed but never closed by this writer.
+     * @param capacity     The ring buffer size; must be a positive power of two.
+     * @param burstLimit   The number of warnings or errors per key written in each window.
+     * @param windowMillis The rate-limit window in milliseconds.
+     */
+    public AsyncLogWriter(OutputStream out, int capacity, int burstLimit, long windowMillis) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.ring = new LogEntry[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new LogEntry();
+            // A slot is free for sequence s when published[s & mask] == s
+            published.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.limiter = new RateLimiter(burstLimit, windowMillis, 1024);
+        this.sink = new ByteSink(out, 64 * 1024);
+        this.thread = new Thread(this::writeLoop, "log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Retrieves the shared writer, which writes to standard error.
+     *
+     * @return The default writer.
+     */
+    public static AsyncLogWriter getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the minimum level written; records below it are discarded by the loggers before any work is done.
+     *
+     * @param level The threshold.
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * Retrieves the minimum level written.
+     *
+     * @return The threshold.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Retrieves the number of records dropped because the ring was full.
+     *
+     * @return The dropped record count.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Retrieves the number of warnings and errors suppressed by rate limiting.
+     *
+     * @return The suppressed record count.
+     */
+    public long getSuppressedCount() {
+        return suppressedTotal.sum();
+    }
+
+    /**
+     * Retrieves the number of records written to the stream.
+     *
+     * @return The written record count.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Waits until every record submitted before this call has been written and flushed.
+     *
+     * @param timeoutMillis The maximum time to wait.
+     * @return True if the writer caught up, false if the timeout elapsed.
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (flushed < target) {
+            if (System.nanoTime() - deadline > 0 || !thread.isAlive()) {
+                return flushed >= target;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the remaining records and stops the writer thread. The stream is flushed, not closed.
+     */
+    @Override
+    public void close() {
+        flush(2000);
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void offer(LogEntry entry) {
+        if (entry.level.isAtLeast(Level.WARN)) {
+            int suppressed = limiter.acquire(rateKey(entry), entry.timestamp);
+            if (suppressed < 0) {
+                suppressedTotal.increment();
+                return;
+            }
+            entry.suppressed = suppressed;
+        }
+        while (true) {
+            long sequence = claimed.get();
+            int slot = (int) (sequence & mask);
+            long available = published.get(slot);
+            if (available < sequence) {
+                // The writer has not released this slot from the previous lap yet
+                dropped.increment();
+                return;
+            }
+            if (available == sequence && claimed.compareAndSet(sequence, sequence + 1)) {
+                ring[slot].copyFrom(entry);
+                published.lazySet(slot, sequence + 1);
+                return;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        long next = 0;
+        boolean dirty = false;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) == next + 1) {
+                LogEntry entry = ring[slot];
+                write(entry);
+                entry.clear();
+                published.lazySet(slot, next + ring.length);
+                next++;
+                dirty = true;
+                continue;
+            }
+            if (dirty || reportedDropped != dropped.sum()) {
+                reportDropped();
+                flushSink();
+                flushed = next;
+                dirty = false;
+                continue;
+            }
+            if (!running && next == claimed.get()) {
+                return;
+            }
+            LockSupport.parkNanos(this, 1_000_000);
+        }
+    }
+
+    private void write(LogEntry entry) {
+        try {
+            sink.write(TS);
+            sink.writeLong(entry.timestamp);
+            sink.write(LEVEL);
+            sink.write(LEVEL_NAMES[entry.level.ordinal()]);
+            sink.write(LOGGER);
+            sink.writeJsonString(entry.loggerName);
+            sink.write(THREAD);
+            sink.writeJsonString(entry.threadName);
+            if (entry.operation != null) {
+                sink.write(OP);
+                sink.writeJsonString(entry.operation);
+            }
+            sink.write(MSG);
+            sink.writeJsonString(entry.message);
+            for (int i = 0; i < entry.fieldCount; i++) {
+                sink.write(',');
+                sink.writeJsonString(entry.keys[i]);
+                sink.write(':');
+                if (entry.textual[i]) {
+                    sink.writeJsonString(entry.stringValues[i]);
+                } else {
+                    sink.writeLong(entry.longValues[i]);
+                }
+            }
+            if (entry.latencyNanos >= 0) {
+                sink.write(LATENCY);
+                sink.writeLong(entry.latencyNanos / 1000);
+            }
+            if (entry.suppressed > 0) {
+                sink.write(SUPPRESSED);
+                sink.writeLong(entry.suppressed);
+            }
+            if (entry.error != null) {
+                sink.write(ERROR);
+                sink.writeJsonString(entry.error.toString());
+                if (entry.level == Level.ERROR) {
+                    StringWriter stack = new StringWriter();
+                    entry.error.printStackTrace(new PrintWriter(stack));
+                    sink.write(STACK);
+                    sink.writeJsonString(stack.toString());
+                }
+            }
+            sink.write('}');
+            sink.write('\n');
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            // Nowhere left to report it; count the record as dropped
+            dropped.increment();
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total == reportedDropped) {
+            return;
+        }
+        LogEntry entry = new LogEntry();
+        entry.level = Level.WARN;
+        entry.timestamp = System.currentTimeMillis();
+        entry.loggerName = AsyncLogWriter.class.getName();
+        entry.threadName = thread.getName();
+        entry.message = "Log records dropped";
+        entry.keys[0] = "dropped";
+        entry.longValues[0] = total - reportedDropped;
+        entry.fieldCount = 1;
+        reportedDropped = total;
+        write(entry);
+    }
+
+    private void flushSink() {
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            // The stream is gone; keep draining so producers are never blocked
+        }
+    }
+
+    private static int rateKey(LogEntry entry) {
+        int hash = entry.logger.getName().hashCode();
+        hash = 31 * hash + (entry.operation == null ? 0 : entry.operation.hashCode());
+        hash = 31 * hash + (entry.message == null ? 0 : entry.message.hashCode());
+        return 31 * hash + (entry.error == null ? 0 : entry.error.getClass().hashCode());
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,21 @@
+package log;
+
+/**
+ * Log record severity, from least to most severe.
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * Checks whether a record of this level passes the given threshold.
+     *
+     * @param threshold The minimum level being written.
+     * @return True if records of this level are written.
+     */
+    public boolean isAtLeast(Level threshold) {
+        return ordinal() >= threshold.ordinal();
+    }
+}
@@ -0,0 +1,170 @@
+package log;
+
+/**
+ * A structured log record: level, operation, message, up to {@link #MAX_FIELDS} key/value context fields,
+ * an optional latency and an optional error.
+ * <p>
+ * Instances are reused. {@link Logger#at(Level)} hands out a per-thread entry to fill in, and
+ * {@link #log(String)} copies it into a pre-allocated slot of the {@link AsyncLogWriter} ring, so building
+ * and submitting a record with numeric context allocates nothing on the calling thread. An entry must not be
+ * kept or shared after {@code log} is called.
+ */
+public final class LogEntry {
+
+    /**
+     * The maximum number of context fields per record; further fields are ignored.
+     */
+    public static final int MAX_FIELDS = 6;
+
+    // Shared entry returned for disabled levels; every method is a no-op
+    static final LogEntry DISABLED = new LogEntry();
+
+    Logger logger;
+    String loggerName;
+    Level level;
+    long timestamp;
+    String threadName;
+    String operation;
+    String message;
+    Throwable error;
+    long latencyNanos = -1;
+    int suppressed;
+    int fieldCount;
+    final String[] keys = new String[MAX_FIELDS];
+    final long[] longValues = new long[MAX_FIELDS];
+    final String[] stringValues = new String[MAX_FIELDS];
+    final boolean[] textual = new boolean[MAX_FIELDS];
+
+    LogEntry() {
+    }
+
+    /**
+     * Sets the operation (typically the method name) the record belongs to.
+     *
+     * @param operation The operation name.
+     * @return This entry.
+     */
+    public LogEntry op(String operation) {
+        if (logger != null) {
+            this.operation = operation;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a numeric context field, such as an entity ID.
+     *
+     * @param key   The field name.
+     * @param value The field value.
+     * @return This entry.
+     */
+    public LogEntry with(String key, long value) {
+        if (logger != null && fieldCount < MAX_FIELDS) {
+            keys[fieldCount] = key;
+            stringValues[fieldCount] = null;
+            textual[fieldCount] = false;
+            longValues[fieldCount++] = value;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a text context field.
+     *
+     * @param key   The field name.
+     * @param value The field value; null is written as JSON null.
+     * @return This entry.
+     */
+    public LogEntry with(String key, String value) {
+        if (logger != null && fieldCount < MAX_FIELDS) {
+            keys[fieldCount] = key;
+            stringValues[fieldCount] = value;
+            textual[fieldCount] = true;
+            longValues[fieldCount++] = 0;
+        }
+        return this;
+    }
+
+    /**
+     * Sets how long the operation took before the record was logged.
+     *
+     * @param nanos The elapsed time in nanoseconds.
+     * @return This entry.
+     */
+    public LogEntry latency(long nanos) {
+        if (logger != null) {
+            this.latencyNanos = nanos;
+        }
+        return this;
+    }
+
+    /**
+     * Attaches an error. Errors are written with their stack trace at {@link Level#ERROR} and as a
+     * one-line summary at lower levels.
+     *
+     * @param error The error.
+     * @return This entry.
+     */
+    public LogEntry error(Throwable error) {
+        if (logger != null) {
+            this.error = error;
+        }
+        return this;
+    }
+
+    /**
+     * Submits the record with the given message. The call never blocks: if the writer is behind, the
+     * record is dropped and counted.
+     *
+     * @param message The message; should be a constant so repeated records share a rate limit.
+     */
+    public void log(String message) {
+        if (logger != null) {
+            this.message = message;
+            logger.submit(this);
+            clear();
+            this.logger = null;
+        }
+    }
+
+    void reset(Logger logger, Level level) {
+        this.logger = logger;
+        this.level = level;
+        this.operation = null;
+        this.message = null;
+        this.error = null;
+        this.latencyNanos = -1;
+        this.suppressed = 0;
+        this.fieldCount = 0;
+    }
+
+    void copyFrom(LogEntry other) {
+        this.loggerName = other.logger.getName();
+        this.threadName = other.threadName;
+        this.level = other.level;
+        this.timestamp = other.timestamp;
+        this.operation = other.operation;
+        this.message = other.message;
+        this.error = other.error;
+        this.latencyNanos = other.latencyNanos;
+        this.suppressed = other.suppressed;
+        this.fieldCount = other.fieldCount;
+        System.arraycopy(other.keys, 0, keys, 0, other.fieldCount);
+        System.arraycopy(other.longValues, 0, longValues, 0, other.fieldCount);
+        System.arraycopy(other.stringValues, 0, stringValues, 0, other.fieldCount);
+        System.arraycopy(other.textual, 0, textual, 0, other.fieldCount);
+    }
+
+    void clear() {
+        this.loggerName = null;
+        this.error = null;
+        this.message = null;
+        this.operation = null;
+        this.threadName = null;
+        for (int i = 0; i < fieldCount; i++) {
+            keys[i] = null;
+            stringValues[i] = null;
+        }
+        this.fieldCount = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package log;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A named source of structured log records, written asynchronously by an {@link AsyncLogWriter}.
+ * <p>
+ * Typical use keeps one logger per class and adds the operation and the IDs involved:
+ * <pre>
+ *     LOG.at(Level.ERROR).op("removeCustomer").with("customerID", customerID).error(e).log("Delete failed");
+ * </pre>
+ * Disabled levels return a shared no-op entry, so a filtered-out record costs one comparison. Enabled records
+ * are built in a per-thread entry and copied into the writer's ring buffer; callers never block on I/O.
+ */
+public final class Logger {
+
+    private static final ConcurrentMap<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<LogEntry> SCRATCH = ThreadLocal.withInitial(LogEntry::new);
+
+    private final String name;
+    private final AsyncLogWriter writer;
+
+    /**
+     * Constructs a new Logger that writes to the given writer.
+     *
+     * @param name   The logger name, written with every record.
+     * @param writer The writer receiving the records.
+     */
+    public Logger(String name, AsyncLogWriter writer) {
+        this.name = name;
+        this.writer = writer;
+    }
+
+    /**
+     * Retrieves the shared logger for a class, writing to {@link AsyncLogWriter#getDefault()}.
+     *
+     * @param type The class doing the logging.
+     * @return The logger.
+     */
+    public static Logger getLogger(Class<?> type) {
+        return LOGGERS.computeIfAbsent(type.getName(), name -> new Logger(name, AsyncLogWriter.getDefault()));
+    }
+
+    /**
+     * Retrieves the logger name.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks whether records of the given level are currently written.
+     *
+     * @param level The level.
+     * @return True if the level is enabled.
+     */
+    public boolean isEnabled(Level level) {
+        return level.isAtLeast(writer.getLevel());
+    }
+
+    /**
+     * Starts a record of the given level. The returned entry is reused by the calling thread and must be
+     * completed with {@link LogEntry#log(String)} before the next call.
+     *
+     * @param level The level.
+     * @return The entry to fill in, or a no-op entry if the level is disabled.
+     */
+    public LogEntry at(Level level) {
+        if (!isEnabled(level)) {
+            return LogEntry.DISABLED;
+        }
+        LogEntry entry = SCRATCH.get();
+        entry.reset(this, level);
+        return entry;
+    }
+
+    /**
+     * Logs an error with its operation.
+     *
+     * @param operation The operation that failed.
+     * @param message   The message.
+     * @param error     The error.
+     */
+    public void error(String operation, String message, Throwable error) {
+        at(Level.ERROR).op(operation).error(error).log(message);
+    }
+
+    /**
+     * Logs a warning with its operation.
+     *
+     * @param operation The operation concerned.
+     * @param message   The message.
+     * @param error     The error, or null.
+     */
+    public void warn(String operation, String message, Throwable error) {
+        at(Level.WARN).op(operation).error(error).log(message);
+    }
+
+    /**
+     * Logs an informational message with its operation.
+     *
+     * @param operation The operation concerned.
+     * @param message   The message.
+     */
+    public void info(String operation, String message) {
+        at(Level.INFO).op(operation).log(message);
+    }
+
+    void submit(LogEntry entry) {
+        entry.timestamp = System.currentTimeMillis();
+        entry.threadName = Thread.currentThread().getName();
+        writer.offer(entry);
+    }
+}
@@ -0,0 +1,59 @@
+package log;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limits how many records with the same key are written per time window.
+ * <p>
+ * Keys are hashed into a fixed table of windows, so memory stays constant however many distinct errors
+ * occur; two keys landing in the same window share its limit. The window bookkeeping uses plain atomics
+ * without a lock and is approximate under contention, which is fine for suppressing error storms.
+ */
+final class RateLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final int mask;
+    private final AtomicLongArray windowStarts;
+    private final AtomicIntegerArray counts;
+    private final AtomicIntegerArray suppressed;
+
+    /**
+     * Constructs a new RateLimiter.
+     *
+     * @param limit        The number of records per key and window that are let through.
+     * @param windowMillis The window length in milliseconds.
+     * @param slots        The number of windows; must be a positive power of two.
+     */
+    RateLimiter(int limit, long windowMillis, int slots) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.mask = slots - 1;
+        this.windowStarts = new AtomicLongArray(slots);
+        this.counts = new AtomicIntegerArray(slots);
+        this.suppressed = new AtomicIntegerArray(slots);
+    }
+
+    /**
+     * Counts a record against its key's window.
+     *
+     * @param hash The key hash.
+     * @param now  The record time in milliseconds.
+     * @return -1 if the record must be suppressed, otherwise the number of records suppressed for this key
+     *         in the previous window (reported once, with the first record of the new window).
+     */
+    int acquire(int hash, long now) {
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        long start = windowStarts.get(slot);
+        if (now - start >= windowMillis && windowStarts.compareAndSet(slot, start, now)) {
+            counts.set(slot, 1);
+            return suppressed.getAndSet(slot, 0);
+        }
+        if (counts.incrementAndGet(slot) <= limit) {
+            return 0;
+        }
+        suppressed.incrementAndGet(slot);
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+package pricing;
+
+import java.time.LocalDate;
+
+/**
+ * The lease types offered by the rental system. The type is chosen from the length of the lease
+ * and determines the discount applied to the daily rate.
+ */
+public enum LeaseType {
+
+    DAILY("Daily", 1, 1.0),
+    WEEKLY("Weekly", 7, 0.85),
+    MONTHLY("Monthly", 30, 0.70);
+
+    private final String label;
+    private final int minimumDays;
+    private final double rateFactor;
+
+    LeaseType(String label, int minimumDays, double rateFactor) {
+        this.label = label;
+        this.minimumDays = minimumDays;
+        this.rateFactor = rateFactor;
+    }
+
+    /**
+     * Retrieves the label stored in the lease table's type column.
+     *
+     * @return The label, for example "Weekly".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Retrieves the shortest lease, in days, that qualifies for this type.
+     *
+     * @return The minimum number of days.
+     */
+    public int getMinimumDays() {
+        return minimumDays;
+    }
+
+    /**
+     * Retrieves the factor applied to the daily rate for leases of this type.
+     *
+     * @return The rate factor, 1.0 for daily leases.
+     */
+    public double getRateFactor() {
+        return rateFactor;
+    }
+
+    /**
+     * Chooses the lease type for a lease of the given length.
+     *
+     * @param days The number of days leased.
+     * @return The longest type the lease qualifies for.
+     */
+    public static LeaseType forDays(long days) {
+        if (days >= MONTHLY.minimumDays) {
+            return MONTHLY;
+        }
+        if (days >= WEEKLY.minimumDays) {
+            return WEEKLY;
+        }
+        return DAILY;
+    }
+
+    /**
+     * Chooses the lease type for a lease between the given dates.
+     *
+     * @param startDate The start date of the lease.
+     * @param endDate   The end date of the lease.
+     * @return The longest type the lease qualifies for.
+     */
+    public static LeaseType forPeriod(LocalDate startDate, LocalDate endDate) {
+        return forDays(days(startDate, endDate));
+    }
+
+    /**
+     * Counts the days charged for a lease between the given dates; a lease ending on its start
+     * date still counts as one day.
+     *
+     * @param startDate The start date of the lease.
+     * @param endDate   The end date of the lease.
+     * @return The number of days charged.
+     */
+    public static long days(LocalDate startDate, LocalDate endDate) {
+        return Math.max(1, endDate.toEpochDay() - startDate.toEpochDay());
+    }
+}
@@ -0,0 +1,189 @@
+package pricing;
+
+import dao.ICarLeaseRepository;
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.CarReturnedEvent;
+import event.CarUpdatedEvent;
+import event.EventSubscriber;
+import event.LeaseCreatedEvent;
+import event.LeaseUpdatedEvent;
+import event.RepositoryEvent;
+import exception.CarNotFoundException;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes lease quotes from in-memory rate tables and fleet-utilization counters, without
+ * touching the database per quote.
+ * <p>
+ * The price of a lease is the car's daily rate, summed over the leased days with each day's seasonal
+ * multiplier, then scaled by the discount of the {@link LeaseType} the period qualifies for and by a surge
+ * multiplier derived from the share of the fleet currently on lease.
+ * <p>
+ * Load the tables once with {@link #refresh(ICarLeaseRepository)} and subscribe the engine to the
+ * repository's {@link event.EventBus}; added and removed cars, new leases and returns then keep the rate
+ * table and the utilization up to date. Quotes only read these tables and may be computed concurrently.
+ */
+public class PricingEngine implements EventSubscriber {
+
+    // Utilization at or above SURGE_THRESHOLDS[i] is priced with SURGE_MULTIPLIERS[i]
+    private static final double[] SURGE_THRESHOLDS = {0.75, 0.90};
+    private static final double[] SURGE_MULTIPLIERS = {1.10, 1.25};
+
+    private final SeasonalCalendar calendar;
+    private volatile Map<Integer, Double> dailyRates = new ConcurrentHashMap<>();
+    // End date (as an epoch day) of every lease that has not been returned
+    private volatile Map<Integer, Long> leaseEnds = new ConcurrentHashMap<>();
+    private volatile double utilization;
+    private volatile double surgeMultiplier = 1.0;
+
+    /**
+     * Constructs a new PricingEngine using the standard seasonal calendar.
+     */
+    public PricingEngine() {
+        this(SeasonalCalendar.standard());
+    }
+
+    /**
+     * Constructs a new PricingEngine with the specified seasonal calendar.
+     *
+     * @param calendar The seasonal multipliers to apply.
+     */
+    public PricingEngine(SeasonalCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * Reloads the rate table and the active leases from the repository.
+     *
+     * @param repository The repository to load from.
+     * @throws Exception If loading from the repository fails.
+     */
+    public synchronized void refresh(ICarLeaseRepository repository) throws Exception {
+        Map<Integer, Double> rates = new ConcurrentHashMap<>();
+        for (Car car : repository.listAvailableCars()) {
+            rates.put(car.getVehicleID(), car.getDailyRate());
+        }
+        for (Car car : repository.listRentedCars()) {
+            rates.put(car.getVehicleID(), car.getDailyRate());
+        }
+        Map<Integer, Long> ends = new ConcurrentHashMap<>();
+        for (Lease lease : repository.listActiveLeases()) {
+            ends.put(lease.getLeaseID(), lease.getEndDate().toEpochDay());
+        }
+        dailyRates = rates;
+        leaseEnds = ends;
+        updateUtilization();
+    }
+
+    /**
+     * Applies a repository change to the rate table and utilization counters.
+     *
+     * @param event The repository event.
+     */
+    @Override
+    public synchronized void onEvent(RepositoryEvent event) {
+        if (event instanceof CarAddedEvent) {
+            Car car = ((CarAddedEvent) event).getCar();
+            dailyRates.put(car.getVehicleID(), car.getDailyRate());
+        } else if (event instanceof CarRemovedEvent) {
+            dailyRates.remove(((CarRemovedEvent) event).getVehicleID());
+        } else if (event instanceof LeaseCreatedEvent) {
+            Lease lease = ((LeaseCreatedEvent) event).getLease();
+            leaseEnds.put(lease.getLeaseID(), lease.getEndDate().toEpochDay());
+        } else if (event instanceof CarReturnedEvent) {
+            leaseEnds.remove(((CarReturnedEvent) event).getLease().getLeaseID());
+        } else if (event instanceof CarUpdatedEvent) {
+            Car car = ((CarUpdatedEvent) event).getCar();
+            dailyRates.put(car.getVehicleID(), car.getDailyRate());
+        } else if (event instanceof LeaseUpdatedEvent) {
+            // Only leases still running are tracked; a returned lease stays returned
+            Lease lease = ((LeaseUpdatedEvent) event).getLease();
+            leaseEnds.replace(lease.getLeaseID(), lease.getEndDate().toEpochDay());
+        } else {
+            return;
+        }
+        updateUtilization();
+    }
+
+    /**
+     * Quotes the price of leasing a car between two dates.
+     *
+     * @param carID     The ID of the car.
+     * @param startDate The start date of the lease.
+     * @param endDate   The end date of the lease.
+     * @return The quote.
+     * @throws CarNotFoundException If the car is not in the rate table.
+     */
+    public Quote quote(int carID, LocalDate startDate, LocalDate endDate) throws CarNotFoundException {
+        Double dailyRate = dailyRates.get(carID);
+        if (dailyRate == null) {
+            throw new CarNotFoundException("Car not found with ID: " + carID);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date " + endDate + " is before start date " + startDate);
+        }
+        long days = LeaseType.days(startDate, endDate);
+        LeaseType leaseType = LeaseType.forDays(days);
+        double seasonal = calendar.sumMultipliers(startDate, days);
+        double surge = surgeMultiplier;
+
+        double total = dailyRate * seasonal * leaseType.getRateFactor() * surge;
+        total = Math.round(total * 100) / 100.0;
+        return new Quote(carID, startDate, endDate, days, leaseType, dailyRate, seasonal / days, surge, total);
+    }
+
+    /**
+     * Retrieves the share of the fleet currently on lease.
+     *
+     * @return The utilization, between 0 and 1.
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * Retrieves the surge multiplier currently applied to quotes.
+     *
+     * @return The surge multiplier, 1.0 when no surge applies.
+     */
+    public double getSurgeMultiplier() {
+        return surgeMultiplier;
+    }
+
+    /**
+     * Retrieves the number of cars in the rate table.
+     *
+     * @return The number of priced cars.
+     */
+    public int getPricedCars() {
+        return dailyRates.size();
+    }
+
+    // Leases past their end date stop counting even if the car was never formally returned
+    private void updateUtilization() {
+        long today = LocalDate.now().toEpochDay();
+        Iterator<Long> ends = leaseEnds.values().iterator();
+        while (ends.hasNext()) {
+            if (ends.next() < today) {
+                ends.remove();
+            }
+        }
+        int fleet = dailyRates.size();
+        double current = fleet == 0 ? 0 : Math.min(1.0, (double) leaseEnds.size() / fleet);
+        double surge = 1.0;
+        for (int i = 0; i < SURGE_THRESHOLDS.length; i++) {
+            if (current >= SURGE_THRESHOLDS[i]) {
+                surge = SURGE_MULTIPLIERS[i];
+            }
+        }
+        utilization = current;
+        surgeMultiplier = surge;
+    }
+}
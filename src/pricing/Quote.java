@@ -0,0 +1,147 @@
+package pricing;
+
+import java.time.LocalDate;
+
+/**
+ * The {@code Quote} class represents the price offered for leasing a car over a period,
+ * together with the factors that produced it.
+ */
+public class Quote {
+
+    private final int carID;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long days;
+    private final LeaseType leaseType;
+    private final double dailyRate;
+    private final double seasonalMultiplier;
+    private final double surgeMultiplier;
+    private final double totalPrice;
+
+    /**
+     * Constructs a new Quote object with the specified parameters.
+     *
+     * @param carID              The ID of the quoted car.
+     * @param startDate          The start date of the lease.
+     * @param endDate            The end date of the lease.
+     * @param days               The number of days charged.
+     * @param leaseType          The lease type the period qualifies for.
+     * @param dailyRate          The car's base daily rate.
+     * @param seasonalMultiplier The average seasonal multiplier over the period.
+     * @param surgeMultiplier    The fleet-utilization surge multiplier.
+     * @param totalPrice         The total price of the lease.
+     */
+    public Quote(int carID, LocalDate startDate, LocalDate endDate, long days, LeaseType leaseType, double dailyRate,
+                 double seasonalMultiplier, double surgeMultiplier, double totalPrice) {
+        this.carID = carID;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.days = days;
+        this.leaseType = leaseType;
+        this.dailyRate = dailyRate;
+        this.seasonalMultiplier = seasonalMultiplier;
+        this.surgeMultiplier = surgeMultiplier;
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Retrieves the ID of the quoted car.
+     *
+     * @return The car ID.
+     */
+    public int getCarID() {
+        return carID;
+    }
+
+    /**
+     * Retrieves the start date of the lease.
+     *
+     * @return The start date.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Retrieves the end date of the lease.
+     *
+     * @return The end date.
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Retrieves the number of days charged.
+     *
+     * @return The number of days.
+     */
+    public long getDays() {
+        return days;
+    }
+
+    /**
+     * Retrieves the lease type the period qualifies for.
+     *
+     * @return The lease type.
+     */
+    public LeaseType getLeaseType() {
+        return leaseType;
+    }
+
+    /**
+     * Retrieves the car's base daily rate.
+     *
+     * @return The daily rate.
+     */
+    public double getDailyRate() {
+        return dailyRate;
+    }
+
+    /**
+     * Retrieves the average seasonal multiplier over the period.
+     *
+     * @return The seasonal multiplier.
+     */
+    public double getSeasonalMultiplier() {
+        return seasonalMultiplier;
+    }
+
+    /**
+     * Retrieves the fleet-utilization surge multiplier.
+     *
+     * @return The surge multiplier, 1.0 when no surge applies.
+     */
+    public double getSurgeMultiplier() {
+        return surgeMultiplier;
+    }
+
+    /**
+     * Retrieves the total price of the lease.
+     *
+     * @return The total price.
+     */
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Returns a string representation of the Quote object.
+     *
+     * @return A string representation of the Quote object.
+     */
+    @Override
+    public String toString() {
+        return "Quote{" +
+                "carID=" + carID +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", days=" + days +
+                ", leaseType=" + leaseType.getLabel() +
+                ", dailyRate=" + dailyRate +
+                ", seasonalMultiplier=" + String.format("%.3f", seasonalMultiplier) +
+                ", surgeMultiplier=" + surgeMultiplier +
+                ", totalPrice=" + String.format("%.2f", totalPrice) +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package pricing;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * Per-month price multipliers applied to the daily rate. Multipliers are kept in a plain array
+ * indexed by month, so pricing a period costs one lookup per calendar month it touches.
+ */
+public class SeasonalCalendar {
+
+    private final double[] multipliers = new double[12];
+
+    /**
+     * Constructs a new SeasonalCalendar with every month at a multiplier of 1.0.
+     */
+    public SeasonalCalendar() {
+        Arrays.fill(multipliers, 1.0);
+    }
+
+    /**
+     * Creates the calendar used by default: year-end holidays and the summer vacation are peak season,
+     * the monsoon months are off-peak.
+     *
+     * @return The standard calendar.
+     */
+    public static SeasonalCalendar standard() {
+        SeasonalCalendar calendar = new SeasonalCalendar();
+        calendar.setMultiplier(Month.DECEMBER, 1.20);
+        calendar.setMultiplier(Month.JANUARY, 1.15);
+        calendar.setMultiplier(Month.MAY, 1.15);
+        calendar.setMultiplier(Month.JUNE, 1.10);
+        calendar.setMultiplier(Month.JULY, 0.90);
+        calendar.setMultiplier(Month.AUGUST, 0.90);
+        return calendar;
+    }
+
+    /**
+     * Sets the multiplier for a month.
+     *
+     * @param month      The month.
+     * @param multiplier The multiplier to apply to daily rates in that month.
+     */
+    public void setMultiplier(Month month, double multiplier) {
+        if (multiplier <= 0) {
+            throw new IllegalArgumentException("Multiplier must be positive: " + multiplier);
+        }
+        multipliers[month.ordinal()] = multiplier;
+    }
+
+    /**
+     * Retrieves the multiplier for a month.
+     *
+     * @param month The month.
+     * @return The multiplier.
+     */
+    public double getMultiplier(Month month) {
+        return multipliers[month.ordinal()];
+    }
+
+    /**
+     * Sums the multipliers of every day in {@code [start, start + days)}.
+     * Dividing by {@code days} gives the average seasonal multiplier of the period.
+     *
+     * @param start The first day.
+     * @param days  The number of days.
+     * @return The sum of the daily multipliers.
+     */
+    public double sumMultipliers(LocalDate start, long days) {
+        double sum = 0;
+        int month = start.getMonthValue() - 1;
+        long remaining = days;
+        // Days left in the first month, including the start day
+        long inMonth = start.lengthOfMonth() - start.getDayOfMonth() + 1;
+        int year = start.getYear();
+        while (remaining > 0) {
+            long span = Math.min(inMonth, remaining);
+            sum += span * multipliers[month];
+            remaining -= span;
+            if (++month == 12) {
+                month = 0;
+                year++;
+            }
+            inMonth = Month.of(month + 1).length(Year.isLeap(year));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,22 @@
+package report;
+
+import java.util.List;
+
+/**
+ * Supplies rows of a table in pages ordered by ID, as used by {@link ReportGenerator}.
+ *
+ * @param <T> The row type.
+ */
+@FunctionalInterface
+public interface ChunkSource<T> {
+
+    /**
+     * Fetches the next page of rows.
+     *
+     * @param afterID The last ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of rows to return.
+     * @return The rows, or an empty list once the table is exhausted.
+     * @throws Exception If the rows cannot be fetched.
+     */
+    List<T> fetch(int afterID, int limit) throws Exception;
+}
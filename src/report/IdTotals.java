@@ -0,0 +1,65 @@
+package report;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Per-ID sums held in a growable primitive array indexed by ID. IDs in this schema are dense
+ * auto-increment keys, so an array is both smaller and faster than a map.
+ */
+final class IdTotals {
+
+    private double[] sums = new double[1024];
+
+    void add(int id, double amount) {
+        if (id >= sums.length) {
+            sums = Arrays.copyOf(sums, Math.max(id + 1, sums.length * 2));
+        }
+        sums[id] += amount;
+    }
+
+    void merge(IdTotals other) {
+        if (other.sums.length > sums.length) {
+            sums = Arrays.copyOf(sums, other.sums.length);
+        }
+        for (int id = 0; id < other.sums.length; id++) {
+            sums[id] += other.sums[id];
+        }
+    }
+
+    double[] toArray() {
+        int length = sums.length;
+        while (length > 0 && sums[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(sums, length);
+    }
+
+    /**
+     * Selects the IDs with the largest sums, largest first.
+     */
+    int[] top(int count) {
+        PriorityQueue<Integer> smallest = new PriorityQueue<>(Math.max(1, count),
+                (a, b) -> Double.compare(sums[a], sums[b]));
+        for (int id = 0; id < sums.length; id++) {
+            if (sums[id] == 0) {
+                continue;
+            }
+            if (smallest.size() < count) {
+                smallest.add(id);
+            } else if (count > 0 && sums[id] > sums[smallest.peek()]) {
+                smallest.poll();
+                smallest.add(id);
+            }
+        }
+        int[] ids = new int[smallest.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = smallest.poll();
+        }
+        return ids;
+    }
+
+    double get(int id) {
+        return id < sums.length ? sums[id] : 0;
+    }
+}
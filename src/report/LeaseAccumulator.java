@@ -0,0 +1,30 @@
+package report;
+
+import entity.Lease;
+import pricing.LeaseType;
+
+/**
+ * Mergeable lease-length statistics.
+ */
+final class LeaseAccumulator {
+
+    long count;
+    long totalDays;
+    long minDays = Long.MAX_VALUE;
+    long maxDays;
+
+    void add(Lease lease) {
+        long days = LeaseType.days(lease.getStartDate(), lease.getEndDate());
+        count++;
+        totalDays += days;
+        minDays = Math.min(minDays, days);
+        maxDays = Math.max(maxDays, days);
+    }
+
+    void merge(LeaseAccumulator other) {
+        count += other.count;
+        totalDays += other.totalDays;
+        minDays = Math.min(minDays, other.minDays);
+        maxDays = Math.max(maxDays, other.maxDays);
+    }
+}
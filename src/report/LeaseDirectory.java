@@ -0,0 +1,32 @@
+package report;
+
+import java.util.Arrays;
+
+/**
+ * Maps lease IDs to the vehicle and customer of the lease, so payments can be attributed without a join.
+ * Only written by the thread fetching leases and only read once all leases have been fetched.
+ */
+final class LeaseDirectory {
+
+    // 0 means unknown; database IDs start at 1
+    private int[] vehicleIDs = new int[1024];
+    private int[] customerIDs = new int[1024];
+
+    void put(int leaseID, int vehicleID, int customerID) {
+        if (leaseID >= vehicleIDs.length) {
+            int capacity = Math.max(leaseID + 1, vehicleIDs.length * 2);
+            vehicleIDs = Arrays.copyOf(vehicleIDs, capacity);
+            customerIDs = Arrays.copyOf(customerIDs, capacity);
+        }
+        vehicleIDs[leaseID] = vehicleID;
+        customerIDs[leaseID] = customerID;
+    }
+
+    int vehicleOf(int leaseID) {
+        return leaseID >= 0 && leaseID < vehicleIDs.length ? vehicleIDs[leaseID] : 0;
+    }
+
+    int customerOf(int leaseID) {
+        return leaseID >= 0 && leaseID < customerIDs.length ? customerIDs[leaseID] : 0;
+    }
+}
@@ -0,0 +1,191 @@
+package report;
+
+import java.time.LocalDate;
+
+/**
+ * The {@code MonthEndReport} class holds the results of one {@link ReportGenerator} run:
+ * revenue by car, the top customers by revenue and lease-length statistics for a period.
+ */
+public class MonthEndReport {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long leaseCount;
+    private final double averageLeaseDays;
+    private final long minLeaseDays;
+    private final long maxLeaseDays;
+    private final long paymentCount;
+    private final long unattributedPayments;
+    private final double totalRevenue;
+    private final double[] revenueByCar;
+    private final int[] topCustomerIDs;
+    private final double[] topCustomerRevenue;
+    private final long elapsedMillis;
+
+    MonthEndReport(LocalDate from, LocalDate to, LeaseAccumulator leases, RevenueAccumulator revenue,
+                   int topCustomers, long elapsedMillis) {
+        this.from = from;
+        this.to = to;
+        this.leaseCount = leases.count;
+        this.averageLeaseDays = leases.count == 0 ? 0 : (double) leases.totalDays / leases.count;
+        this.minLeaseDays = leases.count == 0 ? 0 : leases.minDays;
+        this.maxLeaseDays = leases.maxDays;
+        this.paymentCount = revenue.payments;
+        this.unattributedPayments = revenue.unattributed;
+        this.totalRevenue = revenue.total;
+        this.revenueByCar = revenue.byCar.toArray();
+        this.topCustomerIDs = revenue.byCustomer.top(topCustomers);
+        this.topCustomerRevenue = new double[topCustomerIDs.length];
+        for (int i = 0; i < topCustomerIDs.length; i++) {
+            topCustomerRevenue[i] = revenue.byCustomer.get(topCustomerIDs[i]);
+        }
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Retrieves the first day of the reported period.
+     *
+     * @return The first day, or null if the period is unbounded.
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Retrieves the last day of the reported period.
+     *
+     * @return The last day, or null if the period is unbounded.
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Retrieves the number of leases starting in the period.
+     *
+     * @return The lease count.
+     */
+    public long getLeaseCount() {
+        return leaseCount;
+    }
+
+    /**
+     * Retrieves the average length of the leases starting in the period.
+     *
+     * @return The average lease length in days.
+     */
+    public double getAverageLeaseDays() {
+        return averageLeaseDays;
+    }
+
+    /**
+     * Retrieves the shortest lease starting in the period.
+     *
+     * @return The minimum lease length in days.
+     */
+    public long getMinLeaseDays() {
+        return minLeaseDays;
+    }
+
+    /**
+     * Retrieves the longest lease starting in the period.
+     *
+     * @return The maximum lease length in days.
+     */
+    public long getMaxLeaseDays() {
+        return maxLeaseDays;
+    }
+
+    /**
+     * Retrieves the number of payments made in the period.
+     *
+     * @return The payment count.
+     */
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    /**
+     * Retrieves the number of payments whose lease no longer exists, which are counted in the
+     * total revenue but not attributed to a car or customer.
+     *
+     * @return The number of unattributed payments.
+     */
+    public long getUnattributedPayments() {
+        return unattributedPayments;
+    }
+
+    /**
+     * Retrieves the revenue received in the period.
+     *
+     * @return The total revenue.
+     */
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    /**
+     * Retrieves the revenue per car, indexed by vehicle ID.
+     *
+     * @return The revenue array; cars without revenue hold 0.
+     */
+    public double[] getRevenueByCar() {
+        return revenueByCar;
+    }
+
+    /**
+     * Retrieves the revenue received for one car.
+     *
+     * @param vehicleID The ID of the car.
+     * @return The car's revenue.
+     */
+    public double getRevenueForCar(int vehicleID) {
+        return vehicleID >= 0 && vehicleID < revenueByCar.length ? revenueByCar[vehicleID] : 0;
+    }
+
+    /**
+     * Retrieves the IDs of the customers with the highest revenue, highest first.
+     *
+     * @return The customer IDs.
+     */
+    public int[] getTopCustomerIDs() {
+        return topCustomerIDs;
+    }
+
+    /**
+     * Retrieves the revenue of each top customer, matching {@link #getTopCustomerIDs()}.
+     *
+     * @return The customer revenue.
+     */
+    public double[] getTopCustomerRevenue() {
+        return topCustomerRevenue;
+    }
+
+    /**
+     * Retrieves how long the report took to generate.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns a string representation of the MonthEndReport object.
+     *
+     * @return A string representation of the MonthEndReport object.
+     */
+    @Override
+    public String toString() {
+        return "MonthEndReport{" +
+                "from=" + from +
+                ", to=" + to +
+                ", leaseCount=" + leaseCount +
+                ", averageLeaseDays=" + String.format("%.2f", averageLeaseDays) +
+                ", paymentCount=" + paymentCount +
+                ", totalRevenue=" + String.format("%.2f", totalRevenue) +
+                ", topCustomers=" + topCustomerIDs.length +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,248 @@
+package report;
+
+import dao.ICarLeaseRepository;
+import entity.Lease;
+import entity.Payment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Generates {@link MonthEndReport}s by streaming the lease and payment tables once each, in pages
+ * ordered by primary key, and aggregating the pages on a fork/join pool.
+ * <p>
+ * The calling thread fetches pages; each page is handed to the pool, split into slices and folded into
+ * one accumulator per worker thread, so workers never contend on shared counters. Only a bounded number of
+ * pages is in flight at a time, which keeps memory flat on multi-million-row histories while the next page
+ * is fetched in parallel with aggregation. The per-worker accumulators are merged once at the end.
+ * <p>
+ * Leases are streamed first to build a lease-to-car/customer directory; payments are then attributed
+ * through it without a join.
+ */
+public class ReportGenerator {
+
+    /**
+     * The default number of rows fetched per page.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final int SLICE_SIZE = 2048;
+
+    private final ChunkSource<Lease> leases;
+    private final ChunkSource<Payment> payments;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new ReportGenerator with the specified sources.
+     *
+     * @param leases    The source of lease pages.
+     * @param payments  The source of payment pages.
+     * @param chunkSize The number of rows fetched per page.
+     * @param pool      The pool aggregating the pages.
+     */
+    public ReportGenerator(ChunkSource<Lease> leases, ChunkSource<Payment> payments, int chunkSize, ForkJoinPool pool) {
+        this.leases = leases;
+        this.payments = payments;
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a generator reading from a repository and aggregating on the common pool.
+     *
+     * @param repository The repository to read from.
+     * @return The generator.
+     */
+    public static ReportGenerator forRepository(ICarLeaseRepository repository) {
+        return new ReportGenerator(repository::listLeasesAfter, repository::listPaymentsAfter,
+                DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates the report for a period. Leases are counted if they start in the period and payments if
+     * they were made in it.
+     *
+     * @param from         The first day of the period, or null for no lower bound.
+     * @param to           The last day of the period, or null for no upper bound.
+     * @param topCustomers The number of top customers to include.
+     * @return The report.
+     * @throws Exception If a page cannot be fetched or aggregated.
+     */
+    public MonthEndReport generate(LocalDate from, LocalDate to, int topCustomers) throws Exception {
+        long start = System.nanoTime();
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+
+        LeaseDirectory directory = new LeaseDirectory();
+        WorkerLocal<LeaseAccumulator> leaseTotals = new WorkerLocal<>(LeaseAccumulator::new);
+        stream(leases, Lease::getLeaseID,
+                page -> {
+                    for (Lease lease : page) {
+                        directory.put(lease.getLeaseID(), lease.getVehicleID(), lease.getCustomerID());
+                    }
+                },
+                leaseTotals,
+                (totals, lease) -> {
+                    if (inRange(lease.getStartDate(), fromDay, toDay)) {
+                        totals.add(lease);
+                    }
+                });
+
+        WorkerLocal<RevenueAccumulator> revenueTotals = new WorkerLocal<>(RevenueAccumulator::new);
+        stream(payments, Payment::getPaymentID, page -> { },
+                revenueTotals,
+                (totals, payment) -> {
+                    if (inRange(payment.getPaymentDate(), fromDay, toDay)) {
+                        totals.add(payment, directory);
+                    }
+                });
+
+        LeaseAccumulator leaseTotal = new LeaseAccumulator();
+        for (LeaseAccumulator partial : leaseTotals.values()) {
+            leaseTotal.merge(partial);
+        }
+        RevenueAccumulator revenueTotal = new RevenueAccumulator();
+        for (RevenueAccumulator partial : revenueTotals.values()) {
+            revenueTotal.merge(partial);
+        }
+        return new MonthEndReport(from, to, leaseTotal, revenueTotal, topCustomers,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <T, A> void stream(ChunkSource<T> source, ToIntFunction<T> key, Consumer<List<T>> onFetch,
+                               WorkerLocal<A> accumulators, BiConsumer<A, T> fold) throws Exception {
+        Semaphore inFlight = new Semaphore(pool.getParallelism() * 2);
+        Phaser pending = new Phaser(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int afterID = 0;
+        while (failure.get() == null) {
+            List<T> page = source.fetch(afterID, chunkSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterID = key.applyAsInt(page.get(page.size() - 1));
+            onFetch.accept(page);
+            inFlight.acquire();
+            pending.register();
+            pool.execute(new PageTask<>(page, accumulators, fold, inFlight, pending, failure));
+            if (page.size() < chunkSize) {
+                break;
+            }
+        }
+        pending.arriveAndAwaitAdvance();
+        Throwable error = failure.get();
+        if (error instanceof Exception) {
+            throw (Exception) error;
+        } else if (error != null) {
+            throw new RuntimeException("Error aggregating report", error);
+        }
+    }
+
+    private static boolean inRange(LocalDate date, long fromDay, long toDay) {
+        long day = date.toEpochDay();
+        return day >= fromDay && day <= toDay;
+    }
+
+    /**
+     * Aggregates one page and signals its completion.
+     */
+    private static final class PageTask<T, A> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> page;
+        private final WorkerLocal<A> accumulators;
+        private final BiConsumer<A, T> fold;
+        private final Semaphore inFlight;
+        private final Phaser pending;
+        private final AtomicReference<Throwable> failure;
+
+        PageTask(List<T> page, WorkerLocal<A> accumulators, BiConsumer<A, T> fold, Semaphore inFlight,
+                 Phaser pending, AtomicReference<Throwable> failure) {
+            this.page = page;
+            this.accumulators = accumulators;
+            this.fold = fold;
+            this.inFlight = inFlight;
+            this.pending = pending;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                new SliceTask<>(page, 0, page.size(), accumulators, fold).invoke();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+                pending.arriveAndDeregister();
+            }
+        }
+    }
+
+    /**
+     * Splits a page until slices are small enough to fold sequentially.
+     */
+    private static final class SliceTask<T, A> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> rows;
+        private final int from;
+        private final int to;
+        private final WorkerLocal<A> accumulators;
+        private final BiConsumer<A, T> fold;
+
+        SliceTask(List<T> rows, int from, int to, WorkerLocal<A> accumulators, BiConsumer<A, T> fold) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.accumulators = accumulators;
+            this.fold = fold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_SIZE) {
+                A accumulator = accumulators.get();
+                for (int i = from; i < to; i++) {
+                    fold.accept(accumulator, rows.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SliceTask<>(rows, from, middle, accumulators, fold),
+                    new SliceTask<>(rows, middle, to, accumulators, fold));
+        }
+    }
+
+    /**
+     * One accumulator per thread; each is only ever touched by its own thread.
+     */
+    private static final class WorkerLocal<A> {
+        private final Map<Thread, A> byThread = new ConcurrentHashMap<>();
+        private final Supplier<A> factory;
+
+        WorkerLocal(Supplier<A> factory) {
+            this.factory = factory;
+        }
+
+        A get() {
+            return byThread.computeIfAbsent(Thread.currentThread(), t -> factory.get());
+        }
+
+        Iterable<A> values() {
+            return byThread.values();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package report;
+
+import entity.Payment;
+
+/**
+ * Mergeable revenue totals per car and per customer.
+ */
+final class RevenueAccumulator {
+
+    final IdTotals byCar = new IdTotals();
+    final IdTotals byCustomer = new IdTotals();
+    double total;
+    long payments;
+    long unattributed;
+
+    void add(Payment payment, LeaseDirectory leases) {
+        double amount = payment.getAmount();
+        total += amount;
+        payments++;
+        int vehicleID = leases.vehicleOf(payment.getLeaseID());
+        if (vehicleID == 0) {
+            unattributed++;
+            return;
+        }
+        byCar.add(vehicleID, amount);
+        byCustomer.add(leases.customerOf(payment.getLeaseID()), amount);
+    }
+
+    void merge(RevenueAccumulator other) {
+        byCar.merge(other.byCar);
+        byCustomer.merge(other.byCustomer);
+        total += other.total;
+        payments += other.payments;
+        unattributed += other.unattributed;
+    }
+}
@@ -0,0 +1,120 @@
+package reservation;
+
+import java.time.LocalDate;
+
+/**
+ * A short-lived claim on a car for a date range, taken before the lease is created.
+ * <p>
+ * Holds are immutable; confirming a hold replaces it with a pinned copy that no longer expires.
+ * The hold ID carries the car ID in its upper 32 bits, so a hold can be found from its ID alone.
+ */
+public final class Hold {
+
+    private final long holdID;
+    private final int customerID;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long startDay;
+    private final long endDay;
+    private final long expiresAt;
+    private final boolean confirmed;
+
+    Hold(long holdID, int customerID, LocalDate startDate, LocalDate endDate, long expiresAt, boolean confirmed) {
+        this.holdID = holdID;
+        this.customerID = customerID;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startDay = startDate.toEpochDay();
+        this.endDay = endDate.toEpochDay();
+        this.expiresAt = expiresAt;
+        this.confirmed = confirmed;
+    }
+
+    /**
+     * Retrieves the car ID encoded in a hold ID.
+     *
+     * @param holdID The hold ID.
+     * @return The car ID.
+     */
+    public static int carOf(long holdID) {
+        return (int) (holdID >>> 32);
+    }
+
+    /**
+     * Retrieves the hold ID.
+     *
+     * @return The hold ID.
+     */
+    public long getHoldID() {
+        return holdID;
+    }
+
+    /**
+     * Retrieves the ID of the held car.
+     *
+     * @return The car ID.
+     */
+    public int getCarID() {
+        return carOf(holdID);
+    }
+
+    /**
+     * Retrieves the ID of the customer holding the car.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the first day of the held range.
+     *
+     * @return The start date.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Retrieves the last day of the held range.
+     *
+     * @return The end date.
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Checks whether the hold is being turned into a lease.
+     *
+     * @return True once the hold has been confirmed.
+     */
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    boolean isLive(long now) {
+        return confirmed || now - expiresAt < 0;
+    }
+
+    boolean overlaps(long fromDay, long toDay) {
+        return startDay <= toDay && fromDay <= endDay;
+    }
+
+    Hold pinned() {
+        return new Hold(holdID, customerID, startDate, endDate, expiresAt, true);
+    }
+
+    @Override
+    public String toString() {
+        return "Hold{" +
+                "holdID=" + holdID +
+                ", carID=" + getCarID() +
+                ", customerID=" + customerID +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", confirmed=" + confirmed +
+                '}';
+    }
+}
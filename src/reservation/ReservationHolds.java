@@ -0,0 +1,262 @@
+package reservation;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory holds on cars for date ranges, taken while a customer completes a booking.
+ * <p>
+ * Each car has one {@link AtomicReference} to an immutable array of its holds. Reserving, confirming and
+ * releasing copy the array and swap it in with a compare-and-set, retrying if another thread got there
+ * first, so contenders for the same car never block each other and contenders for different cars never
+ * touch the same memory. Only the first hold on a car goes through the map's insert path. Expired holds
+ * are dropped whenever their car's array is rewritten, and by {@link #purgeExpired()}.
+ * <p>
+ * A hold is unconfirmed until {@link #confirm(long)} pins it; a pinned hold no longer expires and blocks the
+ * range until {@link #complete(Hold)} removes it once the lease is written.
+ */
+public class ReservationHolds {
+
+    private static final Hold[] NONE = new Hold[0];
+
+    private final ConcurrentHashMap<Integer, AtomicReference<Hold[]>> holdsByCar = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a new ReservationHolds using the system clock.
+     *
+     * @param ttlMillis How long an unconfirmed hold lasts.
+     */
+    public ReservationHolds(long ttlMillis) {
+        this(ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new ReservationHolds with the given clock.
+     *
+     * @param ttlMillis How long an unconfirmed hold lasts.
+     * @param clock     The time source, in nanoseconds.
+     */
+    public ReservationHolds(long ttlMillis, LongSupplier clock) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Holds a car for a date range, unless a live hold on the car overlaps the range.
+     *
+     * @param carID      The ID of the car.
+     * @param customerID The ID of the customer.
+     * @param startDate  The first day of the range.
+     * @param endDate    The last day of the range.
+     * @return The new hold, or null if the range is already held.
+     * @throws IllegalArgumentException If the range ends before it starts.
+     */
+    public Hold reserve(int carID, int customerID, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date " + endDate + " is before start date " + startDate);
+        }
+        long fromDay = startDate.toEpochDay();
+        long toDay = endDate.toEpochDay();
+        AtomicReference<Hold[]> ref = holdsFor(carID);
+        Hold hold = null;
+        while (true) {
+            Hold[] current = ref.get();
+            long now = clock.getAsLong();
+            int live = 0;
+            for (Hold existing : current) {
+                if (existing.isLive(now)) {
+                    if (existing.overlaps(fromDay, toDay)) {
+                        return null;
+                    }
+                    live++;
+                }
+            }
+            if (hold == null) {
+                long holdID = ((long) carID << 32) | (sequence.incrementAndGet() & 0xFFFFFFFFL);
+                hold = new Hold(holdID, customerID, startDate, endDate, now + ttlNanos, false);
+            }
+            Hold[] next = new Hold[live + 1];
+            copyLive(current, next, now);
+            next[live] = hold;
+            if (ref.compareAndSet(current, next)) {
+                return hold;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a live hold on a car overlaps a date range.
+     *
+     * @param carID     The ID of the car.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @return True if the range is held.
+     */
+    public boolean isHeld(int carID, LocalDate startDate, LocalDate endDate) {
+        AtomicReference<Hold[]> ref = holdsByCar.get(carID);
+        if (ref == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        for (Hold hold : ref.get()) {
+            if (hold.isLive(now) && hold.overlaps(startDate.toEpochDay(), endDate.toEpochDay())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pins an unexpired hold so it can be turned into a lease. Only one caller can confirm a hold.
+     *
+     * @param holdID The ID of the hold.
+     * @return The pinned hold, or null if the hold is unknown, expired or already confirmed.
+     */
+    public Hold confirm(long holdID) {
+        AtomicReference<Hold[]> ref = holdsByCar.get(Hold.carOf(holdID));
+        if (ref == null) {
+            return null;
+        }
+        while (true) {
+            Hold[] current = ref.get();
+            int index = indexOf(current, holdID);
+            if (index < 0 || current[index].isConfirmed() || !current[index].isLive(clock.getAsLong())) {
+                return null;
+            }
+            Hold[] next = current.clone();
+            next[index] = current[index].pinned();
+            if (ref.compareAndSet(current, next)) {
+                return next[index];
+            }
+        }
+    }
+
+    /**
+     * Removes a confirmed hold once its lease has been written, or its creation has failed.
+     *
+     * @param hold The pinned hold returned by {@link #confirm(long)}.
+     */
+    public void complete(Hold hold) {
+        remove(hold.getHoldID(), true);
+    }
+
+    /**
+     * Releases an unconfirmed hold, for example when the customer abandons the booking.
+     * Confirmed holds cannot be released this way.
+     *
+     * @param holdID The ID of the hold.
+     * @return True if the hold was released.
+     */
+    public boolean release(long holdID) {
+        return remove(holdID, false);
+    }
+
+    /**
+     * Drops expired holds from every car.
+     *
+     * @return The number of holds dropped.
+     */
+    public int purgeExpired() {
+        int purged = 0;
+        for (AtomicReference<Hold[]> ref : holdsByCar.values()) {
+            while (true) {
+                Hold[] current = ref.get();
+                long now = clock.getAsLong();
+                int live = countLive(current, now);
+                if (live == current.length) {
+                    break;
+                }
+                Hold[] next = live == 0 ? NONE : new Hold[live];
+                copyLive(current, next, now);
+                if (ref.compareAndSet(current, next)) {
+                    purged += current.length - live;
+                    break;
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Retrieves the number of live holds across all cars.
+     *
+     * @return The live hold count.
+     */
+    public int size() {
+        long now = clock.getAsLong();
+        int live = 0;
+        for (AtomicReference<Hold[]> ref : holdsByCar.values()) {
+            live += countLive(ref.get(), now);
+        }
+        return live;
+    }
+
+    /**
+     * Retrieves how long an unconfirmed hold lasts.
+     *
+     * @return The time to live in milliseconds.
+     */
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    private AtomicReference<Hold[]> holdsFor(int carID) {
+        AtomicReference<Hold[]> ref = holdsByCar.get(carID);
+        return ref != null ? ref : holdsByCar.computeIfAbsent(carID, id -> new AtomicReference<>(NONE));
+    }
+
+    private boolean remove(long holdID, boolean confirmed) {
+        AtomicReference<Hold[]> ref = holdsByCar.get(Hold.carOf(holdID));
+        if (ref == null) {
+            return false;
+        }
+        while (true) {
+            Hold[] current = ref.get();
+            int index = indexOf(current, holdID);
+            if (index < 0 || current[index].isConfirmed() != confirmed) {
+                return false;
+            }
+            Hold[] next = current.length == 1 ? NONE : new Hold[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            if (ref.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static int indexOf(Hold[] holds, long holdID) {
+        for (int i = 0; i < holds.length; i++) {
+            if (holds[i].getHoldID() == holdID) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int countLive(Hold[] holds, long now) {
+        int live = 0;
+        for (Hold hold : holds) {
+            if (hold.isLive(now)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private static void copyLive(Hold[] from, Hold[] to, long now) {
+        int j = 0;
+        for (Hold hold : from) {
+            if (hold.isLive(now) && j < to.length) {
+                to[j++] = hold;
+            }
+        }
+    }
+}
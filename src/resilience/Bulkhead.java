@@ -0,0 +1,90 @@
+package resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many calls of one kind run against the database at the same time.
+ * <p>
+ * Each kind of call (booking, payment, reporting) gets its own bulkhead, so a burst of slow report queries
+ * can use up only the reporting permits and never the threads serving bookings. A caller waits at most
+ * {@code maxWaitMillis} for a permit and is rejected after that.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a new Bulkhead.
+     *
+     * @param name          The name used in rejection messages.
+     * @param maxConcurrent The maximum number of concurrent calls.
+     * @param maxWaitMillis The maximum time a caller waits for a permit; 0 rejects immediately when full.
+     */
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMillis) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a permit, waiting up to the configured time. A successful call must be paired with
+     * {@link #release()}.
+     *
+     * @return True if a permit was taken, false if the bulkhead stayed full or the thread was interrupted.
+     */
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Returns a permit.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Retrieves the bulkhead name.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of calls currently holding a permit.
+     *
+     * @return The active call count.
+     */
+    public int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Retrieves the number of calls rejected so far.
+     *
+     * @return The rejected call count.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,178 @@
+package resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker over the outcomes of the last {@code windowSize} calls.
+ * <p>
+ * While CLOSED every call is let through. When {@code failureThreshold} of the recent calls have failed the
+ * breaker OPENs and rejects calls immediately for {@code openMillis}, so callers fail fast instead of piling
+ * up on a stalled database. It then goes HALF_OPEN and lets a limited number of probe calls through: one
+ * successful probe closes the breaker again, a failed probe reopens it for another full period.
+ * <p>
+ * Thread-safe; the bookkeeping is a few field updates under a lock, negligible next to a database round trip.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The breaker states.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    // Ring of recent outcomes (true = failure), guarded by this
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private long rejected;
+
+    /**
+     * Constructs a new CircuitBreaker using the system clock.
+     *
+     * @param failureThreshold The number of failures among the recent calls that opens the breaker.
+     * @param windowSize       The number of recent calls considered.
+     * @param openMillis       How long the breaker stays open before probing.
+     * @param halfOpenProbes   The number of concurrent probe calls allowed while half-open.
+     */
+    public CircuitBreaker(int failureThreshold, int windowSize, long openMillis, int halfOpenProbes) {
+        this(failureThreshold, windowSize, openMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new CircuitBreaker with the given clock.
+     *
+     * @param failureThreshold The number of failures among the recent calls that opens the breaker.
+     * @param windowSize       The number of recent calls considered.
+     * @param openMillis       How long the breaker stays open before probing.
+     * @param halfOpenProbes   The number of concurrent probe calls allowed while half-open.
+     * @param clock            The time source, in nanoseconds.
+     */
+    public CircuitBreaker(int failureThreshold, int windowSize, long openMillis, int halfOpenProbes,
+                          LongSupplier clock) {
+        if (failureThreshold <= 0 || windowSize < failureThreshold || halfOpenProbes <= 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.failureThreshold = failureThreshold;
+        this.outcomes = new boolean[windowSize];
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks permission for a call. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     *
+     * @return True if the call may proceed, false if it must be rejected.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+            probesInFlight++;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (failures >= failureThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Records a permitted call whose outcome says nothing about the database's health, such as a
+     * constraint violation.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Retrieves the current state; an OPEN breaker whose open period has elapsed reports HALF_OPEN.
+     *
+     * @return The state.
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Retrieves the number of calls rejected so far.
+     *
+     * @return The rejected call count.
+     */
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    private void record(boolean failure) {
+        if (outcomes[outcomeIndex]) {
+            failures--;
+        }
+        outcomes[outcomeIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        probesInFlight = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        Arrays.fill(outcomes, false);
+        failures = 0;
+        outcomeIndex = 0;
+        probesInFlight = 0;
+    }
+}
@@ -0,0 +1,242 @@
+package resilience;
+
+import exception.ServiceUnavailableException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Guards the repository's database calls with query timeouts, per-kind bulkheads and a shared circuit breaker.
+ * <p>
+ * Statements are prepared through {@link #prepare(Connection, String, CallKind)}, which sets the query
+ * timeout of the call's kind, and executed through {@link #execute(CallKind, SqlCall)}, which takes a
+ * bulkhead permit, asks the circuit breaker and records the outcome. Rejected calls fail immediately with a
+ * {@link ServiceUnavailableException}, so they take the repository's existing SQLException paths.
+ * <p>
+ * Only failures that point at an unhealthy database (timeouts, lost or refused connections) count against
+ * the breaker; constraint violations and other statement errors show that the database is answering.
+ * Such failures also run the outage listener, which lets the owner of the connection check it and reopen
+ * it, so the breaker's probe can succeed once the database is back.
+ */
+public class DatabaseGuard {
+
+    /**
+     * The kinds of database call, each with its own bulkhead and default query timeout.
+     */
+    public enum CallKind {
+        BOOKING(5, 32, 200),
+        PAYMENT(10, 16, 200),
+        REPORTING(60, 4, 0);
+
+        private final int timeoutSeconds;
+        private final int maxConcurrent;
+        private final long maxWaitMillis;
+
+        CallKind(int timeoutSeconds, int maxConcurrent, long maxWaitMillis) {
+            this.timeoutSeconds = timeoutSeconds;
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+    }
+
+    /**
+     * One JDBC call.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+
+        /**
+         * Runs the call.
+         *
+         * @return The result.
+         * @throws SQLException If the call fails.
+         */
+        T call() throws SQLException;
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private final Map<CallKind, Bulkhead> bulkheads = new EnumMap<>(CallKind.class);
+    private final Map<CallKind, Integer> timeouts = new EnumMap<>(CallKind.class);
+    private volatile Runnable outageListener = () -> { };
+
+    /**
+     * Constructs a new DatabaseGuard with the default bulkheads and timeouts and a circuit breaker that
+     * opens after 5 failures in the last 20 calls and probes again after 5 seconds.
+     */
+    public DatabaseGuard() {
+        this(new CircuitBreaker(5, 20, 5000, 1));
+    }
+
+    /**
+     * Constructs a new DatabaseGuard with the default bulkheads and timeouts.
+     *
+     * @param circuitBreaker The breaker shared by all calls.
+     */
+    public DatabaseGuard(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        for (CallKind kind : CallKind.values()) {
+            String name = kind.name().toLowerCase();
+            bulkheads.put(kind, new Bulkhead(name, kind.maxConcurrent, kind.maxWaitMillis));
+            timeouts.put(kind, kind.timeoutSeconds);
+        }
+    }
+
+    /**
+     * Replaces the bulkhead of a kind of call.
+     *
+     * @param kind     The kind of call.
+     * @param bulkhead The new bulkhead.
+     */
+    public void setBulkhead(CallKind kind, Bulkhead bulkhead) {
+        bulkheads.put(kind, bulkhead);
+    }
+
+    /**
+     * Sets the query timeout of a kind of call.
+     *
+     * @param kind           The kind of call.
+     * @param timeoutSeconds The timeout in seconds; 0 means no timeout.
+     */
+    public void setQueryTimeout(CallKind kind, int timeoutSeconds) {
+        timeouts.put(kind, timeoutSeconds);
+    }
+
+    /**
+     * Sets the listener run after every call that failed with an outage.
+     *
+     * @param outageListener The listener, run on the failing caller's thread.
+     */
+    public void setOutageListener(Runnable outageListener) {
+        this.outageListener = outageListener;
+    }
+
+    /**
+     * Retrieves the query timeout of a kind of call.
+     *
+     * @param kind The kind of call.
+     * @return The timeout in seconds.
+     */
+    public int getQueryTimeout(CallKind kind) {
+        return timeouts.get(kind);
+    }
+
+    /**
+     * Retrieves the bulkhead of a kind of call.
+     *
+     * @param kind The kind of call.
+     * @return The bulkhead.
+     */
+    public Bulkhead getBulkhead(CallKind kind) {
+        return bulkheads.get(kind);
+    }
+
+    /**
+     * Retrieves the circuit breaker shared by all calls.
+     *
+     * @return The circuit breaker.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Prepares a statement with the query timeout of its kind of call.
+     *
+     * @param connection The connection.
+     * @param sql        The SQL.
+     * @param kind       The kind of call the statement belongs to.
+     * @return The prepared statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(Connection connection, String sql, CallKind kind) throws SQLException {
+        return prepare(connection, sql, timeouts.get(kind));
+    }
+
+    /**
+     * Prepares a statement with an explicit query timeout, for calls that need more than their kind's default.
+     *
+     * @param connection     The connection.
+     * @param sql            The SQL.
+     * @param timeoutSeconds The query timeout in seconds.
+     * @return The prepared statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(Connection connection, String sql, int timeoutSeconds) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try {
+            statement.setQueryTimeout(timeoutSeconds);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    /**
+     * Runs a call inside its kind's bulkhead and the circuit breaker.
+     *
+     * @param kind The kind of call.
+     * @param call The call, typically a statement's execute method.
+     * @param <T>  The result type.
+     * @return The call's result.
+     * @throws ServiceUnavailableException If the bulkhead is full or the breaker is open.
+     * @throws SQLException                If the call fails.
+     */
+    public <T> T execute(CallKind kind, SqlCall<T> call) throws SQLException {
+        Bulkhead bulkhead = bulkheads.get(kind);
+        if (!bulkhead.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many concurrent " + bulkhead.getName() + " calls");
+        }
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new ServiceUnavailableException("Database circuit open");
+            }
+            T result;
+            try {
+                result = call.call();
+            } catch (SQLException e) {
+                if (isOutage(e)) {
+                    circuitBreaker.onFailure();
+                    outageListener.run();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                circuitBreaker.onIgnored();
+                throw e;
+            }
+            circuitBreaker.onSuccess();
+            return result;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Checks whether a failure indicates that the database is unreachable or not answering in time.
+     *
+     * @param e The failure.
+     * @return True for timeouts and connection failures.
+     */
+    public static boolean isOutage(SQLException e) {
+        if (e instanceof ServiceUnavailableException) {
+            return false;
+        }
+        String state = e.getSQLState();
+        return e instanceof SQLTimeoutException
+                || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException
+                || (state != null && state.startsWith("08"));
+    }
+}
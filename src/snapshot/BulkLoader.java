@@ -0,0 +1,29 @@
+package snapshot;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.util.List;
+
+/**
+ * Receives the rows of a snapshot block by block while it is read.
+ * {@link dao.ICarLeaseRepository#bulkLoad} has this shape, so a repository can be passed as
+ * {@code repository::bulkLoad}.
+ */
+@FunctionalInterface
+public interface BulkLoader {
+
+    /**
+     * Loads one batch of rows. Tables arrive in dependency order (cars and customers before the leases
+     * that reference them, leases before their payments); lists for the other tables are empty.
+     *
+     * @param cars      The cars to load.
+     * @param customers The customers to load.
+     * @param leases    The leases to load.
+     * @param payments  The payments to load.
+     * @throws Exception If the rows cannot be loaded.
+     */
+    void load(List<Car> cars, List<Customer> customers, List<Lease> leases, List<Payment> payments) throws Exception;
+}
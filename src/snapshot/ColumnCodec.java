@@ -0,0 +1,194 @@
+package snapshot;
+
+import util.Dates;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Layout constants and column encodings shared by {@link SnapshotWriter} and {@link SnapshotReader}.
+ * <p>
+ * A snapshot file is a header, a sequence of blocks and a trailer:
+ * <pre>
+ * header:  int MAGIC, int VERSION, long createdMillis
+ * block:   byte table, int rows, int payloadBytes, payload (one column after another)
+ * trailer: byte END, long cars, long customers, long leases, long payments
+ * </pre>
+ * Numeric columns are stored as packed big-endian arrays so they can be copied in bulk. String columns are
+ * dictionary-encoded when they repeat a lot (make, status, lease type) and otherwise stored as a length
+ * array followed by the concatenated UTF-8 bytes. Dates are stored as epoch days.
+ */
+final class ColumnCodec {
+
+    static final int MAGIC = 0x52445350; // "RDSP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int BLOCK_HEADER_BYTES = 9;
+
+    static final byte END = 0;
+    static final byte CARS = 1;
+    static final byte CUSTOMERS = 2;
+    static final byte LEASES = 3;
+    static final byte PAYMENTS = 4;
+
+    private static final byte DICTIONARY = 1;
+    private static final byte PLAIN = 2;
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private ColumnCodec() {
+    }
+
+    static int intBytes(int rows) {
+        return rows * Integer.BYTES;
+    }
+
+    static void putInts(ByteBuffer buffer, int[] values, int rows) {
+        buffer.asIntBuffer().put(values, 0, rows);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+    }
+
+    static int[] getInts(ByteBuffer buffer, int rows) {
+        int[] values = new int[rows];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+        return values;
+    }
+
+    static void putDoubles(ByteBuffer buffer, double[] values, int rows) {
+        buffer.asDoubleBuffer().put(values, 0, rows);
+        buffer.position(buffer.position() + rows * Double.BYTES);
+    }
+
+    static double[] getDoubles(ByteBuffer buffer, int rows) {
+        double[] values = new double[rows];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + rows * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Converts a date to the epoch day stored in a date column.
+     */
+    static int toEpochDay(LocalDate date) {
+        return date == null ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    /**
+     * Converts a stored epoch day back to a date.
+     */
+    static LocalDate fromEpochDay(int epochDay) {
+        return epochDay == NULL_DATE ? null : Dates.ofEpochDay(epochDay);
+    }
+
+    /**
+     * An encoded string column, built before the block buffer is sized.
+     */
+    static final class StringColumn {
+        private final boolean dictionary;
+        private final byte[][] entries;
+        private final int[] codes;
+        private final int rows;
+        private final int bytes;
+
+        /**
+         * Encodes the first {@code rows} values. A dictionary is used when at most a quarter of the
+         * values are distinct; otherwise each value is stored in full.
+         */
+        StringColumn(String[] values, int rows) {
+            this.rows = rows;
+            Map<String, Integer> distinct = new HashMap<>();
+            int[] dictionaryCodes = new int[rows];
+            for (int i = 0; i < rows && distinct.size() <= rows / 4; i++) {
+                dictionaryCodes[i] = values[i] == null ? NULL_LENGTH
+                        : distinct.computeIfAbsent(values[i], key -> distinct.size());
+            }
+            this.dictionary = distinct.size() <= rows / 4;
+            int size = 1;
+            if (dictionary) {
+                entries = new byte[distinct.size()][];
+                for (Map.Entry<String, Integer> entry : distinct.entrySet()) {
+                    entries[entry.getValue()] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                }
+                codes = dictionaryCodes;
+                size += Integer.BYTES + intBytes(rows);
+            } else {
+                entries = new byte[rows][];
+                codes = new int[rows];
+                for (int i = 0; i < rows; i++) {
+                    entries[i] = values[i] == null ? null : values[i].getBytes(StandardCharsets.UTF_8);
+                    codes[i] = entries[i] == null ? NULL_LENGTH : entries[i].length;
+                }
+                size += intBytes(rows) + Integer.BYTES;
+            }
+            for (byte[] entry : entries) {
+                size += entry == null ? 0 : entry.length + (dictionary ? Integer.BYTES : 0);
+            }
+            this.bytes = size;
+        }
+
+        int getBytes() {
+            return bytes;
+        }
+
+        void put(ByteBuffer buffer) {
+            if (dictionary) {
+                buffer.put(DICTIONARY);
+                buffer.putInt(entries.length);
+                for (byte[] entry : entries) {
+                    buffer.putInt(entry.length).put(entry);
+                }
+                putInts(buffer, codes, rows);
+                return;
+            }
+            buffer.put(PLAIN);
+            putInts(buffer, codes, rows);
+            buffer.putInt(bytes - 1 - intBytes(rows) - Integer.BYTES);
+            for (byte[] entry : entries) {
+                if (entry != null) {
+                    buffer.put(entry);
+                }
+            }
+        }
+    }
+
+    static String[] getStrings(ByteBuffer buffer, int rows) {
+        String[] values = new String[rows];
+        byte encoding = buffer.get();
+        if (encoding == DICTIONARY) {
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readUtf8(buffer, buffer.getInt());
+            }
+            int[] codes = getInts(buffer, rows);
+            for (int i = 0; i < rows; i++) {
+                values[i] = codes[i] == NULL_LENGTH ? null : dictionary[codes[i]];
+            }
+        } else if (encoding == PLAIN) {
+            int[] lengths = getInts(buffer, rows);
+            buffer.getInt();
+            for (int i = 0; i < rows; i++) {
+                values[i] = lengths[i] == NULL_LENGTH ? null : readUtf8(buffer, lengths[i]);
+            }
+        } else {
+            throw new IllegalStateException("Unknown string encoding " + encoding);
+        }
+        return values;
+    }
+
+    private static String readUtf8(ByteBuffer buffer, int length) {
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package snapshot;
+
+import dao.ICarLeaseRepository;
+import dao.ICarLeaseRepositoryImpl;
+import entity.Lease;
+import entity.Payment;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Moves a full copy of the dataset between databases through a snapshot file, as a faster alternative to
+ * a SQL dump and reload. {@link #export(ICarLeaseRepository, Path)} pages through the repository into a
+ * {@link SnapshotWriter}; {@link #load(Path, ICarLeaseRepository)} reads the file back with a
+ * {@link SnapshotReader} and bulk-loads it.
+ * <p>
+ * From the command line: {@code DatasetSnapshot export <file>} or {@code DatasetSnapshot import <file>},
+ * using the database configured in {@code database.properties}.
+ */
+public final class DatasetSnapshot {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private DatasetSnapshot() {
+    }
+
+    /**
+     * Writes every car, customer, lease and payment in the repository to a snapshot file.
+     *
+     * @param repository The repository to export.
+     * @param file       The snapshot file to create or replace.
+     * @return The number of rows written per table, the file size and the duration.
+     * @throws Exception If reading the repository or writing the file fails.
+     */
+    public static SnapshotSummary export(ICarLeaseRepository repository, Path file) throws Exception {
+        SnapshotWriter writer = SnapshotWriter.create(file);
+        try (writer) {
+            writer.writeCars(repository.listAvailableCars());
+            writer.writeCars(repository.listRentedCars());
+            writer.writeCustomers(repository.listCustomers());
+            List<Lease> leases = repository.listLeasesAfter(0, PAGE_SIZE);
+            while (!leases.isEmpty()) {
+                writer.writeLeases(leases);
+                leases = repository.listLeasesAfter(leases.get(leases.size() - 1).getLeaseID(), PAGE_SIZE);
+            }
+            List<Payment> payments = repository.listPaymentsAfter(0, PAGE_SIZE);
+            while (!payments.isEmpty()) {
+                writer.writePayments(payments);
+                payments = repository.listPaymentsAfter(payments.get(payments.size() - 1).getPaymentID(), PAGE_SIZE);
+            }
+        }
+        return writer.getSummary();
+    }
+
+    /**
+     * Bulk-loads a snapshot file into the repository, which should be empty.
+     *
+     * @param file       The snapshot file.
+     * @param repository The repository to load into.
+     * @return The number of rows loaded per table, the file size and the duration.
+     * @throws Exception If the file is invalid or loading fails.
+     */
+    public static SnapshotSummary load(Path file, ICarLeaseRepository repository) throws Exception {
+        return SnapshotReader.read(file, repository::bulkLoad);
+    }
+
+    /**
+     * Exports or imports the configured database.
+     *
+     * @param args {@code export <file>} or {@code import <file>}.
+     * @throws Exception If the transfer fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.err.println("Usage: DatasetSnapshot export|import <file>");
+            System.exit(2);
+        }
+        ICarLeaseRepository repository = new ICarLeaseRepositoryImpl();
+        Path file = Paths.get(args[1]);
+        SnapshotSummary summary = args[0].equals("export") ? export(repository, file) : load(file, repository);
+        System.out.println(summary);
+    }
+}
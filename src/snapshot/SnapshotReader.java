@@ -0,0 +1,169 @@
+package snapshot;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter}, handing each block to a {@link BulkLoader}.
+ * <p>
+ * Each block is memory-mapped and its columns are copied out in bulk, so reading runs at close to disk
+ * speed and only one block's rows are held in memory at a time. Files larger than 2 GB are fine because
+ * blocks are mapped one by one. The trailer's row counts are checked against the blocks read, so a
+ * truncated file is reported rather than half-loaded silently.
+ */
+public final class SnapshotReader {
+
+    private SnapshotReader() {
+    }
+
+    /**
+     * Reads a snapshot and passes its rows to the loader, block by block in file order.
+     *
+     * @param file   The snapshot file.
+     * @param loader The destination of the rows.
+     * @return The number of rows read per table.
+     * @throws IOException If the file cannot be read or is not a valid snapshot.
+     * @throws Exception   If the loader fails.
+     */
+    public static SnapshotSummary read(Path file, BulkLoader loader) throws Exception {
+        long started = System.nanoTime();
+        SnapshotSummary summary = new SnapshotSummary();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = readFully(channel, 0, ColumnCodec.HEADER_BYTES, file);
+            if (header.getInt() != ColumnCodec.MAGIC) {
+                throw new IOException("Not a dataset snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != ColumnCodec.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+
+            long position = ColumnCodec.HEADER_BYTES;
+            while (true) {
+                ByteBuffer blockHeader = readFully(channel, position, ColumnCodec.BLOCK_HEADER_BYTES, file);
+                byte table = blockHeader.get();
+                if (table == ColumnCodec.END) {
+                    checkTrailer(readFully(channel, position + 1, 4 * Long.BYTES, file), summary, file);
+                    break;
+                }
+                int rows = blockHeader.getInt();
+                int payloadBytes = blockHeader.getInt();
+                position += ColumnCodec.BLOCK_HEADER_BYTES;
+                if (rows < 0 || payloadBytes < 0 || position + payloadBytes > size) {
+                    throw new IOException("Corrupt block at offset " + position + " in " + file);
+                }
+                MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, position, payloadBytes);
+                position += payloadBytes;
+
+                switch (table) {
+                    case ColumnCodec.CARS:
+                        loader.load(readCars(payload, rows), List.of(), List.of(), List.of());
+                        summary.addCars(rows);
+                        break;
+                    case ColumnCodec.CUSTOMERS:
+                        loader.load(List.of(), readCustomers(payload, rows), List.of(), List.of());
+                        summary.addCustomers(rows);
+                        break;
+                    case ColumnCodec.LEASES:
+                        loader.load(List.of(), List.of(), readLeases(payload, rows), List.of());
+                        summary.addLeases(rows);
+                        break;
+                    case ColumnCodec.PAYMENTS:
+                        loader.load(List.of(), List.of(), List.of(), readPayments(payload, rows));
+                        summary.addPayments(rows);
+                        break;
+                    default:
+                        throw new IOException("Unknown table " + table + " at offset " + position + " in " + file);
+                }
+            }
+            summary.setBytes(size);
+        }
+        summary.setMillis((System.nanoTime() - started) / 1_000_000);
+        return summary;
+    }
+
+    private static List<Car> readCars(ByteBuffer buffer, int rows) {
+        int[] ids = ColumnCodec.getInts(buffer, rows);
+        String[] makes = ColumnCodec.getStrings(buffer, rows);
+        String[] models = ColumnCodec.getStrings(buffer, rows);
+        int[] years = ColumnCodec.getInts(buffer, rows);
+        double[] rates = ColumnCodec.getDoubles(buffer, rows);
+        String[] statuses = ColumnCodec.getStrings(buffer, rows);
+        int[] passengers = ColumnCodec.getInts(buffer, rows);
+        int[] engines = ColumnCodec.getInts(buffer, rows);
+        List<Car> cars = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            cars.add(new Car(ids[i], makes[i], models[i], years[i], rates[i], statuses[i], passengers[i], engines[i]));
+        }
+        return cars;
+    }
+
+    private static List<Customer> readCustomers(ByteBuffer buffer, int rows) {
+        int[] ids = ColumnCodec.getInts(buffer, rows);
+        String[] firstNames = ColumnCodec.getStrings(buffer, rows);
+        String[] lastNames = ColumnCodec.getStrings(buffer, rows);
+        String[] emails = ColumnCodec.getStrings(buffer, rows);
+        String[] phones = ColumnCodec.getStrings(buffer, rows);
+        List<Customer> customers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            customers.add(new Customer(ids[i], firstNames[i], lastNames[i], emails[i], phones[i]));
+        }
+        return customers;
+    }
+
+    private static List<Lease> readLeases(ByteBuffer buffer, int rows) {
+        int[] ids = ColumnCodec.getInts(buffer, rows);
+        int[] vehicleIDs = ColumnCodec.getInts(buffer, rows);
+        int[] customerIDs = ColumnCodec.getInts(buffer, rows);
+        int[] startDays = ColumnCodec.getInts(buffer, rows);
+        int[] endDays = ColumnCodec.getInts(buffer, rows);
+        String[] types = ColumnCodec.getStrings(buffer, rows);
+        List<Lease> leases = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            leases.add(new Lease(ids[i], vehicleIDs[i], customerIDs[i], ColumnCodec.fromEpochDay(startDays[i]),
+                    ColumnCodec.fromEpochDay(endDays[i]), types[i]));
+        }
+        return leases;
+    }
+
+    private static List<Payment> readPayments(ByteBuffer buffer, int rows) {
+        int[] ids = ColumnCodec.getInts(buffer, rows);
+        int[] leaseIDs = ColumnCodec.getInts(buffer, rows);
+        int[] days = ColumnCodec.getInts(buffer, rows);
+        double[] amounts = ColumnCodec.getDoubles(buffer, rows);
+        List<Payment> payments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            payments.add(new Payment(ids[i], leaseIDs[i], ColumnCodec.fromEpochDay(days[i]), amounts[i]));
+        }
+        return payments;
+    }
+
+    private static void checkTrailer(ByteBuffer trailer, SnapshotSummary summary, Path file) throws IOException {
+        if (trailer.getLong() != summary.getCars() || trailer.getLong() != summary.getCustomers()
+                || trailer.getLong() != summary.getLeases() || trailer.getLong() != summary.getPayments()) {
+            throw new IOException("Row counts in " + file + " do not match its trailer; the file is incomplete");
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of snapshot " + file + " at offset " + position);
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,98 @@
+package snapshot;
+
+/**
+ * The {@code SnapshotSummary} class reports what a snapshot export or import transferred.
+ */
+public class SnapshotSummary {
+
+    private long cars;
+    private long customers;
+    private long leases;
+    private long payments;
+    private long bytes;
+    private long millis;
+
+    /**
+     * Retrieves the number of cars transferred.
+     *
+     * @return The car count.
+     */
+    public long getCars() {
+        return cars;
+    }
+
+    /**
+     * Retrieves the number of customers transferred.
+     *
+     * @return The customer count.
+     */
+    public long getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Retrieves the number of leases transferred.
+     *
+     * @return The lease count.
+     */
+    public long getLeases() {
+        return leases;
+    }
+
+    /**
+     * Retrieves the number of payments transferred.
+     *
+     * @return The payment count.
+     */
+    public long getPayments() {
+        return payments;
+    }
+
+    /**
+     * Retrieves the size of the snapshot file.
+     *
+     * @return The size in bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Retrieves how long the transfer took.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    void addCars(int count) {
+        cars += count;
+    }
+
+    void addCustomers(int count) {
+        customers += count;
+    }
+
+    void addLeases(int count) {
+        leases += count;
+    }
+
+    void addPayments(int count) {
+        payments += count;
+    }
+
+    void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotSummary [cars=" + cars + ", customers=" + customers + ", leases=" + leases
+                + ", payments=" + payments + ", bytes=" + bytes + ", millis=" + millis + "]";
+    }
+}
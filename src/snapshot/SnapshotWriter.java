@@ -0,0 +1,285 @@
+package snapshot;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a binary columnar snapshot of the dataset (see {@link ColumnCodec} for the layout).
+ * <p>
+ * Rows are written in blocks of at most {@code blockRows} rows, each block holding one table's columns,
+ * so a dataset larger than memory can be exported page by page. The file is written to a temporary sibling
+ * and moved into place on {@link #close()}, so a reader never sees a half-written snapshot. Write cars and
+ * customers before leases, and leases before payments, so an import can load the blocks in file order.
+ */
+public final class SnapshotWriter implements Closeable {
+
+    /**
+     * The default number of rows per block.
+     */
+    public static final int DEFAULT_BLOCK_ROWS = 65_536;
+
+    private final Path file;
+    private final Path temp;
+    private final FileChannel channel;
+    private final int blockRows;
+    private final SnapshotSummary summary = new SnapshotSummary();
+    private final long started = System.nanoTime();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+    private int blockEnd;
+
+    private SnapshotWriter(Path file, int blockRows) throws IOException {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.blockRows = blockRows;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer.putInt(ColumnCodec.MAGIC).putInt(ColumnCodec.VERSION).putLong(System.currentTimeMillis());
+        drain();
+    }
+
+    /**
+     * Creates a snapshot file with the default block size.
+     *
+     * @param file The snapshot file to create or replace.
+     * @return The writer.
+     * @throws IOException If the file cannot be created.
+     */
+    public static SnapshotWriter create(Path file) throws IOException {
+        return create(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates a snapshot file.
+     *
+     * @param file      The snapshot file to create or replace.
+     * @param blockRows The maximum number of rows per block.
+     * @return The writer.
+     * @throws IOException If the file cannot be created.
+     */
+    public static SnapshotWriter create(Path file, int blockRows) throws IOException {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("blockRows must be positive: " + blockRows);
+        }
+        return new SnapshotWriter(file, blockRows);
+    }
+
+    /**
+     * Appends cars to the snapshot.
+     *
+     * @param cars The cars.
+     * @throws IOException If writing fails.
+     */
+    public void writeCars(List<Car> cars) throws IOException {
+        for (int from = 0; from < cars.size(); from += blockRows) {
+            List<Car> block = cars.subList(from, Math.min(cars.size(), from + blockRows));
+            int rows = block.size();
+            int[] ids = new int[rows];
+            String[] makes = new String[rows];
+            String[] models = new String[rows];
+            int[] years = new int[rows];
+            double[] rates = new double[rows];
+            String[] statuses = new String[rows];
+            int[] passengers = new int[rows];
+            int[] engines = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                Car car = block.get(i);
+                ids[i] = car.getVehicleID();
+                makes[i] = car.getMake();
+                models[i] = car.getModel();
+                years[i] = car.getYear();
+                rates[i] = car.getDailyRate();
+                statuses[i] = car.getStatus();
+                passengers[i] = car.getPassengerCapacity();
+                engines[i] = car.getEngineCapacity();
+            }
+            ColumnCodec.StringColumn makeColumn = new ColumnCodec.StringColumn(makes, rows);
+            ColumnCodec.StringColumn modelColumn = new ColumnCodec.StringColumn(models, rows);
+            ColumnCodec.StringColumn statusColumn = new ColumnCodec.StringColumn(statuses, rows);
+            beginBlock(ColumnCodec.CARS, rows, 4 * ColumnCodec.intBytes(rows) + rows * Double.BYTES
+                    + makeColumn.getBytes() + modelColumn.getBytes() + statusColumn.getBytes());
+            ColumnCodec.putInts(buffer, ids, rows);
+            makeColumn.put(buffer);
+            modelColumn.put(buffer);
+            ColumnCodec.putInts(buffer, years, rows);
+            ColumnCodec.putDoubles(buffer, rates, rows);
+            statusColumn.put(buffer);
+            ColumnCodec.putInts(buffer, passengers, rows);
+            ColumnCodec.putInts(buffer, engines, rows);
+            endBlock();
+            summary.addCars(rows);
+        }
+    }
+
+    /**
+     * Appends customers to the snapshot.
+     *
+     * @param customers The customers.
+     * @throws IOException If writing fails.
+     */
+    public void writeCustomers(List<Customer> customers) throws IOException {
+        for (int from = 0; from < customers.size(); from += blockRows) {
+            List<Customer> block = customers.subList(from, Math.min(customers.size(), from + blockRows));
+            int rows = block.size();
+            int[] ids = new int[rows];
+            String[] firstNames = new String[rows];
+            String[] lastNames = new String[rows];
+            String[] emails = new String[rows];
+            String[] phones = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                Customer customer = block.get(i);
+                ids[i] = customer.getCustomerID();
+                firstNames[i] = customer.getFirstName();
+                lastNames[i] = customer.getLastName();
+                emails[i] = customer.getEmail();
+                phones[i] = customer.getPhoneNumber();
+            }
+            ColumnCodec.StringColumn firstNameColumn = new ColumnCodec.StringColumn(firstNames, rows);
+            ColumnCodec.StringColumn lastNameColumn = new ColumnCodec.StringColumn(lastNames, rows);
+            ColumnCodec.StringColumn emailColumn = new ColumnCodec.StringColumn(emails, rows);
+            ColumnCodec.StringColumn phoneColumn = new ColumnCodec.StringColumn(phones, rows);
+            beginBlock(ColumnCodec.CUSTOMERS, rows, ColumnCodec.intBytes(rows) + firstNameColumn.getBytes()
+                    + lastNameColumn.getBytes() + emailColumn.getBytes() + phoneColumn.getBytes());
+            ColumnCodec.putInts(buffer, ids, rows);
+            firstNameColumn.put(buffer);
+            lastNameColumn.put(buffer);
+            emailColumn.put(buffer);
+            phoneColumn.put(buffer);
+            endBlock();
+            summary.addCustomers(rows);
+        }
+    }
+
+    /**
+     * Appends leases to the snapshot.
+     *
+     * @param leases The leases.
+     * @throws IOException If writing fails.
+     */
+    public void writeLeases(List<Lease> leases) throws IOException {
+        for (int from = 0; from < leases.size(); from += blockRows) {
+            List<Lease> block = leases.subList(from, Math.min(leases.size(), from + blockRows));
+            int rows = block.size();
+            int[] ids = new int[rows];
+            int[] vehicleIDs = new int[rows];
+            int[] customerIDs = new int[rows];
+            int[] startDays = new int[rows];
+            int[] endDays = new int[rows];
+            String[] types = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                Lease lease = block.get(i);
+                ids[i] = lease.getLeaseID();
+                vehicleIDs[i] = lease.getVehicleID();
+                customerIDs[i] = lease.getCustomerID();
+                startDays[i] = ColumnCodec.toEpochDay(lease.getStartDate());
+                endDays[i] = ColumnCodec.toEpochDay(lease.getEndDate());
+                types[i] = lease.getType();
+            }
+            ColumnCodec.StringColumn typeColumn = new ColumnCodec.StringColumn(types, rows);
+            beginBlock(ColumnCodec.LEASES, rows, 5 * ColumnCodec.intBytes(rows) + typeColumn.getBytes());
+            ColumnCodec.putInts(buffer, ids, rows);
+            ColumnCodec.putInts(buffer, vehicleIDs, rows);
+            ColumnCodec.putInts(buffer, customerIDs, rows);
+            ColumnCodec.putInts(buffer, startDays, rows);
+            ColumnCodec.putInts(buffer, endDays, rows);
+            typeColumn.put(buffer);
+            endBlock();
+            summary.addLeases(rows);
+        }
+    }
+
+    /**
+     * Appends payments to the snapshot.
+     *
+     * @param payments The payments.
+     * @throws IOException If writing fails.
+     */
+    public void writePayments(List<Payment> payments) throws IOException {
+        for (int from = 0; from < payments.size(); from += blockRows) {
+            List<Payment> block = payments.subList(from, Math.min(payments.size(), from + blockRows));
+            int rows = block.size();
+            int[] ids = new int[rows];
+            int[] leaseIDs = new int[rows];
+            int[] days = new int[rows];
+            double[] amounts = new double[rows];
+            for (int i = 0; i < rows; i++) {
+                Payment payment = block.get(i);
+                ids[i] = payment.getPaymentID();
+                leaseIDs[i] = payment.getLeaseID();
+                days[i] = ColumnCodec.toEpochDay(payment.getPaymentDate());
+                amounts[i] = payment.getAmount();
+            }
+            beginBlock(ColumnCodec.PAYMENTS, rows, 3 * ColumnCodec.intBytes(rows) + rows * Double.BYTES);
+            ColumnCodec.putInts(buffer, ids, rows);
+            ColumnCodec.putInts(buffer, leaseIDs, rows);
+            ColumnCodec.putInts(buffer, days, rows);
+            ColumnCodec.putDoubles(buffer, amounts, rows);
+            endBlock();
+            summary.addPayments(rows);
+        }
+    }
+
+    /**
+     * Retrieves the row counts written so far.
+     *
+     * @return The summary; its size and duration are set on {@link #close()}.
+     */
+    public SnapshotSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Writes the trailer, forces the file to disk and moves it into place.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            buffer.put(ColumnCodec.END).putLong(summary.getCars()).putLong(summary.getCustomers())
+                    .putLong(summary.getLeases()).putLong(summary.getPayments());
+            drain();
+            channel.force(true);
+            summary.setBytes(channel.size());
+        } finally {
+            channel.close();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        summary.setMillis((System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void beginBlock(byte table, int rows, int payloadBytes) {
+        int needed = ColumnCodec.BLOCK_HEADER_BYTES + payloadBytes;
+        if (needed > buffer.capacity()) {
+            buffer = ByteBuffer.allocateDirect(Math.max(needed, buffer.capacity() * 2));
+        }
+        buffer.put(table).putInt(rows).putInt(payloadBytes);
+        blockEnd = buffer.position() + payloadBytes;
+    }
+
+    private void endBlock() throws IOException {
+        if (buffer.position() != blockEnd) {
+            throw new IllegalStateException("Block size mismatch: expected " + blockEnd + ", wrote " + buffer.position());
+        }
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,149 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import log.AsyncLogWriter;
+import log.Level;
+import log.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the AsyncLogWriter and Logger classes.
+ */
+public class AsyncLogWriterTest {
+
+    private ByteArrayOutputStream out;
+    private AsyncLogWriter writer;
+    private Logger logger;
+
+    /**
+     * Set up a writer with a 50 ms rate-limit window allowing three records per key.
+     */
+    @Before
+    public void setUp() {
+        out = new ByteArrayOutputStream();
+        writer = new AsyncLogWriter(out, 64, 3, 50);
+        logger = new Logger("test.Repository", writer);
+    }
+
+    /**
+     * Stop the writer thread.
+     */
+    @After
+    public void tearDown() {
+        writer.close();
+    }
+
+    /**
+     * Test if a record is written as one JSON line with its operation, context and error.
+     */
+    @Test
+    public void testStructuredRecord() {
+        logger.at(Level.WARN).op("removeCustomer").with("customerID", 42).with("email", "a\"b")
+                .latency(1_500_000).error(new SQLException("locked")).log("Delete failed");
+        assertTrue(writer.flush(2000));
+
+        String line = text();
+        assertTrue(line, line.startsWith("{\"ts\":"));
+        assertTrue(line, line.contains("\"level\":\"WARN\",\"logger\":\"test.Repository\",\"thread\":\""));
+        assertTrue(line, line.contains(",\"op\":\"removeCustomer\",\"msg\":\"Delete failed\",\"customerID\":42,"
+                + "\"email\":\"a\\\"b\",\"latencyMicros\":1500,\"error\":\"java.sql.SQLException: locked\"}\n"));
+        assertFalse("warnings carry no stack trace", line.contains("\"stack\""));
+    }
+
+    /**
+     * Test if records below the writer's level are discarded.
+     */
+    @Test
+    public void testLevelFiltering() {
+        writer.setLevel(Level.WARN);
+        assertFalse(logger.isEnabled(Level.INFO));
+        logger.info("listCustomers", "Listed");
+        logger.error("listCustomers", "Query failed", new SQLException("gone"));
+        assertTrue(writer.flush(2000));
+
+        assertEquals(1, writer.getWrittenCount());
+        assertTrue(text().contains("\"stack\":\"java.sql.SQLException: gone"));
+    }
+
+    /**
+     * Test if repeated errors are suppressed past the burst limit and the count is reported in the next window.
+     */
+    @Test
+    public void testRepeatedErrorsRateLimited() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            logger.error("recordPayment", "Insert failed", new SQLException("deadlock"));
+        }
+        logger.error("createLease", "Insert failed", new SQLException("deadlock"));
+        assertTrue(writer.flush(2000));
+        assertEquals(4, writer.getWrittenCount());
+        assertEquals(47, writer.getSuppressedCount());
+
+        Thread.sleep(60);
+        logger.error("recordPayment", "Insert failed", new SQLException("deadlock"));
+        assertTrue(writer.flush(2000));
+        assertTrue(text().contains("\"suppressed\":47"));
+    }
+
+    /**
+     * Test if logging never blocks on a stalled stream: records beyond the ring capacity are dropped and
+     * the drop count is written once the stream recovers.
+     */
+    @Test
+    public void testFullRingDropsInsteadOfBlocking() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        OutputStream stalled = new OutputStream() {
+            @Override
+            public void write(int b) {
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                target.write(b, off, len);
+            }
+        };
+        AsyncLogWriter stalledWriter = new AsyncLogWriter(stalled, 4, 1000, 1000);
+        Logger stalledLogger = new Logger("test.Stalled", stalledWriter);
+        try {
+            stalledLogger.info("first", "Written before the stall");
+            writing.await();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                stalledLogger.at(Level.INFO).op("storm").with("i", i).log("Queued");
+            }
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+            assertEquals(96, stalledWriter.getDroppedCount());
+
+            release.countDown();
+            assertTrue(stalledWriter.flush(2000));
+            String text = new String(target.toByteArray(), StandardCharsets.UTF_8);
+            assertTrue(text.contains("\"msg\":\"Log records dropped\",\"dropped\":96"));
+            assertTrue(text.contains("\"i\":3}"));
+        } finally {
+            release.countDown();
+            stalledWriter.close();
+        }
+    }
+
+    private String text() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
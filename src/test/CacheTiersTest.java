@@ -0,0 +1,110 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import cache.EntityCache;
+import cache.InvalidationChannel;
+import cache.RequestMemo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the request memo, the shared entity cache and the invalidation channel.
+ */
+public class CacheTiersTest {
+
+    private AtomicInteger loads;
+
+    /**
+     * Set up a load counter.
+     */
+    @Before
+    public void setUp() {
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Test if a lookup is loaded once per scope, nested scopes share the memo, and forgetting or leaving the
+     * scope makes the next lookup load again.
+     */
+    @Test
+    public void testMemoScope() {
+        assertEquals("car-7", RequestMemo.get("car", 7, this::load));
+        assertEquals("car-7", RequestMemo.get("car", 7, this::load));
+        assertEquals(2, loads.get());
+
+        RequestMemo.Scope outer = RequestMemo.open();
+        RequestMemo.get("car", 7, this::load);
+        RequestMemo.Scope inner = RequestMemo.open();
+        RequestMemo.get("car", 7, this::load);
+        inner.close();
+        assertTrue(RequestMemo.isActive());
+        RequestMemo.get("car", 7, this::load);
+        assertEquals(3, loads.get());
+
+        RequestMemo.forget("car", 7);
+        RequestMemo.get("car", 7, this::load);
+        assertEquals(4, loads.get());
+        outer.close();
+        assertFalse(RequestMemo.isActive());
+        RequestMemo.get("car", 7, this::load);
+        assertEquals(5, loads.get());
+    }
+
+    /**
+     * Test if a row read before an invalidation is not put back into the cache afterwards.
+     */
+    @Test
+    public void testPutIfCurrentAfterInvalidation() {
+        EntityCache<Integer, String> cache = new EntityCache<>("car");
+        long generation = cache.getGeneration();
+        cache.invalidate(7);
+        assertFalse(cache.putIfCurrent(7, "stale", generation));
+        assertNull(cache.get(7));
+
+        assertTrue(cache.putIfCurrent(7, "fresh", cache.getGeneration()));
+        assertEquals("fresh", cache.get(7));
+    }
+
+    /**
+     * Test if one node's invalidations evict the entry from another node's cache but not its own.
+     */
+    @Test
+    public void testInvalidationReachesOtherNode() throws Exception {
+        Path file = Files.createTempFile("invalidations", ".log");
+        EntityCache<Integer, String> cacheA = new EntityCache<>("car");
+        EntityCache<Integer, String> cacheB = new EntityCache<>("car");
+        try (InvalidationChannel nodeA = new InvalidationChannel(file, 60_000);
+             InvalidationChannel nodeB = new InvalidationChannel(file, 60_000)) {
+            nodeA.register(cacheA);
+            nodeB.register(cacheB);
+            cacheA.put(7, "car-7");
+            cacheB.put(7, "car-7");
+            cacheB.put(8, "car-8");
+
+            nodeA.publish("car", 7);
+            nodeA.publish("customer", 7);
+            assertEquals(1, nodeB.poll());
+            assertEquals(0, nodeA.poll());
+            assertNull(cacheB.get(7));
+            assertEquals("car-8", cacheB.get(8));
+            assertEquals("car-7", cacheA.get(7));
+
+            nodeA.publishAll("car");
+            nodeB.poll();
+            assertEquals(0, cacheB.size());
+            assertEquals(2, nodeB.getReceived());
+            assertEquals(3, nodeA.getSent());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "car-7";
+    }
+}
@@ -0,0 +1,72 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import dao.CarQuery;
+import entity.Car;
+import index.CarFilterIndex;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the CarFilterIndex class.
+ * It covers combined attribute filters, OR-ed queries, ordering by daily rate and removal.
+ */
+public class CarFilterIndexTest {
+    private CarFilterIndex index;
+
+    /**
+     * Setup method executed before each test.
+     * Indexes a small mixed fleet.
+     */
+    @Before
+    public void setUp() {
+        index = new CarFilterIndex();
+        index.add(new Car(1, "Honda", "City", 2022, 1800.0, "available", 5, 1500));
+        index.add(new Car(2, "Toyota", "Innova", 2021, 3200.0, "available", 7, 2400));
+        index.add(new Car(3, "Maruti", "Swift", 2019, 1200.0, "notAvailable", 5, 1200));
+        index.add(new Car(4, "Toyota", "Fortuner", 2023, 5000.0, "available", 7, 2800));
+        index.add(new Car(5, "Honda", "Amaze", 2018, 1500.0, "available", 5, 1200));
+    }
+
+    /**
+     * Test if attribute filters are ANDed and results come back cheapest first.
+     */
+    @Test
+    public void testCombinedFilters() {
+        List<Car> cars = index.find(new CarQuery()
+                .statuses("available")
+                .passengerCapacityBetween(5, 5)
+                .yearBetween(2018, null));
+        assertEquals(2, cars.size());
+        assertEquals(5, cars.get(0).getVehicleID());
+        assertEquals(1, cars.get(1).getVehicleID());
+    }
+
+    /**
+     * Test if OR-ed queries are unioned and the limit and descending order are applied.
+     */
+    @Test
+    public void testOrQueryWithLimit() {
+        List<Car> cars = index.find(new CarQuery()
+                .makes("maruti")
+                .or(new CarQuery().engineCapacityBetween(2500, null))
+                .sortByDailyRateDescending()
+                .limit(1));
+        assertEquals(1, cars.size());
+        assertEquals(4, cars.get(0).getVehicleID());
+    }
+
+    /**
+     * Test if removed cars no longer match and their slots are reused.
+     */
+    @Test
+    public void testRemove() {
+        index.remove(2);
+        assertTrue(index.find(new CarQuery().dailyRateBetween(3000.0, 4000.0)).isEmpty());
+        index.add(new Car(6, "Kia", "Carens", 2024, 3100.0, "available", 7, 1500));
+        assertEquals(6, index.find(new CarQuery().dailyRateBetween(3000.0, 4000.0)).get(0).getVehicleID());
+        assertEquals(5, index.size());
+    }
+}
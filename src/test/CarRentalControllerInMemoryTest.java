@@ -0,0 +1,158 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import controller.CarRentalController;
+import dao.KeyedTotals;
+import entity.Car;
+import entity.CarSummary;
+import entity.LedgerEntry;
+import entity.Payment;
+import entity.Lease;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import loadtest.DeskDayLoadTest;
+import loadtest.InMemoryRepository;
+import org.junit.Before;
+import org.junit.Test;
+import reservation.Hold;
+
+/**
+ * This class contains JUnit tests for the CarRentalController class that run against the in-memory
+ * repository, so they need no database.
+ */
+public class CarRentalControllerInMemoryTest {
+    private InMemoryRepository repository;
+    private CarRentalController carRentalController;
+
+    /**
+     * Set up a controller over an in-memory repository with 20 cars, 40 customers and their leases and payments.
+     */
+    @Before
+    public void setUp() {
+        repository = new InMemoryRepository();
+        DeskDayLoadTest.seed(repository, 20, 40, new Random(7));
+        carRentalController = new CarRentalController(repository);
+    }
+
+    /**
+     * Test if the repository's revenue aggregates agree with the client-side total
+     * and with each customer's payment history.
+     */
+    @Test
+    public void testRevenueAggregates() {
+        double totalRevenue = carRentalController.calculateTotalRevenue();
+        KeyedTotals byCustomer = carRentalController.calculateRevenueByCustomer();
+
+        assertEquals(totalRevenue, byCustomer.sum(), 0.01);
+        assertEquals(totalRevenue, carRentalController.calculateRevenueByMonth().sum(), 0.01);
+        for (int i = 0; i < byCustomer.size(); i++) {
+            double paid = 0;
+            for (Payment payment : carRentalController.retrievePaymentHistory(byCustomer.getKey(i))) {
+                paid += payment.getAmount();
+            }
+            assertEquals(paid, byCustomer.getTotal(i), 0.01);
+        }
+    }
+
+    /**
+     * Test if each customer's materialized balance matches their ledger: the entries add up to it
+     * and the last entry carries it as its running balance.
+     */
+    @Test
+    public void testLedgerBalance() {
+        KeyedTotals byCustomer = carRentalController.calculateRevenueByCustomer();
+
+        for (int i = 0; i < byCustomer.size(); i++) {
+            int customerID = byCustomer.getKey(i);
+            List<LedgerEntry> ledger = carRentalController.retrieveLedger(customerID);
+            double balance = carRentalController.retrieveBalance(customerID);
+            double posted = 0;
+            for (LedgerEntry entry : ledger) {
+                posted += entry.getAmount();
+                assertEquals(posted, entry.getBalance(), 0.01);
+            }
+            assertEquals(posted, balance, 0.01);
+        }
+    }
+
+    /**
+     * Test if the list-screen projections return the same rows and field values as the full lists.
+     */
+    @Test
+    public void testSummariesMatchFullLists() {
+        List<Car> cars = carRentalController.listAvailableCars();
+        List<CarSummary> summaries = carRentalController.listAvailableCarSummaries();
+
+        assertEquals(cars.size(), summaries.size());
+        Map<Integer, Car> byID = new HashMap<>();
+        for (Car car : cars) {
+            byID.put(car.getVehicleID(), car);
+        }
+        for (CarSummary summary : summaries) {
+            Car car = byID.get(summary.getVehicleID());
+            assertNotNull(car);
+            assertEquals(car.getModel(), summary.getModel());
+            assertEquals(car.getDailyRate(), summary.getDailyRate(), 0.001);
+        }
+        assertEquals(carRentalController.listCustomers().size(), carRentalController.listCustomerSummaries().size());
+        assertEquals(carRentalController.listLeaseHistory().size(), carRentalController.listLeaseSummaries().size());
+    }
+
+    /**
+     * Test if a second lease for a car and an overlapping period is rejected.
+     */
+    @Test
+    public void testRejectsDoubleBooking() {
+        LocalDate start = LocalDate.now().plusDays(60);
+        assertNotNull(carRentalController.createLease(2, 5, start, start.plusDays(4)));
+
+        assertNull(carRentalController.createLease(4, 5, start.plusDays(4), start.plusDays(6)));
+        assertNotNull(carRentalController.createLease(4, 5, start.plusDays(5), start.plusDays(6)));
+        assertEquals(2, repository.listLeases(5, start, start.plusDays(6)).size());
+    }
+
+    /**
+     * Test if a direct booking racing a reservation of the same car and period yields exactly one lease.
+     */
+    @Test
+    public void testConcurrentBookingAndReservation() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            int carID = 1 + round % 20;
+            LocalDate start = LocalDate.now().plusDays(100 + 10 * round);
+            LocalDate end = start.plusDays(3);
+            CountDownLatch go = new CountDownLatch(1);
+            Thread direct = new Thread(() -> {
+                awaitQuietly(go);
+                carRentalController.createLease(2, carID, start, end);
+            });
+            Thread reserved = new Thread(() -> {
+                awaitQuietly(go);
+                Hold hold = carRentalController.reserveCar(4, carID, start, end);
+                if (hold != null) {
+                    carRentalController.confirmReservation(hold.getHoldID());
+                }
+            });
+            direct.start();
+            reserved.start();
+            go.countDown();
+            direct.join();
+            reserved.join();
+
+            List<Lease> leases = repository.listLeases(carID, start, end);
+            assertEquals(1, leases.size());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
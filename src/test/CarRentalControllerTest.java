@@ -8,9 +8,6 @@ import entity.Lease;
 import exception.CarNotFoundException;
 import exception.CustomerNotFoundException;
 import exception.LeaseNotFoundException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
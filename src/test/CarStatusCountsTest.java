@@ -0,0 +1,101 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import index.CarStatusCounts;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the CarStatusCounts class.
+ */
+public class CarStatusCountsTest {
+
+    private CarStatusCounts counts;
+
+    /**
+     * Set up counts loaded from an empty fleet.
+     */
+    @Before
+    public void setUp() throws Exception {
+        counts = new CarStatusCounts();
+        counts.reconcile(HashMap::new);
+    }
+
+    /**
+     * Test if adding, updating and removing cars moves them between the status and make counts.
+     */
+    @Test
+    public void testTransitions() {
+        Car city = car(1, "Honda", "available");
+        Car swift = car(2, "Maruti", "available");
+        counts.added(city);
+        counts.added(swift);
+        assertEquals(2, counts.count("available"));
+
+        Car rented = new Car(city);
+        rented.setStatus("notAvailable");
+        counts.changed(city, rented);
+        assertEquals(1, counts.count("available"));
+        assertEquals(Long.valueOf(1), counts.countByMake("notAvailable").get("Honda"));
+        assertNull(counts.countByMake("available").get("Honda"));
+
+        counts.removed(swift);
+        assertEquals(Map.of("notAvailable", 1L), counts.countByStatus());
+    }
+
+    /**
+     * Test if reconciling replaces drifted counts with the actual ones and reports the drift.
+     */
+    @Test
+    public void testReconcileCorrectsDrift() throws Exception {
+        counts.added(car(1, "Honda", "available"));
+        counts.added(car(2, "Honda", "available"));
+
+        Map<String, Map<String, Long>> actual = new HashMap<>();
+        actual.put("available", new HashMap<>(Map.of("Honda", 1L)));
+        actual.put("maintenance", new HashMap<>(Map.of("Kia", 3L)));
+        assertEquals(4, counts.reconcile(() -> actual));
+        assertEquals(1, counts.count("available"));
+        assertEquals(3, counts.count("maintenance"));
+        assertEquals(0, counts.reconcile(() -> actual));
+    }
+
+    /**
+     * Test if concurrent changes from many threads are all counted.
+     */
+    @Test
+    public void testConcurrentChanges() throws InterruptedException {
+        int threads = 16;
+        int perThread = 10_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                Car available = car(1, "Honda", "available");
+                Car rented = car(1, "Honda", "notAvailable");
+                for (int i = 0; i < perThread; i++) {
+                    counts.beginChange();
+                    try {
+                        counts.added(available);
+                        counts.changed(available, rented);
+                    } finally {
+                        counts.endChange();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, counts.count("available"));
+        assertEquals((long) threads * perThread, counts.count("notAvailable"));
+    }
+
+    private static Car car(int id, String make, String status) {
+        return new Car(id, make, "Model", 2022, 1500.0, status, 5, 1200);
+    }
+}
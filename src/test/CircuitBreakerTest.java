@@ -0,0 +1,182 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import exception.ServiceUnavailableException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import resilience.Bulkhead;
+import resilience.CircuitBreaker;
+import resilience.DatabaseGuard;
+import resilience.DatabaseGuard.CallKind;
+
+/**
+ * This class contains JUnit tests for the CircuitBreaker, Bulkhead and DatabaseGuard classes.
+ */
+public class CircuitBreakerTest {
+
+    private long now;
+    private CircuitBreaker breaker;
+    private DatabaseGuard guard;
+
+    /**
+     * Set up a breaker opening after 3 failures in the last 5 calls, for 1 second, on a manual clock.
+     */
+    @Before
+    public void setUp() {
+        now = 0;
+        breaker = new CircuitBreaker(3, 5, 1000, 1, () -> now);
+        guard = new DatabaseGuard(breaker);
+    }
+
+    /**
+     * Test if the breaker opens after enough failures and then rejects calls without running them.
+     */
+    @Test
+    public void testOpensAfterFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertFailure(SQLTimeoutException.class, () -> {
+                throw new SQLTimeoutException("Statement cancelled due to timeout");
+            });
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        int[] calls = {0};
+        SQLException e = assertFailure(ServiceUnavailableException.class, () -> ++calls[0]);
+        assertEquals("Database circuit open", e.getMessage());
+        assertEquals(0, calls[0]);
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    /**
+     * Test if statement errors that do not indicate an outage leave the breaker closed.
+     */
+    @Test
+    public void testConstraintViolationsIgnored() {
+        for (int i = 0; i < 10; i++) {
+            assertFailure(SQLIntegrityConstraintViolationException.class, () -> {
+                throw new SQLIntegrityConstraintViolationException("duplicate");
+            });
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * Test if the breaker lets one probe through after the open period, closes on its success and
+     * reopens on its failure.
+     */
+    @Test
+    public void testHalfOpenProbe() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse("only one probe at a time", breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(Integer.valueOf(7), guard.execute(CallKind.PAYMENT, () -> 7));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * Test if outages run the outage listener, and the breaker closes again once the probe after the open
+     * period reopens the connection the listener dropped.
+     */
+    @Test
+    public void testClosesAfterReconnect() throws SQLException {
+        // The server went away, so the socket of the open connection is dead
+        boolean[] serverUp = {false};
+        boolean[] connectionOpen = {true};
+        guard.setOutageListener(() -> connectionOpen[0] = false);
+        DatabaseGuard.SqlCall<String> staleQuery = () -> {
+            throw new SQLNonTransientConnectionException("Communications link failure", "08S01");
+        };
+        DatabaseGuard.SqlCall<String> reconnect = () -> {
+            if (!serverUp[0]) {
+                throw new SQLNonTransientConnectionException("Connection refused", "08001");
+            }
+            connectionOpen[0] = true;
+            return "connected";
+        };
+
+        for (int i = 0; i < 3; i++) {
+            assertFailure(SQLNonTransientConnectionException.class, staleQuery);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(connectionOpen[0]);
+
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertFailure(SQLNonTransientConnectionException.class, reconnect);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        serverUp[0] = true;
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals("connected", guard.execute(CallKind.BOOKING, reconnect));
+        assertTrue(connectionOpen[0]);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * Test if a full reporting bulkhead rejects reporting calls while booking calls still run.
+     */
+    @Test
+    public void testBulkheadIsolation() throws Exception {
+        guard.setBulkhead(CallKind.REPORTING, new Bulkhead("reporting", 1, 0));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread report = new Thread(() -> {
+            try {
+                guard.execute(CallKind.REPORTING, () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        report.start();
+        try {
+            running.await();
+            try {
+                guard.execute(CallKind.REPORTING, () -> 1);
+                fail("Expected ServiceUnavailableException");
+            } catch (ServiceUnavailableException e) {
+                assertEquals("Too many concurrent reporting calls", e.getMessage());
+            }
+            assertEquals(Integer.valueOf(2), guard.execute(CallKind.BOOKING, () -> 2));
+            assertEquals(1, guard.getBulkhead(CallKind.REPORTING).getRejectedCount());
+        } finally {
+            release.countDown();
+            report.join();
+        }
+        assertEquals(0, guard.getBulkhead(CallKind.REPORTING).getActiveCount());
+    }
+
+    private SQLException assertFailure(Class<? extends SQLException> expected, DatabaseGuard.SqlCall<?> call) {
+        try {
+            guard.execute(CallKind.BOOKING, call);
+        } catch (SQLException e) {
+            assertEquals(expected, e.getClass());
+            return e;
+        }
+        fail("Expected " + expected.getSimpleName());
+        return null;
+    }
+}
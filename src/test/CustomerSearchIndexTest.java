@@ -0,0 +1,90 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Customer;
+import index.CustomerSearchIndex;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the CustomerSearchIndex class.
+ * It covers prefix search on names, email and phone number, multi-word queries and removal.
+ */
+public class CustomerSearchIndexTest {
+    private CustomerSearchIndex index;
+
+    /**
+     * Setup method executed before each test.
+     * Indexes enough customers sharing a surname to force trie nodes to burst.
+     */
+    @Before
+    public void setUp() {
+        index = new CustomerSearchIndex();
+        for (int i = 1; i <= 500; i++) {
+            index.add(new Customer(i, "First" + i, "Sharma", "user" + i + "@mail.com", "98765" + String.format("%05d", i)));
+        }
+        index.add(new Customer(1000, "Harsh", "Gupta", "harsh@example.com", "+91 99999-12345"));
+    }
+
+    /**
+     * Test if customers are found by surname prefix, email prefix and phone prefix or suffix.
+     */
+    @Test
+    public void testPrefixSearch() {
+        assertEquals(1000, index.search("gup", 10).get(0).getCustomerID());
+        assertEquals(1000, index.search("harsh@ex", 10).get(0).getCustomerID());
+        assertEquals(1000, index.search("919999", 10).get(0).getCustomerID());
+        assertEquals(1000, index.search("12345", 10).get(0).getCustomerID());
+        assertEquals(10, index.search("sharma", 10).size());
+    }
+
+    /**
+     * Test if exact term matches rank before longer prefix matches.
+     */
+    @Test
+    public void testExactMatchFirst() {
+        List<Customer> results = index.search("first1", 5);
+        assertEquals(5, results.size());
+        assertEquals(1, results.get(0).getCustomerID());
+    }
+
+    /**
+     * Test if every word of a multi-word query has to match.
+     */
+    @Test
+    public void testMultiWordQuery() {
+        // first42 itself, then first420 to first429
+        List<Customer> results = index.search("sharma first42", 20);
+        assertEquals(11, results.size());
+        assertEquals(42, results.get(0).getCustomerID());
+        assertTrue(index.search("gupta first42", 20).isEmpty());
+    }
+
+    /**
+     * Test if a common first name does not crowd out the one customer who also has a rare surname.
+     */
+    @Test
+    public void testCommonFirstNameWithRareSurname() {
+        for (int i = 2000; i < 2400; i++) {
+            index.add(new Customer(i, "Amit", "Kumar", "amit" + i + "@mail.com", "91234" + i));
+        }
+        index.add(new Customer(3000, "Amit", "Zaveri", "az@mail.com", "9000030000"));
+
+        List<Customer> results = index.search("amit zaveri", 2);
+        assertEquals(1, results.size());
+        assertEquals(3000, results.get(0).getCustomerID());
+        assertEquals(5, index.search("amit kumar", 5).size());
+    }
+
+    /**
+     * Test if removed customers are no longer returned.
+     */
+    @Test
+    public void testRemove() {
+        index.remove(1000);
+        assertTrue(index.search("gupta", 10).isEmpty());
+        assertEquals(500, index.size());
+    }
+}
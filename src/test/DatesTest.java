@@ -0,0 +1,47 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+import util.Dates;
+
+/**
+ * This class contains JUnit tests for the Dates class.
+ */
+public class DatesTest {
+
+    /**
+     * Test if parsing agrees with LocalDate.parse across leap years and both sides of the cached range.
+     */
+    @Test
+    public void testParseMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1995, 1, 1); date.isBefore(LocalDate.of(2105, 1, 1)); date = date.plusDays(1)) {
+            assertEquals(date, Dates.parse(date.toString()));
+        }
+    }
+
+    /**
+     * Test if dates in the cached range are shared instances.
+     */
+    @Test
+    public void testCachedInstances() {
+        assertSame(Dates.parse("2024-02-29"), Dates.ofEpochDay(LocalDate.of(2024, 2, 29).toEpochDay()));
+    }
+
+    /**
+     * Test if malformed and impossible dates are rejected.
+     */
+    @Test
+    public void testInvalidDates() {
+        for (String text : new String[] {"2024-2-29", "2023-02-29", "2024-13-01", "2024-04-31", "20x4-01-01", ""}) {
+            try {
+                Dates.parse(text);
+                fail("Expected DateTimeParseException for " + text);
+            } catch (DateTimeParseException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+import export.ByteSink;
+import export.EntityCsvWriter;
+import export.EntityJsonWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the EntityJsonWriter and EntityCsvWriter classes.
+ */
+public class EntitySerializerTest {
+
+    private ByteArrayOutputStream out;
+    private ByteSink sink;
+
+    /**
+     * Sets up a fresh sink over an in-memory stream before each test.
+     */
+    @Before
+    public void setUp() {
+        out = new ByteArrayOutputStream();
+        // A small buffer so the tests also cross buffer boundaries
+        sink = new ByteSink(out, 64);
+    }
+
+    /**
+     * Test if entities are written as JSON objects, one per line, with escaped strings.
+     */
+    @Test
+    public void testJsonLines() throws Exception {
+        EntityJsonWriter writer = new EntityJsonWriter(sink);
+        writer.write(new Car(1, "Toyota", "Camry \"SE\"", 2020, 45.5, "available", 5, 2500));
+        writer.write(new Customer(2, "Zo\u00eb", "O'Neil", "zoe@example.com", null));
+
+        assertEquals("{\"vehicleID\":1,\"make\":\"Toyota\",\"model\":\"Camry \\\"SE\\\"\",\"year\":2020,"
+                + "\"dailyRate\":45.50,\"status\":\"available\",\"passengerCapacity\":5,\"engineCapacity\":2500}\n"
+                + "{\"customerID\":2,\"firstName\":\"Zo\u00eb\",\"lastName\":\"O'Neil\",\"email\":\"zoe@example.com\","
+                + "\"phoneNumber\":null}\n", text());
+    }
+
+    /**
+     * Test if leases and payments written inside an array are comma-separated with formatted dates.
+     */
+    @Test
+    public void testJsonArray() throws Exception {
+        EntityJsonWriter writer = new EntityJsonWriter(sink);
+        writer.beginArray();
+        writer.write(new Lease(3, 1, 2, date(2024, 3, 1), date(2024, 3, 8), "weekly"));
+        writer.write(new Payment(4, 3, date(2024, 3, 8), 271.955));
+        writer.endArray();
+
+        assertEquals("[{\"leaseID\":3,\"vehicleID\":1,\"customerID\":2,\"startDate\":\"2024-03-01\","
+                + "\"endDate\":\"2024-03-08\",\"type\":\"weekly\"},"
+                + "{\"paymentID\":4,\"leaseID\":3,\"paymentDate\":\"2024-03-08\",\"amount\":271.96}]", text());
+    }
+
+    /**
+     * Test if CSV rows quote only fields that need it and write amounts with two decimals.
+     */
+    @Test
+    public void testCsvRows() throws Exception {
+        EntityCsvWriter writer = new EntityCsvWriter(sink);
+        writer.writeCarHeader();
+        writer.write(new Car(1, "Ford", "F-150, \"Raptor\"", 2019, -0.004, "notAvailable", 3, 3500));
+        writer.writePaymentHeader();
+        writer.write(new Payment(4, 3, null, 1234567.5));
+
+        String[] lines = text().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("1,Ford,\"F-150, \"\"Raptor\"\"\",2019,0.00,notAvailable,3,3500", lines[1]);
+        assertEquals("4,3,,1234567.50", lines[3]);
+    }
+
+    /**
+     * Test if the sink writes extreme integers and negative amounts correctly.
+     */
+    @Test
+    public void testNumbers() throws Exception {
+        sink.writeLong(Long.MIN_VALUE);
+        sink.write(' ');
+        sink.writeLong(0);
+        sink.write(' ');
+        sink.writeAmount(-12.375);
+        sink.write(' ');
+        sink.writeAmount(Double.NaN);
+
+        assertEquals(Long.MIN_VALUE + " 0 -12.38 null", text());
+        assertEquals(out.size(), sink.getBytesWritten());
+    }
+
+    private String text() throws Exception {
+        sink.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
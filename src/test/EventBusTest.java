@@ -0,0 +1,169 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.CarUpdatedEvent;
+import event.EventBus;
+import event.EventFileSink;
+import event.LeaseUpdatedEvent;
+import event.RepositoryEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the EventBus and EventFileSink classes.
+ * It covers ordered delivery, back-pressure on slow subscribers and file replay.
+ */
+public class EventBusTest {
+
+    /**
+     * Test if an event keeps the car and lease as they were when it was created, whatever the caller
+     * changes on its own objects afterwards.
+     */
+    @Test
+    public void testEventsCopyTheirEntities() {
+        Car car = new Car(7, "Toyota", "Innova", 2021, 2500.0, "available", 7, 2400);
+        Lease lease = new Lease(3, 7, 11, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 5), "Daily");
+        CarUpdatedEvent carEvent = new CarUpdatedEvent(car);
+        LeaseUpdatedEvent leaseEvent = new LeaseUpdatedEvent(lease);
+
+        car.setDailyRate(9999.0);
+        lease.setEndDate(LocalDate.of(2026, 1, 1));
+        assertEquals(2500.0, carEvent.getCar().getDailyRate(), 0.001);
+        assertEquals(LocalDate.of(2025, 12, 5), leaseEvent.getLease().getEndDate());
+    }
+
+    /**
+     * Test if subscribers receive published events in order with increasing sequence numbers.
+     */
+    @Test
+    public void testDeliversEventsInOrder() throws Exception {
+        EventBus bus = new EventBus(8, 1000);
+        List<RepositoryEvent> received = new CopyOnWriteArrayList<>();
+        bus.subscribe("collector", received::add);
+
+        for (int i = 1; i <= 20; i++) {
+            bus.publish(new CarRemovedEvent(i));
+        }
+
+        assertTrue(bus.awaitDrained(5000));
+        assertEquals(20, received.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, received.get(i).getSequence());
+            assertEquals(i + 1, ((CarRemovedEvent) received.get(i)).getVehicleID());
+        }
+        bus.close();
+    }
+
+    /**
+     * Test if a stuck subscriber registered with a resync is skipped forward once the publish wait
+     * elapses, and resyncs before it receives the next event.
+     */
+    @Test
+    public void testSkipsStuckSubscriber() throws Exception {
+        EventBus bus = new EventBus(2, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch resynced = new CountDownLatch(1);
+        EventBus.Subscription subscription = bus.subscribe("stuck", event -> release.await(), resynced::countDown);
+
+        for (int i = 0; i < 6; i++) {
+            bus.publish(new CarRemovedEvent(i));
+        }
+
+        assertTrue(subscription.getDroppedEvents() > 0);
+        release.countDown();
+        assertTrue(resynced.await(5, TimeUnit.SECONDS));
+        bus.close();
+    }
+
+    /**
+     * Test if a slow subscriber without a resync holds publishers back instead of losing events.
+     */
+    @Test
+    public void testNeverSkipsLosslessSubscriber() throws Exception {
+        EventBus bus = new EventBus(2, 20);
+        CountDownLatch release = new CountDownLatch(1);
+        List<RepositoryEvent> received = new CopyOnWriteArrayList<>();
+        EventBus.Subscription subscription = bus.subscribe("slow", event -> {
+            release.await();
+            received.add(event);
+        });
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 6; i++) {
+                bus.publish(new CarRemovedEvent(i));
+            }
+        });
+        publisher.start();
+
+        publisher.join(200);
+        assertTrue(publisher.isAlive());
+        release.countDown();
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+        assertTrue(bus.awaitDrained(5000));
+        assertEquals(6, received.size());
+        assertEquals(0, subscription.getDroppedEvents());
+        bus.close();
+    }
+
+    /**
+     * Test if events written by the file sink are replayed with the same content.
+     */
+    @Test
+    public void testFileSinkReplay() throws Exception {
+        Path file = Files.createTempFile("events", ".log");
+        EventBus bus = new EventBus(16, 1000);
+        EventFileSink sink = new EventFileSink(file);
+        bus.subscribe("file", sink);
+
+        bus.publish(new CarAddedEvent(new Car(7, "Tata", "Nexon\tEV", 2023, 2500.0, "available", 5, 1500)));
+        bus.publish(new CarRemovedEvent(7));
+        assertTrue(bus.awaitDrained(5000));
+        sink.close();
+
+        List<RepositoryEvent> replayed = new CopyOnWriteArrayList<>();
+        assertEquals(2, EventFileSink.replay(file, replayed::add));
+        assertEquals("Nexon\tEV", ((CarAddedEvent) replayed.get(0)).getCar().getModel());
+        assertEquals(1, replayed.get(1).getSequence());
+        bus.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test if car and lease updates round-trip through the file with their versions.
+     */
+    @Test
+    public void testFileSinkReplaysUpdates() throws Exception {
+        Path file = Files.createTempFile("events", ".log");
+        EventFileSink sink = new EventFileSink(file);
+        Car car = new Car(7, "Tata", "Nexon", 2023, 2750.0, "notAvailable", 5, 1500);
+        car.setVersion(3);
+        Lease lease = new Lease(11, 7, 4, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 9), "Daily");
+        lease.setVersion(2);
+        sink.onEvent(new CarUpdatedEvent(car, 1000));
+        sink.onEvent(new LeaseUpdatedEvent(lease, 2000));
+        sink.close();
+
+        List<RepositoryEvent> replayed = new CopyOnWriteArrayList<>();
+        assertEquals(2, EventFileSink.replay(file, replayed::add));
+        Car replayedCar = ((CarUpdatedEvent) replayed.get(0)).getCar();
+        assertEquals("notAvailable", replayedCar.getStatus());
+        assertEquals(2750.0, replayedCar.getDailyRate(), 0.0);
+        assertEquals(3, replayedCar.getVersion());
+        Lease replayedLease = ((LeaseUpdatedEvent) replayed.get(1)).getLease();
+        assertEquals(LocalDate.of(2024, 3, 9), replayedLease.getEndDate());
+        assertEquals(2, replayedLease.getVersion());
+        assertEquals(2000, replayed.get(1).getTimestamp());
+        Files.deleteIfExists(file);
+    }
+}
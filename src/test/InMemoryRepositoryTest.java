@@ -0,0 +1,126 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Lease;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import loadtest.DeskDayLoadTest;
+import loadtest.InMemoryRepository;
+import loadtest.ZipfSampler;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the in-memory repository and sampler behind the desk-day load test.
+ */
+public class InMemoryRepositoryTest {
+
+    private static final LocalDate DEC_1 = LocalDate.of(2025, 12, 1);
+
+    private InMemoryRepository repository;
+
+    /**
+     * Set up a repository with 20 cars and 40 customers.
+     */
+    @Before
+    public void setUp() {
+        repository = new InMemoryRepository();
+        DeskDayLoadTest.seed(repository, 20, 40, new Random(7));
+    }
+
+    /**
+     * Test if a lease charges the customer its daily rate times its days, and a payment brings the balance down.
+     */
+    @Test
+    public void testChargeAndPaymentBalance() throws Exception {
+        Car car = repository.findCarById(3);
+        double before = repository.retrieveBalance(1);
+        Lease lease = repository.createLease(1, 3, DEC_1, DEC_1.plusDays(4));
+        assertEquals(before + car.getDailyRate() * 4, repository.retrieveBalance(1), 0.001);
+
+        repository.recordPayment(lease, car.getDailyRate());
+        assertEquals(before + car.getDailyRate() * 3, repository.retrieveBalance(1), 0.001);
+        assertEquals(lease.getLeaseID(), repository.getLastLeaseID());
+    }
+
+    /**
+     * Test if changing a car's daily rate leaves what its existing leases owe alone, also after a ledger rebuild.
+     */
+    @Test
+    public void testRateChangeKeepsLeaseCharges() throws Exception {
+        Car car = repository.findCarById(3);
+        Lease lease = repository.createLease(1, 3, DEC_1, DEC_1.plusDays(4));
+        double owed = repository.calculateOutstandingByLease().get(lease.getLeaseID());
+        double balance = repository.retrieveBalance(1);
+
+        car.setDailyRate(car.getDailyRate() * 2);
+        repository.updateCar(car);
+        assertEquals(owed, repository.calculateOutstandingByLease().get(lease.getLeaseID()), 0.001);
+        repository.rebuildLedger();
+        assertEquals(balance, repository.retrieveBalance(1), 0.001);
+    }
+
+    /**
+     * Test if a lease whose car has since been removed can still be extended, at the rate it was booked at.
+     */
+    @Test
+    public void testUpdateLeaseOfRemovedCar() throws Exception {
+        Car car = repository.findCarById(3);
+        Lease lease = repository.createLease(1, 3, DEC_1, DEC_1.plusDays(4));
+        double balance = repository.retrieveBalance(1);
+        repository.removeCar(3);
+
+        lease.setEndDate(DEC_1.plusDays(6));
+        repository.updateLease(lease);
+        assertEquals(balance + car.getDailyRate() * 2, repository.retrieveBalance(1), 0.001);
+    }
+
+    /**
+     * Test if listing leases by period returns exactly the leases that overlap it.
+     */
+    @Test
+    public void testListLeasesOverlap() throws Exception {
+        Lease inside = repository.createLease(1, 3, DEC_1.plusDays(2), DEC_1.plusDays(3));
+        Lease spanning = repository.createLease(3, 4, DEC_1.minusDays(20), DEC_1.plusDays(20));
+        Lease before = repository.createLease(5, 5, DEC_1.minusDays(9), DEC_1.minusDays(1));
+
+        List<Lease> leases = repository.listLeases(DEC_1, DEC_1.plusDays(5));
+        assertTrue(leases.stream().anyMatch(lease -> lease.getLeaseID() == inside.getLeaseID()));
+        assertTrue(leases.stream().anyMatch(lease -> lease.getLeaseID() == spanning.getLeaseID()));
+        assertFalse(leases.stream().anyMatch(lease -> lease.getLeaseID() == before.getLeaseID()));
+    }
+
+    /**
+     * Test if the per-car overlap query only returns leases of that car.
+     */
+    @Test
+    public void testListCarLeasesOverlap() throws Exception {
+        Lease own = repository.createLease(1, 3, DEC_1.plusDays(2), DEC_1.plusDays(3));
+        repository.createLease(3, 4, DEC_1.minusDays(20), DEC_1.plusDays(20));
+        repository.createLease(5, 3, DEC_1.minusDays(9), DEC_1.minusDays(1));
+
+        List<Lease> leases = repository.listLeases(3, DEC_1, DEC_1.plusDays(5));
+        assertEquals(1, leases.size());
+        assertEquals(own.getLeaseID(), leases.get(0).getLeaseID());
+        assertTrue(repository.listLeases(3, DEC_1.plusDays(4), DEC_1.plusDays(5)).isEmpty());
+    }
+
+    /**
+     * Test if the Zipf sampler favours low ranks in line with its probabilities.
+     */
+    @Test
+    public void testZipfSkew() {
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+        int[] draws = new int[sampler.size()];
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            draws[sampler.next(random)]++;
+        }
+        assertEquals(sampler.probability(0), draws[0] / 100_000.0, 0.01);
+        assertTrue(draws[0] > 5 * draws[9]);
+        assertTrue(sampler.probability(0) > sampler.probability(1));
+    }
+}
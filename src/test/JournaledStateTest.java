@@ -0,0 +1,150 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.EventBus;
+import event.LeaseCreatedEvent;
+import event.PaymentRecordedEvent;
+import journal.JournaledState;
+import loadtest.InMemoryRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the JournaledState class.
+ * It covers recovery from the journal alone and from a snapshot plus journal tail.
+ */
+public class JournaledStateTest {
+    private Path directory;
+
+    /**
+     * Setup method executed before each test.
+     * Creates an empty directory for the journal and snapshot files.
+     */
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    /**
+     * Cleanup method executed after each test.
+     * Deletes the journal directory.
+     */
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Test if journaled events are recovered after a restart without a snapshot.
+     */
+    @Test
+    public void testRecoversFromJournal() throws Exception {
+        JournaledState journaled = JournaledState.open(directory, 1000);
+        journaled.onEvent(new CarAddedEvent(new Car(1, "Honda", "City", 2022, 1800.0, "available", 5, 1500)));
+        journaled.onEvent(new LeaseCreatedEvent(new Lease(10, 1, 5, LocalDate.ofEpochDay(0), LocalDate.ofEpochDay(1), "Daily")));
+        journaled.onEvent(new PaymentRecordedEvent(1, 10, 5, 1, 1800.0));
+        journaled.close();
+
+        JournaledState recovered = JournaledState.open(directory, 1000);
+        assertEquals(3, recovered.getRecoveredEvents());
+        assertEquals("City", recovered.getState().findCar(1).getModel());
+        assertEquals(1800.0, recovered.getState().getRevenueForLease(10), 0.001);
+        recovered.close();
+    }
+
+    /**
+     * Test if recovery loads the snapshot and only replays events journaled after it.
+     */
+    @Test
+    public void testRecoversFromSnapshotAndTail() throws Exception {
+        JournaledState journaled = JournaledState.open(directory, 2);
+        journaled.onEvent(new CarAddedEvent(new Car(1, "Honda", "City", 2022, 1800.0, "available", 5, 1500)));
+        journaled.onEvent(new CarAddedEvent(new Car(2, "Maruti", "Swift", 2021, 1200.0, "available", 5, 1200)));
+        journaled.onEvent(new CarRemovedEvent(1));
+        journaled.close();
+
+        JournaledState recovered = JournaledState.open(directory, 2);
+        assertEquals(1, recovered.getRecoveredEvents());
+        assertNull(recovered.getState().findCar(1));
+        assertEquals("Swift", recovered.getState().findCar(2).getModel());
+        recovered.onEvent(new PaymentRecordedEvent(2, 3, 4, 2, 500.0));
+        recovered.close();
+
+        JournaledState again = JournaledState.open(directory, 2);
+        assertEquals(500.0, again.getState().getTotalRevenue(), 0.001);
+        again.close();
+    }
+
+    /**
+     * Test if only a directory without a snapshot or journaled events reports that it needs seeding.
+     */
+    @Test
+    public void testReportsFreshDirectory() throws Exception {
+        JournaledState journaled = JournaledState.open(directory, 1000);
+        assertTrue(journaled.isFresh());
+        journaled.onEvent(new CarAddedEvent(new Car(1, "Honda", "City", 2022, 1800.0, "available", 5, 1500)));
+        journaled.close();
+
+        JournaledState recovered = JournaledState.open(directory, 1000);
+        assertFalse(recovered.isFresh());
+        recovered.close();
+    }
+    /**
+     * Test if seeding loads cars of every status and counts each payment once when writes land during the load.
+     */
+    @Test
+    public void testSeedsOnceDespiteConcurrentWrites() throws Exception {
+        EventBus bus = new EventBus(64, 1000);
+        InMemoryRepository repository = new InMemoryRepository() {
+            private boolean written;
+
+            @Override
+            public List<Payment> retrievePaymentHistory(int customerID) {
+                if (!written) {
+                    written = true;
+                    try {
+                        // Committed before the read below, so its event duplicates a loaded row
+                        Lease lease = findLeaseById(1);
+                        recordPayment(lease, 50.0);
+                        bus.publish(new PaymentRecordedEvent(2, 1, 1, 1, 50.0));
+                        // Committed after the read, so only its event carries it
+                        bus.publish(new PaymentRecordedEvent(3, 1, 1, 1, 25.0));
+                        assertTrue(bus.awaitDrained(1000));
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return super.retrievePaymentHistory(customerID);
+            }
+        };
+        repository.addCar(new Car(0, "Honda", "City", 2022, 100.0, "available", 5, 1500));
+        repository.addCar(new Car(0, "Maruti", "Swift", 2021, 80.0, "maintenance", 5, 1200));
+        repository.addCustomer(new Customer(1, "Asha", "Rao", "asha@example.com", "555-0101"));
+        Lease lease = repository.createLease(1, 1, LocalDate.ofEpochDay(0), LocalDate.ofEpochDay(1));
+        repository.recordPayment(lease, 100.0);
+
+        JournaledState journaled = JournaledState.open(directory, 1000);
+        journaled.seedFrom(repository, bus);
+
+        assertNotNull(journaled.getState().findCar(2));
+        assertEquals(175.0, journaled.getState().getRevenueForLease(1), 0.001);
+        bus.close();
+        journaled.close();
+    }
+}
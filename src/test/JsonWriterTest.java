@@ -0,0 +1,53 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import api.JsonWriter;
+import api.LatencyHistogram;
+import java.io.StringWriter;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the JsonWriter and LatencyHistogram classes used by the HTTP API.
+ */
+public class JsonWriterTest {
+
+    /**
+     * Test if nested objects and arrays get their commas and escaping right.
+     */
+    @Test
+    public void testNestedStructure() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject()
+                .name("id").value(7)
+                .name("name").value("say \"hi\"\n")
+                .name("rates").beginArray().value(1.5).value(2).endArray()
+                .name("empty").beginArray().endArray()
+                .name("car").beginObject().name("ok").value(true).name("note").value((String) null).endObject()
+                .endObject();
+        json.flush();
+
+        assertEquals("{\"id\":7,\"name\":\"say \\\"hi\\\"\\n\",\"rates\":[1.5,2],\"empty\":[],"
+                + "\"car\":{\"ok\":true,\"note\":null}}", out.toString());
+    }
+
+    /**
+     * Test if latency percentiles fall within the histogram's bucket precision.
+     */
+    @Test
+    public void testLatencyPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1_000L, micros > 990);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(10, histogram.getErrors());
+        assertEquals(500.5, histogram.getMeanMicros(), 0.001);
+        long p50 = histogram.getPercentileMicros(50);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.13);
+        long p99 = histogram.getPercentileMicros(99);
+        assertTrue(p99 >= 990 && p99 <= 990 * 1.13);
+    }
+}
@@ -0,0 +1,94 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarReturnedEvent;
+import event.LeaseCreatedEvent;
+import exception.CarNotFoundException;
+import java.time.LocalDate;
+import java.time.Month;
+import org.junit.Before;
+import org.junit.Test;
+import pricing.LeaseType;
+import pricing.PricingEngine;
+import pricing.Quote;
+import pricing.SeasonalCalendar;
+
+/**
+ * This class contains JUnit tests for the PricingEngine class.
+ * It covers lease type selection, seasonal multipliers and utilization surge.
+ */
+public class PricingEngineTest {
+    private PricingEngine engine;
+
+    /**
+     * Setup method executed before each test.
+     * Feeds a fleet of four cars to an engine with December priced at 1.5.
+     */
+    @Before
+    public void setUp() {
+        SeasonalCalendar calendar = new SeasonalCalendar();
+        calendar.setMultiplier(Month.DECEMBER, 1.5);
+        engine = new PricingEngine(calendar);
+        for (int id = 1; id <= 4; id++) {
+            engine.onEvent(new CarAddedEvent(new Car(id, "Honda", "City", 2022, 1000.0, "available", 5, 1500)));
+        }
+    }
+
+    /**
+     * Test if the lease type follows the length of the lease.
+     */
+    @Test
+    public void testLeaseTypeByDuration() throws CarNotFoundException {
+        assertEquals(LeaseType.DAILY, engine.quote(1, date(2024, 3, 1), date(2024, 3, 4)).getLeaseType());
+        Quote weekly = engine.quote(1, date(2024, 3, 1), date(2024, 3, 11));
+        assertEquals(LeaseType.WEEKLY, weekly.getLeaseType());
+        assertEquals(10 * 1000.0 * 0.85, weekly.getTotalPrice(), 0.001);
+        assertEquals(LeaseType.MONTHLY, engine.quote(1, date(2024, 3, 1), date(2024, 4, 15)).getLeaseType());
+    }
+
+    /**
+     * Test if seasonal multipliers apply per day across a month boundary.
+     */
+    @Test
+    public void testSeasonalMultiplier() throws CarNotFoundException {
+        // Two days in November at 1.0, two in December at 1.5
+        Quote quote = engine.quote(2, date(2024, 11, 29), date(2024, 12, 3));
+        assertEquals(4, quote.getDays());
+        assertEquals(1.25, quote.getSeasonalMultiplier(), 0.0001);
+        assertEquals(5000.0, quote.getTotalPrice(), 0.001);
+    }
+
+    /**
+     * Test if surge pricing follows fleet utilization and drops when cars are returned.
+     */
+    @Test
+    public void testUtilizationSurge() throws CarNotFoundException {
+        LocalDate today = LocalDate.now();
+        Lease[] leases = new Lease[3];
+        for (int i = 0; i < leases.length; i++) {
+            leases[i] = new Lease(i + 1, i + 1, 1, today, today.plusDays(5), "Daily");
+            engine.onEvent(new LeaseCreatedEvent(leases[i]));
+        }
+        assertEquals(0.75, engine.getUtilization(), 0.0001);
+        assertEquals(1.10, engine.quote(4, date(2024, 3, 1), date(2024, 3, 2)).getSurgeMultiplier(), 0.0001);
+
+        engine.onEvent(new CarReturnedEvent(leases[0]));
+        assertEquals(1.0, engine.getSurgeMultiplier(), 0.0001);
+    }
+
+    /**
+     * Test if quoting an unknown car fails.
+     */
+    @Test(expected = CarNotFoundException.class)
+    public void testUnknownCar() throws CarNotFoundException {
+        engine.quote(99, date(2024, 3, 1), date(2024, 3, 2));
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
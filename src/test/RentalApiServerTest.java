@@ -0,0 +1,104 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import api.RentalApiServer;
+import controller.CarRentalController;
+import entity.Car;
+import exception.ServiceUnavailableException;
+import loadtest.InMemoryRepository;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the RentalApiServer class.
+ * It covers the status codes returned when adding and removing cars and customers.
+ */
+public class RentalApiServerTest {
+    private InMemoryRepository repository;
+    private RentalApiServer server;
+
+    /**
+     * Setup method executed before each test.
+     * Starts the API on a free port over an in-memory repository.
+     */
+    @Before
+    public void setUp() throws Exception {
+        repository = new InMemoryRepository() {
+            @Override
+            public void addCar(Car car) {
+                if (car.getMake().equals("Offline")) {
+                    throw new RuntimeException("Error adding car", new ServiceUnavailableException("Database circuit open"));
+                }
+                super.addCar(car);
+            }
+        };
+        server = new RentalApiServer(new CarRentalController(repository), 0);
+        server.start();
+    }
+
+    /**
+     * Cleanup method executed after each test.
+     * Stops the API.
+     */
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test if adding a car answers 201 and removing it answers 204, then 404 once it is gone.
+     */
+    @Test
+    public void testAddAndRemoveCar() throws Exception {
+        assertEquals(201, request("POST", "/cars",
+                "make=Honda&model=City&year=2022&dailyRate=1800&passengerCapacity=5&engineCapacity=1500"));
+        int carID = repository.listAvailableCars().get(0).getVehicleID();
+
+        assertEquals(204, request("DELETE", "/cars/" + carID, null));
+        assertEquals(404, request("DELETE", "/cars/" + carID, null));
+    }
+
+    /**
+     * Test if adding a customer twice answers 409 and removing an unknown customer answers 404.
+     */
+    @Test
+    public void testDuplicateAndMissingCustomer() throws Exception {
+        String customer = "customerID=7&firstName=Asha&lastName=Rao&email=asha@example.com&phoneNumber=555-0101";
+        assertEquals(201, request("POST", "/customers", customer));
+        assertEquals(409, request("POST", "/customers", customer));
+
+        assertEquals(204, request("DELETE", "/customers/7", null));
+        assertEquals(404, request("DELETE", "/customers/7", null));
+    }
+
+    /**
+     * Test if a write failing on the database answers 503 instead of 201.
+     */
+    @Test
+    public void testDatabaseFailure() throws Exception {
+        assertEquals(503, request("POST", "/cars",
+                "make=Offline&model=City&year=2022&dailyRate=1800&passengerCapacity=5&engineCapacity=1500"));
+        assertTrue(repository.listAvailableCars().isEmpty());
+    }
+
+    private int request(String method, String path, String form) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (form != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream body = connection.getOutputStream()) {
+                body.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        return status;
+    }
+}
@@ -0,0 +1,125 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Lease;
+import entity.Payment;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import report.ChunkSource;
+import report.MonthEndReport;
+import report.ReportGenerator;
+
+/**
+ * This class contains JUnit tests for the ReportGenerator class.
+ * It checks the parallel aggregation against totals computed directly from the same rows.
+ */
+public class ReportGeneratorTest {
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    private final List<Lease> leases = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
+    private ForkJoinPool pool;
+
+    /**
+     * Setup method executed before each test.
+     * Builds 500 leases over February and March and two payments per lease.
+     */
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        int paymentID = 1;
+        for (int leaseID = 1; leaseID <= 500; leaseID++) {
+            LocalDate start = MARCH_1.minusDays(29).plusDays(leaseID % 60);
+            leases.add(new Lease(leaseID, 1 + leaseID % 20, 1 + leaseID % 50, start,
+                    start.plusDays(1 + leaseID % 10), "Daily"));
+            payments.add(new Payment(paymentID++, leaseID, start, 100.0 + leaseID));
+            payments.add(new Payment(paymentID++, leaseID, start.plusDays(1), 10.0));
+        }
+    }
+
+    /**
+     * Shuts the pool down after each test.
+     */
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Test if a report over March matches sequentially computed totals, with pages smaller than a slice.
+     */
+    @Test
+    public void testMatchesSequentialTotals() throws Exception {
+        ReportGenerator generator = new ReportGenerator(pages(leases, true), pages(payments, false), 37, pool);
+        MonthEndReport report = generator.generate(MARCH_1, LocalDate.of(2024, 3, 31), 3);
+
+        long leaseCount = 0;
+        long leaseDays = 0;
+        for (Lease lease : leases) {
+            if (inMarch(lease.getStartDate())) {
+                leaseCount++;
+                leaseDays += 1 + lease.getLeaseID() % 10;
+            }
+        }
+        double revenue = 0;
+        double[] byCar = new double[21];
+        double[] byCustomer = new double[51];
+        for (Payment payment : payments) {
+            if (inMarch(payment.getPaymentDate())) {
+                revenue += payment.getAmount();
+                byCar[1 + payment.getLeaseID() % 20] += payment.getAmount();
+                byCustomer[1 + payment.getLeaseID() % 50] += payment.getAmount();
+            }
+        }
+
+        assertEquals(leaseCount, report.getLeaseCount());
+        assertEquals((double) leaseDays / leaseCount, report.getAverageLeaseDays(), 0.0001);
+        assertEquals(revenue, report.getTotalRevenue(), 0.001);
+        for (int car = 1; car <= 20; car++) {
+            assertEquals(byCar[car], report.getRevenueForCar(car), 0.001);
+        }
+        int[] top = report.getTopCustomerIDs();
+        assertEquals(3, top.length);
+        for (int customer = 1; customer <= 50; customer++) {
+            assertTrue(byCustomer[customer] <= byCustomer[top[0]]);
+        }
+        assertTrue(report.getTopCustomerRevenue()[0] >= report.getTopCustomerRevenue()[1]);
+    }
+
+    /**
+     * Test if an unbounded report counts every row and flags payments whose lease is missing.
+     */
+    @Test
+    public void testUnboundedReport() throws Exception {
+        payments.add(new Payment(10_000, 9_999, MARCH_1, 50.0));
+        ReportGenerator generator = new ReportGenerator(pages(leases, true), pages(payments, false), 4096, pool);
+        MonthEndReport report = generator.generate(null, null, 5);
+
+        assertEquals(500, report.getLeaseCount());
+        assertEquals(1001, report.getPaymentCount());
+        assertEquals(1, report.getUnattributedPayments());
+    }
+
+    private static <T> ChunkSource<T> pages(List<T> rows, boolean leases) {
+        return (afterID, limit) -> {
+            List<T> page = new ArrayList<>();
+            for (T row : rows) {
+                int id = leases ? ((Lease) row).getLeaseID() : ((Payment) row).getPaymentID();
+                if (id > afterID && page.size() < limit) {
+                    page.add(row);
+                }
+            }
+            return page;
+        };
+    }
+
+    private static boolean inMarch(LocalDate date) {
+        return !date.isBefore(MARCH_1) && date.isBefore(MARCH_1.plusMonths(1));
+    }
+}
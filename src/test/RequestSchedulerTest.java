@@ -0,0 +1,165 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import controller.RequestScheduler;
+import controller.RequestScheduler.Priority;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the RequestScheduler class.
+ */
+public class RequestSchedulerTest {
+
+    private RequestScheduler scheduler;
+    private List<String> order;
+    private List<Thread> threads;
+    private CountDownLatch release;
+
+    /**
+     * Set up a scheduler running one call at a time.
+     */
+    @Before
+    public void setUp() {
+        scheduler = new RequestScheduler(1, 5000);
+        order = Collections.synchronizedList(new ArrayList<>());
+        threads = new ArrayList<>();
+        release = new CountDownLatch(1);
+    }
+
+    /**
+     * Let any blocked call finish and wait for the callers.
+     */
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+
+    /**
+     * Test if queued calls are admitted highest priority first, whatever order they arrived in.
+     */
+    @Test
+    public void testPriorityOrder() throws Exception {
+        occupySlot();
+        submit("clerk", Priority.REPORT, "report");
+        submit("clerk", Priority.LOOKUP, "lookup");
+        submit("clerk", Priority.PAYMENT, "payment");
+        submit("clerk", Priority.BOOKING, "booking");
+
+        release.countDown();
+        joinAll();
+        assertEquals(Arrays.asList("booking", "payment", "lookup", "report"), order);
+    }
+
+    /**
+     * Test if operators within a class take turns instead of being served in arrival order.
+     */
+    @Test
+    public void testFairAcrossOperators() throws Exception {
+        occupySlot();
+        submit("export", Priority.BOOKING, "export-1");
+        submit("export", Priority.BOOKING, "export-2");
+        submit("export", Priority.BOOKING, "export-3");
+        submit("counter", Priority.BOOKING, "counter-1");
+
+        release.countDown();
+        joinAll();
+        assertEquals(Arrays.asList("export-1", "counter-1", "export-2", "export-3"), order);
+        assertEquals(0, scheduler.getStats(Priority.BOOKING).getQueueDepth());
+        assertTrue(scheduler.getStats(Priority.BOOKING).getMaxWaitMicros() > 0);
+    }
+
+    /**
+     * Test if a class that has used up its tokens is held back and times out, while other classes still run.
+     */
+    @Test
+    public void testRateLimit() throws Exception {
+        scheduler = new RequestScheduler(4, 50);
+        scheduler.setLimit(Priority.REPORT, 0.1, 1, 16);
+
+        assertEquals("first", scheduler.call("ops", Priority.REPORT, () -> "first"));
+        try {
+            scheduler.call("ops", Priority.REPORT, () -> "second");
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals("Timed out waiting to run REPORT request", e.getMessage());
+        }
+        assertEquals("booking", scheduler.call("counter", Priority.BOOKING, () -> "booking"));
+
+        RequestScheduler.ClassStats stats = scheduler.getStats(Priority.REPORT);
+        assertEquals(1, stats.getAdmitted());
+        assertEquals(1, stats.getRejected());
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    /**
+     * Test if a call whose class ran out of tokens is admitted once the bucket refills, even though the
+     * slot it waited for was freed while the bucket was still empty.
+     */
+    @Test
+    public void testAdmittedAfterRefill() throws Exception {
+        scheduler.setLimit(Priority.REPORT, 2, 1, 16);
+        scheduler.call("ops", Priority.REPORT, () -> "first");
+        occupySlot();
+        submit("ops", Priority.REPORT, "report");
+
+        release.countDown();
+        joinAll();
+        assertEquals(Arrays.asList("report"), order);
+        RequestScheduler.ClassStats stats = scheduler.getStats(Priority.REPORT);
+        assertEquals(2, stats.getAdmitted());
+        assertEquals(0, stats.getRejected());
+        assertTrue(stats.getMaxWaitMicros() < 2_000_000);
+    }
+
+    private void occupySlot() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        start(() -> scheduler.call("holder", Priority.BOOKING, () -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        running.await();
+    }
+
+    // Starts a caller and waits until its call is queued, so the queue order is deterministic
+    private void submit(String operator, Priority priority, String name) throws InterruptedException {
+        int depth = scheduler.getStats(priority).getQueueDepth();
+        start(() -> scheduler.call(operator, priority, () -> order.add(name)));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getStats(priority).getQueueDepth() == depth) {
+            assertTrue("call was not queued", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private void start(Callable<?> caller) {
+        Thread thread = new Thread(() -> {
+            try {
+                caller.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void joinAll() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import reservation.Hold;
+import reservation.ReservationHolds;
+
+/**
+ * This class contains JUnit tests for the ReservationHolds class.
+ */
+public class ReservationHoldsTest {
+
+    private static final LocalDate DEC_1 = LocalDate.of(2025, 12, 1);
+
+    private long now;
+    private ReservationHolds holds;
+
+    /**
+     * Set up holds lasting one minute on a manual clock.
+     */
+    @Before
+    public void setUp() {
+        now = 0;
+        holds = new ReservationHolds(60_000, () -> now);
+    }
+
+    /**
+     * Test if a hold blocks overlapping ranges on the same car only.
+     */
+    @Test
+    public void testOverlappingHoldRejected() {
+        Hold hold = holds.reserve(7, 1, DEC_1, DEC_1.plusDays(6));
+        assertNotNull(hold);
+        assertEquals(7, hold.getCarID());
+
+        assertNull(holds.reserve(7, 2, DEC_1.plusDays(6), DEC_1.plusDays(9)));
+        assertNotNull(holds.reserve(7, 2, DEC_1.plusDays(7), DEC_1.plusDays(9)));
+        assertNotNull(holds.reserve(8, 2, DEC_1, DEC_1.plusDays(6)));
+        assertTrue(holds.isHeld(7, DEC_1.minusDays(3), DEC_1));
+        assertEquals(3, holds.size());
+    }
+
+    /**
+     * Test if an unconfirmed hold lapses after its TTL and frees the range.
+     */
+    @Test
+    public void testHoldExpires() {
+        Hold hold = holds.reserve(7, 1, DEC_1, DEC_1.plusDays(6));
+        now += TimeUnit.SECONDS.toNanos(61);
+
+        assertFalse(holds.isHeld(7, DEC_1, DEC_1.plusDays(6)));
+        assertNull(holds.confirm(hold.getHoldID()));
+        assertNotNull(holds.reserve(7, 2, DEC_1, DEC_1.plusDays(6)));
+        assertEquals(0, holds.purgeExpired());
+    }
+
+    /**
+     * Test if a confirmed hold is pinned: it outlives its TTL, cannot be confirmed twice or released, and
+     * frees the range once completed.
+     */
+    @Test
+    public void testConfirmPinsHold() {
+        Hold hold = holds.reserve(7, 1, DEC_1, DEC_1.plusDays(6));
+        Hold pinned = holds.confirm(hold.getHoldID());
+        assertNotNull(pinned);
+        assertTrue(pinned.isConfirmed());
+        assertNull(holds.confirm(hold.getHoldID()));
+        assertFalse(holds.release(hold.getHoldID()));
+
+        now += TimeUnit.SECONDS.toNanos(61);
+        assertTrue(holds.isHeld(7, DEC_1, DEC_1));
+
+        holds.complete(pinned);
+        assertFalse(holds.isHeld(7, DEC_1, DEC_1));
+    }
+
+    /**
+     * Test if exactly one of many threads racing for the same car and week gets the hold.
+     */
+    @Test
+    public void testSingleWinnerUnderContention() throws InterruptedException {
+        int contenders = 200;
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(contenders);
+        AtomicInteger winners = new AtomicInteger();
+        for (int i = 0; i < contenders; i++) {
+            int customerID = i;
+            new Thread(() -> {
+                try {
+                    go.await();
+                    if (holds.reserve(7, customerID, DEC_1, DEC_1.plusDays(6)) != null) {
+                        winners.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        go.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, winners.get());
+    }
+}
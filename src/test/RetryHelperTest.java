@@ -0,0 +1,65 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import exception.CarNotFoundException;
+import exception.OptimisticLockException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import util.RetryHelper;
+
+/**
+ * This class contains JUnit tests for the RetryHelper class.
+ */
+public class RetryHelperTest {
+
+    /**
+     * Test if an operation that conflicts twice succeeds on the third attempt.
+     */
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = RetryHelper.retryOnConflict(5, 1, 4, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("conflict");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+    }
+
+    /**
+     * Test if the last conflict is rethrown once the attempts run out.
+     */
+    @Test
+    public void testGivesUpAfterMaxAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            RetryHelper.retryOnConflict(3, 1, 4, () -> {
+                throw new OptimisticLockException("conflict " + attempts.incrementAndGet());
+            });
+            fail("Expected OptimisticLockException");
+        } catch (OptimisticLockException e) {
+            assertEquals("conflict 3", e.getMessage());
+        }
+    }
+
+    /**
+     * Test if other failures are not retried.
+     */
+    @Test
+    public void testOtherExceptionsNotRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            RetryHelper.retryOnConflict(5, 1, 4, () -> {
+                attempts.incrementAndGet();
+                throw new CarNotFoundException("missing");
+            });
+            fail("Expected CarNotFoundException");
+        } catch (CarNotFoundException e) {
+            assertEquals(1, attempts.get());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.Payment;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import snapshot.SnapshotReader;
+import snapshot.SnapshotSummary;
+import snapshot.SnapshotWriter;
+
+/**
+ * This class contains JUnit tests for the SnapshotWriter and SnapshotReader classes.
+ */
+public class SnapshotTest {
+    private Path file;
+    private final List<Car> cars = new ArrayList<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Lease> leases = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
+
+    /**
+     * Setup method executed before each test.
+     * Chooses a fresh snapshot file location.
+     */
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempDirectory("snapshot").resolve("dataset.snap");
+    }
+
+    /**
+     * Cleanup method executed after each test.
+     * Deletes the snapshot file and its directory.
+     */
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.getParent());
+    }
+
+    /**
+     * Test if every table survives a round trip across several blocks, including null values,
+     * non-ASCII text and both string encodings.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Car> carsIn = new ArrayList<>();
+        List<Customer> customersIn = new ArrayList<>();
+        List<Lease> leasesIn = new ArrayList<>();
+        List<Payment> paymentsIn = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            carsIn.add(new Car(id, id % 2 == 0 ? "Toyota" : "\u0160koda", "Model " + id, 2000 + id,
+                    40 + id * 0.5, "available", 5, 1500));
+            customersIn.add(new Customer(id, "First" + id, "Last" + id, "c" + id + "@example.com",
+                    id == 3 ? null : "555-" + id));
+            leasesIn.add(new Lease(id, id, id, date(2024, 1, id), id == 7 ? null : date(2024, 2, id), "Daily"));
+            paymentsIn.add(new Payment(id, id, date(2024, 2, id), id * 10.25));
+        }
+
+        SnapshotSummary written;
+        try (SnapshotWriter writer = SnapshotWriter.create(file, 10)) {
+            writer.writeCars(carsIn);
+            writer.writeCustomers(customersIn);
+            writer.writeLeases(leasesIn);
+            writer.writePayments(paymentsIn);
+            written = writer.getSummary();
+        }
+        SnapshotSummary read = SnapshotReader.read(file, this::collect);
+
+        assertEquals(25, read.getCars());
+        assertEquals(25, read.getPayments());
+        assertEquals(Files.size(file), written.getBytes());
+        assertEquals(carsIn.toString(), cars.toString());
+        assertEquals(customersIn.toString(), customers.toString());
+        assertEquals(paymentsIn.toString(), payments.toString());
+        assertEquals(leasesIn.size(), leases.size());
+        for (int i = 0; i < leasesIn.size(); i++) {
+            assertEquals(leasesIn.get(i).getStartDate(), leases.get(i).getStartDate());
+            assertEquals(leasesIn.get(i).getEndDate(), leases.get(i).getEndDate());
+            assertEquals(leasesIn.get(i).getCustomerID(), leases.get(i).getCustomerID());
+        }
+    }
+
+    /**
+     * Test if a snapshot cut off before its trailer is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testTruncatedFileRejected() throws Exception {
+        try (SnapshotWriter writer = SnapshotWriter.create(file)) {
+            writer.writeCars(List.of(new Car(1, "Ford", "Focus", 2020, 30, "available", 5, 1600)));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+        SnapshotReader.read(file, this::collect);
+    }
+
+    private void collect(List<Car> cars, List<Customer> customers, List<Lease> leases, List<Payment> payments) {
+        this.cars.addAll(cars);
+        this.customers.addAll(customers);
+        this.leases.addAll(leases);
+        this.payments.addAll(payments);
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
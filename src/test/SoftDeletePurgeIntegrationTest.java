@@ -0,0 +1,71 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNoException;
+
+import dao.ICarLeaseRepositoryImpl;
+import entity.Car;
+import entity.Customer;
+import entity.Lease;
+import entity.LedgerEntry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains integration tests for the soft-delete purge of ICarLeaseRepositoryImpl.
+ * They need the MySQL database from DBConnection, with the archive tables, and are skipped when it
+ * cannot be reached.
+ */
+public class SoftDeletePurgeIntegrationTest {
+
+    private ICarLeaseRepositoryImpl repository;
+
+    /**
+     * Set up a repository on the database, or skip the tests without one.
+     */
+    @Before
+    public void setUp() {
+        try {
+            repository = new ICarLeaseRepositoryImpl();
+        } catch (RuntimeException e) {
+            assumeNoException(e);
+        }
+    }
+
+    /**
+     * Test if a removed car that only archived leases refer to survives the purge, so a ledger rebuild
+     * still finds its charges, while a removed car without leases is purged.
+     */
+    @Test
+    public void testKeepsCarsReferencedByArchivedLeases() throws Exception {
+        Car archivedCar = new Car(0, "Skoda", "Octavia", 2020, 1800.0, "available", 5, 1400);
+        Car unusedCar = new Car(0, "Skoda", "Kushaq", 2022, 1500.0, "available", 5, 1000);
+        repository.addCar(archivedCar);
+        repository.addCar(unusedCar);
+        int customerID = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+        repository.addCustomer(new Customer(customerID, "Purge", "Test", "purge@test.in", "9000000000"));
+        Lease lease = repository.createLease(customerID, archivedCar.getVehicleID(),
+                LocalDate.now().minusDays(30), LocalDate.now().minusDays(20));
+        try {
+            repository.archiveLeases(LocalDate.now(), 500);
+        } catch (RuntimeException e) {
+            assumeNoException(e);
+        }
+
+        repository.removeCar(archivedCar.getVehicleID());
+        repository.removeCar(unusedCar.getVehicleID());
+        assertTrue(repository.purgeDeletedCars(LocalDateTime.now().plusMinutes(1), 500) >= 1);
+        repository.rebuildLedger();
+
+        boolean charged = false;
+        for (LedgerEntry entry : repository.retrieveLedger(customerID)) {
+            if (entry.getLeaseID() == lease.getLeaseID() && LedgerEntry.CHARGE.equals(entry.getKind())) {
+                charged = true;
+            }
+        }
+        assertTrue(charged);
+    }
+}
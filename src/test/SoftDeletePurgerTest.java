@@ -0,0 +1,89 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import dao.SoftDeletePurger;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains JUnit tests for the SoftDeletePurger class.
+ */
+public class SoftDeletePurgerTest {
+
+    private static final LocalTime OPENS = LocalTime.of(23, 0);
+    private static final LocalTime CLOSES = LocalTime.of(4, 0);
+
+    private int carBacklog;
+    private List<LocalDateTime> cutoffs;
+
+    /**
+     * Set up a backlog of removed cars, deleted batch by batch.
+     */
+    @Before
+    public void setUp() {
+        carBacklog = 5;
+        cutoffs = new ArrayList<>();
+    }
+
+    /**
+     * Test if windows that span midnight and windows within one day are both recognised.
+     */
+    @Test
+    public void testIsInWindow() {
+        assertTrue(SoftDeletePurger.isInWindow(LocalTime.of(23, 30), OPENS, CLOSES));
+        assertTrue(SoftDeletePurger.isInWindow(LocalTime.of(2, 0), OPENS, CLOSES));
+        assertFalse(SoftDeletePurger.isInWindow(LocalTime.of(4, 0), OPENS, CLOSES));
+        assertFalse(SoftDeletePurger.isInWindow(LocalTime.of(12, 0), OPENS, CLOSES));
+        assertTrue(SoftDeletePurger.isInWindow(LocalTime.of(1, 0), LocalTime.of(1, 0), LocalTime.of(5, 0)));
+        assertFalse(SoftDeletePurger.isInWindow(LocalTime.of(0, 59), LocalTime.of(1, 0), LocalTime.of(5, 0)));
+    }
+
+    /**
+     * Test if the purger deletes in batches until a short batch, then moves on to the next table.
+     */
+    @Test
+    public void testPurgesInBatches() throws Exception {
+        List<Integer> customerBatches = new ArrayList<>();
+        SoftDeletePurger purger = new SoftDeletePurger(List.of(this::purgeCars, (before, size) -> {
+            customerBatches.add(size);
+            return 0;
+        }), OPENS, CLOSES, Duration.ofDays(1), 2, 0, clockAt(LocalDateTime.of(2024, 3, 2, 2, 0)));
+
+        assertEquals(5, purger.purgeDuringWindow());
+        assertEquals(3, cutoffs.size());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 2, 0), cutoffs.get(0));
+        assertEquals(1, customerBatches.size());
+        assertEquals(5, purger.getPurged());
+    }
+
+    /**
+     * Test if nothing is deleted outside the window.
+     */
+    @Test
+    public void testIdleOutsideWindow() throws Exception {
+        SoftDeletePurger purger = new SoftDeletePurger(List.of(this::purgeCars), OPENS, CLOSES,
+                Duration.ofDays(1), 2, 0, clockAt(LocalDateTime.of(2024, 3, 2, 9, 0)));
+
+        assertEquals(0, purger.purgeDuringWindow());
+        assertTrue(cutoffs.isEmpty());
+    }
+
+    private int purgeCars(LocalDateTime deletedBefore, int batchSize) {
+        cutoffs.add(deletedBefore);
+        int deleted = Math.min(batchSize, carBacklog);
+        carBacklog -= deleted;
+        return deleted;
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+}
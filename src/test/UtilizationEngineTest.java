@@ -0,0 +1,112 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarReturnedEvent;
+import event.LeaseCreatedEvent;
+import event.LeaseUpdatedEvent;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import utilization.UtilizationEngine;
+
+/**
+ * This class contains JUnit tests for the UtilizationEngine class.
+ * It covers daily occupancy, per-car and per-make utilization, early returns and export.
+ */
+public class UtilizationEngineTest {
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    private UtilizationEngine engine;
+
+    /**
+     * Setup method executed before each test.
+     * Feeds two Hondas and one Toyota, and two overlapping leases, to the engine.
+     */
+    @Before
+    public void setUp() {
+        engine = new UtilizationEngine();
+        engine.onEvent(new CarAddedEvent(new Car(1, "Honda", "City", 2022, 1800.0, "available", 5, 1500)));
+        engine.onEvent(new CarAddedEvent(new Car(2, "Honda", "Amaze", 2020, 1500.0, "available", 5, 1200)));
+        engine.onEvent(new CarAddedEvent(new Car(3, "Toyota", "Innova", 2021, 3200.0, "available", 7, 2400)));
+        // Car 1 booked March 1-4, car 3 booked March 3-6
+        engine.onEvent(new LeaseCreatedEvent(new Lease(1, 1, 1, MARCH_1, MARCH_1.plusDays(4), "Daily")));
+        engine.onEvent(new LeaseCreatedEvent(new Lease(2, 3, 1, MARCH_1.plusDays(2), MARCH_1.plusDays(6), "Daily")));
+    }
+
+    /**
+     * Test if daily occupancy counts overlapping leases.
+     */
+    @Test
+    public void testDailyOccupancy() {
+        assertArrayEquals(new int[] {0, 1, 1, 2, 2, 1, 1, 0},
+                engine.getDailyOccupancy(MARCH_1.minusDays(1), MARCH_1.plusDays(6)));
+        assertArrayEquals(new int[] {1, 1, 1, 1, 0}, engine.getDailyOccupancy("honda", MARCH_1, MARCH_1.plusDays(4)));
+        assertEquals(2.0 / 3, engine.getDailyUtilization(MARCH_1.plusDays(2), MARCH_1.plusDays(2))[0], 0.0001);
+    }
+
+    /**
+     * Test per-car booked days and per-make utilization over a range.
+     */
+    @Test
+    public void testCarAndMakeUtilization() {
+        assertEquals(4, engine.getBookedDays(1));
+        assertEquals(2, engine.getBookedDays(3, MARCH_1, MARCH_1.plusDays(3)));
+        assertEquals(0.5, engine.getCarUtilization(3, MARCH_1, MARCH_1.plusDays(3)), 0.0001);
+
+        Map<String, Double> byMake = engine.getUtilizationByMake(MARCH_1, MARCH_1.plusDays(3));
+        assertEquals(4.0 / 8, byMake.get("honda"), 0.0001);
+        assertEquals(2.0 / 4, byMake.get("toyota"), 0.0001);
+    }
+
+    /**
+     * Test if an updated lease moves its booking to the new car and dates.
+     */
+    @Test
+    public void testLeaseUpdate() {
+        // Lease 1 moves from car 1, March 1-4, to car 2, March 2-7
+        engine.onEvent(new LeaseUpdatedEvent(new Lease(1, 2, 1, MARCH_1.plusDays(1), MARCH_1.plusDays(7), "Daily")));
+
+        assertEquals(0, engine.getBookedDays(1));
+        assertEquals(6, engine.getBookedDays(2));
+        assertArrayEquals(new int[] {0, 1, 2, 2, 2, 2, 1, 0},
+                engine.getDailyOccupancy(MARCH_1, MARCH_1.plusDays(7)));
+    }
+
+    /**
+     * Test if returning a car early releases the days after the return.
+     */
+    @Test
+    public void testEarlyReturn() {
+        LocalDate today = LocalDate.now();
+        Lease lease = new Lease(3, 2, 1, today.minusDays(2), today.plusDays(10), "Weekly");
+        engine.onEvent(new LeaseCreatedEvent(lease));
+        assertEquals(12, engine.getBookedDays(2));
+
+        engine.onEvent(new CarReturnedEvent(lease));
+        assertEquals(3, engine.getBookedDays(2));
+        assertEquals(0, engine.getDailyOccupancy("honda", today.plusDays(1), today.plusDays(1))[0]);
+    }
+
+    /**
+     * Test if the CSV and JSON exports contain the expected rows.
+     */
+    @Test
+    public void testExport() throws Exception {
+        StringWriter csv = new StringWriter();
+        engine.writeDailyCsv(csv, MARCH_1, MARCH_1.plusDays(1));
+        assertEquals("date,bookedCars,fleetSize,utilization\n"
+                + "2024-03-01,1,3,0.3333\n"
+                + "2024-03-02,1,3,0.3333\n", csv.toString());
+
+        StringWriter json = new StringWriter();
+        engine.writeJson(json, MARCH_1, MARCH_1);
+        assertTrue(json.toString().startsWith("{\"from\":\"2024-03-01\",\"to\":\"2024-03-01\",\"fleetSize\":3,"));
+        assertTrue(json.toString().contains("{\"vehicleID\":1,\"make\":\"honda\",\"bookedDays\":1,\"utilization\":1.0000}"));
+    }
+}
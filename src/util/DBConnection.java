@@ -1,33 +1,55 @@
 package util;
 
+import log.Level;
+import log.Logger;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Utility class for managing database connections.
  */
 public class DBConnection {
+    private static final Logger LOG = Logger.getLogger(DBConnection.class);
+
+    // Driver-side statement caching keeps prepared statements warm across try-with-resources closes.
+    // The socket timeout backstops the per-statement query timeouts (longest is a 120 s bulk batch),
+    // so a dead server cannot hang a caller forever.
+    private static final String URL = "jdbc:mysql://localhost:3306/carrentalsystem"
+            + "?useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=64"
+            + "&connectTimeout=5000&socketTimeout=130000";
+    private static final int LOGIN_TIMEOUT_SECONDS = 5;
+    private static final int MAX_IDLE_TRANSACTION_CONNECTIONS = 8;
+
     // Singleton instance of the database connection
     private static Connection connection;
+    private static boolean driverLoaded;
+    // Transactions each need a session of their own; committed connections are kept here for reuse
+    private static final BlockingQueue<Connection> IDLE_TRANSACTION_CONNECTIONS =
+            new ArrayBlockingQueue<>(MAX_IDLE_TRANSACTION_CONNECTIONS);
 
     // Private constructor to prevent instantiation
     private DBConnection() {
     }
 
     /**
-     * Retrieves a singleton instance of the database connection.
+     * Retrieves a singleton instance of the database connection, opening a new one if there is none or
+     * the last one was closed or dropped.
      *
      * @return The database connection.
      * @throws RuntimeException If there is an error establishing the database connection.
      */
-    public static Connection getConnection() {
+    public static synchronized Connection getConnection() {
         // Check if the connection is not already established
-        if (connection == null) {
+        if (connection == null || isClosedQuietly(connection)) {
             try {
                 // Load the JDBC driver
-                Class.forName("com.mysql.cj.jdbc.Driver");
-    			connection = DriverManager.getConnection("jdbc:mysql://localhost:3306/carrentalsystem","root","Harsh@2812");
+                loadDriver();
+                DriverManager.setLoginTimeout(LOGIN_TIMEOUT_SECONDS);
+    			connection = DriverManager.getConnection(URL,"root","Harsh@2812");
 
 
                 // Get the connection using properties from DBPropertyUtil
@@ -37,8 +59,7 @@ public class DBConnection {
 //                        DBPropertyUtil.getPropertyString("db.password")
 //                );
             } catch (ClassNotFoundException | SQLException e) {
-                // Print the stack trace for debugging purposes
-                e.printStackTrace();
+                LOG.error("getConnection", "Failed to establish a database connection", e);
                 
                 // Throw a runtime exception with a descriptive error message
                 throw new RuntimeException("Failed to establish a database connection.");
@@ -46,4 +67,133 @@ public class DBConnection {
         }
         return connection;
     }
+
+    /**
+     * Retrieves the singleton connection if one is open, without connecting.
+     *
+     * @return The open connection, or null if there is none.
+     */
+    public static synchronized Connection getOpenConnection() {
+        return connection == null || isClosedQuietly(connection) ? null : connection;
+    }
+
+    /**
+     * Retrieves the singleton connection, opening a new one if there is none. Unlike
+     * {@link #getConnection()}, a failure to connect is reported as the driver's SQLException.
+     *
+     * @return The database connection.
+     * @throws SQLException If the connection cannot be established.
+     */
+    public static synchronized Connection connect() throws SQLException {
+        Connection open = getOpenConnection();
+        if (open != null) {
+            return open;
+        }
+        try {
+            loadDriver();
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver not found", e);
+        }
+        DriverManager.setLoginTimeout(LOGIN_TIMEOUT_SECONDS);
+        connection = DriverManager.getConnection(URL, "root", "Harsh@2812");
+        return connection;
+    }
+
+    /**
+     * Checks the singleton connection after a call failed in a way that suggests an outage, and drops it
+     * if the server no longer answers on it, so the next call opens a new one. The check runs outside
+     * the class lock, so callers fetching the connection meanwhile are not held up by it.
+     */
+    public static void dropIfInvalid() {
+        Connection current;
+        synchronized (DBConnection.class) {
+            current = connection;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            if (current.isValid(LOGIN_TIMEOUT_SECONDS)) {
+                return;
+            }
+        } catch (SQLException e) {
+            // Treated like a failed check
+        }
+        synchronized (DBConnection.class) {
+            if (connection == current) {
+                connection = null;
+            }
+        }
+        LOG.at(Level.WARN).op("dropConnection").log("Dropped a database connection that no longer answers");
+        closeQuietly(current);
+    }
+
+    /**
+     * Retrieves a connection for one transaction, separate from the singleton connection and from every
+     * other open transaction, with auto-commit off. Reuses an idle connection when there is one. Return it
+     * with {@link #releaseTransactionConnection(Connection, boolean)} once the transaction has ended.
+     *
+     * @return A connection that only the caller uses until it is released.
+     * @throws SQLException If a new connection cannot be established.
+     */
+    public static Connection acquireTransactionConnection() throws SQLException {
+        Connection idle;
+        while ((idle = IDLE_TRANSACTION_CONNECTIONS.poll()) != null) {
+            if (idle.isValid(LOGIN_TIMEOUT_SECONDS)) {
+                return idle;
+            }
+            closeQuietly(idle);
+        }
+        try {
+            loadDriver();
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver not found", e);
+        }
+        DriverManager.setLoginTimeout(LOGIN_TIMEOUT_SECONDS);
+        Connection connection = DriverManager.getConnection(URL, "root", "Harsh@2812");
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    /**
+     * Returns a connection acquired with {@link #acquireTransactionConnection()}. It is kept for reuse only
+     * if its transaction was committed or rolled back and the idle pool has room; otherwise it is closed.
+     *
+     * @param connection The connection.
+     * @param ended      True if the transaction on it was committed or rolled back.
+     */
+    public static void releaseTransactionConnection(Connection connection, boolean ended) {
+        if (!ended || !IDLE_TRANSACTION_CONNECTIONS.offer(connection)) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static boolean isClosedQuietly(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOG.error("closeConnection", "Failed to close a transaction connection", e);
+        }
+    }
+
+    /**
+     * Loads the JDBC driver class. Safe to call more than once; only the first call does any work.
+     * Startup warmup calls this early so the first request does not pay for driver initialization.
+     *
+     * @throws ClassNotFoundException If the driver is not on the classpath.
+     */
+    public static synchronized void loadDriver() throws ClassNotFoundException {
+        if (!driverLoaded) {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            driverLoaded = true;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package util;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Shared date parsing and formatting for {@code yyyy-MM-dd} dates.
+ * <p>
+ * Everything here is immutable or stateless and therefore safe to share between threads, unlike
+ * {@code SimpleDateFormat}. {@link #parse(CharSequence)} reads the digits directly instead of going through
+ * a {@link DateTimeFormatter}, and dates from 2000 to 2099 are served from a table of shared instances,
+ * so parsing a booking date on the hot path allocates nothing once the table is warm.
+ */
+public final class Dates {
+
+    /**
+     * The ISO {@code yyyy-MM-dd} formatter, for formatting in contexts that need a {@link DateTimeFormatter}.
+     */
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private static final long DAYS_0000_TO_1970 = 719_528;
+    private static final long FIRST_CACHED_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final LocalDate[] CACHE = new LocalDate[(int) (LocalDate.of(2100, 1, 1).toEpochDay() - FIRST_CACHED_DAY)];
+
+    private Dates() {
+    }
+
+    /**
+     * Retrieves the date for an epoch day, reusing a shared instance for dates from 2000 to 2099.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The date.
+     */
+    public static LocalDate ofEpochDay(long epochDay) {
+        long index = epochDay - FIRST_CACHED_DAY;
+        if (index < 0 || index >= CACHE.length) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        // LocalDate is immutable with final fields, so a racy read sees either null or a complete instance
+        LocalDate date = CACHE[(int) index];
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            CACHE[(int) index] = date;
+        }
+        return date;
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd} date.
+     *
+     * @param text The text to parse.
+     * @return The date.
+     * @throws DateTimeParseException If the text is not a valid {@code yyyy-MM-dd} date.
+     */
+    public static LocalDate parse(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw new DateTimeParseException("Expected a yyyy-MM-dd date", text, 0);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            throw new DateTimeParseException("Invalid date", text, 0);
+        }
+        return ofEpochDay(epochDay(year, month, day));
+    }
+
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new DateTimeParseException("Expected a digit", text, i);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Same arithmetic as LocalDate.toEpochDay(), for a year between 0 and 9999
+    private static long epochDay(long year, long month, long day) {
+        long total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!Year.isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
@@ -0,0 +1,101 @@
+package util;
+
+import exception.OptimisticLockException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries read-modify-write operations that fail with an {@link OptimisticLockException}.
+ * <p>
+ * Each attempt must re-read the rows it changes, so a retry works on the current versions. Between attempts
+ * the caller sleeps for a random time up to an exponentially growing bound ("full jitter"), which spreads out
+ * clerks competing for the same hot car instead of having them collide again in lockstep. The number of
+ * attempts and the backoff are bounded, so a persistently contended row surfaces as an exception rather
+ * than an unbounded wait.
+ */
+public final class RetryHelper {
+
+    /**
+     * The default number of attempts, including the first.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * The default upper bound of the first backoff, in milliseconds.
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 10;
+
+    /**
+     * The default cap on any single backoff, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 200;
+
+    private RetryHelper() {
+    }
+
+    /**
+     * One attempt of a read-modify-write operation.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+
+        /**
+         * Reads the current state, applies the change and writes it.
+         *
+         * @return The result of the operation.
+         * @throws Exception If the attempt fails; only {@link OptimisticLockException} is retried.
+         */
+        T run() throws Exception;
+    }
+
+    /**
+     * Runs an operation, retrying on version conflicts with the default attempts and backoff.
+     *
+     * @param attempt The operation.
+     * @param <T>     The result type.
+     * @return The result of the first successful attempt.
+     * @throws OptimisticLockException If every attempt conflicted.
+     * @throws Exception               If an attempt failed for another reason.
+     */
+    public static <T> T retryOnConflict(Attempt<T> attempt) throws Exception {
+        return retryOnConflict(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, attempt);
+    }
+
+    /**
+     * Runs an operation, retrying on version conflicts.
+     *
+     * @param maxAttempts          The maximum number of attempts, including the first.
+     * @param initialBackoffMillis The upper bound of the first backoff; doubled after each conflict.
+     * @param maxBackoffMillis     The cap on any single backoff.
+     * @param attempt              The operation.
+     * @param <T>                  The result type.
+     * @return The result of the first successful attempt.
+     * @throws OptimisticLockException If every attempt conflicted, or the thread was interrupted while backing off.
+     * @throws Exception               If an attempt failed for another reason.
+     */
+    public static <T> T retryOnConflict(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis,
+                                        Attempt<T> attempt) throws Exception {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        long bound = Math.max(1, initialBackoffMillis);
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockException e) {
+                if (attemptNumber == maxAttempts) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                bound = Math.min(maxBackoffMillis, bound * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package utilization;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of per-day counters indexed by epoch day. The array covers the days between the
+ * earliest and latest day ever touched and grows in either direction as needed.
+ */
+final class DailySeries {
+
+    private int origin;
+    private int[] counts = new int[0];
+
+    /**
+     * Adds a delta to every day in {@code [fromDay, toDay)}.
+     *
+     * @param fromDay The first epoch day.
+     * @param toDay   The epoch day after the last one.
+     * @param delta   The amount to add.
+     */
+    void add(int fromDay, int toDay, int delta) {
+        if (fromDay >= toDay) {
+            return;
+        }
+        ensureCovers(fromDay, toDay);
+        for (int day = fromDay - origin, end = toDay - origin; day < end; day++) {
+            counts[day] += delta;
+        }
+    }
+
+    /**
+     * Copies the counters of {@code [fromDay, toDay)}; days never touched count as zero.
+     *
+     * @param fromDay The first epoch day.
+     * @param toDay   The epoch day after the last one.
+     * @return One counter per day.
+     */
+    int[] range(int fromDay, int toDay) {
+        int[] result = new int[Math.max(0, toDay - fromDay)];
+        int from = Math.max(fromDay, origin);
+        int to = Math.min(toDay, origin + counts.length);
+        if (from < to) {
+            System.arraycopy(counts, from - origin, result, from - fromDay, to - from);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the counters of {@code [fromDay, toDay)}.
+     *
+     * @param fromDay The first epoch day.
+     * @param toDay   The epoch day after the last one.
+     * @return The total.
+     */
+    long sum(int fromDay, int toDay) {
+        long sum = 0;
+        for (int day = Math.max(fromDay, origin), end = Math.min(toDay, origin + counts.length); day < end; day++) {
+            sum += counts[day - origin];
+        }
+        return sum;
+    }
+
+    private void ensureCovers(int fromDay, int toDay) {
+        if (counts.length == 0) {
+            origin = fromDay;
+            counts = new int[Math.max(toDay - fromDay, 64)];
+            return;
+        }
+        if (fromDay < origin) {
+            // Grow towards the past by at least a quarter so repeated backfills stay cheap
+            int shift = Math.max(origin - fromDay, counts.length / 4);
+            int[] grown = new int[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            origin -= shift;
+        }
+        if (toDay - origin > counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(toDay - origin, counts.length * 2));
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package utilization;
+
+import dao.ICarLeaseRepository;
+import entity.Car;
+import entity.Lease;
+import event.CarAddedEvent;
+import event.CarRemovedEvent;
+import event.CarReturnedEvent;
+import event.CarUpdatedEvent;
+import event.EventSubscriber;
+import event.LeaseCreatedEvent;
+import event.LeaseUpdatedEvent;
+import event.RepositoryEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains fleet utilization incrementally as leases are created and cars are returned.
+ * <p>
+ * For every day the engine keeps the number of cars booked, fleet-wide and per make, in primitive
+ * per-day arrays; for every car it keeps a booked-day counter and its booked intervals. A lease books its
+ * car from the start date for the number of days charged (see {@link pricing.LeaseType#days(LocalDate, LocalDate)});
+ * returning a car early releases the days after the return.
+ * <p>
+ * {@link #refresh(ICarLeaseRepository)} reloads the fleet and only fetches leases with an ID above the
+ * highest one already seen, so it never rescans the lease table. Between refreshes the engine follows the
+ * repository's {@link event.EventBus}. Utilization ratios use the current fleet size.
+ * <p>
+ * A lease only counts on the days it covers, so a lease booked to start next week adds nothing to today's
+ * occupancy, unlike {@link ICarLeaseRepository#listActiveLeases()}, which lists every lease that has not
+ * ended yet.
+ */
+public class UtilizationEngine implements EventSubscriber {
+
+    private final Map<Integer, Integer> slotByVehicleID = new HashMap<>();
+    private int[] vehicleIDs = new int[64];
+    private String[] makes = new String[64];
+    private boolean[] inFleet = new boolean[64];
+    private int[] bookedDays = new int[64];
+    // Booked intervals per car as flattened [start, end) epoch-day pairs
+    private int[][] intervals = new int[64][];
+    private int[] intervalLengths = new int[64];
+    private int slotCount;
+    private int fleetSize;
+
+    private final DailySeries occupancy = new DailySeries();
+    private final Map<String, DailySeries> occupancyByMake = new HashMap<>();
+    private final Map<String, Integer> fleetByMake = new HashMap<>();
+    // leaseID -> {slot, startDay, endDay}
+    private final Map<Integer, int[]> bookings = new HashMap<>();
+    private int maxLeaseID;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Reloads the fleet and applies every lease created since the last refresh.
+     * The first call loads the full lease history; later calls only fetch newer leases.
+     *
+     * @param repository The repository to load from.
+     */
+    public void refresh(ICarLeaseRepository repository) {
+        lock.writeLock().lock();
+        try {
+            for (Car car : repository.listAvailableCars()) {
+                addCarLocked(car);
+            }
+            for (Car car : repository.listRentedCars()) {
+                addCarLocked(car);
+            }
+            for (Lease lease : repository.listLeasesAfter(maxLeaseID)) {
+                bookLocked(lease);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a repository change to the counters.
+     *
+     * @param event The repository event.
+     */
+    @Override
+    public void onEvent(RepositoryEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event instanceof CarAddedEvent) {
+                addCarLocked(((CarAddedEvent) event).getCar());
+            } else if (event instanceof CarRemovedEvent) {
+                removeCarLocked(((CarRemovedEvent) event).getVehicleID());
+            } else if (event instanceof LeaseCreatedEvent) {
+                bookLocked(((LeaseCreatedEvent) event).getLease());
+            } else if (event instanceof CarReturnedEvent) {
+                releaseLocked(((CarReturnedEvent) event).getLease().getLeaseID(), epochDay(event.getTimestamp()) + 1);
+            } else if (event instanceof CarUpdatedEvent) {
+                addCarLocked(((CarUpdatedEvent) event).getCar());
+            } else if (event instanceof LeaseUpdatedEvent) {
+                Lease lease = ((LeaseUpdatedEvent) event).getLease();
+                unbookLocked(lease.getLeaseID());
+                bookLocked(lease);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of cars booked on each day of a range.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     * @return One count per day.
+     */
+    public int[] getDailyOccupancy(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return occupancy.range(day(from), day(to) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of cars of one make booked on each day of a range.
+     *
+     * @param make The make.
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     * @return One count per day.
+     */
+    public int[] getDailyOccupancy(String make, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            DailySeries series = occupancyByMake.get(normalize(make));
+            return series == null ? new int[day(to) + 1 - day(from)] : series.range(day(from), day(to) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the share of the fleet booked on each day of a range.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     * @return One ratio per day.
+     */
+    public double[] getDailyUtilization(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int[] counts = occupancy.range(day(from), day(to) + 1);
+            double[] ratios = new double[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                ratios[i] = ratio(counts[i], fleetSize);
+            }
+            return ratios;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the total number of days a car has been booked.
+     *
+     * @param carID The ID of the car.
+     * @return The booked days, or 0 for an unknown car.
+     */
+    public int getBookedDays(int carID) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByVehicleID.get(carID);
+            return slot == null ? 0 : bookedDays[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of days in a range on which a car is booked.
+     *
+     * @param carID The ID of the car.
+     * @param from  The first day.
+     * @param to    The last day, inclusive.
+     * @return The booked days in the range.
+     */
+    public int getBookedDays(int carID, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByVehicleID.get(carID);
+            return slot == null ? 0 : bookedDaysLocked(slot, day(from), day(to) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the share of days in a range on which a car is booked.
+     *
+     * @param carID The ID of the car.
+     * @param from  The first day.
+     * @param to    The last day, inclusive.
+     * @return The utilization, between 0 and 1.
+     */
+    public double getCarUtilization(int carID, LocalDate from, LocalDate to) {
+        return ratio(getBookedDays(carID, from, to), day(to) + 1 - day(from));
+    }
+
+    /**
+     * Retrieves the utilization of each make over a range: booked car-days divided by the make's
+     * current fleet size times the number of days.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     * @return The utilization per make, ordered by make.
+     */
+    public Map<String, Double> getUtilizationByMake(LocalDate from, LocalDate to) {
+        int fromDay = day(from);
+        int toDay = day(to) + 1;
+        lock.readLock().lock();
+        try {
+            String[] sorted = occupancyByMake.keySet().toArray(new String[0]);
+            Arrays.sort(sorted);
+            Map<String, Double> result = new LinkedHashMap<>();
+            for (String make : sorted) {
+                long capacity = (long) fleetByMake.getOrDefault(make, 0) * (toDay - fromDay);
+                result.put(make, ratio(occupancyByMake.get(make).sum(fromDay, toDay), capacity));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of cars currently in the fleet.
+     *
+     * @return The fleet size.
+     */
+    public int getFleetSize() {
+        lock.readLock().lock();
+        try {
+            return fleetSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the daily occupancy of a range as CSV with a header row.
+     *
+     * @param writer The destination.
+     * @param from   The first day.
+     * @param to     The last day, inclusive.
+     * @throws IOException If writing fails.
+     */
+    public void writeDailyCsv(Writer writer, LocalDate from, LocalDate to) throws IOException {
+        int[] counts;
+        int fleet;
+        lock.readLock().lock();
+        try {
+            counts = occupancy.range(day(from), day(to) + 1);
+            fleet = fleetSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+        writer.write("date,bookedCars,fleetSize,utilization\n");
+        for (int i = 0; i < counts.length; i++) {
+            writer.write(from.plusDays(i) + "," + counts[i] + "," + fleet + ","
+                    + format(ratio(counts[i], fleet)) + "\n");
+        }
+    }
+
+    /**
+     * Writes per-car utilization over a range as CSV with a header row.
+     *
+     * @param writer The destination.
+     * @param from   The first day.
+     * @param to     The last day, inclusive.
+     * @throws IOException If writing fails.
+     */
+    public void writeCarsCsv(Writer writer, LocalDate from, LocalDate to) throws IOException {
+        writer.write("vehicleID,make,bookedDays,utilization\n");
+        int fromDay = day(from);
+        int toDay = day(to) + 1;
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                int booked = bookedDaysLocked(slot, fromDay, toDay);
+                writer.write(vehicleIDs[slot] + "," + csv(makes[slot]) + "," + booked + ","
+                        + format(ratio(booked, toDay - fromDay)) + "\n");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the daily occupancy, per-make and per-car utilization of a range as one JSON object.
+     *
+     * @param writer The destination.
+     * @param from   The first day.
+     * @param to     The last day, inclusive.
+     * @throws IOException If writing fails.
+     */
+    public void writeJson(Writer writer, LocalDate from, LocalDate to) throws IOException {
+        int fromDay = day(from);
+        int toDay = day(to) + 1;
+        Map<String, Double> byMake = getUtilizationByMake(from, to);
+        lock.readLock().lock();
+        try {
+            writer.write("{\"from\":\"" + from + "\",\"to\":\"" + to + "\",\"fleetSize\":" + fleetSize);
+            writer.write(",\"daily\":[");
+            int[] counts = occupancy.range(fromDay, toDay);
+            for (int i = 0; i < counts.length; i++) {
+                writer.write((i == 0 ? "" : ",") + "{\"date\":\"" + from.plusDays(i) + "\",\"bookedCars\":"
+                        + counts[i] + ",\"utilization\":" + format(ratio(counts[i], fleetSize)) + "}");
+            }
+            writer.write("],\"makes\":{");
+            boolean first = true;
+            for (Map.Entry<String, Double> entry : byMake.entrySet()) {
+                writer.write((first ? "" : ",") + "\"" + json(entry.getKey()) + "\":" + format(entry.getValue()));
+                first = false;
+            }
+            writer.write("},\"cars\":[");
+            for (int slot = 0; slot < slotCount; slot++) {
+                int booked = bookedDaysLocked(slot, fromDay, toDay);
+                writer.write((slot == 0 ? "" : ",") + "{\"vehicleID\":" + vehicleIDs[slot] + ",\"make\":\""
+                        + json(makes[slot]) + "\",\"bookedDays\":" + booked + ",\"utilization\":"
+                        + format(ratio(booked, toDay - fromDay)) + "}");
+            }
+            writer.write("]}");
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addCarLocked(Car car) {
+        int slot = slotFor(car.getVehicleID());
+        String make = normalize(car.getMake());
+        if (inFleet[slot]) {
+            if (make.equals(makes[slot])) {
+                return;
+            }
+            fleetByMake.merge(makes[slot], -1, Integer::sum);
+        } else {
+            inFleet[slot] = true;
+            fleetSize++;
+        }
+        makes[slot] = make;
+        fleetByMake.merge(make, 1, Integer::sum);
+    }
+
+    // Removed cars keep their history so past occupancy stays correct
+    private void removeCarLocked(int vehicleID) {
+        Integer slot = slotByVehicleID.get(vehicleID);
+        if (slot == null || !inFleet[slot]) {
+            return;
+        }
+        inFleet[slot] = false;
+        fleetSize--;
+        fleetByMake.merge(makes[slot], -1, Integer::sum);
+    }
+
+    private void bookLocked(Lease lease) {
+        maxLeaseID = Math.max(maxLeaseID, lease.getLeaseID());
+        if (bookings.containsKey(lease.getLeaseID())) {
+            return;
+        }
+        int slot = slotFor(lease.getVehicleID());
+        int start = day(lease.getStartDate());
+        int end = start + Math.max(1, day(lease.getEndDate()) - start);
+        bookings.put(lease.getLeaseID(), new int[] {slot, start, end});
+        if (intervals[slot] == null) {
+            intervals[slot] = new int[4];
+        } else if (intervalLengths[slot] == intervals[slot].length) {
+            intervals[slot] = Arrays.copyOf(intervals[slot], intervalLengths[slot] * 2);
+        }
+        intervals[slot][intervalLengths[slot]++] = start;
+        intervals[slot][intervalLengths[slot]++] = end;
+        applyDays(slot, start, end, 1);
+    }
+
+    private void releaseLocked(int leaseID, int releaseDay) {
+        int[] booking = bookings.get(leaseID);
+        if (booking == null) {
+            return;
+        }
+        int slot = booking[0];
+        int newEnd = Math.max(booking[1] + 1, releaseDay);
+        if (newEnd >= booking[2]) {
+            return;
+        }
+        applyDays(slot, newEnd, booking[2], -1);
+        int[] pairs = intervals[slot];
+        for (int i = 0; i < intervalLengths[slot]; i += 2) {
+            if (pairs[i] == booking[1] && pairs[i + 1] == booking[2]) {
+                pairs[i + 1] = newEnd;
+                break;
+            }
+        }
+        booking[2] = newEnd;
+    }
+
+    private void unbookLocked(int leaseID) {
+        int[] booking = bookings.remove(leaseID);
+        if (booking == null) {
+            return;
+        }
+        int slot = booking[0];
+        applyDays(slot, booking[1], booking[2], -1);
+        int[] pairs = intervals[slot];
+        for (int i = 0; i < intervalLengths[slot]; i += 2) {
+            if (pairs[i] == booking[1] && pairs[i + 1] == booking[2]) {
+                intervalLengths[slot] -= 2;
+                pairs[i] = pairs[intervalLengths[slot]];
+                pairs[i + 1] = pairs[intervalLengths[slot] + 1];
+                break;
+            }
+        }
+    }
+
+    private void applyDays(int slot, int start, int end, int delta) {
+        bookedDays[slot] += delta * (end - start);
+        occupancy.add(start, end, delta);
+        if (makes[slot] != null) {
+            occupancyByMake.computeIfAbsent(makes[slot], k -> new DailySeries()).add(start, end, delta);
+        }
+    }
+
+    private int bookedDaysLocked(int slot, int fromDay, int toDay) {
+        int booked = 0;
+        int[] pairs = intervals[slot];
+        for (int i = 0; i < intervalLengths[slot]; i += 2) {
+            booked += Math.max(0, Math.min(pairs[i + 1], toDay) - Math.max(pairs[i], fromDay));
+        }
+        return booked;
+    }
+
+    // Cars seen only through a lease get a slot without a make until the car itself is loaded
+    private int slotFor(int vehicleID) {
+        Integer existing = slotByVehicleID.get(vehicleID);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = slotCount++;
+        if (slot == vehicleIDs.length) {
+            int capacity = slot * 2;
+            vehicleIDs = Arrays.copyOf(vehicleIDs, capacity);
+            makes = Arrays.copyOf(makes, capacity);
+            inFleet = Arrays.copyOf(inFleet, capacity);
+            bookedDays = Arrays.copyOf(bookedDays, capacity);
+            intervals = Arrays.copyOf(intervals, capacity);
+            intervalLengths = Arrays.copyOf(intervalLengths, capacity);
+        }
+        vehicleIDs[slot] = vehicleID;
+        slotByVehicleID.put(vehicleID, slot);
+        return slot;
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static int epochDay(long epochMillis) {
+        return (int) Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    private static String normalize(String make) {
+        return make == null ? "" : make.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole <= 0 ? 0 : (double) part / whole;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String csv(String value) {
+        String text = value == null ? "" : value;
+        return text.indexOf(',') >= 0 || text.indexOf('"') >= 0 ? "\"" + text.replace("\"", "\"\"") + "\"" : text;
+    }
+
+    private static String json(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -1,19 +1,30 @@
 package view;
 
+import cache.RequestMemo;
 import controller.CarRentalController;
+import dao.CarQuery;
+import dao.WarmupReport;
 import entity.Customer;
+import entity.CustomerSummary;
 import entity.Car;
+import entity.CarSummary;
 import entity.Lease;
+import entity.LeaseSummary;
+import entity.LedgerEntry;
 import entity.Payment;
 import exception.CarNotFoundException;
 import exception.CarAlreadyExistsException;
 import exception.CustomerAlreadyExistsException;
 import exception.CustomerNotFoundException;
 import exception.LeaseNotFoundException;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import pricing.Quote;
+import report.MonthEndReport;
+import util.Dates;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -40,6 +51,23 @@ public class MainModule {
             throws CarNotFoundException, CustomerAlreadyExistsException, CustomerNotFoundException,
             CarAlreadyExistsException, LeaseNotFoundException {
 
+        WarmupReport warmup = carRentalController.warmUp();
+        if (warmup != null) {
+            System.out.println("Ready in " + warmup.getTimeToReadyMillis() + " ms: " + warmup);
+        }
+        // Nodes started with the same file evict each other's cached cars and customers
+        String invalidationFile = System.getProperty("carrental.cache.invalidationFile");
+        if (invalidationFile != null) {
+            carRentalController.joinCacheInvalidation(Paths.get(invalidationFile), 200);
+        }
+        // A warm restart recovers the in-memory state from the journal instead of reloading every table
+        String journalDirectory = System.getProperty("carrental.journal.dir");
+        if (journalDirectory != null) {
+            carRentalController.openJournaledState(Paths.get(journalDirectory), 10_000);
+        }
+        // Removed cars and customers are only flagged; delete them for good between 01:00 and 05:00
+        carRentalController.startSoftDeletePurger(LocalTime.of(1, 0), LocalTime.of(5, 0));
+
     	while (true) {
 
     		System.out.println("Car Rental Application Menu:");
@@ -88,29 +116,39 @@ public class MainModule {
             System.out.println("2. Remove Customer");
             System.out.println("3. List Customers");
             System.out.println("4. Find Customer by ID");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. Search Customers");
+            System.out.println("6. Back to Main Menu");
 
             System.out.print("Enter your choice: ");
             int choice = scanner.nextInt();
             scanner.nextLine(); 
 
-            switch (choice) {
-                case 1:
-                    addCustomer();
-                    break;
-                case 2:
-                    removeCustomer();
-                    break;
-                case 3:
-                    listCustomers();
-                    break;
-                case 4:
-                    findCustomerById();
-                    break;
-                case 5:
-                    return;
-                default:
-                    System.out.println("Invalid choice. Please enter a valid option.");
+            // One memo per action, so repeated lookups of the same car or customer hit it
+            RequestMemo.Scope memo = RequestMemo.open();
+            try {
+                switch (choice) {
+                    case 1:
+                        addCustomer();
+                        break;
+                    case 2:
+                        removeCustomer();
+                        break;
+                    case 3:
+                        listCustomers();
+                        break;
+                    case 4:
+                        findCustomerById();
+                        break;
+                    case 5:
+                        searchCustomers();
+                        break;
+                    case 6:
+                        return;
+                    default:
+                        System.out.println("Invalid choice. Please enter a valid option.");
+                }
+            } finally {
+                memo.close();
             }
         }
     }
@@ -157,13 +195,14 @@ public class MainModule {
 
     /**
      * Lists all customers in the system.
-     * Calls the listCustomers method in CarRentalController to retrieve and display the list.
+     * Calls the listCustomerSummaries method in CarRentalController to retrieve and display the list;
+     * full details are shown by Find Customer by ID.
      */
     
     private static void listCustomers() {
         System.out.println("\nList of Customers:");
-        List<Customer> customers = carRentalController.listCustomers();
-        for (Customer customer : customers) {
+        List<CustomerSummary> customers = carRentalController.listCustomerSummaries();
+        for (CustomerSummary customer : customers) {
             System.out.println(customer);
         }
     }
@@ -183,6 +222,22 @@ public class MainModule {
        carRentalController.findCustomerById(customerID);
     }
 
+    /**
+     * Searches customers by name, email or phone number based on user input.
+     * Calls the searchCustomers method in CarRentalController and displays the matches.
+     */
+    
+    private static void searchCustomers() {
+        System.out.println("\nSearch Customers:");
+        System.out.print("Enter name, email or phone: ");
+        String query = scanner.nextLine();
+
+        List<Customer> matches = carRentalController.searchCustomers(query, 20);
+        for (Customer customer : matches) {
+            System.out.println(customer);
+        }
+    }
+
     /**
      * Handles the Car Management menu, providing options for adding, removing, listing, and finding cars.
      *
@@ -200,32 +255,45 @@ public class MainModule {
             System.out.println("3. List Available Cars");
             System.out.println("4. List Rented Cars");
             System.out.println("5. Find Car by ID");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Filter Cars");
+            System.out.println("7. Update Daily Rate");
+            System.out.println("8. Back to Main Menu");
 
             System.out.print("Enter your choice: ");
             int choice = scanner.nextInt();
             scanner.nextLine(); 
 
-            switch (choice) {
-                case 1:
-                    addCar();
-                    break;
-                case 2:
-                    removeCar();
-                    break;
-                case 3:
-                    listAvailableCars();
-                    break;
-                case 4:
-                    listRentedCars();
-                    break;
-                case 5:
-                    findCarById();
-                    break;
-                case 6:
-                    return;
-                default:
-                    System.out.println("Invalid choice. Please enter a valid option.");
+            RequestMemo.Scope memo = RequestMemo.open();
+            try {
+                switch (choice) {
+                    case 1:
+                        addCar();
+                        break;
+                    case 2:
+                        removeCar();
+                        break;
+                    case 3:
+                        listAvailableCars();
+                        break;
+                    case 4:
+                        listRentedCars();
+                        break;
+                    case 5:
+                        findCarById();
+                        break;
+                    case 6:
+                        filterCars();
+                        break;
+                    case 7:
+                        updateDailyRate();
+                        break;
+                    case 8:
+                        return;
+                    default:
+                        System.out.println("Invalid choice. Please enter a valid option.");
+                }
+            } finally {
+                memo.close();
             }
         }
     }
@@ -289,13 +357,14 @@ public class MainModule {
 
         /**
          * Lists all available cars in the system.
-         * Calls the listAvailableCars method in CarRentalController to retrieve and display the list.
+         * Calls the listAvailableCarSummaries method in CarRentalController to retrieve and display the list;
+         * full details are shown by Find Car by ID.
          */
         
         private static void listAvailableCars() {
             System.out.println("\nList of Available Cars:");
-            List<Car> availableCars = carRentalController.listAvailableCars();
-            for (Car car : availableCars) {
+            List<CarSummary> availableCars = carRentalController.listAvailableCarSummaries();
+            for (CarSummary car : availableCars) {
                 System.out.println(car);
             }
         }
@@ -329,6 +398,54 @@ public class MainModule {
             System.out.println("Car found:\n" + car);
         }
 
+        /**
+         * Filters cars by make, minimum passenger capacity and maximum daily rate based on user input.
+         * Calls the findCars method in CarRentalController and displays the matches, cheapest first.
+         */
+        
+        private static void filterCars() {
+            System.out.println("\nFilter Cars:");
+            System.out.print("Enter make (blank for any): ");
+            String make = scanner.nextLine().trim();
+            System.out.print("Enter minimum passenger capacity: ");
+            int minPassengers = scanner.nextInt();
+            System.out.print("Enter maximum daily rate: ");
+            double maxDailyRate = scanner.nextDouble();
+            scanner.nextLine();
+
+            CarQuery query = new CarQuery()
+                    .statuses("available")
+                    .passengerCapacityBetween(minPassengers, null)
+                    .dailyRateBetween(null, maxDailyRate);
+            if (!make.isEmpty()) {
+                query.makes(make);
+            }
+            List<Car> cars = carRentalController.findCars(query);
+            for (Car car : cars) {
+                System.out.println(car);
+            }
+        }
+
+        /**
+         * Changes the daily rate of a car based on user input for the car ID and the new rate.
+         * Calls the updateCarRate method in CarRentalController, which retries if another clerk
+         * updates the same car at the same time.
+         */
+        
+        private static void updateDailyRate() {
+            System.out.println("\nUpdate Daily Rate:");
+            System.out.print("Enter car ID: ");
+            int carID = scanner.nextInt();
+            System.out.print("Enter new daily rate: ");
+            double dailyRate = scanner.nextDouble();
+            scanner.nextLine();
+
+            Car car = carRentalController.updateCarRate(carID, dailyRate);
+            if (car != null) {
+                System.out.println("Daily rate updated:\n" + car);
+            }
+        }
+
         /**
          * Handles the Lease Management menu, providing options for creating leases, returning cars,
          * and listing active leases and lease history.
@@ -345,29 +462,46 @@ public class MainModule {
                 System.out.println("2. Return Car");
                 System.out.println("3. List Active Leases");
                 System.out.println("4. List Lease History");
-                System.out.println("5. Back to Main Menu");
+                System.out.println("5. Get Quote");
+                System.out.println("6. Export Utilization");
+                System.out.println("7. Archive Completed Leases");
+                System.out.println("8. Back to Main Menu");
 
                 System.out.print("Enter your choice: ");
                 int choice = scanner.nextInt();
                 scanner.nextLine(); // Consume the newline character
 
-                switch (choice) {
-                    case 1:
-                        createLease();
-                        break;
-                    case 2:
-                        returnCar();
-                        break;
-                    case 3:
-                        listActiveLeases();
-                        break;
-                    case 4:
-                        listLeaseHistory();
-                        break;
-                    case 5:
-                        return;
-                    default:
-                        System.out.println("Invalid choice. Please enter a valid option.");
+                RequestMemo.Scope memo = RequestMemo.open();
+                try {
+                    switch (choice) {
+                        case 1:
+                            createLease();
+                            break;
+                        case 2:
+                            returnCar();
+                            break;
+                        case 3:
+                            listActiveLeases();
+                            break;
+                        case 4:
+                            listLeaseHistory();
+                            break;
+                        case 5:
+                            getQuote();
+                            break;
+                        case 6:
+                            exportUtilization();
+                            break;
+                        case 7:
+                            archiveCompletedLeases();
+                            break;
+                        case 8:
+                            return;
+                        default:
+                            System.out.println("Invalid choice. Please enter a valid option.");
+                    }
+                } finally {
+                    memo.close();
                 }
             }
         }
@@ -390,17 +524,83 @@ public class MainModule {
             String endDateStr = scanner.next();
 
             try {
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                Date startDate = dateFormat.parse(startDateStr);
-                Date endDate = dateFormat.parse(endDateStr);
+                LocalDate startDate = Dates.parse(startDateStr);
+                LocalDate endDate = Dates.parse(endDateStr);
 
                 Lease lease = carRentalController.createLease(customerID, carID, startDate, endDate);
                 System.out.println("Lease created successfully:\n" + lease);
-            } catch (ParseException e) {
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format. Please enter dates in yyyy-MM-dd format.");
+            }
+        }
+
+        /**
+         * Quotes the price of a lease by taking user input for car ID, start date, and end date.
+         * Calls the getQuote method in CarRentalController and displays the quote.
+         */
+        
+        private static void getQuote() {
+            System.out.println("\nGetting Quote:");
+
+            System.out.print("Enter car ID: ");
+            int carID = scanner.nextInt();
+            System.out.print("Enter start date (yyyy-MM-dd): ");
+            String startDateStr = scanner.next();
+            System.out.print("Enter end date (yyyy-MM-dd): ");
+            String endDateStr = scanner.next();
+
+            try {
+                LocalDate startDate = Dates.parse(startDateStr);
+                LocalDate endDate = Dates.parse(endDateStr);
+
+                Quote quote = carRentalController.getQuote(carID, startDate, endDate);
+                if (quote != null) {
+                    System.out.println(quote);
+                }
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format. Please enter dates in yyyy-MM-dd format.");
+            }
+        }
+
+        /**
+         * Exports fleet utilization by taking user input for a date range and a file name.
+         * Calls the exportUtilization method in CarRentalController; ".json" files get JSON, others CSV.
+         */
+        
+        private static void exportUtilization() {
+            System.out.println("\nExporting Utilization:");
+
+            System.out.print("Enter start date (yyyy-MM-dd): ");
+            String startDateStr = scanner.next();
+            System.out.print("Enter end date (yyyy-MM-dd): ");
+            String endDateStr = scanner.next();
+            System.out.print("Enter file name (.csv or .json): ");
+            String fileName = scanner.next();
+
+            try {
+                LocalDate startDate = Dates.parse(startDateStr);
+                LocalDate endDate = Dates.parse(endDateStr);
+
+                carRentalController.exportUtilization(Paths.get(fileName), startDate, endDate);
+            } catch (DateTimeParseException e) {
                 System.out.println("Invalid date format. Please enter dates in yyyy-MM-dd format.");
             }
         }
 
+        /**
+         * Archives fully paid leases that ended more than the entered number of days ago.
+         * Calls the archiveCompletedLeases method in CarRentalController to move them.
+         */
+        private static void archiveCompletedLeases() {
+            System.out.print("Enter retention period in days: ");
+            int retentionDays = scanner.nextInt();
+
+            int archived = carRentalController.archiveCompletedLeases(retentionDays);
+            if (archived >= 0) {
+                System.out.println(archived + " leases archived.");
+            }
+        }
+
         /**
          * Returns a leased car by taking user input for the lease ID.
          * Calls the returnCar method in CarRentalController to perform the car return.
@@ -433,13 +633,13 @@ public class MainModule {
 
         /**
          * Lists the lease history in the system.
-         * Calls the listLeaseHistory method in CarRentalController to retrieve and display the list.
+         * Calls the listLeaseSummaries method in CarRentalController to retrieve and display the list.
          */
         
         private static void listLeaseHistory() {
             System.out.println("\nList of Lease History:");
-            List<Lease> leaseHistory = carRentalController.listLeaseHistory();
-            for (Lease lease : leaseHistory) {
+            List<LeaseSummary> leaseHistory = carRentalController.listLeaseSummaries();
+            for (LeaseSummary lease : leaseHistory) {
                 System.out.println(lease);
             }
         }
@@ -458,26 +658,39 @@ public class MainModule {
                 System.out.println("1. Record Payment");
                 System.out.println("2. Retrieve Payment History");
                 System.out.println("3. Calculate Total Revenue");
-                System.out.println("4. Back to Main Menu");
+                System.out.println("4. Month-End Report");
+                System.out.println("5. Customer Balance");
+                System.out.println("6. Back to Main Menu");
 
                 System.out.print("Enter your choice: ");
                 int choice = scanner.nextInt();
                 scanner.nextLine(); // Consume the newline character
 
-                switch (choice) {
-                    case 1:
-                        recordPayment();
-                        break;
-                    case 2:
-                        retrievePaymentHistory();
-                        break;
-                    case 3:
-                        calculateTotalRevenue();
-                        break;
-                    case 4:
-                        return;
-                    default:
-                        System.out.println("Invalid choice. Please enter a valid option.");
+                RequestMemo.Scope memo = RequestMemo.open();
+                try {
+                    switch (choice) {
+                        case 1:
+                            recordPayment();
+                            break;
+                        case 2:
+                            retrievePaymentHistory();
+                            break;
+                        case 3:
+                            calculateTotalRevenue();
+                            break;
+                        case 4:
+                            monthEndReport();
+                            break;
+                        case 5:
+                            customerBalance();
+                            break;
+                        case 6:
+                            return;
+                        default:
+                            System.out.println("Invalid choice. Please enter a valid option.");
+                    }
+                } finally {
+                    memo.close();
                 }
             }
         }
@@ -525,6 +738,27 @@ public class MainModule {
             }
         }
 
+        /**
+         * Displays a customer's ledger and the balance they owe, based on user input for the customer ID.
+         * Calls the retrieveLedger and retrieveBalance methods in CarRentalController.
+         */
+        
+        private static void customerBalance() {
+            System.out.println("\nCustomer Balance:");
+            System.out.print("Enter Customer ID: ");
+            int customerID = scanner.nextInt();
+            scanner.nextLine(); 
+
+            List<LedgerEntry> ledger = carRentalController.retrieveLedger(customerID);
+            System.out.println("Ledger for Customer ID " + customerID + ":");
+            if (ledger != null) {
+                for (LedgerEntry entry : ledger) {
+                    System.out.println(entry);
+                }
+            }
+            System.out.println("Balance owed: Rs " + carRentalController.retrieveBalance(customerID));
+        }
+
         /**
          * Calculates and displays the total revenue earned by the car rental service.
          * Calls the calculateTotalRevenue method in CarRentalController for revenue calculation.
@@ -535,5 +769,37 @@ public class MainModule {
             double totalRevenue = carRentalController.calculateTotalRevenue();
             System.out.println("Total Revenue: Rs " + totalRevenue);
         }
+
+        /**
+         * Generates and displays the month-end report by taking user input for year and month.
+         * Calls the generateMonthEndReport method in CarRentalController to build the report.
+         */
+        
+        private static void monthEndReport() {
+            System.out.println("\nMonth-End Report:");
+            System.out.print("Enter year: ");
+            int year = scanner.nextInt();
+            System.out.print("Enter month (1-12): ");
+            int month = scanner.nextInt();
+
+            MonthEndReport report = carRentalController.generateMonthEndReport(year, month, 10);
+            if (report == null) {
+                return;
+            }
+            System.out.println("Leases started: " + report.getLeaseCount()
+                    + String.format(", average length %.1f days", report.getAverageLeaseDays()));
+            System.out.println("Revenue: Rs " + report.getTotalRevenue() + " from " + report.getPaymentCount() + " payments");
+            double[] revenueByCar = report.getRevenueByCar();
+            for (int vehicleID = 0; vehicleID < revenueByCar.length; vehicleID++) {
+                if (revenueByCar[vehicleID] > 0) {
+                    System.out.println("  Car " + vehicleID + ": Rs " + revenueByCar[vehicleID]);
+                }
+            }
+            System.out.println("Top customers:");
+            int[] topCustomerIDs = report.getTopCustomerIDs();
+            for (int i = 0; i < topCustomerIDs.length; i++) {
+                System.out.println("  Customer " + topCustomerIDs[i] + ": Rs " + report.getTopCustomerRevenue()[i]);
+            }
+        }
     }
 